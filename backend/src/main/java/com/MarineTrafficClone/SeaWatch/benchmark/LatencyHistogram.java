@@ -0,0 +1,91 @@
+package com.MarineTrafficClone.SeaWatch.benchmark;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Ιστόγραμμα καθυστερήσεων (σε milliseconds) με σταθερή μνήμη, για τα εκατοστημόρια μιας μέτρησης φόρτου.
+ *
+ * Οι τιμές κάτω από {@value #LINEAR_LIMIT} ms έχουν δική τους κλάση· πάνω από αυτό κάθε δύναμη του 2 χωρίζεται σε
+ * {@value #SUB_BUCKETS} κλάσεις, οπότε το σχετικό σφάλμα ενός εκατοστημορίου είναι το πολύ 1/{@value #SUB_BUCKETS}
+ * (≈1.6%) για οποιαδήποτε καθυστέρηση. Η καταγραφή είναι lock-free και μπορεί να γίνεται από πολλά threads.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    /** Οι γραμμικές κλάσεις και 64 κλάσεις για κάθε δύναμη του 2 από το 2^7 έως το 2^62. */
+    private static final int BUCKETS = LINEAR_LIMIT + (63 - (SUB_BUCKET_BITS + 1)) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Καταγράφει μια καθυστέρηση. Οι αρνητικές τιμές (π.χ. από διόρθωση του ρολογιού) μετρούν ως 0.
+     */
+    public void record(long millis) {
+        long value = Math.max(0, millis);
+        counts.incrementAndGet(indexOf(value));
+        max.accumulate(value);
+    }
+
+    /**
+     * @return Το πλήθος των τιμών που καταγράφηκαν.
+     */
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return Η μεγαλύτερη τιμή που καταγράφηκε (0 χωρίς τιμές).
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile Το εκατοστημόριο, από 0 έως 100.
+     * @return Το άνω όριο της κλάσης στην οποία βρίσκεται το εκατοστημόριο (όχι μεγαλύτερο από το μέγιστο),
+     *         ή 0 χωρίς τιμές.
+     */
+    public long percentile(double percentile) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max());
+            }
+        }
+        return max();
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /** Η μεγαλύτερη τιμή που αντιστοιχεί στην κλάση {@code index}. */
+    static long upperBoundOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+}
@@ -0,0 +1,160 @@
+package com.MarineTrafficClone.SeaWatch.collision;
+
+import java.util.Arrays;
+
+/**
+ * Ένα πλοίο αναφοράς και οι υποψήφιοι για σύγκρουση με αυτό, σε πρωτογενείς πίνακες (structure of arrays).
+ * Οι συνιστώσες της ταχύτητας κάθε πλοίου υπολογίζονται μία φορά κατά την προσθήκη του,
+ * ώστε ο {@link CpaKernel} να κάνει μόνο πολλαπλασιασμούς και προσθέσεις ανά ζευγάρι.
+ *
+ * Δεν είναι thread-safe· κάθε thread χρησιμοποιεί το δικό του batch, το οποίο ξαναχρησιμοποιείται
+ * με {@link #reset(double, double, double, double)} ώστε να μη δεσμεύονται νέοι πίνακες σε κάθε μήνυμα.
+ */
+public final class CpaBatch {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private double ownLongitude;
+    private double ownLatitude;
+    private double ownVelocityX;
+    private double ownVelocityY;
+    private double ownCosLatitude;
+
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+    private double[] velocitiesX = new double[INITIAL_CAPACITY];
+    private double[] velocitiesY = new double[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private boolean[] danger = new boolean[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Ορίζει νέο πλοίο αναφοράς και αδειάζει τη λίστα των υποψηφίων.
+     *
+     * @param longitude          Γεωγραφικό μήκος του πλοίου αναφοράς.
+     * @param latitude           Γεωγραφικό πλάτος του πλοίου αναφοράς.
+     * @param speedOverGround    Ταχύτητα σε κόμβους.
+     * @param courseOverGround   Πορεία σε μοίρες.
+     */
+    public void reset(double longitude, double latitude, double speedOverGround, double courseOverGround) {
+        this.ownLongitude = longitude;
+        this.ownLatitude = latitude;
+        this.ownVelocityX = velocityX(speedOverGround, courseOverGround);
+        this.ownVelocityY = velocityY(speedOverGround, courseOverGround);
+        // Ο kernel πολλαπλασιάζει πρώτα με METERS_PER_DEGREE και μετά με το cos, με την ίδια σειρά
+        // πράξεων όπως ο αρχικός υπολογισμός, ώστε τα αποτελέσματα να είναι ίδια μέχρι το τελευταίο bit.
+        this.ownCosLatitude = Math.cos(Math.toRadians(latitude));
+        this.size = 0;
+    }
+
+    /**
+     * Προσθέτει έναν υποψήφιο.
+     *
+     * @param id Ένα αναγνωριστικό του υποψηφίου για τον καλούντα (π.χ. το slot του στον VesselStateStore).
+     * @return Ο δείκτης του υποψηφίου στο batch.
+     */
+    public int add(int id, double longitude, double latitude, double speedOverGround, double courseOverGround) {
+        if (size == longitudes.length) {
+            grow();
+        }
+        ids[size] = id;
+        longitudes[size] = longitude;
+        latitudes[size] = latitude;
+        velocitiesX[size] = velocityX(speedOverGround, courseOverGround);
+        velocitiesY[size] = velocityY(speedOverGround, courseOverGround);
+        danger[size] = false;
+        return size++;
+    }
+
+    private void grow() {
+        int capacity = longitudes.length * 2;
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        velocitiesX = Arrays.copyOf(velocitiesX, capacity);
+        velocitiesY = Arrays.copyOf(velocitiesY, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        danger = Arrays.copyOf(danger, capacity);
+    }
+
+    /**
+     * Συνιστώσα x (ανατολή) της ταχύτητας σε m/s.
+     */
+    public static double velocityX(double speedOverGround, double courseOverGround) {
+        return speedOverGround * CpaKernel.KNOTS_TO_METERS_PER_SECOND * Math.sin(Math.toRadians(courseOverGround));
+    }
+
+    /**
+     * Συνιστώσα y (βορράς) της ταχύτητας σε m/s.
+     */
+    public static double velocityY(double speedOverGround, double courseOverGround) {
+        return speedOverGround * CpaKernel.KNOTS_TO_METERS_PER_SECOND * Math.cos(Math.toRadians(courseOverGround));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Το αναγνωριστικό με το οποίο προστέθηκε ο υποψήφιος.
+     */
+    public int id(int index) {
+        return ids[index];
+    }
+
+    public double longitude(int index) {
+        return longitudes[index];
+    }
+
+    public double latitude(int index) {
+        return latitudes[index];
+    }
+
+    /**
+     * @return true αν ο υποψήφιος με τον δείκτη αυτό βρέθηκε σε πορεία σύγκρουσης στην τελευταία αξιολόγηση.
+     */
+    public boolean isDanger(int index) {
+        return danger[index];
+    }
+
+    // Πρόσβαση των kernels στα δεδομένα, χωρίς αντιγραφή.
+
+    double ownLongitude() {
+        return ownLongitude;
+    }
+
+    double ownLatitude() {
+        return ownLatitude;
+    }
+
+    double ownVelocityX() {
+        return ownVelocityX;
+    }
+
+    double ownVelocityY() {
+        return ownVelocityY;
+    }
+
+    double ownCosLatitude() {
+        return ownCosLatitude;
+    }
+
+    double[] longitudes() {
+        return longitudes;
+    }
+
+    double[] latitudes() {
+        return latitudes;
+    }
+
+    double[] velocitiesX() {
+        return velocitiesX;
+    }
+
+    double[] velocitiesY() {
+        return velocitiesY;
+    }
+
+    boolean[] danger() {
+        return danger;
+    }
+}
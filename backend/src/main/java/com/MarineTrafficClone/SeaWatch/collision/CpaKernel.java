@@ -0,0 +1,37 @@
+package com.MarineTrafficClone.SeaWatch.collision;
+
+/**
+ * Υπολογίζει το Closest Point of Approach (CPA) και τον χρόνο μέχρι αυτό (TCPA) ενός πλοίου
+ * αναφοράς απέναντι σε όλους τους υποψηφίους ενός {@link CpaBatch} με μία κλήση.
+ *
+ * Οι υλοποιήσεις πρέπει να δίνουν ακριβώς τα ίδια αποτελέσματα με τον αρχικό αλγόριθμο ανά ζευγάρι:
+ * ταχύτητα σε m/s = κόμβοι * 0.514444, 111111 μέτρα ανά μοίρα, κίνδυνος αν το CPA είναι κάτω από
+ * 500 μέτρα μέσα στα επόμενα 600 δευτερόλεπτα.
+ */
+public interface CpaKernel {
+
+    /** Μετατροπή κόμβων σε μέτρα/δευτερόλεπτο. */
+    double KNOTS_TO_METERS_PER_SECOND = 0.514444;
+
+    /** Απλοποιημένη μετατροπή μοιρών σε μέτρα (χωρίς προβολή). */
+    double METERS_PER_DEGREE = 111111;
+
+    /** Επικίνδυνη απόσταση στο CPA, σε μέτρα. */
+    double DANGER_DISTANCE_METERS = 500.0;
+
+    /** Χρονικός ορίζοντας πρόβλεψης, σε δευτερόλεπτα. */
+    double TIME_HORIZON_SECONDS = 600.0;
+
+    /**
+     * Υπολογίζει για κάθε υποψήφιο του batch αν βρίσκεται σε πορεία σύγκρουσης με το πλοίο αναφοράς.
+     * Τα αποτελέσματα γράφονται στο {@link CpaBatch#isDanger(int)}.
+     *
+     * @param batch Το πλοίο αναφοράς και οι υποψήφιοι.
+     */
+    void evaluate(CpaBatch batch);
+
+    /**
+     * @return Ένα σύντομο όνομα της υλοποίησης, για τα logs.
+     */
+    String name();
+}
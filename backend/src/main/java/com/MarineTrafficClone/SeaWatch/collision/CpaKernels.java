@@ -0,0 +1,62 @@
+package com.MarineTrafficClone.SeaWatch.collision;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Επιλέγει την υλοποίηση του {@link CpaKernel} κατά την εκκίνηση.
+ *
+ * Ο {@link VectorCpaKernel} χρησιμοποιείται μόνο όταν η JVM ξεκίνησε με {@code --add-modules jdk.incubator.vector}
+ * και η CPU έχει καταχωρητές SIMD με τουλάχιστον δύο double. Σε κάθε άλλη περίπτωση
+ * (ή με {@code collision.cpa-kernel=scalar}) χρησιμοποιείται ο {@link ScalarCpaKernel}.
+ */
+public final class CpaKernels {
+
+    private static final Logger log = LoggerFactory.getLogger(CpaKernels.class);
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private CpaKernels() {
+    }
+
+    /**
+     * @return true αν το Vector API είναι διαθέσιμο και ωφέλιμο σε αυτή τη JVM.
+     */
+    public static boolean isVectorApiAvailable() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return false;
+        }
+        try {
+            // Η κλάση του vector kernel αγγίζεται μόνο εδώ, αφού επιβεβαιωθεί ότι το module υπάρχει.
+            return VectorCpaKernel.lanes() >= 2;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Δημιουργεί τον kernel που αντιστοιχεί στη ρύθμιση.
+     *
+     * @param mode auto (ο ταχύτερος διαθέσιμος), vector (με fallback στον scalar αν δεν είναι διαθέσιμος) ή scalar.
+     * @return Ο kernel.
+     * @throws IllegalArgumentException αν η ρύθμιση δεν είναι έγκυρη.
+     */
+    public static CpaKernel select(String mode) {
+        CpaKernel kernel = switch (mode) {
+            case "scalar" -> new ScalarCpaKernel();
+            case "vector", "auto" -> {
+                if (isVectorApiAvailable()) {
+                    yield new VectorCpaKernel();
+                }
+                if ("vector".equals(mode)) {
+                    log.warn("Vector CPA kernel requested but the Vector API is not available (start the JVM with --add-modules {}). Falling back to the scalar kernel.",
+                            VECTOR_MODULE);
+                }
+                yield new ScalarCpaKernel();
+            }
+            default -> throw new IllegalArgumentException("Unknown CPA kernel '" + mode + "'. Expected auto, vector or scalar.");
+        };
+        log.info("Using {} CPA kernel for collision prediction.", kernel.name());
+        return kernel;
+    }
+}
@@ -0,0 +1,444 @@
+package com.MarineTrafficClone.SeaWatch.collision;
+
+import com.MarineTrafficClone.SeaWatch.store.VesselState;
+
+import java.util.Arrays;
+
+/**
+ * Kinetic προγραμματισμός των ελέγχων σύγκρουσης ανά ζευγάρι πλοίων.
+ *
+ * Όταν ένα ζευγάρι αξιολογείται και δεν είναι επικίνδυνο, υπολογίζεται πόσος χρόνος πρέπει να περάσει
+ * πριν μπορέσει να γίνει επικίνδυνο, με βάση τη σχετική κίνηση των δύο πλοίων (πότε το TCPA θα μπει
+ * στον χρονικό ορίζοντα) και την απόστασή τους σε σχέση με τη μέγιστη ταχύτητα προσέγγισης. Μέχρι τότε
+ * ο έλεγχος ανά μήνυμα παραλείπει το ζευγάρι, εκτός αν ένα από τα δύο πλοία άλλαξε πορεία ή ταχύτητα
+ * πάνω από τα όρια ή η θέση του αποκλίνει από αυτήν που προβλέπει η τελευταία κίνησή του.
+ *
+ * Το όριο είναι συντηρητικό: για κάθε ζευγάρι που παραλείπεται, ο {@link CpaKernel} θα έβρισκε ότι
+ * δεν είναι επικίνδυνο, οπότε οι ειδοποιήσεις είναι ίδιες με αυτές του ελέγχου όλων των ζευγαριών.
+ * Οι επιτρεπόμενες αποκλίσεις (πορεία, ταχύτητα, θέση, διαφορά στους χρόνους των στιγμάτων) μπαίνουν
+ * ως περιθώρια στην επικίνδυνη απόσταση. Ο χρόνος μετριέται με τις χρονοσφραγίδες των στιγμάτων·
+ * ένα ζευγάρι με στίγμα χωρίς χρονοσφραγίδα αξιολογείται πάντα.
+ *
+ * Τα ζευγάρια που έχουν αναβληθεί κρατιούνται σε μια ουρά προτεραιότητας με βάση τη στιγμή που θα
+ * χρειαστούν ξανά έλεγχο, από την οποία αφαιρούνται με {@link #expire(long)} όταν φτάσει η στιγμή αυτή.
+ * Για την αναζήτηση ανά ζευγάρι, τα ίδια ζευγάρια βρίσκονται σε ένα ευρετήριο ανοιχτής διευθυνσιοδότησης
+ * με κλειδί τον πρωτογενή {@code long} του ζευγαριού, ώστε ο έλεγχος ανά μήνυμα να μη δημιουργεί αντικείμενα.
+ */
+public final class KineticPairScheduler {
+
+    /** Περιθώριο (σε μέτρα) για τα σφάλματα στρογγυλοποίησης. */
+    private static final double ROUNDING_TOLERANCE_METERS = 1.0;
+
+    /**
+     * Μέγιστη σχετική μεταβολή του cos(πλάτους) του πλοίου αναφοράς από την αξιολόγηση, με την οποία
+     * ο kernel μετατρέπει το γεωγραφικό μήκος σε μέτρα. Αντιστοιχεί σε περίπου 6 km προς βορρά ή νότο.
+     */
+    private static final double MAX_PROJECTION_CHANGE = 1e-3;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final double courseThresholdDegrees;
+    private final double speedThresholdKnots;
+    private final double positionToleranceMeters;
+    private final double maxReportSkewSeconds;
+    private final double maxDeferralSeconds;
+    private final double speedThresholdMetersPerSecond;
+    private final double turnErrorFactor;
+
+    // Ευρετήριο κλειδί ζευγαριού -> ζευγάρι, με γραμμική αναζήτηση (linear probing). Περιέχει τα ίδια ζευγάρια με την ουρά.
+    private Entry[] table = new Entry[INITIAL_CAPACITY * 2];
+    private Entry[] heap = new Entry[INITIAL_CAPACITY];
+    private int heapSize;
+
+    private volatile long evaluatedPairs;
+    private volatile long deferredPairs;
+
+    /**
+     * @param courseThresholdDegrees  Αλλαγή πορείας (σε μοίρες) μετά την οποία ένα ζευγάρι αξιολογείται ξανά.
+     * @param speedThresholdKnots     Αλλαγή ταχύτητας (σε κόμβους) μετά την οποία ένα ζευγάρι αξιολογείται ξανά.
+     * @param positionToleranceMeters Επιτρεπόμενη απόκλιση της θέσης από την πρόβλεψη (θόρυβος GPS).
+     * @param maxReportSkewSeconds    Μέγιστη μεταβολή της διαφοράς των χρόνων των στιγμάτων των δύο πλοίων.
+     * @param maxDeferralSeconds      Μέγιστη αναβολή ενός ζευγαριού.
+     */
+    public KineticPairScheduler(double courseThresholdDegrees, double speedThresholdKnots, double positionToleranceMeters,
+                                double maxReportSkewSeconds, double maxDeferralSeconds) {
+        this.courseThresholdDegrees = courseThresholdDegrees;
+        this.speedThresholdKnots = speedThresholdKnots;
+        this.positionToleranceMeters = positionToleranceMeters;
+        this.maxReportSkewSeconds = maxReportSkewSeconds;
+        this.maxDeferralSeconds = maxDeferralSeconds;
+        this.speedThresholdMetersPerSecond = speedThresholdKnots * CpaKernel.KNOTS_TO_METERS_PER_SECOND;
+        // Μια στροφή κατά θ αλλάζει το διάνυσμα της ταχύτητας κατά το πολύ 2·v·sin(θ/2).
+        this.turnErrorFactor = 2 * Math.sin(Math.toRadians(courseThresholdDegrees) / 2);
+    }
+
+    /** Η κίνηση ενός πλοίου τη στιγμή που αξιολογήθηκε το ζευγάρι. */
+    private static final class Track {
+        double longitude;
+        double latitude;
+        double speed;
+        double course;
+        double velocityX;
+        double velocityY;
+        long timestamp;
+
+        void set(VesselState state) {
+            longitude = state.getLongitude();
+            latitude = state.getLatitude();
+            speed = state.getSpeedOverGround();
+            course = state.getCourseOverGround();
+            velocityX = CpaBatch.velocityX(speed, course);
+            velocityY = CpaBatch.velocityY(speed, course);
+            timestamp = state.getTimestampEpoch();
+        }
+    }
+
+    /** Ένα ζευγάρι που έχει αναβληθεί. Τα δύο πλοία κρατιούνται με τη σειρά των slots τους. */
+    private static final class Entry {
+        final long key;
+        final Track first = new Track();
+        final Track second = new Track();
+        double referenceLatitude;
+        double referenceCos;
+        /** Για πόσα δευτερόλεπτα από την αξιολόγηση μπορεί να παραλείπεται το ζευγάρι. */
+        double deferralSeconds;
+        /** Η στιγμή (epoch seconds) μετά την οποία το ζευγάρι αφαιρείται από την ουρά. */
+        long dueAt;
+        int heapIndex = -1;
+
+        Entry(long key) {
+            this.key = key;
+        }
+    }
+
+    // ----- Έλεγχος ανά μήνυμα -----
+
+    /**
+     * Ελέγχει αν ένα ζευγάρι πρέπει να αξιολογηθεί τώρα.
+     *
+     * @param own   Το πλοίο που μόλις έστειλε στίγμα (το πλοίο αναφοράς του kernel).
+     * @param other Ο υποψήφιος.
+     * @return false μόνο αν το ζευγάρι έχει αναβληθεί και είναι βέβαιο ότι δεν έχει γίνει επικίνδυνο.
+     */
+    public synchronized boolean isDue(VesselState own, VesselState other) {
+        Entry entry = find(pairKey(own.getSlot(), other.getSlot()));
+        if (entry == null || !canDefer(entry, own, other)) {
+            return true;
+        }
+        deferredPairs++;
+        return false;
+    }
+
+    private boolean canDefer(Entry entry, VesselState own, VesselState other) {
+        // Ο kernel μετατρέπει το μήκος σε μέτρα με το cos του πλάτους του πλοίου αναφοράς·
+        // το όριο ισχύει μόνο όσο αυτό δεν απέχει πολύ από εκείνο της αξιολόγησης (|Δcos| <= |Δφ|).
+        double latitudeChange = Math.abs(Math.toRadians(own.getLatitude() - entry.referenceLatitude));
+        if (!(latitudeChange <= MAX_PROJECTION_CHANGE * entry.referenceCos)) {
+            return false;
+        }
+        boolean ownFirst = own.getSlot() < other.getSlot();
+        double ownElapsed = elapsedOnTrack(ownFirst ? entry.first : entry.second, own, entry.referenceCos);
+        double otherElapsed = elapsedOnTrack(ownFirst ? entry.second : entry.first, other, entry.referenceCos);
+        if (ownElapsed < 0 || otherElapsed < 0) {
+            return false;
+        }
+        return Math.abs(ownElapsed - otherElapsed) <= maxReportSkewSeconds
+                && Math.min(ownElapsed, otherElapsed) < entry.deferralSeconds;
+    }
+
+    /**
+     * @return Τα δευτερόλεπτα από την αξιολόγηση, αν το πλοίο ακολουθεί ακόμη την κίνηση της αξιολόγησης,
+     *         αλλιώς -1.
+     */
+    private double elapsedOnTrack(Track track, VesselState current, double referenceCos) {
+        if (current.getTimestampEpoch() == VesselState.NO_TIMESTAMP) {
+            return -1;
+        }
+        double elapsed = current.getTimestampEpoch() - track.timestamp;
+        if (elapsed < 0 || !(Math.abs(current.getSpeedOverGround() - track.speed) <= speedThresholdKnots)) {
+            return -1;
+        }
+        double turn = Math.abs(current.getCourseOverGround() - track.course) % 360;
+        if (!(Math.min(turn, 360 - turn) <= courseThresholdDegrees)) {
+            return -1;
+        }
+        // Η θέση πρέπει να είναι κοντά στη θέση που προβλέπει η κίνηση της αξιολόγησης.
+        double errorX = (current.getLongitude() - track.longitude) * CpaKernel.METERS_PER_DEGREE * referenceCos
+                - track.velocityX * elapsed;
+        double errorY = (current.getLatitude() - track.latitude) * CpaKernel.METERS_PER_DEGREE
+                - track.velocityY * elapsed;
+        double allowed = positionToleranceMeters + velocityError(track.speed) * elapsed;
+        return errorX * errorX + errorY * errorY <= allowed * allowed ? elapsed : -1;
+    }
+
+    /**
+     * Καταγράφει το αποτέλεσμα της αξιολόγησης ενός ζευγαριού. Ένα ζευγάρι που δεν είναι επικίνδυνο
+     * αναβάλλεται, αν η απόσταση και η σχετική κίνησή του το επιτρέπουν.
+     *
+     * @param own    Το πλοίο αναφοράς, όπως αξιολογήθηκε.
+     * @param other  Ο υποψήφιος, όπως αξιολογήθηκε.
+     * @param danger Το αποτέλεσμα του kernel.
+     */
+    public synchronized void record(VesselState own, VesselState other, boolean danger) {
+        evaluatedPairs++;
+        long key = pairKey(own.getSlot(), other.getSlot());
+        Entry entry = find(key);
+        boolean hasTimestamps = own.getTimestampEpoch() != VesselState.NO_TIMESTAMP
+                && other.getTimestampEpoch() != VesselState.NO_TIMESTAMP;
+        double deferral = danger || !hasTimestamps ? 0 : deferralSeconds(own, other);
+        if (!(deferral > 0)) {
+            if (entry != null) {
+                removeEntry(entry);
+            }
+            return;
+        }
+
+        if (entry == null) {
+            entry = new Entry(key);
+            insert(entry);
+        }
+        boolean ownFirst = own.getSlot() < other.getSlot();
+        (ownFirst ? entry.first : entry.second).set(own);
+        (ownFirst ? entry.second : entry.first).set(other);
+        entry.referenceLatitude = own.getLatitude();
+        entry.referenceCos = Math.cos(Math.toRadians(own.getLatitude()));
+        entry.deferralSeconds = deferral;
+        entry.dueAt = Math.max(own.getTimestampEpoch(), other.getTimestampEpoch()) + (long) Math.ceil(deferral);
+        if (entry.heapIndex < 0) {
+            offer(entry);
+        } else {
+            siftUp(entry.heapIndex);
+            siftDown(entry.heapIndex);
+        }
+    }
+
+    /**
+     * Υπολογίζει για πόσα δευτερόλεπτα μπορεί να παραλείπεται ένα ζευγάρι που δεν είναι επικίνδυνο.
+     *
+     * Αν d είναι η σχετική θέση και w η σχετική ταχύτητα, το ζευγάρι γίνεται επικίνδυνο μόνο αν
+     * |d + w·x| πέσει κάτω από την επικίνδυνη απόσταση (συν τα περιθώρια) για κάποιο x μέσα στον ορίζοντα.
+     * Όσο περνά ο χρόνος οι αποκλίσεις στην ταχύτητα (ε) μπορούν να φέρουν τα πλοία ε·x πιο κοντά, οπότε
+     * αναζητείται το πρώτο x με |d + w·x| < R + ε·x. Ο χρόνος μέχρι τότε, μείον τον ορίζοντα, είναι η αναβολή.
+     * Για ε ίσο με το άθροισμα των ταχυτήτων το όριο γίνεται η απόσταση προς τη μέγιστη ταχύτητα προσέγγισης.
+     */
+    private double deferralSeconds(VesselState own, VesselState other) {
+        double referenceCos = Math.cos(Math.toRadians(own.getLatitude()));
+        double distanceX = (other.getLongitude() - own.getLongitude()) * CpaKernel.METERS_PER_DEGREE * referenceCos;
+        double distanceY = (other.getLatitude() - own.getLatitude()) * CpaKernel.METERS_PER_DEGREE;
+        double relativeVx = CpaBatch.velocityX(other.getSpeedOverGround(), other.getCourseOverGround())
+                - CpaBatch.velocityX(own.getSpeedOverGround(), own.getCourseOverGround());
+        double relativeVy = CpaBatch.velocityY(other.getSpeedOverGround(), other.getCourseOverGround())
+                - CpaBatch.velocityY(own.getSpeedOverGround(), own.getCourseOverGround());
+
+        double drift = velocityError(own.getSpeedOverGround()) + velocityError(other.getSpeedOverGround());
+        double maxSpeed = Math.max(own.getSpeedOverGround(), other.getSpeedOverGround()) * CpaKernel.KNOTS_TO_METERS_PER_SECOND;
+        double relativeSpeed = Math.sqrt(relativeVx * relativeVx + relativeVy * relativeVy);
+        // Η αλλαγή της προβολής επηρεάζει τη θέση αλλά όχι την ταχύτητα του kernel.
+        double projected = (CpaKernel.DANGER_DISTANCE_METERS
+                + MAX_PROJECTION_CHANGE * (relativeSpeed + drift) * CpaKernel.TIME_HORIZON_SECONDS)
+                / (1 - MAX_PROJECTION_CHANGE);
+        // Όταν τα στίγματα των δύο πλοίων απέχουν χρονικά διαφορετικά από την αξιολόγηση, το ένα έχει
+        // προχωρήσει περισσότερο από το άλλο· η διαφορά αυτή είναι το πολύ maxReportSkewSeconds.
+        double reach = projected + ROUNDING_TOLERANCE_METERS + 2 * positionToleranceMeters
+                + (maxSpeed + drift) * maxReportSkewSeconds;
+
+        double approach = firstApproach(distanceX, distanceY, relativeVx, relativeVy, reach, drift);
+        return Math.min(approach - CpaKernel.TIME_HORIZON_SECONDS, maxDeferralSeconds);
+    }
+
+    /**
+     * @return Το πρώτο x >= 0 με |d + w·x| < reach + drift·x, ή άπειρο αν δεν υπάρχει.
+     */
+    static double firstApproach(double distanceX, double distanceY, double relativeVx, double relativeVy,
+                                double reach, double drift) {
+        // |d + w·x|² - (reach + drift·x)² = a·x² + 2b·x + c
+        double c = distanceX * distanceX + distanceY * distanceY - reach * reach;
+        if (c <= 0) {
+            return 0;
+        }
+        double a = relativeVx * relativeVx + relativeVy * relativeVy - drift * drift;
+        double b = distanceX * relativeVx + distanceY * relativeVy - reach * drift;
+        double discriminant = b * b - a * c;
+        if (a > 0 && (b >= 0 || discriminant < 0)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        // Η μικρότερη θετική ρίζα, στη μορφή c / (-b + √Δ) που δεν χάνει ακρίβεια όταν το a είναι κοντά στο 0.
+        double denominator = -b + Math.sqrt(Math.max(discriminant, 0));
+        return denominator > 0 ? c / denominator : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Η μέγιστη απόκλιση (σε m/s) του διανύσματος της ταχύτητας ενός πλοίου χωρίς να ξεπεραστούν τα όρια.
+     */
+    private double velocityError(double speedKnots) {
+        return speedThresholdMetersPerSecond + turnErrorFactor * speedKnots * CpaKernel.KNOTS_TO_METERS_PER_SECOND;
+    }
+
+    // ----- Ουρά προτεραιότητας -----
+
+    /**
+     * Αφαιρεί τα ζευγάρια των οποίων η αναβολή έληξε, ώστε η ουρά να κρατά μόνο όσα μπορεί να παραλειφθούν.
+     *
+     * @param now Ο τρέχων χρόνος, σε epoch seconds (η χρονοσφραγίδα του τελευταίου στίγματος).
+     */
+    public synchronized void expire(long now) {
+        while (heapSize > 0 && heap[0].dueAt <= now) {
+            removeEntry(heap[0]);
+        }
+    }
+
+    /** Αφαιρεί όλα τα ζευγάρια. */
+    public synchronized void clear() {
+        Arrays.fill(table, null);
+        Arrays.fill(heap, 0, heapSize, null);
+        heapSize = 0;
+    }
+
+    private void offer(Entry entry) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+        heap[heapSize] = entry;
+        entry.heapIndex = heapSize;
+        heapSize++;
+        siftUp(entry.heapIndex);
+    }
+
+    private void removeEntry(Entry entry) {
+        removeFromTable(entry);
+        int index = entry.heapIndex;
+        entry.heapIndex = -1;
+        heapSize--;
+        Entry last = heap[heapSize];
+        heap[heapSize] = null;
+        if (index < heapSize) {
+            heap[index] = last;
+            last.heapIndex = index;
+            siftUp(index);
+            siftDown(last.heapIndex);
+        }
+    }
+
+    private void siftUp(int index) {
+        Entry entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].dueAt <= entry.dueAt) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(entry, index);
+    }
+
+    private void siftDown(int index) {
+        Entry entry = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heap[child + 1].dueAt < heap[child].dueAt) {
+                child++;
+            }
+            if (entry.dueAt <= heap[child].dueAt) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(entry, index);
+    }
+
+    private void place(Entry entry, int index) {
+        heap[index] = entry;
+        entry.heapIndex = index;
+    }
+
+    // ----- Ευρετήριο -----
+
+    private static int hash(long key) {
+        // Ο τελικός αναμείκτης του MurmurHash3, ώστε τα γειτονικά κλειδιά να μη συγκεντρώνονται.
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /** @return Το ζευγάρι με αυτό το κλειδί, ή null αν δεν έχει αναβληθεί. */
+    private Entry find(long key) {
+        int mask = table.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            Entry entry = table[i];
+            if (entry == null || entry.key == key) {
+                return entry;
+            }
+        }
+    }
+
+    /** Προσθέτει ένα ζευγάρι που δεν υπάρχει στο ευρετήριο, πριν μπει στην ουρά. */
+    private void insert(Entry entry) {
+        // Συντελεστής φόρτωσης το πολύ 0.5 (το ευρετήριο έχει όσα ζευγάρια και η ουρά).
+        if ((heapSize + 1) * 2 > table.length) {
+            Entry[] old = table;
+            table = new Entry[old.length * 2];
+            for (Entry existing : old) {
+                if (existing != null) {
+                    insertIntoTable(existing);
+                }
+            }
+        }
+        insertIntoTable(entry);
+    }
+
+    private void insertIntoTable(Entry entry) {
+        int mask = table.length - 1;
+        int i = hash(entry.key) & mask;
+        while (table[i] != null) {
+            i = (i + 1) & mask;
+        }
+        table[i] = entry;
+    }
+
+    private void removeFromTable(Entry entry) {
+        int mask = table.length - 1;
+        int i = hash(entry.key) & mask;
+        while (table[i] != entry) {
+            i = (i + 1) & mask;
+        }
+        // Μετακινούμε προς τα πίσω τα επόμενα ζευγάρια της ίδιας αλυσίδας, ώστε να μη χρειάζονται "tombstones".
+        for (int j = (i + 1) & mask; table[j] != null; j = (j + 1) & mask) {
+            int home = hash(table[j].key) & mask;
+            boolean homeBetween = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (!homeBetween) {
+                table[i] = table[j];
+                i = j;
+            }
+        }
+        table[i] = null;
+    }
+
+    private static long pairKey(int slotA, int slotB) {
+        return slotA < slotB ? ((long) slotA << 32) | slotB : ((long) slotB << 32) | slotA;
+    }
+
+    // ----- Μετρικές -----
+
+    /** @return Ο αριθμός των ζευγαριών που έχουν αναβληθεί αυτή τη στιγμή. */
+    public synchronized int size() {
+        return heapSize;
+    }
+
+    /** @return Πόσες φορές αξιολογήθηκε ένα ζευγάρι από τον kernel. */
+    public long getEvaluatedPairs() {
+        return evaluatedPairs;
+    }
+
+    /** @return Πόσες φορές παραλείφθηκε ένα ζευγάρι επειδή είχε αναβληθεί. */
+    public long getDeferredPairs() {
+        return deferredPairs;
+    }
+}
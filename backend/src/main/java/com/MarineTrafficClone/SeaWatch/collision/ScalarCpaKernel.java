@@ -0,0 +1,61 @@
+package com.MarineTrafficClone.SeaWatch.collision;
+
+/**
+ * Απλή υλοποίηση του {@link CpaKernel} με έναν βρόχο ανά υποψήφιο.
+ * Χρησιμοποιείται όταν το Vector API δεν είναι διαθέσιμο και για την ουρά των batches
+ * που δεν γεμίζουν ένα ολόκληρο vector.
+ */
+public final class ScalarCpaKernel implements CpaKernel {
+
+    @Override
+    public void evaluate(CpaBatch batch) {
+        evaluateRange(batch, 0, batch.size());
+    }
+
+    /**
+     * Αξιολογεί τους υποψηφίους στο διάστημα [from, to).
+     */
+    static void evaluateRange(CpaBatch batch, int from, int to) {
+        double ownLongitude = batch.ownLongitude();
+        double ownLatitude = batch.ownLatitude();
+        double ownVelocityX = batch.ownVelocityX();
+        double ownVelocityY = batch.ownVelocityY();
+        double ownCosLatitude = batch.ownCosLatitude();
+        double[] longitudes = batch.longitudes();
+        double[] latitudes = batch.latitudes();
+        double[] velocitiesX = batch.velocitiesX();
+        double[] velocitiesY = batch.velocitiesY();
+        boolean[] danger = batch.danger();
+
+        for (int i = from; i < to; i++) {
+            double distanceX = (longitudes[i] - ownLongitude) * METERS_PER_DEGREE * ownCosLatitude;
+            double distanceY = (latitudes[i] - ownLatitude) * METERS_PER_DEGREE;
+
+            // Σχετική ταχύτητα
+            double relativeVx = velocitiesX[i] - ownVelocityX;
+            double relativeVy = velocitiesY[i] - ownVelocityY;
+
+            double dotVD = relativeVx * distanceX + relativeVy * distanceY;
+            double dotVV = relativeVx * relativeVx + relativeVy * relativeVy;
+            if (dotVV == 0) {
+                // Χωρίς σχετική ταχύτητα δεν θα συγκρουστούν ποτέ.
+                danger[i] = false;
+                continue;
+            }
+
+            double tCpa = -dotVD / dotVV;
+            if (tCpa > 0 && tCpa < TIME_HORIZON_SECONDS) {
+                double cpaX = distanceX + relativeVx * tCpa;
+                double cpaY = distanceY + relativeVy * tCpa;
+                danger[i] = Math.sqrt(cpaX * cpaX + cpaY * cpaY) < DANGER_DISTANCE_METERS;
+            } else {
+                danger[i] = false;
+            }
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
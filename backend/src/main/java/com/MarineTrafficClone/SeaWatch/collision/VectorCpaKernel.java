@@ -0,0 +1,79 @@
+package com.MarineTrafficClone.SeaWatch.collision;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Υλοποίηση του {@link CpaKernel} με το (incubating) Vector API: αξιολογεί τόσους υποψηφίους
+ * ταυτόχρονα όσα double χωράει ένας καταχωρητής SIMD της CPU. Η ουρά του batch αξιολογείται
+ * από τον {@link ScalarCpaKernel}.
+ *
+ * Όλες οι πράξεις γίνονται ανά lane με τη σειρά του scalar αλγορίθμου (χωρίς FMA), οπότε τα αποτελέσματα
+ * είναι ίδια με εκείνον. Η κλάση φορτώνεται μόνο όταν το module {@code jdk.incubator.vector} είναι
+ * διαθέσιμο (βλ. {@link CpaKernels}).
+ */
+public final class VectorCpaKernel implements CpaKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void evaluate(CpaBatch batch) {
+        int size = batch.size();
+        double[] longitudes = batch.longitudes();
+        double[] latitudes = batch.latitudes();
+        double[] velocitiesX = batch.velocitiesX();
+        double[] velocitiesY = batch.velocitiesY();
+        boolean[] danger = batch.danger();
+
+        DoubleVector ownLongitude = DoubleVector.broadcast(SPECIES, batch.ownLongitude());
+        DoubleVector ownLatitude = DoubleVector.broadcast(SPECIES, batch.ownLatitude());
+        DoubleVector ownVelocityX = DoubleVector.broadcast(SPECIES, batch.ownVelocityX());
+        DoubleVector ownVelocityY = DoubleVector.broadcast(SPECIES, batch.ownVelocityY());
+        DoubleVector ownCosLatitude = DoubleVector.broadcast(SPECIES, batch.ownCosLatitude());
+
+        int upperBound = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            DoubleVector distanceX = DoubleVector.fromArray(SPECIES, longitudes, i)
+                    .sub(ownLongitude).mul(METERS_PER_DEGREE).mul(ownCosLatitude);
+            DoubleVector distanceY = DoubleVector.fromArray(SPECIES, latitudes, i)
+                    .sub(ownLatitude).mul(METERS_PER_DEGREE);
+
+            DoubleVector relativeVx = DoubleVector.fromArray(SPECIES, velocitiesX, i).sub(ownVelocityX);
+            DoubleVector relativeVy = DoubleVector.fromArray(SPECIES, velocitiesY, i).sub(ownVelocityY);
+
+            DoubleVector dotVD = relativeVx.mul(distanceX).add(relativeVy.mul(distanceY));
+            DoubleVector dotVV = relativeVx.mul(relativeVx).add(relativeVy.mul(relativeVy));
+
+            // Στα lanes με μηδενική σχετική ταχύτητα η διαίρεση δίνει NaN ή άπειρο· η μάσκα τα αποκλείει ρητά.
+            VectorMask<Double> moving = dotVV.compare(VectorOperators.NE, 0.0);
+            DoubleVector tCpa = dotVD.neg().div(dotVV);
+            VectorMask<Double> inHorizon = moving
+                    .and(tCpa.compare(VectorOperators.GT, 0.0))
+                    .and(tCpa.compare(VectorOperators.LT, TIME_HORIZON_SECONDS));
+
+            DoubleVector cpaX = distanceX.add(relativeVx.mul(tCpa));
+            DoubleVector cpaY = distanceY.add(relativeVy.mul(tCpa));
+            DoubleVector cpaDistance = cpaX.mul(cpaX).add(cpaY.mul(cpaY)).lanewise(VectorOperators.SQRT);
+
+            inHorizon.and(cpaDistance.compare(VectorOperators.LT, DANGER_DISTANCE_METERS))
+                    .intoArray(danger, i);
+        }
+
+        ScalarCpaKernel.evaluateRange(batch, i, size);
+    }
+
+    /**
+     * @return Πόσοι υποψήφιοι αξιολογούνται σε κάθε βήμα του βρόχου.
+     */
+    public static int lanes() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public String name() {
+        return "vector(" + SPECIES.length() + "x double)";
+    }
+}
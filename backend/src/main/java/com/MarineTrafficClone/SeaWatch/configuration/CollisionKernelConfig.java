@@ -0,0 +1,49 @@
+package com.MarineTrafficClone.SeaWatch.configuration;
+
+import com.MarineTrafficClone.SeaWatch.collision.CpaKernel;
+import com.MarineTrafficClone.SeaWatch.collision.CpaKernels;
+import com.MarineTrafficClone.SeaWatch.collision.KineticPairScheduler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Κλάση διαμόρφωσης για τον kernel πρόβλεψης συγκρούσεων (CPA/TCPA).
+ * Η επιλογή ανάμεσα στην υλοποίηση με το Vector API και τη scalar γίνεται μία φορά κατά την εκκίνηση.
+ * Ορίζει επίσης τον kinetic προγραμματισμό των ελέγχων ανά ζευγάρι πλοίων και τις μετρικές του.
+ */
+@Configuration
+public class CollisionKernelConfig {
+
+    @Bean
+    public CpaKernel cpaKernel(@Value("${collision.cpa-kernel:auto}") String mode) {
+        return CpaKernels.select(mode);
+    }
+
+    @Bean
+    public KineticPairScheduler kineticPairScheduler(MeterRegistry meterRegistry,
+                                                     @Value("${collision.kinetic.course-threshold-deg:5}") double courseThresholdDegrees,
+                                                     @Value("${collision.kinetic.speed-threshold-knots:1}") double speedThresholdKnots,
+                                                     @Value("${collision.kinetic.position-tolerance-m:50}") double positionToleranceMeters,
+                                                     @Value("${collision.kinetic.max-report-skew-s:30}") double maxReportSkewSeconds,
+                                                     @Value("${collision.kinetic.max-deferral-s:600}") double maxDeferralSeconds) {
+        KineticPairScheduler scheduler = new KineticPairScheduler(courseThresholdDegrees, speedThresholdKnots,
+                positionToleranceMeters, maxReportSkewSeconds, maxDeferralSeconds);
+
+        FunctionCounter.builder("seawatch.collision.pairs", scheduler, KineticPairScheduler::getEvaluatedPairs)
+                .description("Ship pairs evaluated by the CPA kernel in the per-message check")
+                .tag("result", "evaluated")
+                .register(meterRegistry);
+        FunctionCounter.builder("seawatch.collision.pairs", scheduler, KineticPairScheduler::getDeferredPairs)
+                .description("Ship pairs skipped in the per-message check because their re-check was not due")
+                .tag("result", "deferred")
+                .register(meterRegistry);
+        Gauge.builder("seawatch.collision.kinetic.scheduled", scheduler, KineticPairScheduler::size)
+                .description("Ship pairs currently deferred by the kinetic scheduler")
+                .register(meterRegistry);
+        return scheduler;
+    }
+}
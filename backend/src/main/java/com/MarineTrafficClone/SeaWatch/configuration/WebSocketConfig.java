@@ -2,21 +2,32 @@ package com.MarineTrafficClone.SeaWatch.configuration;
 
 
 import com.MarineTrafficClone.SeaWatch.security.JwtChannelInterceptor;
+import com.MarineTrafficClone.SeaWatch.websocket.CompressionNegotiatingHandshakeHandler;
+import com.MarineTrafficClone.SeaWatch.websocket.OutboundQueueDecoratorFactory;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * Κλάση διαμόρφωσης για τα WebSockets.
  * Ενεργοποιεί τον message broker για την επικοινωνία σε πραγματικό χρόνο
  * μεταξύ του server και των clients, χρησιμοποιώντας το πρωτόκολλο STOMP πάνω από WebSocket.
+ *
+ * Ο broker επιλέγεται με το {@code websocket.broker.mode}:
+ * - {@code simple} (προεπιλογή): ο in-memory broker του Spring, όλα τα sessions ζουν σε αυτό το JVM.
+ * - {@code relay}: η κίνηση των /topic και /queue περνά από έναν εξωτερικό STOMP broker (π.χ. ActiveMQ, RabbitMQ),
+ *   ώστε να μπορούν να τρέχουν πολλοί κόμβοι πίσω από load balancer. Το μητρώο χρηστών και τα μηνύματα
+ *   προς χρήστες που είναι συνδεδεμένοι σε άλλο κόμβο διαμοιράζονται μέσω των broadcast topics του broker.
  */
 @Configuration
 @EnableWebSocketMessageBroker
@@ -25,6 +36,51 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtChannelInterceptor jwtChannelInterceptor; // Κάνουμε inject τον interceptor μας
 
+    private final OutboundQueueDecoratorFactory outboundQueueDecoratorFactory;
+
+    /** Topic στο οποίο κάθε κόμβος δημοσιεύει το τοπικό του μητρώο χρηστών (μόνο σε λειτουργία relay). */
+    public static final String USER_REGISTRY_BROADCAST = "/topic/simp-user-registry";
+    /** Topic για μηνύματα προς χρήστες που δεν είναι συνδεδεμένοι στον τοπικό κόμβο (μόνο σε λειτουργία relay). */
+    public static final String USER_DESTINATION_BROADCAST = "/topic/unresolved-user-destination";
+
+    /** Τα origins του frontend που επιτρέπεται να συνδεθούν στα WebSocket endpoints. */
+    private static final String[] ALLOWED_ORIGIN_PATTERNS = {
+            "http://localhost:5173",
+            "https://localhost:5173",
+            "http://127.0.0.1:5173",
+            "https://127.0.0.1:5173"
+    };
+
+    @Value("${websocket.native.compression.enabled:true}")
+    private boolean nativeCompressionEnabled;
+
+    @Value("${websocket.native.compression.no-context-takeover:false}")
+    private boolean nativeCompressionNoContextTakeover;
+
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${websocket.broker.relay.client-login:guest}")
+    private String relayClientLogin;
+
+    @Value("${websocket.broker.relay.client-passcode:guest}")
+    private String relayClientPasscode;
+
+    @Value("${websocket.broker.relay.system-login:guest}")
+    private String relaySystemLogin;
+
+    @Value("${websocket.broker.relay.system-passcode:guest}")
+    private String relaySystemPasscode;
+
     private ThreadPoolTaskScheduler taskScheduler;
 
     /**
@@ -50,15 +106,47 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue")
-                .setTaskScheduler(this.taskScheduler) // Ορίζουμε τον scheduler για τα heartbeats
-                // Ο server θα στέλνει heartbeats κάθε 10 δευτ.
-                // Ο client πρέπει να στέλνει τουλάχιστον κάθε 10 δευτ.
-                .setHeartbeatValue(new long[]{20000, 20000});
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            configureBrokerRelay(config);
+        } else if ("simple".equalsIgnoreCase(brokerMode)) {
+            config.enableSimpleBroker("/topic", "/queue")
+                    .setTaskScheduler(this.taskScheduler) // Ορίζουμε τον scheduler για τα heartbeats
+                    // Ο server θα στέλνει heartbeats κάθε 10 δευτ.
+                    // Ο client πρέπει να στέλνει τουλάχιστον κάθε 10 δευτ.
+                    .setHeartbeatValue(new long[]{20000, 20000});
+        } else {
+            throw new IllegalStateException("Unknown websocket.broker.mode '" + brokerMode + "'. Expected 'simple' or 'relay'.");
+        }
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
 
+    /**
+     * Διαμορφώνει το relay προς τον εξωτερικό STOMP broker.
+     * Κάθε session ενός client αντιστοιχεί σε μια σύνδεση προς τον broker (client login), ενώ τα μηνύματα
+     * που στέλνει η εφαρμογή (π.χ. μέσω του SimpMessagingTemplate) περνούν από την κοινή "system" σύνδεση.
+     * Τα δύο broadcast topics επιτρέπουν την επίλυση των /user destinations μεταξύ κόμβων.
+     *
+     * @param config Το registry του message broker.
+     */
+    private void configureBrokerRelay(MessageBrokerRegistry config) {
+        StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(relayHost)
+                .setRelayPort(relayPort)
+                .setClientLogin(relayClientLogin)
+                .setClientPasscode(relayClientPasscode)
+                .setSystemLogin(relaySystemLogin)
+                .setSystemPasscode(relaySystemPasscode)
+                // Ίδιο διάστημα heartbeats με τον simple broker.
+                .setSystemHeartbeatSendInterval(20000)
+                .setSystemHeartbeatReceiveInterval(20000)
+                .setUserRegistryBroadcast(USER_REGISTRY_BROADCAST)
+                .setUserDestinationBroadcast(USER_DESTINATION_BROADCAST);
+        if (!relayVirtualHost.isBlank()) {
+            relay.setVirtualHost(relayVirtualHost);
+        }
+    }
+
     /**
      * Καταχωρεί τα STOMP endpoints, τα οποία οι clients θα χρησιμοποιήσουν για να συνδεθούν
      * στον WebSocket server.
@@ -68,14 +156,18 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws-ais")
                 // .setAllowedOriginPatterns("*")
-                .setAllowedOriginPatterns(
-                        "http://localhost:5173",
-                        "https://localhost:5173",
-                        "http://127.0.0.1:5173",
-                        "https://127.0.0.1:5173"
-                )
+                .setAllowedOriginPatterns(ALLOWED_ORIGIN_PATTERNS)
                 .withSockJS()
                 .setTaskScheduler(this.taskScheduler);
+        // Native WebSocket endpoint (χωρίς το framing του SockJS) για clients που υποστηρίζουν WebSocket,
+        // με διαπραγμάτευση του permessage-deflate για συμπίεση των frames.
+        registry.addEndpoint("/ws-ais-native")
+                .setAllowedOriginPatterns(ALLOWED_ORIGIN_PATTERNS)
+                .setHandshakeHandler(new CompressionNegotiatingHandshakeHandler(
+                        nativeCompressionEnabled, nativeCompressionNoContextTakeover));
+        // Διατηρούμε τη σειρά των εισερχόμενων μηνυμάτων κάθε session, ώστε ένα SUBSCRIBE
+        // στο /topic/ais-updates να έχει καταχωρηθεί πριν εξυπηρετηθεί το αίτημα snapshot που ακολουθεί.
+        registry.setPreserveReceiveOrder(true);
     }
 
     /**
@@ -90,6 +182,18 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registration.interceptors(jwtChannelInterceptor);
     }
 
+    /**
+     * Τυλίγει κάθε WebSocket session σε μια φραγμένη ουρά εξερχομένων που συγχωνεύει τις θέσεις ανά MMSI.
+     * Έτσι ένας αργός client δεν μπλοκάρει τα threads αποστολής των υπολοίπων και, αν δεν μπορεί
+     * να ακολουθήσει, αποσυνδέεται αντί να συσσωρεύει μνήμη.
+     *
+     * @param registration Το registration του WebSocket transport.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.addDecoratorFactory(outboundQueueDecoratorFactory);
+    }
+
     /**
      * Διαμορφώνει τα heartbeats για τα websockets.
      * Ο server και ο client θα στέλνουν heartbeats
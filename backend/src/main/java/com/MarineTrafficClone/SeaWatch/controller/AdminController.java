@@ -1,15 +1,19 @@
 package com.MarineTrafficClone.SeaWatch.controller;
 
+import com.MarineTrafficClone.SeaWatch.dto.BenchmarkReportDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ReplaySeekRequestDTO;
 import com.MarineTrafficClone.SeaWatch.dto.ShipDetailsDTO;
 import com.MarineTrafficClone.SeaWatch.dto.ShipTypeUpdateRequest;
 import com.MarineTrafficClone.SeaWatch.dto.SimulationSpeedUpdateRequestDTO;
 import com.MarineTrafficClone.SeaWatch.service.AdminService;
+import com.MarineTrafficClone.SeaWatch.service.BenchmarkService;
 import com.MarineTrafficClone.SeaWatch.service.SimulationControlService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,11 +28,14 @@ public class AdminController {
 
     private final AdminService adminService;
     private final SimulationControlService simulationControlService;
+    private final BenchmarkService benchmarkService;
 
     @Autowired
-    public AdminController(AdminService adminService, SimulationControlService simulationControlService) {
+    public AdminController(AdminService adminService, SimulationControlService simulationControlService,
+                           BenchmarkService benchmarkService) {
         this.adminService = adminService;
         this.simulationControlService = simulationControlService;
+        this.benchmarkService = benchmarkService;
     }
 
     /**
@@ -59,11 +66,20 @@ public class AdminController {
 
     /**
      * Endpoint για την ανάκτηση της τρέχουσας ταχύτητας προσομοίωσης.
+     * Όταν η αναπαραγωγή έχει μετρήσει τον ρυθμό της, περιλαμβάνει και τον πραγματικό παράγοντα ταχύτητας
+     * και την καθυστέρηση των τελευταίων εγγραφών σε σχέση με το χρονοδιάγραμμα.
      * @return Ένα ResponseEntity που περιέχει την τρέχουσα ταχύτητα.
      */
     @GetMapping("/simulation/speed")
     public ResponseEntity<Map<String, Double>> getSimulationSpeed() {
-        return ResponseEntity.ok(Map.of("speedFactor", simulationControlService.getSpeedFactor()));
+        Map<String, Double> speed = new LinkedHashMap<>();
+        speed.put("speedFactor", simulationControlService.getSpeedFactor());
+        double actualSpeedFactor = simulationControlService.getActualSpeedFactor();
+        if (!Double.isNaN(actualSpeedFactor)) {
+            speed.put("actualSpeedFactor", actualSpeedFactor);
+            speed.put("lagMillis", (double) simulationControlService.getLagMillis());
+        }
+        return ResponseEntity.ok(speed);
     }
 
     /**
@@ -76,4 +92,94 @@ public class AdminController {
         simulationControlService.setSpeedFactor(request.getNewSpeedFactor());
         return ResponseEntity.ok(Map.of("message", "Simulation speed updated to " + request.getNewSpeedFactor() + "x."));
     }
-}
\ No newline at end of file
+
+    /**
+     * Endpoint για την κατάσταση της αναπαραγωγής: αν είναι σε παύση ή σε λειτουργία firehose και τη χρονοσφραγίδα
+     * των τελευταίων εγγραφών που στάλθηκαν (αν έχουν σταλεί).
+     * @return Ένα ResponseEntity που περιέχει την κατάσταση της αναπαραγωγής.
+     */
+    @GetMapping("/simulation/replay")
+    public ResponseEntity<Map<String, Object>> getReplayState() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("paused", simulationControlService.isPaused());
+        state.put("firehose", simulationControlService.isFirehose());
+        Long position = simulationControlService.getReplayPosition();
+        if (position != null) {
+            state.put("positionEpoch", position);
+        }
+        return ResponseEntity.ok(state);
+    }
+
+    /**
+     * Endpoint για τη μετάβαση της αναπαραγωγής σε μια χρονοσφραγίδα (προς τα εμπρός ή προς τα πίσω).
+     * Η μετάβαση εφαρμόζεται ασύγχρονα από το thread της αναπαραγωγής.
+     * @param request Το DTO που περιέχει τη χρονοσφραγίδα (epoch σε δευτερόλεπτα).
+     * @return Ένα ResponseEntity που επιβεβαιώνει την αίτηση.
+     */
+    @PostMapping("/simulation/replay/seek")
+    public ResponseEntity<Map<String, String>> seekReplay(@Valid @RequestBody ReplaySeekRequestDTO request) {
+        simulationControlService.requestSeek(request.getEpoch());
+        return ResponseEntity.ok(Map.of("message", "Replay will continue from epoch " + request.getEpoch() + "."));
+    }
+
+    /**
+     * Endpoint για την παύση της αναπαραγωγής.
+     * @return Ένα ResponseEntity που επιβεβαιώνει την αλλαγή.
+     */
+    @PostMapping("/simulation/replay/pause")
+    public ResponseEntity<Map<String, String>> pauseReplay() {
+        simulationControlService.pause();
+        return ResponseEntity.ok(Map.of("message", "Replay paused."));
+    }
+
+    /**
+     * Endpoint για τη συνέχιση της αναπαραγωγής από το σημείο όπου σταμάτησε.
+     * @return Ένα ResponseEntity που επιβεβαιώνει την αλλαγή.
+     */
+    @PostMapping("/simulation/replay/resume")
+    public ResponseEntity<Map<String, String>> resumeReplay() {
+        simulationControlService.resume();
+        return ResponseEntity.ok(Map.of("message", "Replay resumed."));
+    }
+
+    /**
+     * Endpoint για την επανεκκίνηση της αναπαραγωγής από την αρχή του αρχείου.
+     * @return Ένα ResponseEntity που επιβεβαιώνει την αίτηση.
+     */
+    @PostMapping("/simulation/replay/restart")
+    public ResponseEntity<Map<String, String>> restartReplay() {
+        simulationControlService.requestRestart();
+        return ResponseEntity.ok(Map.of("message", "Replay will restart from the beginning."));
+    }
+
+    /**
+     * Endpoint για την έναρξη μιας μέτρησης φόρτου: η αναπαραγωγή ξεκινά από την αρχή και στέλνει τα δεδομένα
+     * όσο γρήγορα τα δέχεται ο producer, χωρίς χρονοδιάγραμμα.
+     * @return Ένα ResponseEntity που επιβεβαιώνει την έναρξη.
+     */
+    @PostMapping("/simulation/benchmark/start")
+    public ResponseEntity<Map<String, String>> startBenchmark() {
+        benchmarkService.start();
+        return ResponseEntity.ok(Map.of("message", "Firehose benchmark started from the beginning of the replay."));
+    }
+
+    /**
+     * Endpoint για τον τερματισμό της μέτρησης φόρτου που τρέχει· η αναπαραγωγή επιστρέφει στο χρονοδιάγραμμα.
+     * @return Ένα ResponseEntity που επιβεβαιώνει τον τερματισμό.
+     */
+    @PostMapping("/simulation/benchmark/stop")
+    public ResponseEntity<Map<String, String>> stopBenchmark() {
+        benchmarkService.stop();
+        return ResponseEntity.ok(Map.of("message", "Firehose benchmark stopped."));
+    }
+
+    /**
+     * Endpoint για την αναφορά της τρέχουσας ή της τελευταίας μέτρησης φόρτου: ρυθμοί, εκατοστημόρια καθυστέρησης
+     * ανά στάδιο και η καθυστέρηση του consumer στη διάρκειά της.
+     * @return Ένα ResponseEntity που περιέχει την αναφορά.
+     */
+    @GetMapping("/simulation/benchmark")
+    public ResponseEntity<BenchmarkReportDTO> getBenchmarkReport() {
+        return ResponseEntity.ok(benchmarkService.getReport());
+    }
+}
@@ -1,14 +1,19 @@
 package com.MarineTrafficClone.SeaWatch.controller;
 
 import com.MarineTrafficClone.SeaWatch.dto.CollisionZoneDTO;
+import com.MarineTrafficClone.SeaWatch.dto.GeoPointDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ZoneOccupancyDTO;
 import com.MarineTrafficClone.SeaWatch.model.CollisionZone;
 import com.MarineTrafficClone.SeaWatch.model.UserEntity;
 import com.MarineTrafficClone.SeaWatch.service.CollisionZoneService;
+import com.MarineTrafficClone.SeaWatch.service.ZoneOccupancyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.stream.Collectors;
+
 /**
  * REST Controller για τη διαχείριση της μοναδικής ζώνης παρακολούθησης συγκρούσεων (Collision Zone)
  * που μπορεί να ορίσει ένας εγγεγραμμένος χρήστης.
@@ -18,10 +23,12 @@ import org.springframework.web.bind.annotation.*;
 public class CollisionZoneController {
 
     private final CollisionZoneService collisionZoneService;
+    private final ZoneOccupancyService zoneOccupancyService;
 
     @Autowired
-    public CollisionZoneController(CollisionZoneService collisionZoneService) {
+    public CollisionZoneController(CollisionZoneService collisionZoneService, ZoneOccupancyService zoneOccupancyService) {
         this.collisionZoneService = collisionZoneService;
+        this.zoneOccupancyService = zoneOccupancyService;
     }
 
     /**
@@ -54,6 +61,21 @@ public class CollisionZoneController {
         return ResponseEntity.ok(convertToDto(updatedZone));
     }
 
+    /**
+     * Endpoint για τα πλοία που βρίσκονται αυτή τη στιγμή μέσα στη ζώνη σύγκρουσης του τρέχοντος χρήστη.
+     *
+     * @param currentUser Ο τρέχων αυθεντικοποιημένος χρήστης.
+     * @return Ένα ResponseEntity με τον αριθμό και τα MMSI των πλοίων (ZoneOccupancyDTO) και status 200 OK,
+     *         ή status 404 Not Found αν ο χρήστης δεν έχει ορίσει ζώνη.
+     */
+    @GetMapping("/mine/occupancy")
+    public ResponseEntity<ZoneOccupancyDTO> getMyZoneOccupancy(@AuthenticationPrincipal UserEntity currentUser) {
+        return collisionZoneService.getZoneForUser(currentUser.getId())
+                .flatMap(zone -> zoneOccupancyService.getCollisionZoneOccupancy(zone.getId()))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     /**
      * Endpoint για τη διαγραφή της ζώνης σύγκρουσης του τρέχοντος χρήστη.
      *
@@ -81,6 +103,10 @@ public class CollisionZoneController {
         dto.setCenterLatitude(zone.getCenterLatitude());
         dto.setCenterLongitude(zone.getCenterLongitude());
         dto.setRadiusInMeters(zone.getRadiusInMeters());
+        dto.setShape(zone.getShape());
+        dto.setVertices(zone.getVertices().stream()
+                .map(v -> new GeoPointDTO(v.getLatitude(), v.getLongitude()))
+                .collect(Collectors.toList()));
         return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.MarineTrafficClone.SeaWatch.controller;
+
+import com.MarineTrafficClone.SeaWatch.dto.ShipClusterResponseDTO;
+import com.MarineTrafficClone.SeaWatch.service.ShipClusterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller για τα clusters πλοίων του χάρτη.
+ * Σε χαμηλά επίπεδα zoom ο χάρτης ζητά clusters αντί για δεκάδες χιλιάδες μεμονωμένα πλοία.
+ */
+@RestController
+@RequestMapping("/api/ship-data")
+public class ShipClusterController {
+
+    private final ShipClusterService shipClusterService;
+
+    @Autowired
+    public ShipClusterController(ShipClusterService shipClusterService) {
+        this.shipClusterService = shipClusterService;
+    }
+
+    /**
+     * Endpoint για την ανάκτηση των clusters πλοίων ενός viewport.
+     * Από το κατώφλι zoom και πάνω επιστρέφει τα μεμονωμένα πλοία του viewport (clustered == false).
+     *
+     * @param zoom   Το επίπεδο zoom του χάρτη.
+     * @param minLat Το νότιο όριο του viewport.
+     * @param minLon Το δυτικό όριο του viewport (μπορεί να είναι μεγαλύτερο από το maxLon αν διασχίζει τον αντιμεσημβρινό).
+     * @param maxLat Το βόρειο όριο του viewport.
+     * @param maxLon Το ανατολικό όριο του viewport.
+     * @return Ένα ResponseEntity με τα clusters ή τα πλοία του viewport και status 200 OK.
+     */
+    @GetMapping("/clusters")
+    public ResponseEntity<ShipClusterResponseDTO> getClusters(@RequestParam int zoom,
+                                                              @RequestParam(defaultValue = "-90") double minLat,
+                                                              @RequestParam(defaultValue = "-180") double minLon,
+                                                              @RequestParam(defaultValue = "90") double maxLat,
+                                                              @RequestParam(defaultValue = "180") double maxLon) {
+        return ResponseEntity.ok(shipClusterService.getClusters(zoom, minLat, minLon, maxLat, maxLon));
+    }
+}
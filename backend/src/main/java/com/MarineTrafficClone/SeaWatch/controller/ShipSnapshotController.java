@@ -0,0 +1,34 @@
+package com.MarineTrafficClone.SeaWatch.controller;
+
+import com.MarineTrafficClone.SeaWatch.service.ShipSnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+/**
+ * STOMP Controller για τη χειραψία (handshake) του αρχικού snapshot.
+ * Ένας client στέλνει ένα μήνυμα στο /app/ais-snapshot αφού έχει κάνει subscribe
+ * στο /topic/ais-updates και στο /user/queue/ais-snapshot, και λαμβάνει την τρέχουσα
+ * κατάσταση όλων των πλοίων σε chunks.
+ */
+@Controller
+public class ShipSnapshotController {
+
+    private final ShipSnapshotService shipSnapshotService;
+
+    @Autowired
+    public ShipSnapshotController(ShipSnapshotService shipSnapshotService) {
+        this.shipSnapshotService = shipSnapshotService;
+    }
+
+    /**
+     * Χειρίζεται ένα αίτημα snapshot από έναν client.
+     *
+     * @param headerAccessor Τα headers του εισερχόμενου μηνύματος, από τα οποία παίρνουμε το session ID.
+     */
+    @MessageMapping("/ais-snapshot")
+    public void requestSnapshot(SimpMessageHeaderAccessor headerAccessor) {
+        shipSnapshotService.sendSnapshot(headerAccessor.getSessionId());
+    }
+}
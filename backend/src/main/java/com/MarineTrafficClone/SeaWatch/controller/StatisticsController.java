@@ -1,5 +1,6 @@
 package com.MarineTrafficClone.SeaWatch.controller;
 
+import com.MarineTrafficClone.SeaWatch.dto.StatisticsSnapshotDTO;
 import com.MarineTrafficClone.SeaWatch.service.StatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -24,6 +25,17 @@ public class StatisticsController {
         this.statisticsService = statisticsService;
     }
 
+    /**
+     * Επιστρέφει όλα τα στατιστικά σε ένα στιγμιότυπο. Το ίδιο στιγμιότυπο στέλνεται περιοδικά
+     * στο {@code /topic/statistics}, οπότε οι clients το καλούν μία φορά και στη συνέχεια ακούν το topic.
+     *
+     * @return Ένα ResponseEntity με το {@link StatisticsSnapshotDTO} και status 200 OK.
+     */
+    @GetMapping
+    public ResponseEntity<StatisticsSnapshotDTO> getStatisticsSnapshot() {
+        return ResponseEntity.ok(statisticsService.getStatisticsSnapshot());
+    }
+
     /**
      * Επιστρέφει τον συνολικό αριθμό των πλοίων που είναι "ενεργά" στο σύστημα,
      * δηλαδή τα πλοία για τα οποία έχουμε λάβει τουλάχιστον ένα στίγμα AIS.
@@ -0,0 +1,55 @@
+package com.MarineTrafficClone.SeaWatch.controller;
+
+import com.MarineTrafficClone.SeaWatch.service.ShipTileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST Controller που σερβίρει τις θέσεις των πλοίων ως Mapbox Vector Tiles.
+ * Το layer του χάρτη φορτώνει μόνο τα tiles του viewport, σε συμπαγή και cacheable μορφή,
+ * αντί για έναν μεγάλο πίνακα JSON με όλα τα πλοία.
+ */
+@RestController
+@RequestMapping("/tiles")
+public class VectorTileController {
+
+    public static final MediaType MVT_MEDIA_TYPE = MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+
+    private final ShipTileService shipTileService;
+
+    @Autowired
+    public VectorTileController(ShipTileService shipTileService) {
+        this.shipTileService = shipTileService;
+    }
+
+    /**
+     * Endpoint για την ανάκτηση ενός vector tile με τα πλοία (layer "ships").
+     * Κάθε feature έχει attributes mmsi, shiptype, heading και sog.
+     *
+     * @param z Το επίπεδο zoom του tile.
+     * @param x Η στήλη του tile (σχήμα XYZ).
+     * @param y Η γραμμή του tile (σχήμα XYZ).
+     * @return Ένα ResponseEntity με τα bytes του tile και status 200 OK, ή 400 Bad Request για μη έγκυρο tile.
+     */
+    @GetMapping("/ships/{z}/{x}/{y}.mvt")
+    public ResponseEntity<byte[]> getShipTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        byte[] tile;
+        try {
+            tile = shipTileService.getTile(z, x, y);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MVT_MEDIA_TYPE)
+                .cacheControl(CacheControl.maxAge(shipTileService.getTileTtlSeconds(), TimeUnit.SECONDS).cachePublic())
+                .body(tile);
+    }
+}
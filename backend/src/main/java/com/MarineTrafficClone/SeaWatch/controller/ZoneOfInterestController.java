@@ -1,10 +1,13 @@
 package com.MarineTrafficClone.SeaWatch.controller;
 
+import com.MarineTrafficClone.SeaWatch.dto.GeoPointDTO;
 import com.MarineTrafficClone.SeaWatch.dto.ZoneConstraintDTO;
 import com.MarineTrafficClone.SeaWatch.dto.ZoneOfInterestDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ZoneOccupancyDTO;
 import com.MarineTrafficClone.SeaWatch.model.UserEntity;
 import com.MarineTrafficClone.SeaWatch.model.ZoneOfInterest;
 import com.MarineTrafficClone.SeaWatch.service.ZoneOfInterestService;
+import com.MarineTrafficClone.SeaWatch.service.ZoneOccupancyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -21,10 +24,12 @@ import java.util.stream.Collectors;
 public class ZoneOfInterestController {
 
     private final ZoneOfInterestService zoneService;
+    private final ZoneOccupancyService zoneOccupancyService;
 
     @Autowired
-    public ZoneOfInterestController(ZoneOfInterestService zoneService) {
+    public ZoneOfInterestController(ZoneOfInterestService zoneService, ZoneOccupancyService zoneOccupancyService) {
         this.zoneService = zoneService;
+        this.zoneOccupancyService = zoneOccupancyService;
     }
 
     /**
@@ -56,6 +61,21 @@ public class ZoneOfInterestController {
         return ResponseEntity.ok(convertToDto(updatedZone));
     }
 
+    /**
+     * Endpoint για τα πλοία που βρίσκονται αυτή τη στιγμή μέσα στη ζώνη ενδιαφέροντος του τρέχοντος χρήστη.
+     *
+     * @param currentUser Ο τρέχων αυθεντικοποιημένος χρήστης.
+     * @return Ένα ResponseEntity με τον αριθμό και τα MMSI των πλοίων (ZoneOccupancyDTO) και status 200 OK,
+     *         ή status 404 Not Found αν ο χρήστης δεν έχει ορίσει ζώνη.
+     */
+    @GetMapping("/mine/occupancy")
+    public ResponseEntity<ZoneOccupancyDTO> getMyZoneOccupancy(@AuthenticationPrincipal UserEntity currentUser) {
+        return zoneService.getZoneForUser(currentUser.getId())
+                .flatMap(zone -> zoneOccupancyService.getInterestZoneOccupancy(zone.getId()))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     /**
      * Endpoint για τη διαγραφή της ζώνης ενδιαφέροντος του τρέχοντος χρήστη.
      *
@@ -82,6 +102,10 @@ public class ZoneOfInterestController {
         dto.setCenterLatitude(zone.getCenterLatitude());
         dto.setCenterLongitude(zone.getCenterLongitude());
         dto.setRadiusInMeters(zone.getRadiusInMeters());
+        dto.setShape(zone.getShape());
+        dto.setVertices(zone.getVertices().stream()
+                .map(v -> new GeoPointDTO(v.getLatitude(), v.getLongitude()))
+                .collect(Collectors.toList()));
         // Μετατροπή και της λίστας των περιορισμών (ZoneConstraint) σε λίστα από DTOs.
         dto.setConstraints(zone.getConstraints().stream().map(c -> {
             ZoneConstraintDTO cDto = new ZoneConstraintDTO();
@@ -0,0 +1,46 @@
+package com.MarineTrafficClone.SeaWatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) με την αναφορά μιας μέτρησης φόρτου (firehose).
+ * Επιστρέφεται από το {@code GET /api/admin/simulation/benchmark}, και όσο η μέτρηση τρέχει.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BenchmarkReportDTO {
+
+    /** Η κατάσταση της μέτρησης: IDLE (δεν έχει ξεκινήσει καμία), RUNNING ή COMPLETED. */
+    private String status;
+    /** Η στιγμή έναρξης (Unix epoch σε milliseconds). */
+    private Long startedAt;
+    /** Η διάρκεια μέχρι να επεξεργαστεί ο consumer και το τελευταίο μήνυμα (ή μέχρι τώρα), σε δευτερόλεπτα. */
+    private double durationSeconds;
+    /** Η διάρκεια της παραγωγής (ή μέχρι τώρα, αν δεν έχει τελειώσει), σε δευτερόλεπτα. */
+    private double productionSeconds;
+    /** Τα μηνύματα που δόθηκαν στον producer. */
+    private long produced;
+    /** Τα μηνύματα που χάθηκαν στην αποστολή. */
+    private long failed;
+    /** Τα μηνύματα της μέτρησης που παρέλαβε ο consumer. */
+    private long consumed;
+    /** Ο ρυθμός της παραγωγής, σε μηνύματα ανά δευτερόλεπτο. */
+    private double produceThroughput;
+    /** Ο ρυθμός από άκρο σε άκρο: μηνύματα που δημοσιεύτηκαν στους clients ανά δευτερόλεπτο της μέτρησης. */
+    private double endToEndThroughput;
+    /** Καθυστέρηση από την παραγωγή μέχρι την παραλαβή από τον consumer. */
+    private LatencyPercentilesDTO consumeLatency;
+    /** Καθυστέρηση από την παραγωγή μέχρι την αποθήκευση στη βάση. */
+    private LatencyPercentilesDTO persistLatency;
+    /** Καθυστέρηση από την παραγωγή μέχρι τη δημοσίευση μέσω WebSocket. */
+    private LatencyPercentilesDTO publishLatency;
+    /** Η καθυστέρηση του consumer (μηνύματα που παράχθηκαν και δεν έχουν παραληφθεί) στη διάρκεια της μέτρησης. */
+    private List<LagSampleDTO> consumerLag;
+}
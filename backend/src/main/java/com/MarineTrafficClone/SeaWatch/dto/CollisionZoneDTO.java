@@ -1,10 +1,13 @@
 package com.MarineTrafficClone.SeaWatch.dto;
 
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneShape;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * Data Transfer Object (DTO) για την αναπαράσταση μιας ζώνης παρακολούθησης συγκρούσεων (Collision Zone).
  * Χρησιμοποιείται για την επικοινωνία μεταξύ του frontend και του backend
@@ -29,4 +32,10 @@ public class CollisionZoneDTO {
 
     /** Η ακτίνα της ζώνης σε μέτρα. */
     private Double radiusInMeters;
+
+    /** Το σχήμα της ζώνης (CIRCLE αν λείπει). */
+    private ZoneShape shape;
+
+    /** Οι κορυφές μιας πολυγωνικής ζώνης, με τη σειρά του περιγράμματος. Για πολύγωνα, το κέντρο και η ακτίνα υπολογίζονται από αυτές. */
+    private List<GeoPointDTO> vertices;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.MarineTrafficClone.SeaWatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) για ένα γεωγραφικό σημείο, π.χ. μια κορυφή μιας πολυγωνικής ζώνης.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoPointDTO {
+    /** Το γεωγραφικό πλάτος (latitude) του σημείου. */
+    private double latitude;
+
+    /** Το γεωγραφικό μήκος (longitude) του σημείου. */
+    private double longitude;
+}
@@ -0,0 +1,21 @@
+package com.MarineTrafficClone.SeaWatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) για μία μέτρηση της καθυστέρησης του consumer στη διάρκεια μιας μέτρησης φόρτου.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LagSampleDTO {
+
+    /** Ο χρόνος από την έναρξη της μέτρησης, σε milliseconds. */
+    private long elapsedMillis;
+    /** Τα μηνύματα που παράχθηκαν και δεν έχουν παραληφθεί από τον consumer. */
+    private long lag;
+}
@@ -0,0 +1,25 @@
+package com.MarineTrafficClone.SeaWatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) με τα εκατοστημόρια μιας καθυστέρησης, σε milliseconds.
+ * Κάθε εκατοστημόριο έχει σχετικό σφάλμα έως περίπου 1.6%.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LatencyPercentilesDTO {
+
+    /** Το πλήθος των μετρήσεων. */
+    private long count;
+    private long p50;
+    private long p90;
+    private long p99;
+    private long p999;
+    private long max;
+}
@@ -38,4 +38,11 @@ public class RealTimeShipUpdateDTO {
 
     /** Ο τύπος του πλοίου (π.χ., Cargo, Tanker). */
     private ShipType shiptype;
+
+    /**
+     * Ο αύξων αριθμός (sequence) της ενημέρωσης, όπως τον ανέθεσε η {@code ShipPositionCacheService}.
+     * Είναι γνησίως αύξων για όλο το σύστημα και χρησιμοποιείται από τους clients για να συνδυάσουν
+     * το αρχικό snapshot με τις ζωντανές ενημερώσεις χωρίς κενά ή διπλοεγγραφές.
+     */
+    private Long sequence;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.MarineTrafficClone.SeaWatch.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) για τη μετάβαση της αναπαραγωγής σε μια χρονοσφραγίδα από έναν admin.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplaySeekRequestDTO {
+    @NotNull(message = "Epoch is required.")
+    @PositiveOrZero(message = "Epoch must not be negative.")
+    private Long epoch;
+}
@@ -0,0 +1,25 @@
+package com.MarineTrafficClone.SeaWatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) για ένα cluster πλοίων σε ένα συγκεκριμένο επίπεδο zoom.
+ * Αντιστοιχεί σε ένα κελί του πλέγματος clustering και περιέχει το πλήθος των πλοίων
+ * του κελιού και το κέντρο βάρους (centroid) των θέσεών τους.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipClusterDTO {
+
+    /** Το γεωγραφικό πλάτος του centroid του cluster. */
+    private double latitude;
+    /** Το γεωγραφικό μήκος του centroid του cluster. */
+    private double longitude;
+    /** Το πλήθος των πλοίων του cluster. */
+    private int count;
+}
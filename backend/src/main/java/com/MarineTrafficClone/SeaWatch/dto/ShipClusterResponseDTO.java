@@ -0,0 +1,29 @@
+package com.MarineTrafficClone.SeaWatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) με την απάντηση του endpoint clustering για ένα viewport.
+ * Σε χαμηλά επίπεδα zoom περιέχει clusters, ενώ από το κατώφλι και πάνω
+ * περιέχει τα μεμονωμένα πλοία του viewport.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipClusterResponseDTO {
+
+    /** Το επίπεδο zoom στο οποίο αναφέρεται η απάντηση. */
+    private int zoom;
+    /** true αν η απάντηση περιέχει clusters, false αν περιέχει μεμονωμένα πλοία. */
+    private boolean clustered;
+    /** Τα clusters του viewport (κενή λίστα όταν clustered == false). */
+    private List<ShipClusterDTO> clusters;
+    /** Τα μεμονωμένα πλοία του viewport (κενή λίστα όταν clustered == true). */
+    private List<RealTimeShipUpdateDTO> ships;
+}
@@ -0,0 +1,29 @@
+package com.MarineTrafficClone.SeaWatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) για τη ζωντανή ενημέρωση των clusters ενός tile.
+ * Στέλνεται στο {@code /topic/ais-clusters/{z}/{x}/{y}} και αντικαθιστά πλήρως
+ * τα clusters που είχε ο client για το συγκεκριμένο tile (κενή λίστα σημαίνει ότι το tile άδειασε).
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipClusterTileDTO {
+
+    /** Το επίπεδο zoom του tile. */
+    private int z;
+    /** Η στήλη (x) του tile στο σχήμα XYZ. */
+    private int x;
+    /** Η γραμμή (y) του tile στο σχήμα XYZ. */
+    private int y;
+    /** Τα clusters που βρίσκονται μέσα στο tile. */
+    private List<ShipClusterDTO> clusters;
+}
@@ -0,0 +1,41 @@
+package com.MarineTrafficClone.SeaWatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) για ένα τμήμα (chunk) του αρχικού snapshot της κατάστασης των πλοίων.
+ * Ένας client που μόλις συνδέθηκε:
+ * 1. Κάνει subscribe στο /topic/ais-updates και κρατά (buffer) τις ενημερώσεις που λαμβάνει.
+ * 2. Κάνει subscribe στο /user/queue/ais-snapshot και στέλνει ένα μήνυμα στο /app/ais-snapshot.
+ * 3. Όταν λάβει όλα τα chunks (totalChunks), εφαρμόζει τις αποθηκευμένες και όλες τις επόμενες ζωντανές
+ *    ενημερώσεις των οποίων το sequence είναι μεγαλύτερο από αυτό της εγγραφής του ίδιου πλοίου.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShipSnapshotChunkDTO {
+
+    /** Μοναδικό αναγνωριστικό του snapshot, κοινό για όλα τα chunks του. */
+    private String snapshotId;
+
+    /**
+     * Το high-water mark του snapshot. Κάθε ενημέρωση με sequence μικρότερο ή ίσο από αυτό
+     * περιλαμβάνεται ήδη στο snapshot, οπότε ο client χρειάζεται μόνο τις ζωντανές ενημερώσεις μετά από αυτό.
+     */
+    private long highWaterMark;
+
+    /** Η θέση του chunk στο snapshot (ξεκινώντας από το 0). */
+    private int chunkIndex;
+
+    /** Ο συνολικός αριθμός των chunks του snapshot. */
+    private int totalChunks;
+
+    /** Οι ενημερώσεις των πλοίων που περιέχει αυτό το chunk. */
+    private List<RealTimeShipUpdateDTO> ships;
+}
@@ -0,0 +1,26 @@
+package com.MarineTrafficClone.SeaWatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) για μία κλάση του ιστογράμματος ταχυτήτων.
+ * Η κλάση καλύπτει ταχύτητες στο διάστημα (minKnots, maxKnots]. Η πρώτη κλάση περιλαμβάνει και το 0,
+ * η τελευταία δεν έχει άνω όριο (maxKnots == null) και τα πλοία χωρίς γνωστή ταχύτητα έχουν δική τους κλάση
+ * (minKnots == maxKnots == null).
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SpeedHistogramBucketDTO {
+
+    /** Το κάτω όριο της κλάσης σε κόμβους. */
+    private Double minKnots;
+    /** Το άνω όριο της κλάσης σε κόμβους. */
+    private Double maxKnots;
+    /** Το πλήθος των πλοίων της κλάσης. */
+    private long count;
+}
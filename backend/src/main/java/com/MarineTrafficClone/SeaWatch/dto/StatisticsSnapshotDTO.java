@@ -0,0 +1,35 @@
+package com.MarineTrafficClone.SeaWatch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) με ένα στιγμιότυπο όλων των στατιστικών του συστήματος.
+ * Στέλνεται περιοδικά στο {@code /topic/statistics} και επιστρέφεται από το {@code GET /api/statistics}.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatisticsSnapshotDTO {
+
+    /** Η χρονική στιγμή δημιουργίας του στιγμιότυπου (Unix epoch σε milliseconds). */
+    private long generatedAt;
+    /** Το πλήθος των ενεργών πλοίων (πλοία με τουλάχιστον ένα στίγμα AIS). */
+    private long activeShips;
+    /** Το πλήθος των πλοίων με ταχύτητα μικρότερη ή ίση από 1 κόμβο. */
+    private long stoppedShips;
+    /** Το πλήθος των ενεργών ζωνών ενδιαφέροντος. */
+    private int interestZones;
+    /** Το πλήθος των ενεργών ζωνών παρακολούθησης σύγκρουσης. */
+    private int collisionZones;
+    /** Το πλήθος των ενεργών πλοίων ανά τύπο (με κλειδί την τιμή JSON του τύπου, π.χ. "cargo"). */
+    private Map<String, Long> shipsByType;
+    /** Το ιστόγραμμα ταχυτήτων των ενεργών πλοίων. */
+    private List<SpeedHistogramBucketDTO> speedHistogram;
+}
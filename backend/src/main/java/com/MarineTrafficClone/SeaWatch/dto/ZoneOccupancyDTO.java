@@ -0,0 +1,36 @@
+package com.MarineTrafficClone.SeaWatch.dto;
+
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneKind;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) με τα πλοία που βρίσκονται αυτή τη στιγμή μέσα σε μια ζώνη ενός χρήστη.
+ * Επιστρέφεται από το REST API (με τη λίστα των MMSI) και στέλνεται στον ιδιοκτήτη της ζώνης
+ * μέσω WebSocket όταν αλλάζει ο αριθμός των πλοίων (μόνο με τον αριθμό).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ZoneOccupancyDTO {
+    /** Η χρονική στιγμή της μέτρησης. */
+    private Instant timestamp;
+
+    /** Το ID της ζώνης. */
+    private Long zoneId;
+    /** Το όνομα της ζώνης. */
+    private String zoneName;
+    /** Το είδος της ζώνης (ζώνη ενδιαφέροντος ή ζώνη σύγκρουσης). */
+    private ZoneKind zoneKind;
+
+    /** Ο αριθμός των πλοίων μέσα στη ζώνη. */
+    private int shipCount;
+    /** Τα MMSI των πλοίων μέσα στη ζώνη (null στις ενημερώσεις μέσω WebSocket). */
+    private List<String> mmsis;
+}
@@ -1,5 +1,6 @@
 package com.MarineTrafficClone.SeaWatch.dto;
 
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneShape;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -32,6 +33,12 @@ public class ZoneOfInterestDTO {
     /** Η ακτίνα της ζώνης σε μέτρα. */
     private Double radiusInMeters;
 
+    /** Το σχήμα της ζώνης (CIRCLE αν λείπει). */
+    private ZoneShape shape;
+
+    /** Οι κορυφές μιας πολυγωνικής ζώνης, με τη σειρά του περιγράμματος. Για πολύγωνα, το κέντρο και η ακτίνα υπολογίζονται από αυτές. */
+    private List<GeoPointDTO> vertices;
+
     /** Μια λίστα με τους περιορισμούς (constraints) που ισχύουν για αυτή τη ζώνη. */
     private List<ZoneConstraintDTO> constraints;
 }
\ No newline at end of file
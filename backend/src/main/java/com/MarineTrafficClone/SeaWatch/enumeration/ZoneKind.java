@@ -0,0 +1,12 @@
+package com.MarineTrafficClone.SeaWatch.enumeration;
+
+/**
+ * Enumeration που ορίζει το είδος μιας ζώνης ενός χρήστη.
+ */
+public enum ZoneKind {
+    /** Ζώνη ενδιαφέροντος, με περιορισμούς για τα πλοία που βρίσκονται μέσα της. */
+    INTEREST,
+
+    /** Ζώνη παρακολούθησης συγκρούσεων. */
+    COLLISION
+}
@@ -0,0 +1,12 @@
+package com.MarineTrafficClone.SeaWatch.enumeration;
+
+/**
+ * Enumeration που ορίζει το γεωμετρικό σχήμα μιας ζώνης (ζώνη ενδιαφέροντος ή ζώνη σύγκρουσης).
+ */
+public enum ZoneShape {
+    /** Κυκλική ζώνη, που ορίζεται από κέντρο και ακτίνα σε μέτρα. */
+    CIRCLE,
+
+    /** Πολυγωνική ζώνη, που ορίζεται από τις κορυφές του περιγράμματός της (π.χ. προσέγγιση λιμανιού, σύστημα διαχωρισμού κυκλοφορίας). */
+    POLYGON
+}
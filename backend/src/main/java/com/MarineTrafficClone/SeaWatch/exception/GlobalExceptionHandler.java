@@ -48,6 +48,26 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Διαχειρίζεται τις εξαιρέσεις {@link InvalidZoneGeometryException} και {@link InvalidZoneConstraintException}.
+     * Αυτές προκαλούνται όταν η γεωμετρία ή ένας περιορισμός μιας ζώνης που στάλθηκε από τον client δεν είναι έγκυρος.
+     *
+     * @param ex Η εξαίρεση που συνέβη.
+     * @param request Το web request.
+     * @return Ένα ResponseEntity με status 400 BAD_REQUEST και ένα σώμα JSON που περιγράφει το σφάλμα.
+     */
+    @ExceptionHandler({InvalidZoneGeometryException.class, InvalidZoneConstraintException.class})
+    public ResponseEntity<Object> handleInvalidZoneDefinition(RuntimeException ex, WebRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Bad Request");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Διαχειρίζεται την εξαίρεση {@link DataIntegrityViolationException}.
      * Αυτή συνήθως προκαλείται από παραβιάσεις περιορισμών της βάσης δεδομένων,
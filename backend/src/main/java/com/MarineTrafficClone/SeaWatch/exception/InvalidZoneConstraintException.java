@@ -0,0 +1,17 @@
+package com.MarineTrafficClone.SeaWatch.exception;
+
+/**
+ * Μια προσαρμοσμένη (custom) RuntimeException που σηματοδοτεί ότι η τιμή ενός περιορισμού ζώνης
+ * δεν είναι έγκυρη για τον τύπο του (π.χ. "fast" ως όριο ταχύτητας ή άγνωστος τύπος πλοίου).
+ * Η διαχείρισή της γίνεται κεντρικά από το {@link GlobalExceptionHandler}, που επιστρέφει 400 Bad Request.
+ */
+public class InvalidZoneConstraintException extends RuntimeException {
+
+  /**
+   * Constructor που δέχεται ένα μήνυμα σφάλματος.
+   * @param message Το μήνυμα που περιγράφει το σφάλμα (π.χ., "Invalid value 'fast' for SPEED_LIMIT_ABOVE").
+   */
+  public InvalidZoneConstraintException(String message) {
+    super(message);
+  }
+}
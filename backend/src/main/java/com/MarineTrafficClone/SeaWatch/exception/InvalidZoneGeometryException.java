@@ -0,0 +1,17 @@
+package com.MarineTrafficClone.SeaWatch.exception;
+
+/**
+ * Μια προσαρμοσμένη (custom) RuntimeException που σηματοδοτεί ότι η γεωμετρία μιας ζώνης
+ * που έστειλε ο client δεν είναι έγκυρη (π.χ. πολύγωνο με λιγότερες από 3 κορυφές ή μηδενικό εμβαδόν).
+ * Η διαχείρισή της γίνεται κεντρικά από το {@link GlobalExceptionHandler}, που επιστρέφει 400 Bad Request.
+ */
+public class InvalidZoneGeometryException extends RuntimeException {
+
+  /**
+   * Constructor που δέχεται ένα μήνυμα σφάλματος.
+   * @param message Το μήνυμα που περιγράφει το σφάλμα (π.χ., "A polygon needs at least 3 distinct vertices").
+   */
+  public InvalidZoneGeometryException(String message) {
+    super(message);
+  }
+}
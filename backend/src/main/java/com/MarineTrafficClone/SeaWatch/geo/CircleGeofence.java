@@ -0,0 +1,150 @@
+package com.MarineTrafficClone.SeaWatch.geo;
+
+/**
+ * Μια κυκλική ζώνη (κέντρο και ακτίνα) με προϋπολογισμένα όλα τα μεγέθη που δεν εξαρτώνται από το σημείο:
+ * το κέντρο σε ακτίνια, το συνημίτονο του πλάτους του κέντρου και ένα πλαίσιο (bounding box) πλάτους/μήκους.
+ *
+ * Ο έλεγχος {@link #contains(double, double)} γίνεται σε τρία στάδια:
+ * <ol>
+ *     <li>Απόρριψη με το πλαίσιο, με δύο συγκρίσεις και χωρίς τριγωνομετρικές συναρτήσεις.</li>
+ *     <li>Ισορθογώνια (equirectangular) προσέγγιση με τετράγωνα αποστάσεων. Χρησιμοποιεί το μικρότερο και το
+ *         μεγαλύτερο συνημίτονο πλάτους μέσα στο πλαίσιο, οπότε δίνει ένα κάτω και ένα άνω φράγμα της
+ *         πραγματικής απόστασης και αποφασίζει όταν το σημείο είναι καθαρά μέσα ή καθαρά έξω.</li>
+ *     <li>Μόνο κοντά στο όριο υπολογίζεται ο τύπος Haversine, ακριβώς όπως υπολογιζόταν πριν.</li>
+ * </ol>
+ * Το αποτέλεσμα είναι το ίδιο με τον πλήρη υπολογισμό Haversine για κάθε σημείο.
+ *
+ * Τα αντικείμενα είναι αμετάβλητα (immutable) και μπορούν να μοιράζονται ελεύθερα μεταξύ threads.
+ */
+public final class CircleGeofence implements Geofence {
+
+    /** Ακτίνα της Γης σε μέτρα, ίδια με αυτήν των ελέγχων ζωνών. */
+    static final int EARTH_RADIUS_METERS = 6371 * 1000;
+
+    /**
+     * Σχετικό περιθώριο γύρω από την ακτίνα μέσα στο οποίο η προσέγγιση δεν αποφασίζει.
+     * Για τις γωνίες όπου ενεργοποιείται η προσέγγιση (βλ. {@link #MAX_APPROXIMATION_ANGLE}), το σχετικό
+     * σφάλμα των sin x ≈ x και asin x ≈ x είναι το πολύ x²/6 ≈ 4e-4, μικρότερο από το περιθώριο.
+     */
+    private static final double BOUNDARY_MARGIN = 1e-3;
+
+    /**
+     * Η μεγαλύτερη γωνία (σε ακτίνια, περίπου 2.9°) ως την οποία τα μισά των διαφορών πλάτους/μήκους
+     * θεωρούνται αρκετά μικρά για την ισορθογώνια προσέγγιση. Μεγαλύτερες ζώνες (ή ζώνες κοντά στους πόλους)
+     * χρησιμοποιούν μόνο το πλαίσιο και τον Haversine.
+     */
+    private static final double MAX_APPROXIMATION_ANGLE = 0.05;
+
+    private final double centerLatitude;
+    private final double centerLongitude;
+    private final double radiusInMeters;
+
+    private final double centerCosLatitude;
+
+    private final double minLatitude;
+    private final double maxLatitude;
+    /** Η μέγιστη απόλυτη διαφορά μήκους σε μοίρες, ή +∞ αν το πλαίσιο περιέχει πόλο. */
+    private final double maxLongitudeDelta;
+
+    private final boolean approximationEnabled;
+    private final double minCosLatitudeSquared;
+    private final double maxCosLatitudeSquared;
+    /** (r·(1-ε) / R)²: κάτω από αυτό (άνω φράγμα) το σημείο είναι σίγουρα μέσα. */
+    private final double innerThresholdSquared;
+    /** (r·(1+ε) / R)²: πάνω από αυτό (κάτω φράγμα) το σημείο είναι σίγουρα έξω. */
+    private final double outerThresholdSquared;
+
+    public CircleGeofence(double centerLatitude, double centerLongitude, double radiusInMeters) {
+        this.centerLatitude = centerLatitude;
+        this.centerLongitude = centerLongitude;
+        this.radiusInMeters = radiusInMeters;
+        this.centerCosLatitude = Math.cos(Math.toRadians(centerLatitude));
+
+        // Γωνιακή ακτίνα με περιθώριο, ώστε το πλαίσιο να μην απορρίπτει σημεία πάνω στο όριο λόγω στρογγυλοποίησης.
+        double angularRadius = Math.max(radiusInMeters, 0) / EARTH_RADIUS_METERS * (1 + BOUNDARY_MARGIN);
+        double latitudeDelta = Math.toDegrees(angularRadius);
+        this.minLatitude = centerLatitude - latitudeDelta;
+        this.maxLatitude = centerLatitude + latitudeDelta;
+
+        // Το μικρότερο και το μεγαλύτερο συνημίτονο πλάτους που μπορεί να έχει ένα σημείο μέσα στο πλαίσιο.
+        double maxAbsLatitude = Math.max(Math.abs(minLatitude), Math.abs(maxLatitude));
+        double minCos = maxAbsLatitude >= 90 ? 0 : Math.cos(Math.toRadians(maxAbsLatitude));
+        double maxCos = minLatitude <= 0 && maxLatitude >= 0
+                ? 1
+                : Math.cos(Math.toRadians(Math.min(Math.abs(minLatitude), Math.abs(maxLatitude))));
+
+        // Για διαφορά μήκους Δλ ισχύει a >= cos²φ_min · sin²(Δλ/2), άρα d >= 2R·asin(cosφ_min · sin(Δλ/2)).
+        // Το όριο του μήκους είναι η Δλ όπου αυτό το κάτω φράγμα φτάνει την ακτίνα.
+        double sinHalfLongitudeDelta = minCos == 0 ? Double.POSITIVE_INFINITY : Math.sin(angularRadius / 2) / minCos;
+        double longitudeDeltaRadians = sinHalfLongitudeDelta >= 1
+                ? Double.POSITIVE_INFINITY
+                : 2 * Math.asin(sinHalfLongitudeDelta);
+        this.maxLongitudeDelta = Math.toDegrees(longitudeDeltaRadians);
+
+        this.approximationEnabled = angularRadius / 2 <= MAX_APPROXIMATION_ANGLE
+                && longitudeDeltaRadians / 2 <= MAX_APPROXIMATION_ANGLE;
+        this.minCosLatitudeSquared = minCos * minCos;
+        this.maxCosLatitudeSquared = maxCos * maxCos;
+        double inner = radiusInMeters * (1 - BOUNDARY_MARGIN) / EARTH_RADIUS_METERS;
+        double outer = radiusInMeters * (1 + BOUNDARY_MARGIN) / EARTH_RADIUS_METERS;
+        // Με αρνητική ακτίνα κανένα σημείο δεν είναι μέσα, οπότε η προσέγγιση δεν πρέπει να δέχεται ούτε το κέντρο.
+        this.innerThresholdSquared = inner > 0 ? inner * inner : -1;
+        this.outerThresholdSquared = outer * outer;
+    }
+
+    /**
+     * Ελέγχει αν ένα σημείο βρίσκεται μέσα στη ζώνη (απόσταση Haversine από το κέντρο μικρότερη ή ίση της ακτίνας).
+     *
+     * @param latitude  Γεωγραφικό πλάτος του σημείου σε μοίρες.
+     * @param longitude Γεωγραφικό μήκος του σημείου σε μοίρες.
+     * @return true αν το σημείο είναι μέσα στη ζώνη.
+     */
+    @Override
+    public boolean contains(double latitude, double longitude) {
+        if (latitude < minLatitude || latitude > maxLatitude) {
+            return false;
+        }
+        double longitudeDelta = longitude - centerLongitude;
+        // Ο Haversine είναι περιοδικός ως προς το μήκος, οπότε ένα σημείο στην άλλη πλευρά του αντιμεσημβρινού
+        // είναι κοντά στο κέντρο· το πλαίσιο ελέγχει την ανηγμένη διαφορά στο [-180, 180].
+        double wrappedLongitudeDelta = Math.abs(longitudeDelta - 360 * Math.rint(longitudeDelta / 360));
+        if (wrappedLongitudeDelta > maxLongitudeDelta) {
+            return false;
+        }
+
+        double dLat = Math.toRadians(latitude - centerLatitude);
+        if (approximationEnabled) {
+            double dLon = Math.toRadians(wrappedLongitudeDelta);
+            double dLatSquared = dLat * dLat;
+            double dLonSquared = dLon * dLon;
+            // Άνω φράγμα: sin x <= x, asin x ≈ x και cosφ₁·cosφ₂ <= cos²φ_max.
+            if (dLatSquared + maxCosLatitudeSquared * dLonSquared <= innerThresholdSquared) {
+                return true;
+            }
+            // Κάτω φράγμα: asin x >= x, sin x ≈ x και cosφ₁·cosφ₂ >= cos²φ_min.
+            if (dLatSquared + minCosLatitudeSquared * dLonSquared > outerThresholdSquared) {
+                return false;
+            }
+        }
+
+        // Κοντά στο όριο: ο αρχικός υπολογισμός Haversine, με την ίδια σειρά πράξεων.
+        double dLon = Math.toRadians(longitudeDelta);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + centerCosLatitude * Math.cos(Math.toRadians(latitude))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return (EARTH_RADIUS_METERS * c) <= radiusInMeters;
+    }
+
+    public double getCenterLatitude() {
+        return centerLatitude;
+    }
+
+    public double getCenterLongitude() {
+        return centerLongitude;
+    }
+
+    public double getRadiusInMeters() {
+        return radiusInMeters;
+    }
+}
@@ -0,0 +1,16 @@
+package com.MarineTrafficClone.SeaWatch.geo;
+
+/**
+ * Μια γεωγραφική περιοχή (ζώνη) προετοιμασμένη για γρήγορους ελέγχους του αν ένα σημείο βρίσκεται μέσα σε αυτήν.
+ * Οι υλοποιήσεις είναι αμετάβλητες (immutable), μπορούν να μοιράζονται μεταξύ threads
+ * και δεν δεσμεύουν μνήμη στο {@link #contains(double, double)}.
+ */
+public interface Geofence {
+
+    /**
+     * @param latitude  Γεωγραφικό πλάτος του σημείου σε μοίρες.
+     * @param longitude Γεωγραφικό μήκος του σημείου σε μοίρες.
+     * @return true αν το σημείο είναι μέσα στη ζώνη.
+     */
+    boolean contains(double latitude, double longitude);
+}
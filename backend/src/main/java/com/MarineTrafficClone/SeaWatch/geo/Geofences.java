@@ -0,0 +1,58 @@
+package com.MarineTrafficClone.SeaWatch.geo;
+
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneShape;
+import com.MarineTrafficClone.SeaWatch.exception.InvalidZoneGeometryException;
+import com.MarineTrafficClone.SeaWatch.model.GeoPoint;
+
+import java.util.List;
+
+/**
+ * Βοηθητικές μέθοδοι για τη δημιουργία του {@link Geofence} μιας ζώνης από τα πεδία της οντότητάς της.
+ */
+public final class Geofences {
+
+    private Geofences() {
+    }
+
+    /**
+     * Δημιουργεί το geofence μιας ζώνης ανάλογα με το σχήμα της.
+     *
+     * @param shape           Το σχήμα της ζώνης (null σημαίνει κύκλος, όπως οι ζώνες πριν την υποστήριξη πολυγώνων).
+     * @param centerLatitude  Το γεωγραφικό πλάτος του κέντρου (για κύκλους).
+     * @param centerLongitude Το γεωγραφικό μήκος του κέντρου (για κύκλους).
+     * @param radiusInMeters  Η ακτίνα σε μέτρα (για κύκλους).
+     * @param vertices        Οι κορυφές (για πολύγωνα).
+     * @return Το αντίστοιχο {@link CircleGeofence} ή {@link PolygonGeofence}.
+     */
+    public static Geofence of(ZoneShape shape, double centerLatitude, double centerLongitude,
+                              double radiusInMeters, List<GeoPoint> vertices) {
+        if (shape == ZoneShape.POLYGON) {
+            return preparePolygon(vertices);
+        }
+        return new CircleGeofence(centerLatitude, centerLongitude, radiusInMeters);
+    }
+
+    /**
+     * Προετοιμάζει ένα πολύγωνο από τις κορυφές του.
+     *
+     * @param vertices Οι κορυφές, με τη σειρά του περιγράμματος.
+     * @return Το προετοιμασμένο {@link PolygonGeofence}.
+     * @throws InvalidZoneGeometryException Αν οι κορυφές δεν ορίζουν έγκυρο πολύγωνο.
+     */
+    public static PolygonGeofence preparePolygon(List<GeoPoint> vertices) {
+        if (vertices == null) {
+            throw new InvalidZoneGeometryException("A polygon zone needs a list of vertices");
+        }
+        double[] latitudes = new double[vertices.size()];
+        double[] longitudes = new double[vertices.size()];
+        for (int i = 0; i < latitudes.length; i++) {
+            latitudes[i] = vertices.get(i).getLatitude();
+            longitudes[i] = vertices.get(i).getLongitude();
+        }
+        try {
+            return new PolygonGeofence(latitudes, longitudes);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidZoneGeometryException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.MarineTrafficClone.SeaWatch.geo;
+
+/**
+ * Μια πολυγωνική ζώνη, προετοιμασμένη (prepared geometry) για ελέγχους σημείου-σε-πολύγωνο
+ * σε σταθερό, σχεδόν, χρόνο ανεξάρτητα από το πλήθος των κορυφών.
+ *
+ * Οι κορυφές θεωρούνται σημεία στο επίπεδο (μήκος, πλάτος) και ο έλεγχος είναι ο κλασικός κανόνας
+ * της άρτιας-περιττής τομής (ray casting, even-odd). Κατά την κατασκευή:
+ * <ul>
+ *     <li>Το bounding box του πολυγώνου χωρίζεται σε ένα πλέγμα (grid). Κάθε κελί που δεν το διασχίζει
+ *         καμία ακμή είναι ολόκληρο μέσα ή ολόκληρο έξω και χαρακτηρίζεται μία φορά, από το κέντρο του.</li>
+ *     <li>Για κάθε γραμμή του πλέγματος κρατάμε τις ακμές που την τέμνουν (edge index), με τις συντεταγμένες
+ *         τους σε συνεχόμενους πίνακες. Ένα σημείο σε κελί ορίου ελέγχεται μόνο απέναντι σε αυτές τις ακμές,
+ *         που είναι ακριβώς οι ακμές που μπορεί να τέμνει η οριζόντια ακτίνα του.</li>
+ * </ul>
+ * Το αποτέλεσμα είναι ίδιο με τον έλεγχο απέναντι σε όλες τις ακμές.
+ *
+ * Αν το πολύγωνο διασχίζει τον αντιμεσημβρινό, τα μήκη των κορυφών "ξετυλίγονται" ώστε διαδοχικές κορυφές να
+ * απέχουν το πολύ 180° (π.χ. 179 → 181) και τα σημεία μεταφέρονται κατά ±360° στο ίδιο εύρος πριν τον έλεγχο.
+ *
+ * Τα αντικείμενα είναι αμετάβλητα (immutable) και μπορούν να μοιράζονται ελεύθερα μεταξύ threads.
+ */
+public final class PolygonGeofence implements Geofence {
+
+    /** Το μέγιστο πλήθος γραμμών/στηλών του πλέγματος (έως 64K κελιά). */
+    private static final int MAX_GRID_SIZE = 256;
+
+    private static final byte CELL_OUTSIDE = 0;
+    private static final byte CELL_INSIDE = 1;
+    private static final byte CELL_BOUNDARY = 2;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private final double minLatitude;
+    private final double maxLatitude;
+    private final double minLongitude;
+    private final double maxLongitude;
+
+    private final int gridSize;
+    private final double rowsPerDegree;
+    private final double columnsPerDegree;
+    private final byte[] cells;
+
+    /**
+     * Οι ακμές κάθε γραμμής σε μορφή CSR: οι ακμές της γραμμής r είναι οι θέσεις
+     * [rowStart[r], rowStart[r + 1]) των πινάκων edge*.
+     */
+    private final int[] rowStart;
+    private final double[] edgeStartLatitudes;
+    private final double[] edgeStartLongitudes;
+    private final double[] edgeEndLatitudes;
+    private final double[] edgeEndLongitudes;
+
+    /**
+     * @param latitudes  Τα γεωγραφικά πλάτη των κορυφών, με τη σειρά του περιγράμματος.
+     * @param longitudes Τα γεωγραφικά μήκη των κορυφών.
+     * @throws IllegalArgumentException Αν οι κορυφές δεν ορίζουν ένα έγκυρο πολύγωνο
+     *                                  (λιγότερες από 3, εκτός ορίων ή μηδενικό εμβαδόν).
+     */
+    public PolygonGeofence(double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Polygon latitudes and longitudes must have the same length");
+        }
+        int n = latitudes.length;
+        // Ένα κλειστό περίγραμμα (η τελευταία κορυφή ίδια με την πρώτη, όπως στο GeoJSON) γίνεται δεκτό.
+        if (n > 1 && latitudes[0] == latitudes[n - 1] && longitudes[0] == longitudes[n - 1]) {
+            n--;
+        }
+        if (n < 3) {
+            throw new IllegalArgumentException("A polygon needs at least 3 distinct vertices");
+        }
+
+        this.latitudes = new double[n];
+        this.longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            double latitude = latitudes[i];
+            double longitude = longitudes[i];
+            if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+                throw new IllegalArgumentException("Polygon vertex " + i + " is out of range: (" + latitude + ", " + longitude + ")");
+            }
+            if (i > 0) {
+                // Μετατόπιση κατά ακέραιο πλήθος περιστροφών, ώστε χωρίς αντιμεσημβρινό το μήκος να μένει ακριβώς ίδιο.
+                longitude += 360 * Math.rint((this.longitudes[i - 1] - longitude) / 360);
+            }
+            this.latitudes[i] = latitude;
+            this.longitudes[i] = longitude;
+        }
+
+        double area = 0;
+        double minLat = Double.POSITIVE_INFINITY, maxLat = Double.NEGATIVE_INFINITY;
+        double minLon = Double.POSITIVE_INFINITY, maxLon = Double.NEGATIVE_INFINITY;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            area += this.longitudes[j] * this.latitudes[i] - this.longitudes[i] * this.latitudes[j];
+            minLat = Math.min(minLat, this.latitudes[i]);
+            maxLat = Math.max(maxLat, this.latitudes[i]);
+            minLon = Math.min(minLon, this.longitudes[i]);
+            maxLon = Math.max(maxLon, this.longitudes[i]);
+        }
+        if (area == 0) {
+            throw new IllegalArgumentException("Polygon has zero area");
+        }
+        this.minLatitude = minLat;
+        this.maxLatitude = maxLat;
+        this.minLongitude = minLon;
+        this.maxLongitude = maxLon;
+
+        this.gridSize = Math.min(MAX_GRID_SIZE, Math.max(4, 2 * (int) Math.ceil(Math.sqrt(n))));
+        this.rowsPerDegree = gridSize / (maxLat - minLat);
+        this.columnsPerDegree = gridSize / (maxLon - minLon);
+
+        // Ευρετήριο ακμών ανά γραμμή. Οι οριζόντιες ακμές δεν τέμνουν ποτέ την οριζόντια ακτίνα, οπότε παραλείπονται.
+        this.rowStart = new int[gridSize + 1];
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            if (this.latitudes[i] != this.latitudes[j]) {
+                int from = row(Math.min(this.latitudes[i], this.latitudes[j]));
+                int to = row(Math.max(this.latitudes[i], this.latitudes[j]));
+                for (int r = from; r <= to; r++) {
+                    rowStart[r + 1]++;
+                }
+            }
+        }
+        for (int r = 0; r < gridSize; r++) {
+            rowStart[r + 1] += rowStart[r];
+        }
+        int entries = rowStart[gridSize];
+        this.edgeStartLatitudes = new double[entries];
+        this.edgeStartLongitudes = new double[entries];
+        this.edgeEndLatitudes = new double[entries];
+        this.edgeEndLongitudes = new double[entries];
+        int[] fill = new int[gridSize];
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            if (this.latitudes[i] != this.latitudes[j]) {
+                int from = row(Math.min(this.latitudes[i], this.latitudes[j]));
+                int to = row(Math.max(this.latitudes[i], this.latitudes[j]));
+                for (int r = from; r <= to; r++) {
+                    int k = rowStart[r] + fill[r]++;
+                    edgeStartLatitudes[k] = this.latitudes[i];
+                    edgeStartLongitudes[k] = this.longitudes[i];
+                    edgeEndLatitudes[k] = this.latitudes[j];
+                    edgeEndLongitudes[k] = this.longitudes[j];
+                }
+            }
+        }
+
+        this.cells = new byte[gridSize * gridSize];
+        markBoundaryCells();
+        for (int r = 0; r < gridSize; r++) {
+            double centerLatitude = minLat + (r + 0.5) / rowsPerDegree;
+            for (int c = 0; c < gridSize; c++) {
+                int cell = r * gridSize + c;
+                if (cells[cell] != CELL_BOUNDARY) {
+                    double centerLongitude = minLon + (c + 0.5) / columnsPerDegree;
+                    cells[cell] = crossesOddTimes(centerLatitude, centerLongitude) ? CELL_INSIDE : CELL_OUTSIDE;
+                }
+            }
+        }
+    }
+
+    /**
+     * Σημειώνει ως κελιά ορίου όσα μπορεί να διασχίζει κάποια ακμή. Για κάθε γραμμή που καλύπτει μια ακμή,
+     * υπολογίζεται το εύρος μήκους της ακμής μέσα στη γραμμή, διευρυμένο κατά ένα κελί ώστε τα σφάλματα
+     * στρογγυλοποίησης να μην αφήνουν ποτέ κελί ορίου χωρίς σήμανση.
+     */
+    private void markBoundaryCells() {
+        int n = latitudes.length;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double lat0 = latitudes[i], lon0 = longitudes[i];
+            double lat1 = latitudes[j], lon1 = longitudes[j];
+            double low = Math.min(lat0, lat1), high = Math.max(lat0, lat1);
+            int fromRow = row(low);
+            int toRow = row(high);
+            for (int r = fromRow; r <= toRow; r++) {
+                double minLon, maxLon;
+                if (lat0 == lat1) {
+                    minLon = Math.min(lon0, lon1);
+                    maxLon = Math.max(lon0, lon1);
+                } else {
+                    double bandLow = Math.max(low, minLatitude + r / rowsPerDegree);
+                    double bandHigh = Math.min(high, minLatitude + (r + 1) / rowsPerDegree);
+                    double lonAtLow = lon0 + (lon1 - lon0) * (bandLow - lat0) / (lat1 - lat0);
+                    double lonAtHigh = lon0 + (lon1 - lon0) * (bandHigh - lat0) / (lat1 - lat0);
+                    minLon = Math.min(lonAtLow, lonAtHigh);
+                    maxLon = Math.max(lonAtLow, lonAtHigh);
+                }
+                int fromColumn = Math.max(0, column(Math.max(minLon, minLongitude)) - 1);
+                int toColumn = Math.min(gridSize - 1, column(Math.min(maxLon, maxLongitude)) + 1);
+                for (int c = fromColumn; c <= toColumn; c++) {
+                    cells[r * gridSize + c] = CELL_BOUNDARY;
+                }
+            }
+        }
+    }
+
+    private int row(double latitude) {
+        return Math.min(gridSize - 1, (int) ((latitude - minLatitude) * rowsPerDegree));
+    }
+
+    private int column(double longitude) {
+        return Math.min(gridSize - 1, (int) ((longitude - minLongitude) * columnsPerDegree));
+    }
+
+    /**
+     * Ελέγχει αν ένα σημείο βρίσκεται μέσα στο πολύγωνο.
+     *
+     * @param latitude  Γεωγραφικό πλάτος του σημείου σε μοίρες.
+     * @param longitude Γεωγραφικό μήκος του σημείου σε μοίρες.
+     * @return true αν το σημείο είναι μέσα στο πολύγωνο.
+     */
+    @Override
+    public boolean contains(double latitude, double longitude) {
+        // Στο ή πάνω από το μέγιστο πλάτος, ή στο ή δεξιά από το μέγιστο μήκος, ο κανόνας δεν μετρά καμία τομή.
+        if (!(latitude >= minLatitude && latitude < maxLatitude)) {
+            return false;
+        }
+        if (longitude < minLongitude) {
+            longitude += 360;
+        } else if (longitude >= maxLongitude) {
+            longitude -= 360;
+        }
+        if (!(longitude >= minLongitude && longitude < maxLongitude)) {
+            return false;
+        }
+
+        byte cell = cells[row(latitude) * gridSize + column(longitude)];
+        if (cell != CELL_BOUNDARY) {
+            return cell == CELL_INSIDE;
+        }
+        return crossesOddTimes(latitude, longitude);
+    }
+
+    /**
+     * Ο κανόνας άρτιας-περιττής τομής, μόνο με τις ακμές της γραμμής του σημείου.
+     */
+    private boolean crossesOddTimes(double latitude, double longitude) {
+        int r = row(latitude);
+        boolean inside = false;
+        for (int k = rowStart[r], end = rowStart[r + 1]; k < end; k++) {
+            double latI = edgeStartLatitudes[k];
+            double latJ = edgeEndLatitudes[k];
+            if ((latI > latitude) != (latJ > latitude)) {
+                double lonI = edgeStartLongitudes[k];
+                double lonJ = edgeEndLongitudes[k];
+                if (longitude < (lonJ - lonI) * (latitude - latI) / (latJ - latI) + lonI) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * @return Το γεωγραφικό πλάτος του κέντρου του bounding box.
+     */
+    public double getCenterLatitude() {
+        return (minLatitude + maxLatitude) / 2;
+    }
+
+    /**
+     * @return Το γεωγραφικό μήκος του κέντρου του bounding box, στο [-180, 180].
+     */
+    public double getCenterLongitude() {
+        double center = (minLongitude + maxLongitude) / 2;
+        return center - 360 * Math.rint(center / 360);
+    }
+
+    /**
+     * Η ακτίνα του μικρότερου κύκλου γύρω από το κέντρο του bounding box που περιέχει όλες τις κορυφές.
+     * Χρησιμεύει για την εμφάνιση και την προσέγγιση της ζώνης ως κύκλου.
+     *
+     * @return Η ακτίνα σε μέτρα (απόσταση Haversine).
+     */
+    public double getBoundingRadiusInMeters() {
+        double centerLatitude = getCenterLatitude();
+        double centerLongitude = getCenterLongitude();
+        double radius = 0;
+        for (int i = 0; i < latitudes.length; i++) {
+            // Ο ίδιος τύπος Haversine με τον έλεγχο των κυκλικών ζωνών, ώστε ο κύκλος να περιέχει ακριβώς όλες τις κορυφές.
+            double dLat = Math.toRadians(latitudes[i] - centerLatitude);
+            double dLon = Math.toRadians(longitudes[i] - centerLongitude);
+            double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                    + Math.cos(Math.toRadians(centerLatitude)) * Math.cos(Math.toRadians(latitudes[i]))
+                    * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+            double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+            radius = Math.max(radius, CircleGeofence.EARTH_RADIUS_METERS * c);
+        }
+        return radius;
+    }
+
+    /**
+     * @return Το πλήθος των κορυφών του πολυγώνου.
+     */
+    public int getVertexCount() {
+        return latitudes.length;
+    }
+}
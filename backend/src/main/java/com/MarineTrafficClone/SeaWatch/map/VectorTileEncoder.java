@@ -0,0 +1,162 @@
+package com.MarineTrafficClone.SeaWatch.map;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ελαφρύς encoder για Mapbox Vector Tiles (προδιαγραφή 2.1) με ένα layer από σημεία (points).
+ * Γράφει απευθείας το protobuf wire format, χωρίς εξάρτηση από βιβλιοθήκη protobuf,
+ * αφού οι θέσεις των πλοίων χρειάζονται μόνο γεωμετρίες τύπου POINT.
+ *
+ * Τα κλειδιά και οι τιμές των attributes αποθηκεύονται μία φορά ανά layer (dictionary encoding),
+ * όπως ορίζει η προδιαγραφή, οπότε π.χ. ο τύπος "cargo" γράφεται μία φορά για όλα τα πλοία του tile.
+ * Ένα αντικείμενο χρησιμοποιείται για ένα μόνο tile και δεν είναι thread-safe.
+ */
+public class VectorTileEncoder {
+
+    /** Η προεπιλεγμένη ανάλυση συντεταγμένων ενός tile. */
+    public static final int DEFAULT_EXTENT = 4096;
+
+    private static final int GEOM_TYPE_POINT = 1;
+    private static final int COMMAND_MOVE_TO_ONE = (1 & 0x7) | (1 << 3);
+
+    private static final int WIRE_VARINT = 0;
+    private static final int WIRE_FIXED64 = 1;
+    private static final int WIRE_LENGTH_DELIMITED = 2;
+
+    private final String layerName;
+    private final int extent;
+    private final Map<String, Integer> keys = new LinkedHashMap<>();
+    private final Map<Object, Integer> values = new LinkedHashMap<>();
+    private final ByteArrayOutputStream features = new ByteArrayOutputStream();
+    private int featureCount = 0;
+
+    public VectorTileEncoder(String layerName, int extent) {
+        this.layerName = layerName;
+        this.extent = extent;
+    }
+
+    /**
+     * Προσθέτει ένα σημείο στο layer.
+     *
+     * @param id         Το αναγνωριστικό του feature (π.χ. το MMSI).
+     * @param x          Η συντεταγμένη x μέσα στο tile, στο [0, extent).
+     * @param y          Η συντεταγμένη y μέσα στο tile, στο [0, extent).
+     * @param attributes Τα attributes του feature. Υποστηρίζονται String, Integer, Long, Double, Float και Boolean·
+     *                   τιμές null παραλείπονται.
+     */
+    public void addPoint(long id, int x, int y, Map<String, ?> attributes) {
+        ByteArrayOutputStream tags = new ByteArrayOutputStream();
+        for (Map.Entry<String, ?> attribute : attributes.entrySet()) {
+            if (attribute.getValue() == null) {
+                continue;
+            }
+            writeVarint(tags, keys.computeIfAbsent(attribute.getKey(), k -> keys.size()));
+            writeVarint(tags, values.computeIfAbsent(attribute.getValue(), v -> values.size()));
+        }
+
+        ByteArrayOutputStream geometry = new ByteArrayOutputStream();
+        writeVarint(geometry, COMMAND_MOVE_TO_ONE);
+        writeVarint(geometry, zigZag(x));
+        writeVarint(geometry, zigZag(y));
+
+        ByteArrayOutputStream feature = new ByteArrayOutputStream();
+        writeTag(feature, 1, WIRE_VARINT);
+        writeVarint(feature, id);
+        if (tags.size() > 0) {
+            writeTag(feature, 2, WIRE_LENGTH_DELIMITED);
+            writeBytes(feature, tags.toByteArray());
+        }
+        writeTag(feature, 3, WIRE_VARINT);
+        writeVarint(feature, GEOM_TYPE_POINT);
+        writeTag(feature, 4, WIRE_LENGTH_DELIMITED);
+        writeBytes(feature, geometry.toByteArray());
+
+        writeTag(features, 2, WIRE_LENGTH_DELIMITED);
+        writeBytes(features, feature.toByteArray());
+        featureCount++;
+    }
+
+    /** @return Το πλήθος των features που έχουν προστεθεί. */
+    public int getFeatureCount() {
+        return featureCount;
+    }
+
+    /**
+     * Κωδικοποιεί το tile. Αν δεν έχει προστεθεί κανένα feature, επιστρέφει ένα κενό (αλλά έγκυρο) tile.
+     *
+     * @return Τα bytes του tile σε protobuf.
+     */
+    public byte[] encode() {
+        if (featureCount == 0) {
+            return new byte[0];
+        }
+        ByteArrayOutputStream layer = new ByteArrayOutputStream();
+        writeTag(layer, 15, WIRE_VARINT);
+        writeVarint(layer, 2);
+        writeTag(layer, 1, WIRE_LENGTH_DELIMITED);
+        writeBytes(layer, layerName.getBytes(StandardCharsets.UTF_8));
+        layer.writeBytes(features.toByteArray());
+        for (String key : keys.keySet()) {
+            writeTag(layer, 3, WIRE_LENGTH_DELIMITED);
+            writeBytes(layer, key.getBytes(StandardCharsets.UTF_8));
+        }
+        for (Object value : values.keySet()) {
+            writeTag(layer, 4, WIRE_LENGTH_DELIMITED);
+            writeBytes(layer, encodeValue(value));
+        }
+        writeTag(layer, 5, WIRE_VARINT);
+        writeVarint(layer, extent);
+
+        ByteArrayOutputStream tile = new ByteArrayOutputStream();
+        writeTag(tile, 3, WIRE_LENGTH_DELIMITED);
+        writeBytes(tile, layer.toByteArray());
+        return tile.toByteArray();
+    }
+
+    private static byte[] encodeValue(Object value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (value instanceof String string) {
+            writeTag(out, 1, WIRE_LENGTH_DELIMITED);
+            writeBytes(out, string.getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Double || value instanceof Float) {
+            writeTag(out, 3, WIRE_FIXED64);
+            long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+            for (int i = 0; i < 8; i++) {
+                out.write((int) (bits >>> (8 * i)) & 0xFF);
+            }
+        } else if (value instanceof Integer || value instanceof Long) {
+            writeTag(out, 6, WIRE_VARINT);
+            writeVarint(out, zigZag(((Number) value).longValue()));
+        } else if (value instanceof Boolean bool) {
+            writeTag(out, 7, WIRE_VARINT);
+            writeVarint(out, bool ? 1 : 0);
+        } else {
+            throw new IllegalArgumentException("Unsupported vector tile attribute type: " + value.getClass().getName());
+        }
+        return out.toByteArray();
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static void writeTag(ByteArrayOutputStream out, int field, int wireType) {
+        writeVarint(out, ((long) field << 3) | wireType);
+    }
+
+    private static void writeBytes(ByteArrayOutputStream out, byte[] bytes) {
+        writeVarint(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,82 @@
+package com.MarineTrafficClone.SeaWatch.map;
+
+/**
+ * Βοηθητικές μέθοδοι για την προβολή Web Mercator (EPSG:3857) που χρησιμοποιεί ο χάρτης του frontend.
+ * Οι συντεταγμένες "κόσμου" είναι κανονικοποιημένες στο [0, 1), με το (0, 0) στη βορειοδυτική γωνία,
+ * όπως στο σχήμα tiles XYZ.
+ */
+public final class WebMercator {
+
+    /** Το μέγιστο γεωγραφικό πλάτος που απεικονίζεται από την προβολή. */
+    public static final double MAX_LATITUDE = 85.05112878;
+
+    private WebMercator() {
+    }
+
+    /**
+     * @param longitude Το γεωγραφικό μήκος σε μοίρες.
+     * @return Η κανονικοποιημένη συντεταγμένη x στο [0, 1).
+     */
+    public static double worldX(double longitude) {
+        double x = (longitude + 180.0) / 360.0;
+        return clampUnit(x);
+    }
+
+    /**
+     * @param latitude Το γεωγραφικό πλάτος σε μοίρες.
+     * @return Η κανονικοποιημένη συντεταγμένη y στο [0, 1) (αυξάνεται προς τα νότια).
+     */
+    public static double worldY(double latitude) {
+        double lat = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+        double sin = Math.sin(Math.toRadians(lat));
+        double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+        return clampUnit(y);
+    }
+
+    /**
+     * @param worldX Η κανονικοποιημένη συντεταγμένη x.
+     * @return Το γεωγραφικό μήκος σε μοίρες.
+     */
+    public static double longitude(double worldX) {
+        return worldX * 360.0 - 180.0;
+    }
+
+    /**
+     * @param worldY Η κανονικοποιημένη συντεταγμένη y.
+     * @return Το γεωγραφικό πλάτος σε μοίρες.
+     */
+    public static double latitude(double worldY) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * worldY))));
+    }
+
+    /**
+     * Επιστρέφει τον δείκτη του κελιού ενός πλέγματος {@code cellsPerAxis x cellsPerAxis} που περιέχει μια συντεταγμένη κόσμου.
+     */
+    public static int cellIndex(double worldCoordinate, int cellsPerAxis) {
+        int index = (int) Math.floor(worldCoordinate * cellsPerAxis);
+        return Math.max(0, Math.min(cellsPerAxis - 1, index));
+    }
+
+    /**
+     * Συσκευάζει τις συντεταγμένες (x, y) ενός κελιού ή tile σε ένα long, για χρήση ως κλειδί.
+     */
+    public static long packCell(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    public static int unpackX(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    public static int unpackY(long packed) {
+        return (int) packed;
+    }
+
+    private static double clampUnit(double value) {
+        if (value < 0) {
+            return 0;
+        }
+        // Η τιμή 1.0 θα έπεφτε εκτός του τελευταίου κελιού.
+        return value >= 1.0 ? Math.nextDown(1.0) : value;
+    }
+}
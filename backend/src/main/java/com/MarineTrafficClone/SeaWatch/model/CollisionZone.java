@@ -1,10 +1,13 @@
 package com.MarineTrafficClone.SeaWatch.model;
 
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Οντότητα (Entity) που αναπαριστά μια ζώνη παρακολούθησης συγκρούσεων (Collision Zone).
@@ -13,11 +16,12 @@ import lombok.NoArgsConstructor;
  */
 @Entity
 @Data
-@Builder
-@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@SuperBuilder
 @NoArgsConstructor
 @Table(name = "collision_zones")
-public class CollisionZone {
+public class CollisionZone extends GeofencedZone {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,14 +30,18 @@ public class CollisionZone {
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false)
-    private Double centerLatitude;
-
-    @Column(nullable = false)
-    private Double centerLongitude;
-
-    @Column(nullable = false)
-    private Double radiusInMeters;
+    /**
+     * Οι κορυφές μιας πολυγωνικής ζώνης, με τη σειρά του περιγράμματος (κενή λίστα για τις κυκλικές ζώνες).
+     * `@OrderColumn`: Η σειρά των κορυφών αποθηκεύεται ρητά, γιατί ορίζει το σχήμα.
+     * `@Fetch(FetchMode.SELECT)`: Οι κορυφές φορτώνονται με ξεχωριστό query και όχι με join,
+     *                             ώστε να μην πολλαπλασιάζονται οι γραμμές των άλλων EAGER συσχετίσεων.
+     */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "collision_zone_vertices", joinColumns = @JoinColumn(name = "zone_id"))
+    @OrderColumn(name = "vertex_index")
+    @Fetch(FetchMode.SELECT)
+    @Builder.Default
+    private List<GeoPoint> vertices = new ArrayList<>();
 
     /**
      * Ορίζει μια σχέση Ένα-προς-Ένα (One-to-One) με την οντότητα UserEntity.
@@ -46,4 +54,19 @@ public class CollisionZone {
     @OneToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "user_id", unique = true, nullable = false)
     private UserEntity user;
-}
\ No newline at end of file
+
+    /**
+     * Αντικαθιστά τις κορυφές της ζώνης. Όπως και στο {@code setConstraints}, η λίστα που διαχειρίζεται
+     * το JPA δεν αντικαθίσταται, αλλά αδειάζει και γεμίζει ξανά.
+     *
+     * @param vertices Οι νέες κορυφές (null ή κενή λίστα για κυκλικές ζώνες).
+     */
+    @Override
+    public void setVertices(List<GeoPoint> vertices) {
+        this.vertices.clear();
+        if (vertices != null) {
+            this.vertices.addAll(vertices);
+        }
+        invalidateGeofence();
+    }
+}
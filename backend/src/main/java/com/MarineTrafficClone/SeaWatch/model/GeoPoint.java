@@ -0,0 +1,24 @@
+package com.MarineTrafficClone.SeaWatch.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ένα γεωγραφικό σημείο (πλάτος, μήκος), αποθηκευμένο ως ενσωματωμένο (embeddable) μέρος μιας οντότητας.
+ * Χρησιμοποιείται για τις κορυφές των πολυγωνικών ζωνών.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoPoint {
+
+    @Column(name = "latitude", nullable = false)
+    private double latitude;
+
+    @Column(name = "longitude", nullable = false)
+    private double longitude;
+}
@@ -0,0 +1,107 @@
+package com.MarineTrafficClone.SeaWatch.model;
+
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneShape;
+import com.MarineTrafficClone.SeaWatch.geo.Geofence;
+import com.MarineTrafficClone.SeaWatch.geo.Geofences;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+/**
+ * Κοινή βάση (mapped superclass) των ζωνών που ορίζονται από χρήστες, δηλαδή της {@link ZoneOfInterest}
+ * και της {@link CollisionZone}. Κρατά τις στήλες της γεωμετρίας (σχήμα, κέντρο, ακτίνα) και το
+ * προετοιμασμένο {@link Geofence} που χρησιμοποιείται στους ελέγχους θέσης.
+ *
+ * Οι κορυφές των πολυγωνικών ζωνών μένουν στις υποκλάσεις, γιατί κάθε οντότητα τις αποθηκεύει στον δικό της πίνακα.
+ */
+@MappedSuperclass
+@Data
+@SuperBuilder
+@NoArgsConstructor
+public abstract class GeofencedZone {
+
+    @Column(name = "center_latitude", nullable = false)
+    private Double centerLatitude;
+
+    @Column(name = "center_longitude", nullable = false)
+    private Double centerLongitude;
+
+    @Column(name = "radius_in_meters", nullable = false)
+    private Double radiusInMeters;
+
+    /**
+     * Το σχήμα της ζώνης. Για τις πολυγωνικές ζώνες, το κέντρο και η ακτίνα περιγράφουν τον κύκλο
+     * που περικλείει το πολύγωνο (για την εμφάνισή του στον χάρτη) και ο έλεγχος γίνεται με τις κορυφές.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "shape", nullable = false)
+    @Builder.Default
+    private ZoneShape shape = ZoneShape.CIRCLE;
+
+    /**
+     * Η προετοιμασμένη γεωμετρία της ζώνης για τους ελέγχους θέσης. Δεν αποθηκεύεται στη βάση·
+     * δημιουργείται την πρώτη φορά που ζητηθεί και ακυρώνεται από τους setters της γεωμετρίας.
+     */
+    @Transient
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Geofence geofence;
+
+    /**
+     * @return Οι κορυφές μιας πολυγωνικής ζώνης, με τη σειρά του περιγράμματος (κενή λίστα για τις κυκλικές ζώνες).
+     */
+    public abstract List<GeoPoint> getVertices();
+
+    /**
+     * Αντικαθιστά τις κορυφές της ζώνης. Οι υλοποιήσεις πρέπει να καλούν την {@link #invalidateGeofence()}.
+     *
+     * @param vertices Οι νέες κορυφές (null ή κενή λίστα για κυκλικές ζώνες).
+     */
+    public abstract void setVertices(List<GeoPoint> vertices);
+
+    /**
+     * Επιστρέφει τη ζώνη ως {@link Geofence}, για γρήγορους ελέγχους του αν ένα σημείο είναι μέσα σε αυτήν.
+     * Το αντικείμενο είναι αμετάβλητο, οπότε η ταυτόχρονη (χωρίς συγχρονισμό) δημιουργία του από δύο threads
+     * απλώς δίνει δύο ισοδύναμα αντικείμενα.
+     *
+     * @return Το geofence για την τρέχουσα γεωμετρία της ζώνης.
+     */
+    public Geofence getGeofence() {
+        Geofence current = geofence;
+        if (current == null) {
+            current = Geofences.of(shape, centerLatitude, centerLongitude, radiusInMeters, getVertices());
+            geofence = current;
+        }
+        return current;
+    }
+
+    /**
+     * Ξεχνά το προετοιμασμένο geofence, ώστε να ξαναδημιουργηθεί με την επόμενη κλήση της {@link #getGeofence()}.
+     */
+    protected void invalidateGeofence() {
+        this.geofence = null;
+    }
+
+    public void setCenterLatitude(Double centerLatitude) {
+        this.centerLatitude = centerLatitude;
+        invalidateGeofence();
+    }
+
+    public void setCenterLongitude(Double centerLongitude) {
+        this.centerLongitude = centerLongitude;
+        invalidateGeofence();
+    }
+
+    public void setRadiusInMeters(Double radiusInMeters) {
+        this.radiusInMeters = radiusInMeters;
+        invalidateGeofence();
+    }
+
+    public void setShape(ZoneShape shape) {
+        this.shape = shape;
+        invalidateGeofence();
+    }
+}
@@ -2,6 +2,9 @@ package com.MarineTrafficClone.SeaWatch.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,11 +16,12 @@ import java.util.List;
  */
 @Entity
 @Data
-@Builder
-@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@SuperBuilder
 @NoArgsConstructor
 @Table(name = "zones_of_interest")
-public class ZoneOfInterest {
+public class ZoneOfInterest extends GeofencedZone {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,14 +30,18 @@ public class ZoneOfInterest {
     @Column(name = "name", nullable = false)
     private String name;
 
-    @Column(name = "center_latitude", nullable = false)
-    private Double centerLatitude;
-
-    @Column(name = "center_longitude", nullable = false)
-    private Double centerLongitude;
-
-    @Column(name = "radius_in_meters", nullable = false)
-    private Double radiusInMeters;
+    /**
+     * Οι κορυφές μιας πολυγωνικής ζώνης, με τη σειρά του περιγράμματος (κενή λίστα για τις κυκλικές ζώνες).
+     * `@OrderColumn`: Η σειρά των κορυφών αποθηκεύεται ρητά, γιατί ορίζει το σχήμα.
+     * `@Fetch(FetchMode.SELECT)`: Οι κορυφές φορτώνονται με ξεχωριστό query και όχι με join,
+     *                             ώστε να μην πολλαπλασιάζονται οι γραμμές των άλλων EAGER συσχετίσεων.
+     */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "zone_of_interest_vertices", joinColumns = @JoinColumn(name = "zone_id"))
+    @OrderColumn(name = "vertex_index")
+    @Fetch(FetchMode.SELECT)
+    @Builder.Default
+    private List<GeoPoint> vertices = new ArrayList<>();
 
     /**
      * Ορίζει τη σχέση Ένα-προς-Ένα (One-to-One) με τον χρήστη.
@@ -76,4 +84,19 @@ public class ZoneOfInterest {
             this.constraints.forEach(c -> c.setZoneOfInterest(this));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Αντικαθιστά τις κορυφές της ζώνης. Όπως και στο {@code setConstraints}, η λίστα που διαχειρίζεται
+     * το JPA δεν αντικαθίσταται, αλλά αδειάζει και γεμίζει ξανά.
+     *
+     * @param vertices Οι νέες κορυφές (null ή κενή λίστα για κυκλικές ζώνες).
+     */
+    @Override
+    public void setVertices(List<GeoPoint> vertices) {
+        this.vertices.clear();
+        if (vertices != null) {
+            this.vertices.addAll(vertices);
+        }
+        invalidateGeofence();
+    }
+}
@@ -0,0 +1,410 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Διαβάζει το CSV των δυναμικών δεδομένων AIS (mmsi, status, turn, speed, course, heading, lon, lat, t)
+ * και αναλύει κάθε γραμμή απευθείας από τα bytes σε ένα επαναχρησιμοποιήσιμο {@link AisRecord}.
+ * Δεν δημιουργεί String ανά γραμμή ή ανά πεδίο· String δημιουργείται μόνο για να καταγραφεί μια άκυρη γραμμή.
+ *
+ * Ένα αρχείο στον δίσκο αντιστοιχίζεται στη μνήμη (memory-mapped) σε παράθυρα των {@value #MAP_WINDOW_BYTES} bytes.
+ * Ένα InputStream (π.χ. ένα resource μέσα στο jar) διαβάζεται σε έναν direct buffer των {@value #STREAM_BUFFER_BYTES} bytes.
+ * Μπορεί επίσης να διαβάσει μόνο ένα τμήμα του αρχείου, από την αρχή μιας γραμμής μέχρι την αρχή μιας άλλης,
+ * ώστε τμήματα του ίδιου αρχείου να αναλύονται παράλληλα ({@link ParallelAisCsvReader}).
+ * Η πρώτη γραμμή του αρχείου (κεφαλίδα) και οι κενές γραμμές παραλείπονται. Οι γραμμές χωρίς 9 στήλες ή με άκυρους
+ * αριθμούς καταγράφονται και μετρώνται στις {@link #getMalformedLines()}.
+ *
+ * Δεν είναι thread-safe.
+ */
+public final class AisCsvReader implements AisRecordSource {
+
+    private static final Logger log = LoggerFactory.getLogger(AisCsvReader.class);
+
+    static final int MAP_WINDOW_BYTES = 64 << 20;
+    static final int STREAM_BUFFER_BYTES = 1 << 20;
+    private static final int COLUMNS = 9;
+
+    /** Δυνάμεις του 10 που αναπαριστώνται ακριβώς ως double. */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    /** Με έως τόσα σημαντικά ψηφία το ακέραιο μέρος (mantissa) είναι μικρότερο από 2^53, άρα ακριβές. */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private final FileChannel file;
+    /** Αν ο reader κλείνει το αρχείο (όχι όταν το μοιράζεται με άλλους readers). */
+    private final boolean ownsFile;
+    private final ReadableByteChannel stream;
+    private final int windowBytes;
+    private final long end;
+
+    private ByteBuffer buffer;
+    /** Η θέση του buffer στο αρχείο (μόνο για αρχεία). */
+    private long bufferOffset;
+    /** Η αρχή της επόμενης γραμμής μέσα στον buffer. */
+    private int position;
+    private int limit;
+    /** Δεν υπάρχουν άλλα bytes πέρα από όσα βρίσκονται στον buffer. */
+    private boolean exhausted;
+    private boolean headerPending;
+
+    private final int[] fieldStart = new int[COLUMNS];
+    private final int[] fieldEnd = new int[COLUMNS];
+    private long records;
+    private long malformedLines;
+    /** Η θέση στο αρχείο της γραμμής της τελευταίας εγγραφής. */
+    private long recordOffset;
+
+    private AisCsvReader(FileChannel file, boolean ownsFile, ReadableByteChannel stream, ByteBuffer buffer, int windowBytes, long start, long end) {
+        this.file = file;
+        this.ownsFile = ownsFile;
+        this.stream = stream;
+        this.buffer = buffer;
+        this.windowBytes = windowBytes;
+        this.bufferOffset = start;
+        this.end = end;
+        this.exhausted = file != null && end == start;
+        // Μόνο ένα τμήμα που ξεκινά από την αρχή του αρχείου περιέχει την κεφαλίδα.
+        this.headerPending = start == 0;
+    }
+
+    /**
+     * Ανοίγει ένα αρχείο, το οποίο θα διαβαστεί memory-mapped.
+     */
+    public static AisCsvReader open(Path path) throws IOException {
+        return open(path, MAP_WINDOW_BYTES);
+    }
+
+    static AisCsvReader open(Path path, int windowBytes) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new AisCsvReader(channel, true, null, ByteBuffer.allocate(0), windowBytes, 0, channel.size());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Ανοίγει ένα τμήμα ενός αρχείου, το οποίο θα διαβαστεί memory-mapped.
+     *
+     * @param start Η αρχή μιας γραμμής (ή 0, οπότε η πρώτη γραμμή είναι η κεφαλίδα).
+     * @param end   Η αρχή της πρώτης γραμμής μετά το τμήμα (ή το μέγεθος του αρχείου).
+     */
+    public static AisCsvReader open(Path path, long start, long end) throws IOException {
+        return open(path, start, end, MAP_WINDOW_BYTES);
+    }
+
+    static AisCsvReader open(Path path, long start, long end, int windowBytes) throws IOException {
+        return new AisCsvReader(FileChannel.open(path, StandardOpenOption.READ), true, null, ByteBuffer.allocate(0), windowBytes, start, end);
+    }
+
+    /**
+     * Διαβάζει ένα τμήμα ενός ήδη ανοιχτού αρχείου, το οποίο δεν κλείνει μαζί με τον reader.
+     */
+    static AisCsvReader open(FileChannel shared, long start, long end) {
+        return new AisCsvReader(shared, false, null, ByteBuffer.allocate(0), MAP_WINDOW_BYTES, start, end);
+    }
+
+    /**
+     * Διαβάζει από ένα InputStream, μέσω ενός direct buffer. Το stream κλείνει μαζί με τον reader.
+     */
+    public static AisCsvReader open(InputStream in) {
+        return open(in, STREAM_BUFFER_BYTES);
+    }
+
+    static AisCsvReader open(InputStream in, int bufferBytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bufferBytes);
+        buffer.limit(0);
+        return new AisCsvReader(null, false, Channels.newChannel(in), buffer, bufferBytes, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Αναλύει την επόμενη έγκυρη γραμμή στην εγγραφή.
+     *
+     * @param into Η εγγραφή που θα γεμίσει· τα πεδία της αντικαθίστανται.
+     * @return false στο τέλος του αρχείου.
+     */
+    @Override
+    public boolean next(AisRecord into) throws IOException {
+        while (true) {
+            int newline = indexOfNewline(position);
+            int lineEnd;
+            if (newline >= 0) {
+                lineEnd = newline;
+            } else if (!exhausted) {
+                refill();
+                continue;
+            } else if (position < limit) {
+                // Η τελευταία γραμμή χωρίς αλλαγή γραμμής στο τέλος.
+                lineEnd = limit;
+            } else {
+                return false;
+            }
+
+            int lineStart = position;
+            position = newline >= 0 ? newline + 1 : limit;
+            if (headerPending) {
+                headerPending = false;
+                continue;
+            }
+            if (isBlank(lineStart, lineEnd)) {
+                continue;
+            }
+            if (parse(lineStart, lineEnd, into)) {
+                records++;
+                recordOffset = bufferOffset + lineStart;
+                return true;
+            }
+            malformedLines++;
+        }
+    }
+
+    /**
+     * @return Οι έγκυρες εγγραφές που έχουν διαβαστεί.
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * @return Η θέση στο αρχείο της αρχής της γραμμής της τελευταίας εγγραφής (μόνο για αρχεία).
+     */
+    long getRecordOffset() {
+        return recordOffset;
+    }
+
+    @Override
+    public long getMalformedLines() {
+        return malformedLines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (stream != null) {
+            stream.close();
+        } else if (ownsFile) {
+            file.close();
+        }
+    }
+
+    private int indexOfNewline(int from) {
+        ByteBuffer b = buffer;
+        for (int i = from; i < limit; i++) {
+            if (b.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Φέρνει στον buffer τα επόμενα bytes, ξεκινώντας από την αρχή της τρέχουσας (μισής) γραμμής.
+     */
+    private void refill() throws IOException {
+        if (position == 0 && limit >= windowBytes) {
+            throw new IOException("CSV line longer than " + windowBytes + " bytes");
+        }
+        if (file != null) {
+            bufferOffset += position;
+            int size = (int) Math.min(end - bufferOffset, windowBytes);
+            // Το προηγούμενο παράθυρο αποδεσμεύεται από τον garbage collector.
+            buffer = file.map(FileChannel.MapMode.READ_ONLY, bufferOffset, size);
+            limit = size;
+            exhausted = bufferOffset + size >= end;
+        } else {
+            buffer.limit(limit).position(position);
+            buffer.compact();
+            while (buffer.hasRemaining()) {
+                if (stream.read(buffer) < 0) {
+                    exhausted = true;
+                    break;
+                }
+            }
+            buffer.flip();
+            limit = buffer.limit();
+        }
+        position = 0;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean parse(int lineStart, int lineEnd, AisRecord into) {
+        ByteBuffer b = buffer;
+        int column = 0;
+        fieldStart[0] = lineStart;
+        for (int i = lineStart; i < lineEnd; i++) {
+            if (b.get(i) == ',') {
+                if (column == COLUMNS - 1) {
+                    return malformed("expected 9 columns", lineStart, lineEnd);
+                }
+                fieldEnd[column++] = i;
+                fieldStart[column] = i + 1;
+            }
+        }
+        if (column != COLUMNS - 1) {
+            return malformed("expected 9 columns", lineStart, lineEnd);
+        }
+        fieldEnd[column] = lineEnd;
+        // Αφαίρεση των κενών (και του '\r') γύρω από κάθε πεδίο, όπως έκανε το trim().
+        for (int c = 0; c < COLUMNS; c++) {
+            int from = fieldStart[c];
+            int to = fieldEnd[c];
+            while (from < to && b.get(from) <= ' ') {
+                from++;
+            }
+            while (to > from && b.get(to - 1) <= ' ') {
+                to--;
+            }
+            fieldStart[c] = from;
+            fieldEnd[c] = to;
+        }
+
+        try {
+            if (!into.setMmsi(b, fieldStart[0], fieldEnd[0] - fieldStart[0])) {
+                return malformed("invalid MMSI", lineStart, lineEnd);
+            }
+            into.setNavigationalStatus(Math.toIntExact(parseLong(b, fieldStart[1], fieldEnd[1])));
+            into.setRateOfTurn(parseOptional(b, fieldStart[2], fieldEnd[2]));
+            into.setSpeedOverGround(parseDouble(b, fieldStart[3], fieldEnd[3]));
+            into.setCourseOverGround(parseDouble(b, fieldStart[4], fieldEnd[4]));
+            into.setTrueHeading(parseHeading(b, fieldStart[5], fieldEnd[5]));
+            into.setLongitude(parseDouble(b, fieldStart[6], fieldEnd[6]));
+            into.setLatitude(parseDouble(b, fieldStart[7], fieldEnd[7]));
+            into.setTimestampEpoch(parseLong(b, fieldStart[8], fieldEnd[8]));
+            return true;
+        } catch (NumberFormatException | ArithmeticException e) {
+            return malformed(e.getMessage(), lineStart, lineEnd);
+        }
+    }
+
+    private boolean malformed(String reason, int lineStart, int lineEnd) {
+        log.error("SIMULATION: Malformed CSV line ({}): {}", reason, text(buffer, lineStart, lineEnd));
+        return false;
+    }
+
+    /** Ο ρυθμός στροφής: {@code NaN} αν λείπει ή δεν αναλύεται. */
+    private double parseOptional(ByteBuffer b, int from, int to) {
+        if (from == to || isNotAvailable(b, from, to)) {
+            return Double.NaN;
+        }
+        try {
+            return parseDouble(b, from, to);
+        } catch (NumberFormatException e) {
+            log.warn("SIMULATION: Could not parse Double: '{}'", text(b, from, to));
+            return Double.NaN;
+        }
+    }
+
+    /** Η κατεύθυνση: {@link AisRecord#NO_HEADING} αν λείπει ή δεν αναλύεται. */
+    private int parseHeading(ByteBuffer b, int from, int to) {
+        if (from == to || isNotAvailable(b, from, to)) {
+            return AisRecord.NO_HEADING;
+        }
+        try {
+            return Math.toIntExact(parseLong(b, from, to));
+        } catch (NumberFormatException | ArithmeticException e) {
+            log.warn("SIMULATION: Could not parse TrueHeading: '{}', using default: {}", text(b, from, to), AisRecord.NO_HEADING);
+            return AisRecord.NO_HEADING;
+        }
+    }
+
+    private static boolean isNotAvailable(ByteBuffer b, int from, int to) {
+        return to - from == 2 && (b.get(from) | 0x20) == 'n' && (b.get(from + 1) | 0x20) == 'a';
+    }
+
+    /**
+     * Αναλύει έναν ακέραιο· δίνει το ίδιο αποτέλεσμα με το {@link Long#parseLong(String)}.
+     */
+    static long parseLong(ByteBuffer b, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (b.get(i) == '-' || b.get(i) == '+')) {
+            negative = b.get(i) == '-';
+            i++;
+        }
+        // Με έως 18 ψηφία δεν υπάρχει υπερχείλιση· τα υπόλοιπα τα χειρίζεται το Long.parseLong.
+        if (i == to || to - i > 18) {
+            return Long.parseLong(text(b, from, to));
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = b.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.parseLong(text(b, from, to));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Αναλύει έναν δεκαδικό αριθμό· δίνει ακριβώς το ίδιο αποτέλεσμα με το {@link Double#parseDouble(String)}.
+     * Για αριθμούς με έως {@value #MAX_EXACT_DIGITS} σημαντικά ψηφία και έως 22 δεκαδικά, το ακέραιο μέρος και
+     * η δύναμη του 10 είναι ακριβή double, οπότε μία διαίρεση δίνει τη σωστά στρογγυλεμένη τιμή.
+     * Οι υπόλοιπες μορφές (εκθέτες, πολλά ψηφία, άκυρες τιμές) περνούν στο {@link Double#parseDouble(String)}.
+     */
+    static double parseDouble(ByteBuffer b, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (b.get(i) == '-' || b.get(i) == '+')) {
+            negative = b.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int scale = 0;
+        boolean anyDigit = false;
+        boolean fraction = false;
+        for (; i < to; i++) {
+            byte c = b.get(i);
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                if (fraction) {
+                    scale++;
+                }
+                if (mantissa == 0 && c == '0') {
+                    continue;
+                }
+                if (++significantDigits > MAX_EXACT_DIGITS) {
+                    return Double.parseDouble(text(b, from, to));
+                }
+                mantissa = mantissa * 10 + (c - '0');
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                return Double.parseDouble(text(b, from, to));
+            }
+        }
+        if (!anyDigit || scale >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(text(b, from, to));
+        }
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private static String text(ByteBuffer b, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        b.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,181 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Επαναχρησιμοποιήσιμη εγγραφή στην οποία ο {@link AisCsvReader} αναλύει μια γραμμή του CSV.
+ * Τα πεδία είναι πρωτογενή και το MMSI κρατιέται ως bytes, ώστε η ανάλυση να μη δεσμεύει αντικείμενα·
+ * το {@link AisData} δημιουργείται μόνο όταν η εγγραφή πρόκειται να σταλεί.
+ * Ο ρυθμός στροφής που λείπει αναπαριστάται με {@code NaN} και η κατεύθυνση που λείπει με {@link #NO_HEADING}.
+ *
+ * Δεν είναι thread-safe· κάθε thread χρησιμοποιεί τη δική του εγγραφή.
+ */
+public final class AisRecord {
+
+    /** Η κατεύθυνση δεν είναι διαθέσιμη (η τιμή 511 του AIS). */
+    public static final int NO_HEADING = 511;
+    /** Το μέγιστο μήκος του MMSI σε bytes. */
+    static final int MAX_MMSI_LENGTH = 32;
+
+    private final byte[] mmsi = new byte[MAX_MMSI_LENGTH];
+    private int mmsiLength;
+    private int navigationalStatus;
+    private double rateOfTurn;
+    private double speedOverGround;
+    private double courseOverGround;
+    private int trueHeading;
+    private double longitude;
+    private double latitude;
+    private long timestampEpoch;
+
+    /**
+     * @return Το MMSI ως String (δημιουργείται σε κάθε κλήση).
+     */
+    public String getMmsi() {
+        return new String(mmsi, 0, mmsiLength, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Αντιγράφει το MMSI από τα bytes της γραμμής.
+     *
+     * @return false αν το MMSI είναι κενό ή μεγαλύτερο από {@link #MAX_MMSI_LENGTH} bytes.
+     */
+    boolean setMmsi(ByteBuffer source, int index, int length) {
+        if (length <= 0 || length > MAX_MMSI_LENGTH) {
+            return false;
+        }
+        source.get(index, mmsi, 0, length);
+        mmsiLength = length;
+        return true;
+    }
+
+    boolean setMmsi(byte[] source, int offset, int length) {
+        if (length <= 0 || length > MAX_MMSI_LENGTH) {
+            return false;
+        }
+        System.arraycopy(source, offset, mmsi, 0, length);
+        mmsiLength = length;
+        return true;
+    }
+
+    int getMmsiLength() {
+        return mmsiLength;
+    }
+
+    /**
+     * Αντιγράφει τα bytes του MMSI στη δοσμένη θέση.
+     */
+    void copyMmsiTo(byte[] target, int offset) {
+        System.arraycopy(mmsi, 0, target, offset, mmsiLength);
+    }
+
+    /**
+     * Ορίζει το MMSI από ένα String (π.χ. για εγγραφές που δεν προέρχονται από CSV).
+     */
+    public void setMmsi(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+        if (!setMmsi(bytes, 0, bytes.length)) {
+            throw new IllegalArgumentException("Invalid MMSI: '" + value + "'");
+        }
+    }
+
+    /**
+     * Αντιγράφει όλα τα πεδία μιας άλλης εγγραφής.
+     */
+    public void copyFrom(AisRecord other) {
+        System.arraycopy(other.mmsi, 0, mmsi, 0, other.mmsiLength);
+        mmsiLength = other.mmsiLength;
+        navigationalStatus = other.navigationalStatus;
+        rateOfTurn = other.rateOfTurn;
+        speedOverGround = other.speedOverGround;
+        courseOverGround = other.courseOverGround;
+        trueHeading = other.trueHeading;
+        longitude = other.longitude;
+        latitude = other.latitude;
+        timestampEpoch = other.timestampEpoch;
+    }
+
+    /**
+     * @return Ένα νέο {@link AisData} με τα πεδία της εγγραφής, όπως το δημιουργούσε η ανάλυση με {@code split}.
+     */
+    public AisData toAisData() {
+        return AisData.builder()
+                .mmsi(getMmsi())
+                .navigationalStatus(navigationalStatus)
+                .rateOfTurn(Double.isNaN(rateOfTurn) ? null : rateOfTurn)
+                .speedOverGround(speedOverGround)
+                .courseOverGround(courseOverGround)
+                .trueHeading(trueHeading)
+                .longitude(longitude)
+                .latitude(latitude)
+                .timestampEpoch(timestampEpoch)
+                .build();
+    }
+
+    public int getNavigationalStatus() {
+        return navigationalStatus;
+    }
+
+    public void setNavigationalStatus(int navigationalStatus) {
+        this.navigationalStatus = navigationalStatus;
+    }
+
+    public double getRateOfTurn() {
+        return rateOfTurn;
+    }
+
+    public void setRateOfTurn(double rateOfTurn) {
+        this.rateOfTurn = rateOfTurn;
+    }
+
+    public double getSpeedOverGround() {
+        return speedOverGround;
+    }
+
+    public void setSpeedOverGround(double speedOverGround) {
+        this.speedOverGround = speedOverGround;
+    }
+
+    public double getCourseOverGround() {
+        return courseOverGround;
+    }
+
+    public void setCourseOverGround(double courseOverGround) {
+        this.courseOverGround = courseOverGround;
+    }
+
+    public int getTrueHeading() {
+        return trueHeading;
+    }
+
+    public void setTrueHeading(int trueHeading) {
+        this.trueHeading = trueHeading;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public long getTimestampEpoch() {
+        return timestampEpoch;
+    }
+
+    public void setTimestampEpoch(long timestampEpoch) {
+        this.timestampEpoch = timestampEpoch;
+    }
+}
@@ -0,0 +1,91 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import java.util.Arrays;
+
+/**
+ * Οι εγγραφές ενός τμήματος του CSV, σε πρωτογενείς πίνακες (structure of arrays).
+ * Ένα batch γεμίζει σε ένα thread ανάλυσης, διαβάζεται από το thread της αναπαραγωγής
+ * και στη συνέχεια ξαναχρησιμοποιείται με {@link #clear()}, ώστε να μη δεσμεύονται νέοι πίνακες ανά τμήμα.
+ */
+final class AisRecordBatch {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private byte[] mmsiBytes = new byte[INITIAL_CAPACITY * 9];
+    private int mmsiBytesUsed;
+    private int[] mmsiOffsets = new int[INITIAL_CAPACITY + 1];
+    private int[] navigationalStatuses = new int[INITIAL_CAPACITY];
+    private double[] ratesOfTurn = new double[INITIAL_CAPACITY];
+    private double[] speedsOverGround = new double[INITIAL_CAPACITY];
+    private double[] coursesOverGround = new double[INITIAL_CAPACITY];
+    private int[] trueHeadings = new int[INITIAL_CAPACITY];
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private int size;
+
+    void clear() {
+        size = 0;
+        mmsiBytesUsed = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(AisRecord record) {
+        if (size == timestamps.length) {
+            grow();
+        }
+        int mmsiLength = record.getMmsiLength();
+        if (mmsiBytesUsed + mmsiLength > mmsiBytes.length) {
+            mmsiBytes = Arrays.copyOf(mmsiBytes, Math.max(mmsiBytes.length * 2, mmsiBytesUsed + mmsiLength));
+        }
+        record.copyMmsiTo(mmsiBytes, mmsiBytesUsed);
+        mmsiOffsets[size] = mmsiBytesUsed;
+        mmsiBytesUsed += mmsiLength;
+        mmsiOffsets[size + 1] = mmsiBytesUsed;
+
+        navigationalStatuses[size] = record.getNavigationalStatus();
+        ratesOfTurn[size] = record.getRateOfTurn();
+        speedsOverGround[size] = record.getSpeedOverGround();
+        coursesOverGround[size] = record.getCourseOverGround();
+        trueHeadings[size] = record.getTrueHeading();
+        longitudes[size] = record.getLongitude();
+        latitudes[size] = record.getLatitude();
+        timestamps[size] = record.getTimestampEpoch();
+        size++;
+    }
+
+    long timestamp(int index) {
+        return timestamps[index];
+    }
+
+    /**
+     * Αντιγράφει την εγγραφή στη θέση {@code index} στην εγγραφή του καλούντα.
+     */
+    void read(int index, AisRecord into) {
+        into.setMmsi(mmsiBytes, mmsiOffsets[index], mmsiOffsets[index + 1] - mmsiOffsets[index]);
+        into.setNavigationalStatus(navigationalStatuses[index]);
+        into.setRateOfTurn(ratesOfTurn[index]);
+        into.setSpeedOverGround(speedsOverGround[index]);
+        into.setCourseOverGround(coursesOverGround[index]);
+        into.setTrueHeading(trueHeadings[index]);
+        into.setLongitude(longitudes[index]);
+        into.setLatitude(latitudes[index]);
+        into.setTimestampEpoch(timestamps[index]);
+    }
+
+    private void grow() {
+        int capacity = timestamps.length * 2;
+        mmsiOffsets = Arrays.copyOf(mmsiOffsets, capacity + 1);
+        navigationalStatuses = Arrays.copyOf(navigationalStatuses, capacity);
+        ratesOfTurn = Arrays.copyOf(ratesOfTurn, capacity);
+        speedsOverGround = Arrays.copyOf(speedsOverGround, capacity);
+        coursesOverGround = Arrays.copyOf(coursesOverGround, capacity);
+        trueHeadings = Arrays.copyOf(trueHeadings, capacity);
+        longitudes = Arrays.copyOf(longitudes, capacity);
+        latitudes = Arrays.copyOf(latitudes, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+    }
+}
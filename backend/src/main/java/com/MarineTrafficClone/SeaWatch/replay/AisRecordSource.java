@@ -0,0 +1,26 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Μια πηγή εγγραφών AIS για την αναπαραγωγή, ταξινομημένων κατά χρονοσφραγίδα.
+ * Κάθε κλήση της {@link #next(AisRecord)} γεμίζει την ίδια επαναχρησιμοποιήσιμη εγγραφή του καλούντα.
+ */
+public interface AisRecordSource extends Closeable {
+
+    /**
+     * Γεμίζει την εγγραφή με την επόμενη εγγραφή της πηγής.
+     *
+     * @param into Η εγγραφή που θα γεμίσει· τα πεδία της αντικαθίστανται.
+     * @return false όταν η πηγή τελείωσε.
+     */
+    boolean next(AisRecord into) throws IOException;
+
+    /**
+     * @return Οι γραμμές που παραλείφθηκαν ως άκυρες μέχρι στιγμής.
+     */
+    default long getMalformedLines() {
+        return 0;
+    }
+}
@@ -0,0 +1,159 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Συγχωνεύει πολλές ταξινομημένες πηγές (π.χ. ένα CSV ανά περιοχή ή ανά ημέρα) σε μία ροή ταξινομημένη
+ * κατά χρονοσφραγίδα (k-way merge).
+ *
+ * Κάθε πηγή διαβάζεται μπροστά σε ένα {@link AisRecordBatch} έως {@code readAhead} εγγραφών, και ένα
+ * δυαδικό min-heap με τους δείκτες των πηγών δίνει σε O(log k) την πηγή με τη μικρότερη επόμενη χρονοσφραγίδα.
+ * Η μνήμη είναι σταθερή: k buffers, ανεξάρτητα από το πλήθος των εγγραφών. Εγγραφές με την ίδια χρονοσφραγίδα
+ * δίνονται με τη σειρά των πηγών, και μέσα σε κάθε πηγή με τη σειρά του αρχείου.
+ *
+ * Δεν είναι thread-safe.
+ */
+public final class MergedAisRecordSource implements AisRecordSource {
+
+    private final AisRecordSource[] sources;
+    private final AisRecordBatch[] buffers;
+    private final int[] cursors;
+    private final int readAhead;
+    /** Οι πηγές που έχουν ακόμα εγγραφές, ως min-heap κατά (επόμενη χρονοσφραγίδα, δείκτης πηγής). */
+    private final int[] heap;
+    private int heapSize;
+    private final AisRecord scratch = new AisRecord();
+
+    private MergedAisRecordSource(List<? extends AisRecordSource> sources, int readAhead) {
+        this.sources = sources.toArray(new AisRecordSource[0]);
+        this.buffers = new AisRecordBatch[this.sources.length];
+        this.cursors = new int[this.sources.length];
+        this.heap = new int[this.sources.length];
+        this.readAhead = readAhead;
+    }
+
+    /**
+     * Γεμίζει τον buffer κάθε πηγής. Οι πηγές κλείνουν μαζί με το αποτέλεσμα (ή αμέσως, αν αποτύχει το άνοιγμα).
+     *
+     * @param sources   Οι πηγές, καθεμία ταξινομημένη κατά χρονοσφραγίδα.
+     * @param readAhead Πόσες εγγραφές διαβάζονται μπροστά από κάθε πηγή.
+     */
+    public static MergedAisRecordSource open(List<? extends AisRecordSource> sources, int readAhead) throws IOException {
+        if (readAhead < 1) {
+            throw new IllegalArgumentException("readAhead must be positive");
+        }
+        MergedAisRecordSource merged = new MergedAisRecordSource(sources, readAhead);
+        try {
+            for (int i = 0; i < merged.sources.length; i++) {
+                merged.buffers[i] = new AisRecordBatch();
+                if (merged.fill(i)) {
+                    merged.heap[merged.heapSize] = i;
+                    merged.siftUp(merged.heapSize++);
+                }
+            }
+            return merged;
+        } catch (IOException | RuntimeException e) {
+            merged.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean next(AisRecord into) throws IOException {
+        if (heapSize == 0) {
+            return false;
+        }
+        int source = heap[0];
+        buffers[source].read(cursors[source]++, into);
+        if (cursors[source] == buffers[source].size() && !fill(source)) {
+            // Η πηγή τελείωσε: τη θέση της στη ρίζα παίρνει το τελευταίο στοιχείο του heap.
+            heap[0] = heap[--heapSize];
+        }
+        if (heapSize > 0) {
+            siftDown(0);
+        }
+        return true;
+    }
+
+    @Override
+    public long getMalformedLines() {
+        long malformed = 0;
+        for (AisRecordSource source : sources) {
+            malformed += source.getMalformedLines();
+        }
+        return malformed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (AisRecordSource source : sources) {
+            try {
+                source.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Διαβάζει τις επόμενες έως {@code readAhead} εγγραφές της πηγής στον buffer της.
+     *
+     * @return false αν η πηγή δεν έχει άλλες εγγραφές.
+     */
+    private boolean fill(int source) throws IOException {
+        AisRecordBatch buffer = buffers[source];
+        buffer.clear();
+        cursors[source] = 0;
+        while (buffer.size() < readAhead && sources[source].next(scratch)) {
+            buffer.add(scratch);
+        }
+        return buffer.size() > 0;
+    }
+
+    private boolean before(int a, int b) {
+        long ta = buffers[a].timestamp(cursors[a]);
+        long tb = buffers[b].timestamp(cursors[b]);
+        return ta < tb || (ta == tb && a < b);
+    }
+
+    private void siftUp(int i) {
+        int source = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(source, heap[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = source;
+    }
+
+    private void siftDown(int i) {
+        int source = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], source)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = source;
+    }
+}
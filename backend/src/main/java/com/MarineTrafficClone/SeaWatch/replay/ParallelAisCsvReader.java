@@ -0,0 +1,207 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Διαβάζει ένα CSV αναλύοντας τμήματά του παράλληλα και δίνει τις εγγραφές με την ίδια σειρά
+ * με τον {@link AisCsvReader}.
+ *
+ * Το αρχείο χωρίζεται σε τμήματα περίπου {@code chunkBytes} bytes, με όρια στην αρχή γραμμών. Κάθε τμήμα
+ * αναλύεται σε ένα {@link AisRecordBatch} από ένα {@link ForkJoinPool}. Τα τμήματα ολοκληρώνονται με
+ * οποιαδήποτε σειρά, αλλά καταναλώνονται με τη σειρά του αρχείου (άρα και των χρονοσφραγίδων, αφού το αρχείο
+ * είναι ταξινομημένο). Το παράθυρο αναδιάταξης έχει σταθερό μέγεθος: για κάθε τμήμα που καταναλώνεται
+ * ξεκινά η ανάλυση του επόμενου, οπότε η μνήμη δεν εξαρτάται από το μέγεθος του αρχείου.
+ *
+ * Η {@link #next(AisRecord)} καλείται από ένα μόνο thread.
+ */
+public final class ParallelAisCsvReader implements AisRecordSource {
+
+    /** Πόσα bytes διαβάζονται κάθε φορά για την εύρεση της αρχής της επόμενης γραμμής. */
+    private static final int PROBE_BYTES = 64 * 1024;
+
+    /** Το αρχείο, κοινό για όλα τα threads ανάλυσης (η αντιστοίχιση στη μνήμη είναι thread-safe). */
+    private final FileChannel file;
+    private final long[] boundaries;
+    private final ForkJoinPool pool;
+    /** Τα τμήματα που αναλύονται ή περιμένουν να καταναλωθούν, με τη σειρά του αρχείου. */
+    private final ArrayDeque<ForkJoinTask<AisRecordBatch>> reorderWindow = new ArrayDeque<>();
+    private final ConcurrentLinkedQueue<AisRecordBatch> freeBatches = new ConcurrentLinkedQueue<>();
+    private final AtomicLong malformedLines = new AtomicLong();
+
+    private int nextChunk;
+    private AisRecordBatch current;
+    private int cursor;
+
+    private ParallelAisCsvReader(FileChannel file, long[] boundaries, int threads, int window) {
+        this.file = file;
+        this.boundaries = boundaries;
+        this.pool = new ForkJoinPool(threads);
+        for (int i = 0; i < window; i++) {
+            submitNextChunk();
+        }
+    }
+
+    /**
+     * @param path       Το αρχείο CSV.
+     * @param threads    Τα threads ανάλυσης.
+     * @param chunkBytes Το (κατά προσέγγιση) μέγεθος κάθε τμήματος.
+     * @param window     Πόσα τμήματα μπορούν να αναλύονται ή να περιμένουν ταυτόχρονα.
+     */
+    public static ParallelAisCsvReader open(Path path, int threads, long chunkBytes, int window) throws IOException {
+        return open(path, 0, threads, chunkBytes, window);
+    }
+
+    /**
+     * Διαβάζει το αρχείο από μια θέση και μετά (π.χ. από τη θέση που δίνει ένα {@link TimestampIndex}).
+     *
+     * @param start Η αρχή μιας γραμμής (ή 0, οπότε η πρώτη γραμμή είναι η κεφαλίδα).
+     */
+    public static ParallelAisCsvReader open(Path path, long start, int threads, long chunkBytes, int window) throws IOException {
+        if (threads < 1 || chunkBytes < 1 || window < 1) {
+            throw new IllegalArgumentException("threads, chunkBytes and window must be positive");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new ParallelAisCsvReader(channel, chunkBoundaries(channel, start, chunkBytes), threads, window);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean next(AisRecord into) throws IOException {
+        while (current == null || cursor == current.size()) {
+            if (current != null) {
+                freeBatches.offer(current);
+                current = null;
+            }
+            ForkJoinTask<AisRecordBatch> chunk = reorderWindow.poll();
+            if (chunk == null) {
+                return false;
+            }
+            current = await(chunk);
+            cursor = 0;
+            submitNextChunk();
+        }
+        current.read(cursor++, into);
+        return true;
+    }
+
+    @Override
+    public long getMalformedLines() {
+        return malformedLines.get();
+    }
+
+    /**
+     * @return Ο αριθμός των τμημάτων στα οποία χωρίστηκε το αρχείο.
+     */
+    public int getChunkCount() {
+        return boundaries.length - 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reorderWindow.forEach(chunk -> chunk.cancel(true));
+        reorderWindow.clear();
+        pool.shutdownNow();
+        file.close();
+    }
+
+    private void submitNextChunk() {
+        if (nextChunk < boundaries.length - 1) {
+            int chunk = nextChunk++;
+            reorderWindow.add(pool.submit(() -> parseChunk(chunk)));
+        }
+    }
+
+    private AisRecordBatch parseChunk(int chunk) throws IOException {
+        AisRecordBatch batch = freeBatches.poll();
+        if (batch == null) {
+            batch = new AisRecordBatch();
+        }
+        batch.clear();
+        AisRecord record = new AisRecord();
+        try (AisCsvReader reader = AisCsvReader.open(file, boundaries[chunk], boundaries[chunk + 1])) {
+            while (reader.next(record)) {
+                batch.add(record);
+            }
+            malformedLines.addAndGet(reader.getMalformedLines());
+        }
+        return batch;
+    }
+
+    private static AisRecordBatch await(ForkJoinTask<AisRecordBatch> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a parsed CSV chunk");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Failed to parse a CSV chunk", e.getCause());
+        }
+    }
+
+    /**
+     * Χωρίζει το αρχείο σε τμήματα: το τμήμα {@code i} είναι το {@code [b[i], b[i+1])} και κάθε όριο
+     * είναι η αρχή μιας γραμμής, η πρώτη μετά από {@code chunkBytes} bytes από το προηγούμενο όριο.
+     */
+    static long[] chunkBoundaries(FileChannel channel, long chunkBytes) throws IOException {
+        return chunkBoundaries(channel, 0, chunkBytes);
+    }
+
+    static long[] chunkBoundaries(FileChannel channel, long from, long chunkBytes) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(Math.min(from, size));
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_BYTES);
+        long start = from;
+        while (size - start > chunkBytes) {
+            long lineStart = nextLineStart(channel, start + chunkBytes, probe);
+            if (lineStart >= size) {
+                break;
+            }
+            boundaries.add(lineStart);
+            start = lineStart;
+        }
+        boundaries.add(size);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * @return Η αρχή της πρώτης γραμμής που ξεκινά στο {@code from} ή μετά, ή το μέγεθος του αρχείου.
+     */
+    private static long nextLineStart(FileChannel channel, long from, ByteBuffer probe) throws IOException {
+        // Η γραμμή ξεκινά στο from αν το προηγούμενο byte είναι αλλαγή γραμμής.
+        long position = from - 1;
+        while (true) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Ρυθμίζει τον χρόνο αποστολής των εγγραφών της αναπαραγωγής ώστε να ακολουθούν τις χρονοσφραγίδες τους,
+ * επιταχυμένες κατά τον παράγοντα ταχύτητας.
+ *
+ * Οι εγγραφές με την ίδια χρονοσφραγίδα αποτελούν μία ομάδα: η {@link #awaitDue(long)} περιμένει μόνο για
+ * την πρώτη εγγραφή κάθε ομάδας και οι υπόλοιπες στέλνονται αμέσως, η μία μετά την άλλη. Η στιγμή κάθε ομάδας
+ * υπολογίζεται από ένα σταθερό σημείο αναφοράς με μονοτονικό ρολόι και όχι ως καθυστέρηση από την προηγούμενη,
+ * οπότε η ακρίβεια του sleep και ο χρόνος των αποστολών δεν αθροίζονται σε απόκλιση. Αν η αναπαραγωγή
+ * καθυστερήσει, οι επόμενες ομάδες στέλνονται χωρίς αναμονή μέχρι να καλύψει τη διαφορά.
+ *
+ * Όταν αλλάζει ο παράγοντας ταχύτητας, το σημείο αναφοράς μετακινείται στη θέση του χρονοδιαγράμματος εκείνη
+ * τη στιγμή, ώστε ο νέος ρυθμός να ισχύει από εκεί και πέρα (και κατά τη διάρκεια μιας μεγάλης αναμονής).
+ * Με παράγοντα 0 (παύση) το χρονοδιάγραμμα σταματά στη θέση του και συνεχίζει από εκεί όταν ξαναγίνει θετικός.
+ *
+ * Δεν είναι thread-safe· χρησιμοποιείται από το thread της αναπαραγωγής.
+ */
+public final class ReplayPacer {
+
+    /** Η μέγιστη διάρκεια κάθε αναμονής, ώστε μια αλλαγή ταχύτητας να εφαρμόζεται γρήγορα. */
+    static final long MAX_SLEEP_NANOS = 100_000_000L;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Αναμονή για ένα διάστημα (αντικαθίσταται στα tests).
+     */
+    @FunctionalInterface
+    public interface Sleeper {
+        void sleepNanos(long nanos) throws InterruptedException;
+    }
+
+    /**
+     * Ο ρυθμός της αναπαραγωγής από την προηγούμενη αναφορά.
+     *
+     * @param targetSpeed Ο ζητούμενος παράγοντας ταχύτητας.
+     * @param actualSpeed Τα δευτερόλεπτα δεδομένων που στάλθηκαν ανά δευτερόλεπτο, ή {@code NaN} αν δεν στάλθηκαν δύο ομάδες.
+     * @param lagMillis   Πόσο αργότερα από την προγραμματισμένη στιγμή στάλθηκε η τελευταία ομάδα.
+     * @param groups      Οι ομάδες (διαφορετικές χρονοσφραγίδες) που στάλθηκαν.
+     */
+    public record Report(double targetSpeed, double actualSpeed, long lagMillis, long groups) {
+
+        /**
+         * @return Η σχετική απόκλιση του πραγματικού ρυθμού από τον ζητούμενο (π.χ. -0.05 για 5% πιο αργά),
+         *         ή {@code NaN} σε παύση (ζητούμενος παράγοντας 0), όπου η απόκλιση δεν ορίζεται.
+         */
+        public double drift() {
+            if (targetSpeed <= 0) {
+                return Double.NaN;
+            }
+            return actualSpeed / targetSpeed - 1;
+        }
+    }
+
+    private final DoubleSupplier speedFactor;
+    private final BooleanSupplier cancelWait;
+    private final LongSupplier nanoClock;
+    private final Sleeper sleeper;
+
+    private boolean started;
+    /** Το σημείο αναφοράς: τη στιγμή anchorNanos το χρονοδιάγραμμα βρίσκεται στη χρονοσφραγίδα anchorEpoch. */
+    private long anchorNanos;
+    private double anchorEpoch;
+    private double anchorSpeed;
+
+    private long currentEpoch;
+    private long currentReleaseNanos;
+    private long lagNanos;
+    private long outOfOrder;
+
+    private long pausedSinceNanos;
+
+    private long windowNanos;
+    private long windowEpoch;
+    private long windowGroups;
+
+    /**
+     * @param speedFactor Ο τρέχων παράγοντας ταχύτητας (διαβάζεται σε κάθε νέα ομάδα και κατά την αναμονή)·
+     *                    0 σημαίνει παύση.
+     * @param cancelWait  Αν η τρέχουσα αναμονή πρέπει να διακοπεί (ελέγχεται κατά την αναμονή).
+     */
+    public ReplayPacer(DoubleSupplier speedFactor, BooleanSupplier cancelWait) {
+        this(speedFactor, cancelWait, System::nanoTime, ReplayPacer::park);
+    }
+
+    ReplayPacer(DoubleSupplier speedFactor, BooleanSupplier cancelWait, LongSupplier nanoClock, Sleeper sleeper) {
+        this.speedFactor = speedFactor;
+        this.cancelWait = cancelWait;
+        this.nanoClock = nanoClock;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Περιμένει μέχρι τη στιγμή της ομάδας στην οποία ανήκει η εγγραφή.
+     * Μια εγγραφή της τρέχουσας ομάδας, ή με παλαιότερη χρονοσφραγίδα (μη ταξινομημένο αρχείο), δεν περιμένει,
+     * εκτός αν η αναπαραγωγή είναι σε παύση (παράγοντας ταχύτητας 0). Η αναμονή διακόπτεται χωρίς να σταλεί
+     * η εγγραφή μόλις το {@code cancelWait} γίνει true· ο καλών ελέγχει τότε ο ίδιος τον λόγο της διακοπής.
+     *
+     * @param timestampEpoch Η χρονοσφραγίδα της εγγραφής σε δευτερόλεπτα.
+     * @return true αν η εγγραφή ξεκινά νέα ομάδα.
+     */
+    public boolean awaitDue(long timestampEpoch) throws InterruptedException {
+        boolean newGroup = !started || timestampEpoch > currentEpoch;
+        if (started && timestampEpoch < currentEpoch) {
+            outOfOrder++;
+        }
+
+        while (!cancelWait.getAsBoolean()) {
+            long now = nanoClock.getAsLong();
+            double speed = speedFactor.getAsDouble();
+            if (!started) {
+                if (speed > 0) {
+                    start(timestampEpoch, now, speed);
+                    return true;
+                }
+            } else {
+                if (speed != anchorSpeed) {
+                    reanchor(now, speed);
+                }
+                if (speed > 0) {
+                    if (!newGroup) {
+                        return false;
+                    }
+                    long due = dueNanos(timestampEpoch);
+                    if (now >= due) {
+                        release(timestampEpoch, due, now);
+                        return true;
+                    }
+                    sleeper.sleepNanos(Math.min(due - now, MAX_SLEEP_NANOS));
+                    continue;
+                }
+            }
+            // Σε παύση.
+            sleeper.sleepNanos(MAX_SLEEP_NANOS);
+        }
+        return false;
+    }
+
+    /**
+     * Ξεχνά το χρονοδιάγραμμα, ώστε η επόμενη εγγραφή να σταλεί αμέσως και να γίνει το νέο σημείο αναφοράς
+     * (μετά από μετάβαση σε άλλη θέση του αρχείου).
+     */
+    public void reset() {
+        started = false;
+    }
+
+    /**
+     * Επιστρέφει τον ρυθμό από την προηγούμενη αναφορά και ξεκινά νέο διάστημα μέτρησης.
+     */
+    public Report report() {
+        double actual = Double.NaN;
+        if (currentReleaseNanos > windowNanos) {
+            actual = (currentEpoch - windowEpoch) / ((currentReleaseNanos - windowNanos) / NANOS_PER_SECOND);
+        }
+        Report report = new Report(speedFactor.getAsDouble(), actual, lagNanos / 1_000_000, windowGroups);
+        windowNanos = currentReleaseNanos;
+        windowEpoch = currentEpoch;
+        windowGroups = 0;
+        return report;
+    }
+
+    /**
+     * @return Οι εγγραφές που βρέθηκαν με χρονοσφραγίδα παλαιότερη από την τρέχουσα ομάδα.
+     */
+    public long getOutOfOrder() {
+        return outOfOrder;
+    }
+
+    private void start(long timestampEpoch, long now, double speed) {
+        started = true;
+        anchorNanos = now;
+        anchorEpoch = timestampEpoch;
+        anchorSpeed = speed;
+        windowNanos = now;
+        windowEpoch = timestampEpoch;
+        windowGroups = 0;
+        release(timestampEpoch, now, now);
+    }
+
+    /**
+     * Το χρονοδιάγραμμα συνεχίζει από τη θέση όπου βρίσκεται τώρα, με τον νέο ρυθμό (0 = σταματά εκεί).
+     */
+    private void reanchor(long now, double speed) {
+        anchorEpoch += (now - anchorNanos) / NANOS_PER_SECOND * anchorSpeed;
+        anchorNanos = now;
+        if (anchorSpeed == 0) {
+            // Ο χρόνος της παύσης δεν μετρά στον ρυθμό της αναπαραγωγής.
+            windowNanos += now - pausedSinceNanos;
+        } else if (speed == 0) {
+            pausedSinceNanos = now;
+        }
+        anchorSpeed = speed;
+    }
+
+    private void release(long timestampEpoch, long due, long now) {
+        currentEpoch = timestampEpoch;
+        currentReleaseNanos = now;
+        lagNanos = now - due;
+        windowGroups++;
+    }
+
+    private long dueNanos(long timestampEpoch) {
+        return anchorNanos + (long) ((timestampEpoch - anchorEpoch) * NANOS_PER_SECOND / anchorSpeed);
+    }
+
+    private static void park(long nanos) throws InterruptedException {
+        LockSupport.parkNanos(nanos);
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+}
@@ -0,0 +1,489 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Μια συνθετική πηγή εγγραφών AIS για N πλοία, για δοκιμές φόρτου πέρα από το μέγεθος του καταγεγραμμένου CSV.
+ *
+ * Κάθε πλοίο ταξιδεύει σε σκέλη μεγάλου κύκλου (great circle) προς ένα σημείο προορισμού: στρίβει προς την
+ * αρχική διόπτευση του σκέλους με τον δικό του μέγιστο ρυθμό στροφής, επιταχύνει/επιβραδύνει σταδιακά και,
+ * στο τέλος ορισμένων σκελών, σταματά (αγκυροβολία ή πρόσδεση) για κάποιο διάστημα. Ο προορισμός κάθε νέου σκέλους
+ * είναι:
+ * <ul>
+ *     <li>με πιθανότητα {@code encounterProbability}, η θέση όπου θα βρεθεί ένα άλλο πλοίο όταν το πλησιάσει,
+ *         υπολογισμένη ξανά σε κάθε βήμα (πορεία σύγκρουσης, για σχεδόν-συγκρούσεις),</li>
+ *     <li>με πιθανότητα {@code zoneCrossingProbability}, ένα σημείο μέσα σε ένα από τα {@link Hotspot},
+ *         ώστε η κίνηση να διασχίζει τις περιοχές όπου ορίζονται ζώνες,</li>
+ *     <li>αλλιώς, ένα τυχαίο σημείο της περιοχής.</li>
+ * </ul>
+ *
+ * Κάθε πλοίο αναφέρει τη θέση του με τα διαστήματα της κλάσης A του AIS (180 s σταματημένο, 10/6/2 s ανάλογα με
+ * την ταχύτητα, 3⅓ s όταν στρίβει). Ένα min-heap κατά τη στιγμή της επόμενης αναφοράς δίνει τις εγγραφές ταξινομημένες
+ * κατά χρονοσφραγίδα, οπότε η πηγή τροφοδοτεί την αναπαραγωγή όπως ένα CSV. Ο χρόνος της προσομοίωσης προχωρά
+ * μόνο με τις εγγραφές, και όλα τα τυχαία μεγέθη προέρχονται από έναν {@link SplittableRandom} με σταθερό seed:
+ * οι ίδιες ρυθμίσεις δίνουν πάντα την ίδια ακολουθία εγγραφών.
+ *
+ * Η πηγή δεν τελειώνει ποτέ. Δεν είναι thread-safe.
+ */
+public final class SyntheticFleet implements AisRecordSource {
+
+    /** Ακτίνα της Γης σε μέτρα, ίδια με αυτήν των ελέγχων ζωνών. */
+    static final double EARTH_RADIUS_METERS = 6371 * 1000;
+    private static final double METERS_PER_SECOND_PER_KNOT = 1852.0 / 3600;
+    private static final int MMSI_LENGTH = 9;
+
+    /** Το μέγιστο βήμα ολοκλήρωσης της κίνησης ανάμεσα σε δύο αναφορές. */
+    private static final double STEP_SECONDS = 10;
+    /** Επιτάχυνση/επιβράδυνση σε κόμβους ανά δευτερόλεπτο. */
+    private static final double ACCELERATION_KNOTS_PER_SECOND = 0.05;
+    /** Απόσταση από τον προορισμό μέσα στην οποία ένα σκέλος θεωρείται ότι ολοκληρώθηκε. */
+    private static final double ARRIVAL_METERS = 100;
+
+    private static final int STATUS_UNDER_WAY = 0;
+    private static final int STATUS_AT_ANCHOR = 1;
+    private static final int STATUS_MOORED = 5;
+
+    /**
+     * Μια κυκλική περιοχή που διασχίζεται από ένα μέρος των σκελών.
+     */
+    public record Hotspot(double latitude, double longitude, double radiusMeters) {
+
+        /**
+         * Αναλύει μια λίστα της μορφής {@code "lat:lon:radiusMeters,lat:lon:radiusMeters"} (κενή για καμία περιοχή).
+         */
+        public static List<Hotspot> parseList(String value) {
+            List<Hotspot> hotspots = new ArrayList<>();
+            for (String item : value.split(",")) {
+                if (item.isBlank()) {
+                    continue;
+                }
+                String[] parts = item.trim().split(":");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Expected lat:lon:radiusMeters but got '" + item.trim() + "'");
+                }
+                hotspots.add(new Hotspot(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), Double.parseDouble(parts[2])));
+            }
+            return hotspots;
+        }
+    }
+
+    /**
+     * Οι ρυθμίσεις του στόλου.
+     *
+     * @param seed                    Το seed όλων των τυχαίων επιλογών.
+     * @param vessels                 Ο αριθμός των πλοίων.
+     * @param mmsiBase                Το MMSI του πρώτου πλοίου· τα υπόλοιπα είναι διαδοχικά (9 ψηφία το καθένα).
+     * @param startEpoch              Η χρονοσφραγίδα (σε δευτερόλεπτα) της αρχής της προσομοίωσης.
+     * @param minLatitude             Το νότιο όριο της περιοχής.
+     * @param maxLatitude             Το βόρειο όριο της περιοχής.
+     * @param minLongitude            Το δυτικό όριο της περιοχής.
+     * @param maxLongitude            Το ανατολικό όριο της περιοχής.
+     * @param encounterProbability    Η πιθανότητα ένα σκέλος να είναι πορεία σύγκρουσης με ένα άλλο πλοίο.
+     * @param zoneCrossingProbability Η πιθανότητα ένα σκέλος να καταλήγει σε ένα hotspot.
+     * @param stopProbability         Η πιθανότητα ένα σκέλος να τελειώνει με στάση.
+     * @param hotspots                Οι περιοχές για τα σκέλη που διασχίζουν ζώνες.
+     */
+    public record Settings(long seed, int vessels, long mmsiBase, long startEpoch,
+                           double minLatitude, double maxLatitude, double minLongitude, double maxLongitude,
+                           double encounterProbability, double zoneCrossingProbability, double stopProbability,
+                           List<Hotspot> hotspots) {
+
+        public Settings {
+            if (vessels < 1) {
+                throw new IllegalArgumentException("vessels must be positive");
+            }
+            if (mmsiBase < 100_000_000L || mmsiBase + vessels - 1 > 999_999_999L) {
+                throw new IllegalArgumentException("MMSIs from mmsiBase must have 9 digits");
+            }
+            if (minLatitude >= maxLatitude || minLongitude >= maxLongitude) {
+                throw new IllegalArgumentException("The area bounds are empty");
+            }
+            if (encounterProbability < 0 || zoneCrossingProbability < 0 || stopProbability < 0
+                    || encounterProbability + zoneCrossingProbability > 1 || stopProbability > 1) {
+                throw new IllegalArgumentException("Invalid leg probabilities");
+            }
+            hotspots = List.copyOf(hotspots);
+        }
+    }
+
+    private final Settings settings;
+    private final SplittableRandom random;
+    private final byte[] mmsis;
+
+    // Η κατάσταση κάθε πλοίου σε πρωτογενείς πίνακες, στη στιγμή lastMillis του.
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] courses;
+    private final double[] speeds;
+    private final double[] cruiseSpeeds;
+    /** Ο μέγιστος ρυθμός στροφής σε μοίρες ανά δευτερόλεπτο. */
+    private final double[] turnRates;
+    /** Ο ρυθμός στροφής του τελευταίου βήματος, σε μοίρες ανά δευτερόλεπτο. */
+    private final double[] ratesOfTurn;
+    private final double[] targetLatitudes;
+    private final double[] targetLongitudes;
+    private final boolean[] stopAtTarget;
+    /** Το πλοίο που καταδιώκει το τρέχον σκέλος (πορεία σύγκρουσης), ή -1. */
+    private final int[] interceptTargets;
+    /** Η στιγμή μετά την οποία η καταδίωξη εγκαταλείπεται, αν το άλλο πλοίο δεν έχει φτασθεί. */
+    private final long[] interceptUntilMillis;
+    private final int[] statuses;
+    private final long[] stoppedUntilMillis;
+    private final long[] lastMillis;
+    private final long[] nextReportMillis;
+
+    /** Τα πλοία ως min-heap κατά (στιγμή επόμενης αναφοράς, δείκτης). */
+    private final int[] heap;
+
+    private long records;
+    private long encounters;
+    private long zoneCrossings;
+
+    public SyntheticFleet(Settings settings) {
+        this.settings = settings;
+        this.random = new SplittableRandom(settings.seed());
+        int n = settings.vessels();
+        this.mmsis = new byte[n * MMSI_LENGTH];
+        this.latitudes = new double[n];
+        this.longitudes = new double[n];
+        this.courses = new double[n];
+        this.speeds = new double[n];
+        this.cruiseSpeeds = new double[n];
+        this.turnRates = new double[n];
+        this.ratesOfTurn = new double[n];
+        this.targetLatitudes = new double[n];
+        this.targetLongitudes = new double[n];
+        this.stopAtTarget = new boolean[n];
+        this.interceptTargets = new int[n];
+        this.interceptUntilMillis = new long[n];
+        this.statuses = new int[n];
+        this.stoppedUntilMillis = new long[n];
+        this.lastMillis = new long[n];
+        this.nextReportMillis = new long[n];
+        this.heap = new int[n];
+
+        for (int v = 0; v < n; v++) {
+            byte[] mmsi = Long.toString(settings.mmsiBase() + v).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(mmsi, 0, mmsis, v * MMSI_LENGTH, MMSI_LENGTH);
+            latitudes[v] = uniform(settings.minLatitude(), settings.maxLatitude());
+            longitudes[v] = uniform(settings.minLongitude(), settings.maxLongitude());
+            courses[v] = random.nextDouble(360);
+            cruiseSpeeds[v] = uniform(6, 22);
+            turnRates[v] = uniform(0.2, 1.0);
+            interceptTargets[v] = -1;
+        }
+        for (int v = 0; v < n; v++) {
+            if (random.nextDouble() < settings.stopProbability()) {
+                stop(v, 0);
+            } else {
+                speeds[v] = cruiseSpeeds[v];
+                newLeg(v, 0);
+            }
+            // Οι πρώτες αναφορές μοιράζονται τυχαία μέσα στο πρώτο διάστημα αναφοράς κάθε πλοίου.
+            nextReportMillis[v] = random.nextLong(reportIntervalMillis(v));
+            heap[v] = v;
+        }
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Προχωρά το πλοίο με τη νωρίτερη επόμενη αναφορά μέχρι τη στιγμή της και γράφει την αναφορά του.
+     *
+     * @return Πάντα true.
+     */
+    @Override
+    public boolean next(AisRecord into) {
+        int v = heap[0];
+        long now = nextReportMillis[v];
+        advance(v, now);
+
+        into.setMmsi(mmsis, v * MMSI_LENGTH, MMSI_LENGTH);
+        into.setNavigationalStatus(statuses[v]);
+        into.setRateOfTurn(rateOfTurnIndicator(ratesOfTurn[v]));
+        into.setSpeedOverGround(Math.round(speeds[v] * 10) / 10.0);
+        into.setCourseOverGround(Math.round(courses[v] * 10) / 10.0);
+        into.setTrueHeading((int) Math.round(courses[v]) % 360);
+        into.setLongitude(longitudes[v]);
+        into.setLatitude(latitudes[v]);
+        into.setTimestampEpoch(settings.startEpoch() + Math.floorDiv(now, 1000));
+        records++;
+
+        nextReportMillis[v] = now + reportIntervalMillis(v);
+        siftDown(0);
+        return true;
+    }
+
+    @Override
+    public void close() {
+        // Δεν κρατά πόρους.
+    }
+
+    /**
+     * @return Οι εγγραφές που δόθηκαν.
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * @return Τα σκέλη που ξεκίνησαν ως πορεία σύγκρουσης με άλλο πλοίο.
+     */
+    public long getEncounters() {
+        return encounters;
+    }
+
+    /**
+     * @return Τα σκέλη που ξεκίνησαν προς ένα hotspot.
+     */
+    public long getZoneCrossings() {
+        return zoneCrossings;
+    }
+
+    /**
+     * Προχωρά την κίνηση του πλοίου μέχρι τη στιγμή {@code toMillis}, σε βήματα έως {@value #STEP_SECONDS} s.
+     */
+    private void advance(int v, long toMillis) {
+        long t = lastMillis[v];
+        while (t < toMillis) {
+            long stepMillis = Math.min(toMillis - t, (long) (STEP_SECONDS * 1000));
+            double h = stepMillis / 1000.0;
+            t += stepMillis;
+
+            if (statuses[v] != STATUS_UNDER_WAY) {
+                ratesOfTurn[v] = 0;
+                if (t >= stoppedUntilMillis[v]) {
+                    statuses[v] = STATUS_UNDER_WAY;
+                    newLeg(v, t);
+                }
+                continue;
+            }
+
+            if (interceptTargets[v] >= 0) {
+                if (t >= interceptUntilMillis[v]) {
+                    newLeg(v, t);
+                    continue;
+                }
+                // Ο προορισμός ακολουθεί το άλλο πλοίο σε κάθε βήμα (καταδίωξη με πρόβλεψη).
+                aimAt(v, interceptTargets[v], t);
+            }
+            double distance = distanceMeters(latitudes[v], longitudes[v], targetLatitudes[v], targetLongitudes[v]);
+            double bearing = initialBearing(latitudes[v], longitudes[v], targetLatitudes[v], targetLongitudes[v]);
+            double offCourse = normalizeDegrees(bearing - courses[v]);
+            // Ο προορισμός έμεινε πίσω, πιο κοντά από όσο επιτρέπει ο κύκλος στροφής: το σκέλος θεωρείται ότι
+            // ολοκληρώθηκε, αλλιώς το πλοίο θα έκανε κύκλους γύρω του.
+            double turnDiameter = 2 * speeds[v] * METERS_PER_SECOND_PER_KNOT / Math.toRadians(turnRates[v]);
+            boolean passed = Math.abs(offCourse) > 90 && distance < turnDiameter;
+            double turn = Math.max(-turnRates[v] * h, Math.min(turnRates[v] * h, offCourse));
+            courses[v] = (courses[v] + turn + 360) % 360;
+            ratesOfTurn[v] = turn / h;
+
+            // Επιβράδυνση στο τελευταίο ναυτικό μίλι ενός σκέλους που τελειώνει με στάση.
+            double targetSpeed = stopAtTarget[v] ? Math.min(cruiseSpeeds[v], Math.max(2, cruiseSpeeds[v] * distance / 1852)) : cruiseSpeeds[v];
+            double maxChange = ACCELERATION_KNOTS_PER_SECOND * h;
+            speeds[v] += Math.max(-maxChange, Math.min(maxChange, targetSpeed - speeds[v]));
+
+            double step = speeds[v] * METERS_PER_SECOND_PER_KNOT * h;
+            if (distance <= Math.max(step, ARRIVAL_METERS) || passed) {
+                // Μόνο όταν ο προορισμός είναι μέσα στο βήμα, ώστε το πλοίο να μη μετακινείται ταχύτερα από όσο αναφέρει.
+                if (!passed && distance <= step) {
+                    latitudes[v] = targetLatitudes[v];
+                    longitudes[v] = targetLongitudes[v];
+                }
+                if (stopAtTarget[v]) {
+                    stop(v, t);
+                } else {
+                    newLeg(v, t);
+                }
+                continue;
+            }
+            move(v, step);
+        }
+        lastMillis[v] = toMillis;
+    }
+
+    private void stop(int v, long nowMillis) {
+        statuses[v] = random.nextBoolean() ? STATUS_AT_ANCHOR : STATUS_MOORED;
+        speeds[v] = 0;
+        ratesOfTurn[v] = 0;
+        // Στάση από 10 λεπτά έως 2 ώρες.
+        stoppedUntilMillis[v] = nowMillis + random.nextLong(600_000, 7_200_000);
+    }
+
+    /**
+     * Επιλέγει τον προορισμό του επόμενου σκέλους.
+     */
+    private void newLeg(int v, long nowMillis) {
+        double choice = random.nextDouble();
+        // Μετά από μια συνάντηση το πλοίο απομακρύνεται, αντί να στραφεί αμέσως ξανά προς ένα πλοίο δίπλα του.
+        boolean afterEncounter = interceptTargets[v] >= 0;
+        interceptTargets[v] = -1;
+        if (choice < settings.encounterProbability() && settings.vessels() > 1 && !afterEncounter) {
+            int other = random.nextInt(settings.vessels() - 1);
+            if (other >= v) {
+                other++;
+            }
+            double seconds = aimAt(v, other, nowMillis);
+            // Διπλάσιος χρόνος από την αρχική εκτίμηση και δέκα λεπτά, για ένα πλοίο που αλλάζει πορεία ή απομακρύνεται.
+            interceptUntilMillis[v] = nowMillis + (long) (2 * seconds * 1000) + 600_000;
+            interceptTargets[v] = other;
+            stopAtTarget[v] = false;
+            encounters++;
+            return;
+        }
+        if (choice < settings.encounterProbability() + settings.zoneCrossingProbability() && !settings.hotspots().isEmpty()) {
+            Hotspot hotspot = settings.hotspots().get(random.nextInt(settings.hotspots().size()));
+            // Ομοιόμορφα μέσα στον κύκλο: απόσταση r·√u από το κέντρο.
+            double[] point = destination(hotspot.latitude(), hotspot.longitude(), random.nextDouble(360),
+                    hotspot.radiusMeters() * Math.sqrt(random.nextDouble()));
+            targetLatitudes[v] = point[0];
+            targetLongitudes[v] = point[1];
+            zoneCrossings++;
+        } else {
+            targetLatitudes[v] = uniform(settings.minLatitude(), settings.maxLatitude());
+            targetLongitudes[v] = uniform(settings.minLongitude(), settings.maxLongitude());
+        }
+        stopAtTarget[v] = random.nextDouble() < settings.stopProbability();
+    }
+
+    /**
+     * Ορίζει ως προορισμό του πλοίου {@code v} το σημείο όπου θα βρεθεί το {@code other} όταν το φτάσει, με λίγες
+     * επαναλήψεις της πρόβλεψης (το {@code other} θεωρείται ότι συνεχίζει με την ίδια πορεία και ταχύτητα).
+     *
+     * @return Ο εκτιμώμενος χρόνος μέχρι τη συνάντηση, σε δευτερόλεπτα.
+     */
+    private double aimAt(int v, int other, long nowMillis) {
+        double speed = Math.max(cruiseSpeeds[v], 1) * METERS_PER_SECOND_PER_KNOT;
+        double otherSpeed = speeds[other] * METERS_PER_SECOND_PER_KNOT;
+        // Η κατάσταση του other αφορά τη δική του τελευταία αναφορά, πριν ή μετά από τη στιγμή nowMillis.
+        double otherLag = (nowMillis - lastMillis[other]) / 1000.0;
+        double latitude = latitudes[other];
+        double longitude = longitudes[other];
+        double seconds = 0;
+        for (int i = 0; i < 3; i++) {
+            double[] point = destination(latitudes[other], longitudes[other], courses[other], otherSpeed * (otherLag + seconds));
+            latitude = point[0];
+            longitude = point[1];
+            seconds = distanceMeters(latitudes[v], longitudes[v], latitude, longitude) / speed;
+        }
+        targetLatitudes[v] = latitude;
+        targetLongitudes[v] = longitude;
+        return seconds;
+    }
+
+    private void move(int v, double meters) {
+        double[] point = destination(latitudes[v], longitudes[v], courses[v], meters);
+        latitudes[v] = point[0];
+        longitudes[v] = point[1];
+    }
+
+    /**
+     * Τα διαστήματα αναφοράς της κλάσης A του AIS, με ±10% διασπορά.
+     */
+    private long reportIntervalMillis(int v) {
+        long interval;
+        if (statuses[v] != STATUS_UNDER_WAY) {
+            interval = 180_000;
+        } else if (Math.abs(ratesOfTurn[v]) > 0.05) {
+            interval = 3_333;
+        } else if (speeds[v] > 23) {
+            interval = 2_000;
+        } else if (speeds[v] > 14) {
+            interval = 6_000;
+        } else {
+            interval = 10_000;
+        }
+        return interval * 9 / 10 + random.nextLong(interval / 5 + 1);
+    }
+
+    /**
+     * Ο δείκτης ρυθμού στροφής του AIS (ROT_AIS = 4.733·√(°/min), έως ±126), όπως στο CSV.
+     */
+    static double rateOfTurnIndicator(double degreesPerSecond) {
+        double indicator = Math.min(126, Math.round(4.733 * Math.sqrt(Math.abs(degreesPerSecond) * 60)));
+        return Math.copySign(indicator, degreesPerSecond) + 0.0;
+    }
+
+    private double uniform(double from, double to) {
+        return from + random.nextDouble() * (to - from);
+    }
+
+    /** Μια γωνία σε μοίρες στο διάστημα (-180, 180]. */
+    private static double normalizeDegrees(double degrees) {
+        double d = degrees % 360;
+        if (d > 180) {
+            d -= 360;
+        } else if (d <= -180) {
+            d += 360;
+        }
+        return d;
+    }
+
+    /**
+     * Η απόσταση μεγάλου κύκλου (Haversine) σε μέτρα.
+     */
+    static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    /**
+     * Η αρχική διόπτευση (σε μοίρες, 0-360) του μεγάλου κύκλου από το πρώτο σημείο προς το δεύτερο.
+     */
+    static double initialBearing(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double y = Math.sin(dLon) * Math.cos(phi2);
+        double x = Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(dLon);
+        return (Math.toDegrees(Math.atan2(y, x)) + 360) % 360;
+    }
+
+    /**
+     * Το σημείο σε απόσταση {@code meters} από ένα σημείο, κατά μήκος του μεγάλου κύκλου με αρχική διόπτευση {@code bearing}.
+     *
+     * @return {πλάτος, μήκος} σε μοίρες.
+     */
+    static double[] destination(double latitude, double longitude, double bearing, double meters) {
+        double delta = meters / EARTH_RADIUS_METERS;
+        double theta = Math.toRadians(bearing);
+        double phi1 = Math.toRadians(latitude);
+        double lambda1 = Math.toRadians(longitude);
+        double sinPhi2 = Math.sin(phi1) * Math.cos(delta) + Math.cos(phi1) * Math.sin(delta) * Math.cos(theta);
+        double phi2 = Math.asin(Math.max(-1, Math.min(1, sinPhi2)));
+        double lambda2 = lambda1 + Math.atan2(Math.sin(theta) * Math.sin(delta) * Math.cos(phi1),
+                Math.cos(delta) - Math.sin(phi1) * sinPhi2);
+        return new double[]{Math.toDegrees(phi2), (Math.toDegrees(lambda2) + 540) % 360 - 180};
+    }
+
+    private boolean before(int a, int b) {
+        return nextReportMillis[a] < nextReportMillis[b] || (nextReportMillis[a] == nextReportMillis[b] && a < b);
+    }
+
+    private void siftDown(int i) {
+        int n = heap.length;
+        int vessel = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
+            }
+            if (child + 1 < n && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], vessel)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = vessel;
+    }
+}
@@ -0,0 +1,200 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Αραιό ευρετήριο χρονοσφραγίδα → θέση στο αρχείο για ένα ταξινομημένο CSV, ώστε η αναπαραγωγή να ξεκινά
+ * από οποιαδήποτε χρονική στιγμή χωρίς να διαβάσει το αρχείο από την αρχή.
+ *
+ * Περιέχει μία καταχώρηση ανά περίπου {@code strideBytes} bytes, πάντα στην πρώτη γραμμή μιας χρονοσφραγίδας,
+ * οπότε όλες οι εγγραφές με χρονοσφραγίδα από εκείνη και μετά βρίσκονται μετά τη θέση της. Η αναζήτηση
+ * ({@link #offsetOf(long)}) είναι δυαδική, O(log n)· ο reader διαβάζει μετά το πολύ περίπου {@code strideBytes}
+ * bytes με παλαιότερες εγγραφές.
+ *
+ * Το ευρετήριο αποθηκεύεται δίπλα στο CSV (με την κατάληξη {@value #FILE_SUFFIX}) μαζί με το μέγεθος και
+ * τον χρόνο τροποποίησης του CSV, και ξαναδημιουργείται όταν αυτά αλλάξουν.
+ */
+public final class TimestampIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TimestampIndex.class);
+
+    static final String FILE_SUFFIX = ".tsidx";
+    private static final int MAGIC = 0x54534958; // "TSIX"
+    private static final int FORMAT_VERSION = 1;
+
+    /** Οι χρονοσφραγίδες των καταχωρήσεων, σε αύξουσα σειρά. */
+    private final long[] epochs;
+    /** Η θέση στο αρχείο της πρώτης γραμμής κάθε καταχώρησης. */
+    private final long[] offsets;
+    private final long lastEpoch;
+
+    private TimestampIndex(long[] epochs, long[] offsets, long lastEpoch) {
+        this.epochs = epochs;
+        this.offsets = offsets;
+        this.lastEpoch = lastEpoch;
+    }
+
+    /**
+     * Φορτώνει το αποθηκευμένο ευρετήριο του CSV ή, αν λείπει ή δεν αντιστοιχεί πια στο αρχείο,
+     * το δημιουργεί και το αποθηκεύει.
+     */
+    public static TimestampIndex loadOrBuild(Path csv, long strideBytes) throws IOException {
+        Path indexFile = indexFileOf(csv);
+        long size = Files.size(csv);
+        long modified = Files.getLastModifiedTime(csv).toMillis();
+
+        TimestampIndex index = read(indexFile, size, modified, strideBytes);
+        if (index != null) {
+            return index;
+        }
+        long startNanos = System.nanoTime();
+        index = build(csv, strideBytes);
+        log.info("SIMULATION: Built a timestamp index of {} entries for '{}' in {} ms.",
+                index.size(), csv.getFileName(), (System.nanoTime() - startNanos) / 1_000_000);
+        try {
+            index.write(indexFile, size, modified, strideBytes);
+        } catch (IOException e) {
+            // Το ευρετήριο χρησιμοποιείται και χωρίς να αποθηκευτεί· θα ξαναδημιουργηθεί στην επόμενη εκκίνηση.
+            log.warn("SIMULATION: Could not save the timestamp index '{}': {}", indexFile, e.getMessage());
+        }
+        return index;
+    }
+
+    /**
+     * Διαβάζει ολόκληρο το CSV και κρατά μία καταχώρηση ανά {@code strideBytes}.
+     */
+    static TimestampIndex build(Path csv, long strideBytes) throws IOException {
+        if (strideBytes < 1) {
+            throw new IllegalArgumentException("strideBytes must be positive");
+        }
+        long[] epochs = new long[16];
+        long[] offsets = new long[16];
+        int size = 0;
+        long lastEpoch = Long.MIN_VALUE;
+        AisRecord record = new AisRecord();
+        try (AisCsvReader reader = AisCsvReader.open(csv)) {
+            while (reader.next(record)) {
+                long epoch = record.getTimestampEpoch();
+                long offset = reader.getRecordOffset();
+                // Μόνο στην πρώτη γραμμή μιας χρονοσφραγίδας μεγαλύτερης από όλες τις προηγούμενες: όλες οι γραμμές
+                // πριν από την καταχώρηση έχουν μικρότερη χρονοσφραγίδα και οι καταχωρήσεις μένουν ταξινομημένες.
+                if (size == 0 || (epoch > lastEpoch && offset - offsets[size - 1] >= strideBytes)) {
+                    if (size == epochs.length) {
+                        epochs = Arrays.copyOf(epochs, size * 2);
+                        offsets = Arrays.copyOf(offsets, size * 2);
+                    }
+                    epochs[size] = epoch;
+                    offsets[size] = offset;
+                    size++;
+                }
+                lastEpoch = Math.max(lastEpoch, epoch);
+            }
+        }
+        return new TimestampIndex(Arrays.copyOf(epochs, size), Arrays.copyOf(offsets, size), lastEpoch);
+    }
+
+    /**
+     * @param epoch Η χρονοσφραγίδα από την οποία θα ξεκινήσει η ανάγνωση.
+     * @return Η αρχή μιας γραμμής μετά από την οποία βρίσκονται όλες οι εγγραφές με χρονοσφραγίδα {@code >= epoch}
+     *         (η πρώτη εγγραφή του αρχείου αν το epoch προηγείται όλων), ή 0 για ένα αρχείο χωρίς εγγραφές.
+     */
+    public long offsetOf(long epoch) {
+        if (epochs.length == 0) {
+            return 0;
+        }
+        int i = Arrays.binarySearch(epochs, epoch);
+        if (i < 0) {
+            // Η τελευταία καταχώρηση με χρονοσφραγίδα μικρότερη από το epoch.
+            i = Math.max(-i - 2, 0);
+        }
+        return offsets[i];
+    }
+
+    /**
+     * @return Η χρονοσφραγίδα της πρώτης εγγραφής, ή {@code Long.MIN_VALUE} για ένα αρχείο χωρίς εγγραφές.
+     */
+    public long getFirstEpoch() {
+        return epochs.length == 0 ? Long.MIN_VALUE : epochs[0];
+    }
+
+    /**
+     * @return Η μεγαλύτερη χρονοσφραγίδα του αρχείου, ή {@code Long.MIN_VALUE} για ένα αρχείο χωρίς εγγραφές.
+     */
+    public long getLastEpoch() {
+        return lastEpoch;
+    }
+
+    /**
+     * @return Ο αριθμός των καταχωρήσεων.
+     */
+    public int size() {
+        return epochs.length;
+    }
+
+    static Path indexFileOf(Path csv) {
+        return csv.resolveSibling(csv.getFileName() + FILE_SUFFIX);
+    }
+
+    /**
+     * Γράφει το ευρετήριο σε ένα προσωρινό αρχείο και το μετακινεί στη θέση του, ώστε ένα αρχείο που
+     * γράφτηκε μισό να μη διαβαστεί ποτέ.
+     */
+    void write(Path indexFile, long csvSize, long csvModified, long strideBytes) throws IOException {
+        Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(csvSize);
+            out.writeLong(csvModified);
+            out.writeLong(strideBytes);
+            out.writeLong(lastEpoch);
+            out.writeInt(epochs.length);
+            for (int i = 0; i < epochs.length; i++) {
+                out.writeLong(epochs[i]);
+                out.writeLong(offsets[i]);
+            }
+        }
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return Το αποθηκευμένο ευρετήριο, ή null αν λείπει, είναι άκυρο ή δημιουργήθηκε για άλλη έκδοση του CSV.
+     */
+    static TimestampIndex read(Path indexFile, long csvSize, long csvModified, long strideBytes) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+                    || in.readLong() != csvSize || in.readLong() != csvModified || in.readLong() != strideBytes) {
+                return null;
+            }
+            long lastEpoch = in.readLong();
+            int size = in.readInt();
+            if (size < 0 || size > csvSize) {
+                return null;
+            }
+            long[] epochs = new long[size];
+            long[] offsets = new long[size];
+            for (int i = 0; i < size; i++) {
+                epochs[i] = in.readLong();
+                offsets[i] = in.readLong();
+            }
+            return new TimestampIndex(epochs, offsets, lastEpoch);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("SIMULATION: Ignoring unreadable timestamp index '{}': {}", indexFile, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -49,7 +49,9 @@ public class SecurityConfiguration {
                         .requestMatchers(
                                 "/api/auth/**", // Endpoints για login/register.
                                 "/ws-ais/**",    // Το endpoint για τη σύνδεση WebSocket.
-                                "/api/ship-data/**"   // Endpoint για την αρχική φόρτωση των πλοίων στο χάρτη.
+                                "/ws-ais-native",    // Το native WebSocket endpoint (χωρίς SockJS).
+                                "/api/ship-data/**",   // Endpoint για την αρχική φόρτωση των πλοίων στο χάρτη.
+                                "/tiles/**"   // Vector tiles με τις θέσεις των πλοίων για το layer του χάρτη.
                         ).permitAll()
                         // Ορίζουμε ότι τα admin endpoints απαιτούν τον ρόλο 'ADMIN'.
                         .requestMatchers("/api/admin/**").hasAuthority(RoleType.ADMIN.name())
@@ -1,6 +1,8 @@
 package com.MarineTrafficClone.SeaWatch.security;
 
+import com.MarineTrafficClone.SeaWatch.configuration.WebSocketConfig;
 import com.MarineTrafficClone.SeaWatch.enumeration.RoleType;
+import com.MarineTrafficClone.SeaWatch.service.StatisticsService;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.security.config.annotation.web.messaging.MessageSecurityMetadataSourceRegistry;
@@ -28,8 +30,17 @@ public class WebSocketSecurityConfig extends AbstractSecurityWebSocketMessageBro
                         SimpMessageType.HEARTBEAT,
                         SimpMessageType.UNSUBSCRIBE
                 ).permitAll()
+                // Τα εσωτερικά topics του broker relay (μητρώο χρηστών και μηνύματα προς χρήστες άλλων κόμβων)
+                // δεν είναι διαθέσιμα στους clients.
+                .simpSubscribeDestMatchers(WebSocketConfig.USER_REGISTRY_BROADCAST, WebSocketConfig.USER_DESTINATION_BROADCAST).denyAll()
+                // Τα ζωντανά στατιστικά ακολουθούν τους κανόνες του /api/statistics (μόνο συνδεδεμένοι χρήστες).
+                .simpSubscribeDestMatchers(StatisticsService.STATISTICS_TOPIC).hasAnyAuthority(RoleType.REGISTERED.name(), RoleType.ADMIN.name())
                 // Οποιοσδήποτε μπορεί να κάνει subscribe σε public topics
                 .simpSubscribeDestMatchers("/topic/**").permitAll()
+                // Το αρχικό snapshot του χάρτη είναι διαθέσιμο και σε ανώνυμους επισκέπτες,
+                // όπως ακριβώς και το /api/ship-data/active-ships.
+                .simpDestMatchers("/app/ais-snapshot").permitAll()
+                .simpSubscribeDestMatchers("/user/queue/ais-snapshot").permitAll()
                 // Για να κάνεις subscribe σε private κανάλια ή να στείλεις μήνυμα στο /app,
                 // πρέπει να έχεις τουλάχιστον ρόλο REGISTERED.
                 .simpDestMatchers("/app/**", "/user/**").hasAnyAuthority(RoleType.REGISTERED.name(), RoleType.ADMIN.name())
@@ -0,0 +1,279 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.benchmark.LatencyHistogram;
+import com.MarineTrafficClone.SeaWatch.dto.BenchmarkReportDTO;
+import com.MarineTrafficClone.SeaWatch.dto.LagSampleDTO;
+import com.MarineTrafficClone.SeaWatch.dto.LatencyPercentilesDTO;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Μετρήσεις φόρτου (benchmark) ολόκληρης της ροής: η αναπαραγωγή ξεκινά από την αρχή σε λειτουργία firehose
+ * (χωρίς χρονοδιάγραμμα, όσο γρήγορα δέχεται ο producer) και κάθε μήνυμα της μέτρησης καταγράφεται στα στάδια
+ * παραγωγή → παραλαβή από τον consumer → αποθήκευση (commit της transaction) → δημοσίευση μέσω WebSocket.
+ *
+ * Η στιγμή της παραγωγής είναι η χρονοσφραγίδα της εγγραφής του Kafka (CreateTime, από τον producer), οπότε
+ * τα μηνύματα που είχαν παραχθεί πριν από τη μέτρηση δεν μετρούν. Η καθυστέρηση του consumer (μηνύματα που
+ * παράχθηκαν και δεν έχουν παραληφθεί) καταγράφεται περιοδικά. Η μέτρηση ολοκληρώνεται όταν η πηγή τελειώσει
+ * ({@link #productionFinished()}) και ο consumer παραλάβει όλα τα μηνύματα που δεν χάθηκαν, ή όταν σταματήσει
+ * ο διαχειριστής· τότε η αναφορά καταγράφεται στο log και η αναπαραγωγή επιστρέφει στο χρονοδιάγραμμα.
+ */
+@Service
+public class BenchmarkService {
+
+    private static final Logger log = LoggerFactory.getLogger(BenchmarkService.class);
+
+    private final SimulationControlService simulationControlService;
+    private final KafkaProducerService kafkaProducerService;
+    /** Το μέγιστο πλήθος μετρήσεων της καθυστέρησης του consumer που κρατά μια μέτρηση. */
+    private final int maxLagSamples;
+    private final boolean startOnStartup;
+
+    /** Η τρέχουσα ή η τελευταία μέτρηση (null πριν από την πρώτη). */
+    private volatile Run run;
+
+    /**
+     * Η κατάσταση μιας μέτρησης. Τα ιστογράμματα και οι μετρητές ενημερώνονται από το thread του consumer,
+     * τα υπόλοιπα πεδία υπό το lock του service.
+     */
+    private static final class Run {
+        final long startedAtMillis;
+        final long sentAtStart;
+        final long failedAtStart;
+        final LatencyHistogram consumeLatency = new LatencyHistogram();
+        final LatencyHistogram persistLatency = new LatencyHistogram();
+        final LatencyHistogram publishLatency = new LatencyHistogram();
+        final LongAdder consumed = new LongAdder();
+        final LongAccumulator lastPublishedAtMillis = new LongAccumulator(Math::max, 0);
+        final List<LagSampleDTO> lagSamples = new ArrayList<>();
+        /** Καταγράφεται μία μέτρηση ανά lagSampleStride κλήσεις του {@link #sampleLag()}. */
+        long lagSampleStride = 1;
+        long lagSampleTicks;
+        volatile boolean running = true;
+        long productionFinishedAtMillis = -1;
+        /** Τα μηνύματα που παράχθηκαν, όταν η παραγωγή έχει τελειώσει. */
+        long produced = -1;
+        long failed = -1;
+        long completedAtMillis = -1;
+
+        Run(long startedAtMillis, long sentAtStart, long failedAtStart) {
+            this.startedAtMillis = startedAtMillis;
+            this.sentAtStart = sentAtStart;
+            this.failedAtStart = failedAtStart;
+        }
+    }
+
+    @Autowired
+    public BenchmarkService(SimulationControlService simulationControlService, KafkaProducerService kafkaProducerService,
+                            @Value("${simulation.benchmark.max-lag-samples:3600}") int maxLagSamples,
+                            @Value("${simulation.benchmark.start-on-startup:false}") boolean startOnStartup) {
+        if (maxLagSamples < 2) {
+            throw new IllegalArgumentException("simulation.benchmark.max-lag-samples must be at least 2");
+        }
+        this.simulationControlService = simulationControlService;
+        this.kafkaProducerService = kafkaProducerService;
+        this.maxLagSamples = maxLagSamples;
+        this.startOnStartup = startOnStartup;
+    }
+
+    @PostConstruct
+    public void startOnStartupIfConfigured() {
+        if (startOnStartup) {
+            start();
+        }
+    }
+
+    /**
+     * Ξεκινά μια νέα μέτρηση: ενεργοποιεί τη λειτουργία firehose και ζητά επανεκκίνηση της αναπαραγωγής από την αρχή.
+     * Μια μέτρηση που τρέχει αντικαθίσταται.
+     */
+    public synchronized void start() {
+        run = new Run(System.currentTimeMillis(), kafkaProducerService.getSent(), kafkaProducerService.getFailed());
+        simulationControlService.setFirehose(true);
+        simulationControlService.resume();
+        simulationControlService.requestRestart();
+        log.info("BENCHMARK: Firehose run started.");
+    }
+
+    /**
+     * Σταματά τη μέτρηση που τρέχει (αν υπάρχει) και επιστρέφει την αναπαραγωγή στο χρονοδιάγραμμα.
+     */
+    public synchronized void stop() {
+        Run current = run;
+        if (current != null && current.running) {
+            complete(current, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Καλείται από την πηγή των δεδομένων όταν έχει στείλει όλα τα μηνύματά της σε λειτουργία firehose.
+     */
+    public synchronized void productionFinished() {
+        Run current = run;
+        if (current != null && current.running && current.produced < 0) {
+            current.productionFinishedAtMillis = System.currentTimeMillis();
+            current.produced = kafkaProducerService.getSent() - current.sentAtStart;
+            log.info("BENCHMARK: Production finished: {} messages in {} ms.",
+                    current.produced, current.productionFinishedAtMillis - current.startedAtMillis);
+        }
+    }
+
+    /**
+     * @param producedAtMillis Η χρονοσφραγίδα της εγγραφής του Kafka.
+     * @return true αν το μήνυμα ανήκει στη μέτρηση που τρέχει και πρέπει να καταγραφούν τα στάδιά του.
+     */
+    public boolean isRecording(long producedAtMillis) {
+        Run current = run;
+        return current != null && current.running && producedAtMillis >= current.startedAtMillis;
+    }
+
+    /**
+     * Καταγράφει την παραλαβή ενός μηνύματος από τον consumer.
+     */
+    public void recordConsumed(long producedAtMillis, long consumedAtMillis) {
+        Run current = run;
+        if (current != null && current.running && producedAtMillis >= current.startedAtMillis) {
+            current.consumed.increment();
+            current.consumeLatency.record(consumedAtMillis - producedAtMillis);
+        }
+    }
+
+    /**
+     * Καταγράφει την αποθήκευση ενός μηνύματος στη βάση, μετά το commit της transaction του.
+     */
+    public void recordPersisted(long producedAtMillis, long persistedAtMillis) {
+        Run current = run;
+        if (current != null && current.running && producedAtMillis >= current.startedAtMillis) {
+            current.persistLatency.record(persistedAtMillis - producedAtMillis);
+        }
+    }
+
+    /**
+     * Καταγράφει τη δημοσίευση ενός μηνύματος στους clients μέσω WebSocket, που γίνεται μετά το commit.
+     */
+    public void recordPublished(long producedAtMillis, long publishedAtMillis) {
+        Run current = run;
+        if (current != null && current.running && producedAtMillis >= current.startedAtMillis) {
+            current.publishLatency.record(publishedAtMillis - producedAtMillis);
+            current.lastPublishedAtMillis.accumulate(publishedAtMillis);
+        }
+    }
+
+    /**
+     * Καταγράφει περιοδικά την καθυστέρηση του consumer και ολοκληρώνει τη μέτρηση όταν έχει παραληφθεί
+     * κάθε μήνυμα που παράχθηκε. Όταν οι μετρήσεις φτάσουν το μέγιστο, κρατιέται η μία ανά δύο και
+     * το διάστημα ανάμεσά τους διπλασιάζεται.
+     */
+    @Scheduled(fixedRateString = "${simulation.benchmark.lag-sample-interval-ms:1000}")
+    public synchronized void sampleLag() {
+        Run current = run;
+        if (current == null || !current.running) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long lag = Math.max(0, sentDuring(current) - failedDuring(current) - current.consumed.sum());
+        if (current.lagSampleTicks++ % current.lagSampleStride == 0) {
+            if (current.lagSamples.size() == maxLagSamples) {
+                for (int i = 0; i < maxLagSamples / 2; i++) {
+                    current.lagSamples.set(i, current.lagSamples.get(2 * i));
+                }
+                current.lagSamples.subList(maxLagSamples / 2, maxLagSamples).clear();
+                current.lagSampleStride *= 2;
+            }
+            current.lagSamples.add(new LagSampleDTO(now - current.startedAtMillis, lag));
+        }
+        if (current.produced >= 0 && current.consumed.sum() + failedDuring(current) >= current.produced) {
+            complete(current, Math.max(current.lastPublishedAtMillis.get(), current.productionFinishedAtMillis));
+        }
+    }
+
+    /**
+     * @return Η αναφορά της τρέχουσας ή της τελευταίας μέτρησης.
+     */
+    public synchronized BenchmarkReportDTO getReport() {
+        Run current = run;
+        if (current == null) {
+            return BenchmarkReportDTO.builder().status("IDLE").consumerLag(List.of()).build();
+        }
+        long now = System.currentTimeMillis();
+        long endedAt = current.running ? now : current.completedAtMillis;
+        long productionEndedAt = current.productionFinishedAtMillis >= 0 ? current.productionFinishedAtMillis : endedAt;
+        long produced = current.produced >= 0 ? current.produced : sentDuring(current);
+        long published = current.publishLatency.count();
+        double durationSeconds = (endedAt - current.startedAtMillis) / 1000.0;
+        double productionSeconds = (productionEndedAt - current.startedAtMillis) / 1000.0;
+
+        return BenchmarkReportDTO.builder()
+                .status(current.running ? "RUNNING" : "COMPLETED")
+                .startedAt(current.startedAtMillis)
+                .durationSeconds(durationSeconds)
+                .productionSeconds(productionSeconds)
+                .produced(produced)
+                .failed(current.running ? failedDuring(current) : current.failed)
+                .consumed(current.consumed.sum())
+                .produceThroughput(rate(produced, productionSeconds))
+                .endToEndThroughput(rate(published, durationSeconds))
+                .consumeLatency(percentiles(current.consumeLatency))
+                .persistLatency(percentiles(current.persistLatency))
+                .publishLatency(percentiles(current.publishLatency))
+                .consumerLag(List.copyOf(current.lagSamples))
+                .build();
+    }
+
+    private void complete(Run current, long completedAtMillis) {
+        if (current.produced < 0) {
+            current.productionFinishedAtMillis = completedAtMillis;
+            current.produced = sentDuring(current);
+        }
+        current.failed = failedDuring(current);
+        current.completedAtMillis = completedAtMillis;
+        current.running = false;
+        simulationControlService.setFirehose(false);
+
+        BenchmarkReportDTO report = getReport();
+        log.info("BENCHMARK: Run completed in {} s: {} produced ({} msg/s), {} consumed, {} failed, end-to-end {} msg/s.",
+                String.format("%.1f", report.getDurationSeconds()), report.getProduced(), String.format("%.0f", report.getProduceThroughput()),
+                report.getConsumed(), report.getFailed(), String.format("%.0f", report.getEndToEndThroughput()));
+        logLatency("produce -> consume", report.getConsumeLatency());
+        logLatency("produce -> persist", report.getPersistLatency());
+        logLatency("produce -> publish", report.getPublishLatency());
+    }
+
+    private static void logLatency(String stage, LatencyPercentilesDTO latency) {
+        log.info("BENCHMARK: Latency {} (ms): p50={} p90={} p99={} p99.9={} max={} ({} messages).",
+                stage, latency.getP50(), latency.getP90(), latency.getP99(), latency.getP999(), latency.getMax(), latency.getCount());
+    }
+
+    private long sentDuring(Run current) {
+        return kafkaProducerService.getSent() - current.sentAtStart;
+    }
+
+    private long failedDuring(Run current) {
+        return current.failed >= 0 ? current.failed : kafkaProducerService.getFailed() - current.failedAtStart;
+    }
+
+    private static double rate(long messages, double seconds) {
+        return seconds > 0 ? messages / seconds : 0;
+    }
+
+    private static LatencyPercentilesDTO percentiles(LatencyHistogram histogram) {
+        return LatencyPercentilesDTO.builder()
+                .count(histogram.count())
+                .p50(histogram.percentile(50))
+                .p90(histogram.percentile(90))
+                .p99(histogram.percentile(99))
+                .p999(histogram.percentile(99.9))
+                .max(histogram.max())
+                .build();
+    }
+}
@@ -0,0 +1,545 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.collision.CpaBatch;
+import com.MarineTrafficClone.SeaWatch.collision.CpaKernel;
+import com.MarineTrafficClone.SeaWatch.collision.KineticPairScheduler;
+import com.MarineTrafficClone.SeaWatch.dto.CollisionNotificationDTO;
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import com.MarineTrafficClone.SeaWatch.model.CollisionZone;
+import com.MarineTrafficClone.SeaWatch.model.UserEntity;
+import com.MarineTrafficClone.SeaWatch.store.AlertStateStore;
+import com.MarineTrafficClone.SeaWatch.store.VesselState;
+import com.MarineTrafficClone.SeaWatch.store.VesselStateStore;
+import com.MarineTrafficClone.SeaWatch.zone.ZoneOccupancy;
+import com.MarineTrafficClone.SeaWatch.zone.ZoneSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Service υπεύθυνο για την πρόβλεψη συγκρούσεων μέσα στις ζώνες παρακολούθησης σύγκρουσης
+ * και την αποστολή των σχετικών ειδοποιήσεων.
+ *
+ * Υποστηρίζει δύο τρόπους λειτουργίας, που μπορούν να ενεργοποιηθούν ανεξάρτητα:
+ * <ul>
+ *     <li>Έλεγχο ανά μήνυμα ({@code collision.per-message.enabled}): κάθε νέο στίγμα συγκρίνεται με τα άλλα πλοία της ίδιας ζώνης.
+ *     Με {@code collision.kinetic.enabled} παραλείπονται τα ζευγάρια που ο {@link KineticPairScheduler} έχει αναβάλει.</li>
+ *     <li>Περιοδικό καθολικό έλεγχο ({@code collision.sweep.enabled}): κάθε {@code collision.sweep.interval-ms}
+ *     ελέγχονται όλα τα ζευγάρια πλοίων κάθε ζώνης, ακόμη κι αν κανένα από τα δύο δεν έστειλε νέο στίγμα.
+ *     Τα ζευγάρια που δεν μπορούν να πλησιάσουν στον χρονικό ορίζοντα απορρίπτονται πρώτα με sweep-and-prune.</li>
+ * </ul>
+ */
+@Service
+public class CollisionAlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(CollisionAlertService.class);
+
+    /** Τα πλοία με μικρότερη ταχύτητα (σε κόμβους) θεωρούνται σταματημένα και δεν συγκρίνονται ως υποψήφιοι. */
+    private static final double MIN_MOVING_SPEED_KNOTS = 1.0;
+
+    /**
+     * Περιθώριο ασφαλείας (σε μέτρα) στα διαστήματα του sweep-and-prune, ώστε τα σφάλματα
+     * στρογγυλοποίησης να μην απορρίπτουν ποτέ ένα ζευγάρι που ο kernel θα έβρισκε επικίνδυνο.
+     */
+    private static final double SWEEP_TOLERANCE_METERS = 1.0;
+
+    /** Τα τμήματα με έως τόσα στοιχεία ταξινομούνται με insertion sort στο {@link #sortByKey}. */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private final CollisionZoneCacheService collisionZoneCache;
+    private final ShipPositionCacheService positionCache;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final CpaKernel cpaKernel;
+    private final KineticPairScheduler kineticScheduler;
+    private final boolean perMessageEnabled;
+    private final boolean sweepEnabled;
+    private final boolean kineticEnabled;
+
+    // Κάθε thread (consumer ή scheduler) ξαναχρησιμοποιεί τους ίδιους πρωτογενείς πίνακες για τους υποψηφίους σύγκρουσης.
+    private final ThreadLocal<CpaBatch> cpaBatch = ThreadLocal.withInitial(CpaBatch::new);
+    private final ThreadLocal<VesselState> scratchState = ThreadLocal.withInitial(VesselState::new);
+    private final ThreadLocal<VesselState> ownState = ThreadLocal.withInitial(VesselState::new);
+
+    // Τα ζευγάρια πλοίων που έχουν ήδη ειδοποιηθεί για σύγκρουση, ώστε να μη στέλνονται εκατοντάδες
+    // ειδοποιήσεις για το ίδιο επικείμενο γεγονός. Γράφουν τόσο ο consumer όσο και ο scheduler.
+    private final AlertStateStore alertState;
+
+    @Autowired
+    public CollisionAlertService(CollisionZoneCacheService collisionZoneCache,
+                                 ShipPositionCacheService positionCache,
+                                 SimpMessagingTemplate messagingTemplate,
+                                 CpaKernel cpaKernel,
+                                 KineticPairScheduler kineticScheduler,
+                                 AlertStateStore alertState,
+                                 @Value("${collision.per-message.enabled:true}") boolean perMessageEnabled,
+                                 @Value("${collision.sweep.enabled:false}") boolean sweepEnabled,
+                                 @Value("${collision.kinetic.enabled:true}") boolean kineticEnabled) {
+        this.collisionZoneCache = collisionZoneCache;
+        this.positionCache = positionCache;
+        this.messagingTemplate = messagingTemplate;
+        this.cpaKernel = cpaKernel;
+        this.kineticScheduler = kineticScheduler;
+        this.alertState = alertState;
+        this.perMessageEnabled = perMessageEnabled;
+        this.sweepEnabled = sweepEnabled;
+        this.kineticEnabled = kineticEnabled;
+    }
+
+    // ----- Έλεγχος ανά μήνυμα -----
+
+    /**
+     * Ελέγχει το πλοίο που μόλις έστειλε στίγμα για πιθανές συγκρούσεις με τα άλλα πλοία των ζωνών όπου βρίσκεται.
+     * Οι υποψήφιοι κάθε ζώνης είναι τα μέλη της ({@link ZoneOccupancy}), οπότε δεν σαρώνονται όλα τα πλοία. Οι ζώνες
+     * και τα μέλη τους διαβάζονται από το ίδιο στιγμιότυπο, ώστε τα μέλη να αντιστοιχούν στη γεωμετρία κάθε ζώνης.
+     * Τα μέλη έχουν ήδη ενημερωθεί με το νέο στίγμα ({@link ZoneOccupancyService#updateCollisionZones}), οπότε
+     * η θέση κάθε πλοίου δεν ελέγχεται ξανά απέναντι στη γεωμετρία της ζώνης.
+     * Για κάθε ζώνη, οι υποψήφιοι συγκεντρώνονται σε ένα {@link CpaBatch} και αξιολογούνται
+     * όλοι μαζί από τον {@link CpaKernel}. Με τον kinetic προγραμματισμό ενεργό, τα ζευγάρια που δεν μπορούν
+     * να έχουν γίνει επικίνδυνα από την τελευταία αξιολόγησή τους παραλείπονται.
+     * Δεν κάνει τίποτα αν ο έλεγχος ανά μήνυμα είναι απενεργοποιημένος.
+     *
+     * @param currentShipData Το νέο στίγμα, το οποίο έχει ήδη καταχωρηθεί στην cache θέσεων.
+     * @param slot            Το slot του πλοίου στον {@link VesselStateStore}.
+     */
+    public void checkCollisions(AisData currentShipData, int slot) {
+        if (!perMessageEnabled) {
+            return;
+        }
+        ZoneSnapshot<CollisionZone> snapshot = collisionZoneCache.getSnapshot();
+        if (snapshot.isEmpty() || !hasKinematics(currentShipData)) {
+            return;
+        }
+
+        // Διαβάζουμε την τελευταία κατάσταση των υποψηφίων από την cache θέσεων.
+        VesselStateStore vesselStates = positionCache.getVesselStates();
+        VesselState otherShip = scratchState.get();
+        CpaBatch batch = cpaBatch.get();
+        VesselState ownShip = kineticEnabled ? ownShipState(currentShipData, slot) : null;
+
+        for (CollisionZone zone : snapshot.getZones()) {
+            ZoneOccupancy occupancy = snapshot.getOccupancy(zone.getId());
+            // Έλεγχος αν το τρέχον πλοίο είναι μέσα στη ζώνη σύγκρουσης.
+            boolean inside = occupancy != null
+                    ? occupancy.contains(slot)
+                    : isInsideCollisionZone(currentShipData.getLatitude(), currentShipData.getLongitude(), zone);
+            if (!inside) {
+                continue;
+            }
+
+            batch.reset(currentShipData.getLongitude(), currentShipData.getLatitude(),
+                    currentShipData.getSpeedOverGround(), currentShipData.getCourseOverGround());
+            if (occupancy != null) {
+                // Υποψήφιοι είναι μόνο τα πλοία που βρίσκονται ήδη μέσα στη ζώνη.
+                for (int member : occupancy.copyMembers()) {
+                    addCandidate(batch, currentShipData, ownShip, vesselStates.read(member, otherShip));
+                }
+            } else {
+                // Το στιγμιότυπο δεν έχει μέλη για τη ζώνη: σαρώνουμε όλα τα πλοία και ελέγχουμε τη θέση τους.
+                for (int other = 0, size = vesselStates.size(); other < size; other++) {
+                    vesselStates.read(other, otherShip);
+                    if (otherShip.hasPosition()
+                            && isInsideCollisionZone(otherShip.getLatitude(), otherShip.getLongitude(), zone)) {
+                        addCandidate(batch, currentShipData, ownShip, otherShip);
+                    }
+                }
+            }
+            if (batch.size() == 0) {
+                continue;
+            }
+
+            cpaKernel.evaluate(batch);
+
+            for (int i = 0; i < batch.size(); i++) {
+                vesselStates.read(batch.id(i), otherShip);
+                // Καταγράφουμε το αποτέλεσμα μόνο αν ο υποψήφιος δεν άλλαξε θέση από τότε που τον διαβάσαμε.
+                if (ownShip != null && otherShip.getLatitude() == batch.latitude(i) && otherShip.getLongitude() == batch.longitude(i)) {
+                    kineticScheduler.record(ownShip, otherShip, batch.isDanger(i));
+                }
+                // Στην ειδοποίηση στέλνουμε τις θέσεις με τις οποίες έγινε η πρόβλεψη.
+                handlePrediction(batch.isDanger(i), zone,
+                        currentShipData.getMmsi(), currentShipData.getLatitude(), currentShipData.getLongitude(),
+                        otherShip.getMmsi(), batch.latitude(i), batch.longitude(i));
+            }
+        }
+    }
+
+    /**
+     * Προσθέτει ένα πλοίο της ζώνης στους υποψηφίους, αν δεν είναι το ίδιο το τρέχον πλοίο, κινείται
+     * και (με τον kinetic προγραμματισμό) ο έλεγχος του ζευγαριού δεν έχει αναβληθεί.
+     */
+    private void addCandidate(CpaBatch batch, AisData currentShipData, VesselState ownShip, VesselState otherShip) {
+        if (shouldCompareShips(currentShipData, otherShip)
+                && otherShip.hasPosition() && otherShip.hasCourse()
+                && (ownShip == null || kineticScheduler.isDue(ownShip, otherShip))) {
+            batch.add(otherShip.getSlot(), otherShip.getLongitude(), otherShip.getLatitude(),
+                    otherShip.getSpeedOverGround(), otherShip.getCourseOverGround());
+        }
+    }
+
+    /**
+     * Η κατάσταση του τρέχοντος πλοίου για τον kinetic προγραμματισμό, όπως τη βλέπει ο kernel.
+     *
+     * @return Η κατάσταση, ή null αν το πλοίο δεν έχει καταχωρηθεί στην cache θέσεων.
+     */
+    private VesselState ownShipState(AisData currentShipData, int slot) {
+        if (slot < 0) {
+            return null;
+        }
+        VesselState own = ownState.get();
+        own.setSlot(slot);
+        own.setMmsi(currentShipData.getMmsi());
+        own.setLatitude(currentShipData.getLatitude());
+        own.setLongitude(currentShipData.getLongitude());
+        own.setSpeedOverGround(currentShipData.getSpeedOverGround());
+        own.setCourseOverGround(currentShipData.getCourseOverGround());
+        own.setTimestampEpoch(currentShipData.getTimestampEpoch() != null ? currentShipData.getTimestampEpoch() : VesselState.NO_TIMESTAMP);
+        if (own.getTimestampEpoch() != VesselState.NO_TIMESTAMP) {
+            kineticScheduler.expire(own.getTimestampEpoch());
+        }
+        return own;
+    }
+
+    // ----- Περιοδικός καθολικός έλεγχος -----
+
+    /**
+     * Ελέγχει περιοδικά όλα τα ζευγάρια πλοίων μέσα σε κάθε ενεργή ζώνη σύγκρουσης.
+     *
+     * Για κάθε ζώνη, κάθε πλοίο καταλαμβάνει ένα διάστημα στον άξονα βορρά-νότου: από τη σημερινή θέση του
+     * μέχρι τη θέση του στο τέλος του χρονικού ορίζοντα, διευρυμένο κατά το μισό της επικίνδυνης απόστασης.
+     * Δύο πλοία μπορούν να πλησιάσουν κάτω από την επικίνδυνη απόσταση μόνο αν τα διαστήματά τους επικαλύπτονται,
+     * οπότε τα διαστήματα ταξινομούνται και ο CPA υπολογίζεται μόνο για τα ζευγάρια που επικαλύπτονται.
+     * Ο άξονας βορρά-νότου επιλέγεται επειδή η μετατροπή του σε μέτρα είναι ίδια με εκείνη του kernel,
+     * άρα το κλάδεμα δεν απορρίπτει ποτέ ένα επικίνδυνο ζευγάρι.
+     *
+     * Τα ζευγάρια που δεν βρέθηκαν επικίνδυνα σε αυτόν τον γύρο αφαιρούνται από τα ειδοποιημένα,
+     * ώστε να ειδοποιηθούν ξανά αν ο κίνδυνος επανεμφανιστεί. Αν οι ζώνες άλλαξαν όσο διαρκούσε ο γύρος,
+     * τα αποτελέσματά του αφορούν μια παλιά εικόνα των ζωνών και τα ειδοποιημένα ζευγάρια μένουν ως έχουν.
+     */
+    @Scheduled(fixedDelayString = "${collision.sweep.interval-ms:5000}")
+    public void sweep() {
+        if (!sweepEnabled) {
+            return;
+        }
+        // Όλος ο γύρος γίνεται πάνω στο ίδιο στιγμιότυπο των ζωνών.
+        ZoneSnapshot<CollisionZone> snapshot = collisionZoneCache.getSnapshot();
+        List<CollisionZone> zones = snapshot.getZones();
+        if (zones.isEmpty()) {
+            alertState.clearCollisionPairs();
+            return;
+        }
+
+        ShipSnapshot ships = snapshotShips();
+        LongStream.Builder dangerousPairs = LongStream.builder();
+        long evaluatedPairs = 0;
+        long possiblePairs = 0;
+
+        for (CollisionZone zone : zones) {
+            int[] members = ships.membersOf(zone);
+            possiblePairs += (long) members.length * (members.length - 1) / 2;
+            evaluatedPairs += sweepZone(zone, ships, members, dangerousPairs);
+        }
+
+        long[] dangerous = dangerousPairs.build().sorted().distinct().toArray();
+        if (collisionZoneCache.getSnapshot().getVersion() != snapshot.getVersion()) {
+            log.debug("Collision zones changed during the sweep; keeping the notified pairs until the next one.");
+            return;
+        }
+        alertState.retainCollisionPairs(pairKey -> Arrays.binarySearch(dangerous, pairKey) >= 0);
+        log.debug("Collision sweep: {} ships, {} zones, {} of {} pairs evaluated, {} dangerous.",
+                ships.size, zones.size(), evaluatedPairs, possiblePairs, dangerous.length);
+    }
+
+    /**
+     * Εκτελεί το sweep-and-prune και τον υπολογισμό του CPA για τα πλοία μιας ζώνης.
+     *
+     * @return Ο αριθμός των ζευγαριών για τα οποία υπολογίστηκε CPA.
+     */
+    private long sweepZone(CollisionZone zone, ShipSnapshot ships, int[] members, LongStream.Builder dangerousPairs) {
+        int count = members.length;
+        if (count < 2) {
+            return 0;
+        }
+
+        // Τα διαστήματα στον άξονα y (σε μέτρα) που σαρώνει κάθε πλοίο μέσα στον χρονικό ορίζοντα.
+        double halfDanger = CpaKernel.DANGER_DISTANCE_METERS / 2 + SWEEP_TOLERANCE_METERS;
+        double[] minY = new double[count];
+        double[] maxY = new double[count];
+        int[] order = new int[count];
+        for (int k = 0; k < count; k++) {
+            int ship = members[k];
+            double startY = ships.latitude[ship] * CpaKernel.METERS_PER_DEGREE;
+            double endY = startY + ships.velocityY[ship] * CpaKernel.TIME_HORIZON_SECONDS;
+            minY[k] = Math.min(startY, endY) - halfDanger;
+            maxY[k] = Math.max(startY, endY) + halfDanger;
+            order[k] = k;
+        }
+        // Από εδώ και πέρα το minY είναι ταξινομημένο και το order[a] δίνει τη θέση του a-οστού διαστήματος στα members/maxY.
+        sortByKey(minY, order, 0, count - 1);
+
+        CpaBatch batch = cpaBatch.get();
+        long evaluated = 0;
+        for (int a = 0; a < count; a++) {
+            int ownK = order[a];
+            int own = members[ownK];
+            batch.reset(ships.longitude[own], ships.latitude[own], ships.speed[own], ships.course[own]);
+            // Όλα τα επόμενα διαστήματα που ξεκινούν πριν τελειώσει το τρέχον επικαλύπτονται μαζί του.
+            for (int b = a + 1; b < count && minY[b] <= maxY[ownK]; b++) {
+                int other = members[order[b]];
+                // Όπως και στον έλεγχο ανά μήνυμα, ένα ζευγάρι σταματημένων πλοίων δεν ελέγχεται.
+                if (ships.speed[own] < MIN_MOVING_SPEED_KNOTS && ships.speed[other] < MIN_MOVING_SPEED_KNOTS) {
+                    continue;
+                }
+                batch.add(other, ships.longitude[other], ships.latitude[other], ships.speed[other], ships.course[other]);
+            }
+            if (batch.size() == 0) {
+                continue;
+            }
+
+            cpaKernel.evaluate(batch);
+            evaluated += batch.size();
+
+            for (int i = 0; i < batch.size(); i++) {
+                int other = batch.id(i);
+                if (batch.isDanger(i)) {
+                    dangerousPairs.add(AlertStateStore.collisionPairKey(ships.mmsi[own], ships.mmsi[other]));
+                }
+                handlePrediction(batch.isDanger(i), zone,
+                        ships.mmsi[own], ships.latitude[own], ships.longitude[own],
+                        ships.mmsi[other], ships.latitude[other], ships.longitude[other]);
+            }
+        }
+        return evaluated;
+    }
+
+    /**
+     * Ταξινομεί αύξοντα τα {@code keys[from..to]} και μεταθέτει το {@code order} με τον ίδιο τρόπο,
+     * χωρίς boxing των δεικτών (quicksort με insertion sort για τα μικρά τμήματα).
+     */
+    static void sortByKey(double[] keys, int[] order, int from, int to) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            double pivot = medianOfThree(keys[from], keys[(from + to) >>> 1], keys[to]);
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, order, i++, j--);
+                }
+            }
+            // Αναδρομή στο μικρότερο τμήμα και επανάληψη στο μεγαλύτερο, ώστε το βάθος να μένει λογαριθμικό.
+            if (j - from < to - i) {
+                sortByKey(keys, order, from, j);
+                from = i;
+            } else {
+                sortByKey(keys, order, i, to);
+                to = j;
+            }
+        }
+        for (int i = from + 1; i <= to; i++) {
+            double key = keys[i];
+            int index = order[i];
+            int j = i - 1;
+            while (j >= from && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                order[j + 1] = order[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            order[j + 1] = index;
+        }
+    }
+
+    private static double medianOfThree(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static void swap(double[] keys, int[] order, int i, int j) {
+        double key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        int index = order[i];
+        order[i] = order[j];
+        order[j] = index;
+    }
+
+    /**
+     * Αντιγράφει σε τοπικούς πίνακες την τρέχουσα κατάσταση όλων των πλοίων που έχουν θέση, ταχύτητα και πορεία,
+     * ώστε όλα τα ζευγάρια ενός γύρου να αξιολογούνται με τα ίδια δεδομένα.
+     */
+    private ShipSnapshot snapshotShips() {
+        VesselStateStore vesselStates = positionCache.getVesselStates();
+        VesselState state = scratchState.get();
+        int capacity = vesselStates.size();
+        ShipSnapshot snapshot = new ShipSnapshot(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            vesselStates.read(slot, state);
+            if (state.hasPosition() && state.hasSpeed() && state.hasCourse()) {
+                snapshot.add(state);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Στιγμιότυπο των πλοίων ενός γύρου του καθολικού ελέγχου, σε πρωτογενείς πίνακες.
+     */
+    private static final class ShipSnapshot {
+        final String[] mmsi;
+        final double[] latitude;
+        final double[] longitude;
+        final double[] speed;
+        final double[] course;
+        final double[] velocityY;
+        int size;
+
+        ShipSnapshot(int capacity) {
+            mmsi = new String[capacity];
+            latitude = new double[capacity];
+            longitude = new double[capacity];
+            speed = new double[capacity];
+            course = new double[capacity];
+            velocityY = new double[capacity];
+        }
+
+        void add(VesselState state) {
+            mmsi[size] = state.getMmsi();
+            latitude[size] = state.getLatitude();
+            longitude[size] = state.getLongitude();
+            speed[size] = state.getSpeedOverGround();
+            course[size] = state.getCourseOverGround();
+            velocityY[size] = CpaBatch.velocityY(state.getSpeedOverGround(), state.getCourseOverGround());
+            size++;
+        }
+
+        int[] membersOf(CollisionZone zone) {
+            int[] members = new int[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (isInsideCollisionZone(latitude[i], longitude[i], zone)) {
+                    members[count++] = i;
+                }
+            }
+            return Arrays.copyOf(members, count);
+        }
+    }
+
+    // --- Βοηθητικές Μέθοδοι για τη Λογική Συγκρούσεων ---
+
+    /**
+     * Στέλνει ειδοποίηση για ένα επικίνδυνο ζευγάρι (μία φορά μέχρι να πάψει να είναι επικίνδυνο),
+     * ή το αφαιρεί από τα ειδοποιημένα αν δεν είναι πλέον επικίνδυνο.
+     */
+    private void handlePrediction(boolean danger, CollisionZone zone,
+                                  String mmsiA, double latitudeA, double longitudeA,
+                                  String mmsiB, double latitudeB, double longitudeB) {
+        long pairKey = AlertStateStore.collisionPairKey(mmsiA, mmsiB);
+        if (danger) {
+            // Στέλνουμε ειδοποίηση μόνο αν ΔΕΝ έχουμε ήδη ειδοποιήσει γι' αυτό το ζευγάρι.
+            // Η καταγραφή είναι ατομική, οπότε ο consumer και ο scheduler δεν ειδοποιούν και οι δύο.
+            if (alertState.markCollisionPair(pairKey, zone.getId())) {
+                String msg = String.format("Collision Alert in zone '%s'! Ship %s and Ship %s are on a collision course.",
+                        zone.getName(), mmsiA, mmsiB);
+                sendCollisionNotification(msg, zone, mmsiA, latitudeA, longitudeA, mmsiB, latitudeB, longitudeB);
+            }
+        } else {
+            // Αν δεν βρίσκονται πλέον σε πορεία σύγκρουσης, τους αφαιρούμε από τη λίστα
+            // ειδοποιημένων, ώστε να ειδοποιηθούν ξανά αν ο κίνδυνος επανεμφανιστεί.
+            alertState.clearCollisionPair(pairKey);
+        }
+    }
+
+    /**
+     * Ελέγχει αν ένα στίγμα έχει όλα τα στοιχεία που χρειάζεται ο υπολογισμός του CPA.
+     */
+    private boolean hasKinematics(AisData data) {
+        return data.getLatitude() != null && data.getLongitude() != null
+                && data.getSpeedOverGround() != null && data.getCourseOverGround() != null;
+    }
+
+    /**
+     * Ελέγχει αν δύο πλοία πρέπει να συγκριθούν για σύγκρουση.
+     * @param shipA Το πρώτο πλοίο.
+     * @param shipB Το δεύτερο πλοίο.
+     * @return true αν πρέπει να γίνει σύγκριση.
+     */
+    private boolean shouldCompareShips(AisData shipA, VesselState shipB) {
+        // Δεν συγκρίνουμε ένα πλοίο με τον εαυτό του.
+        if (shipA.getMmsi().equals(shipB.getMmsi())) {
+            return false;
+        }
+        // Αγνοούμε πλοία που είναι σχεδόν σταματημένα (ταχύτητα < 1 κόμβος) ή δεν έχουν έγκυρα δεδομένα ταχύτητας.
+        // (Η σύγκριση με NaN, δηλαδή άγνωστη ταχύτητα, είναι πάντα false.)
+        return shipB.getSpeedOverGround() >= MIN_MOVING_SPEED_KNOTS;
+    }
+
+    /**
+     * Ελέγχει αν μια θέση είναι μέσα σε μια ζώνη σύγκρουσης.
+     * @param latitude Το γεωγραφικό πλάτος του πλοίου.
+     * @param longitude Το γεωγραφικό μήκος του πλοίου.
+     * @param zone Η ζώνη σύγκρουσης.
+     * @return true αν το πλοίο είναι μέσα στη ζώνη.
+     */
+    private static boolean isInsideCollisionZone(double latitude, double longitude, CollisionZone zone) {
+        return zone.getGeofence().contains(latitude, longitude);
+    }
+
+    /**
+     * Στέλνει μια ειδοποίηση επικείμενης σύγκρουσης στον χρήστη.
+     * @param message Το μήνυμα της ειδοποίησης.
+     * @param zone Η ζώνη όπου εντοπίστηκε ο κίνδυνος.
+     * @param mmsiA Το MMSI του πρώτου εμπλεκόμενου πλοίου.
+     * @param latitudeA Το γεωγραφικό πλάτος του πρώτου πλοίου.
+     * @param longitudeA Το γεωγραφικό μήκος του πρώτου πλοίου.
+     * @param mmsiB Το MMSI του δεύτερου εμπλεκόμενου πλοίου.
+     * @param latitudeB Το γεωγραφικό πλάτος του δεύτερου πλοίου.
+     * @param longitudeB Το γεωγραφικό μήκος του δεύτερου πλοίου.
+     */
+    private void sendCollisionNotification(String message, CollisionZone zone,
+                                           String mmsiA, double latitudeA, double longitudeA,
+                                           String mmsiB, double latitudeB, double longitudeB) {
+        UserEntity user = zone.getUser();
+        if (user != null && user.getEmail() != null) {
+            log.info("COLLISION_ALERT -> To {}: {}", user.getEmail(), message);
+
+            // Δημιουργία των αντικειμένων ShipInfo για κάθε πλοίο
+            CollisionNotificationDTO.ShipInfo shipInfoA = CollisionNotificationDTO.ShipInfo.builder()
+                    .mmsi(mmsiA)
+                    .latitude(latitudeA)
+                    .longitude(longitudeA)
+                    .build();
+
+            CollisionNotificationDTO.ShipInfo shipInfoB = CollisionNotificationDTO.ShipInfo.builder()
+                    .mmsi(mmsiB)
+                    .latitude(latitudeB)
+                    .longitude(longitudeB)
+                    .build();
+
+            // Δημιουργία του τελικού DTO της ειδοποίησης
+            CollisionNotificationDTO notification = CollisionNotificationDTO.builder()
+                    .timestamp(Instant.now())
+                    .message(message)
+                    .zoneId(zone.getId())
+                    .zoneName(zone.getName())
+                    .shipA(shipInfoA)
+                    .shipB(shipInfoB)
+                    .build();
+
+            // Αποστολή σε ένα νέο, εξειδικευμένο κανάλι WebSocket για τις ειδοποιήσεις σύγκρουσης.
+            messagingTemplate.convertAndSendToUser(user.getEmail(), "/queue/collision-alerts", notification);
+        }
+    }
+}
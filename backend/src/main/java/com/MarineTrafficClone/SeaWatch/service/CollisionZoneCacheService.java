@@ -1,38 +1,54 @@
 package com.MarineTrafficClone.SeaWatch.service;
 
 
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneKind;
 import com.MarineTrafficClone.SeaWatch.model.CollisionZone;
 import com.MarineTrafficClone.SeaWatch.repository.CollisionZoneRepository;
+import com.MarineTrafficClone.SeaWatch.store.AlertStateStore;
+import com.MarineTrafficClone.SeaWatch.zone.ZoneOccupancy;
+import com.MarineTrafficClone.SeaWatch.zone.ZoneSnapshot;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service που λειτουργεί ως in-memory cache για τις ενεργές ζώνες παρακολούθησης συγκρούσεων.
  * Ο σκοπός της cache είναι να αποφεύγονται οι συνεχείς κλήσεις στη βάση δεδομένων
  * κατά τον έλεγχο των παραβιάσεων για κάθε νέο μήνυμα AIS, βελτιώνοντας δραματικά την απόδοση.
+ *
+ * Οι ζώνες δημοσιεύονται ως αμετάβλητο {@link ZoneSnapshot}, με τη γεωμετρία τους ήδη προετοιμασμένη.
+ * Κάθε αλλαγή δημιουργεί νέο στιγμιότυπο και το αντικαθιστά ατομικά, οπότε ο consumer και ο περιοδικός
+ * έλεγχος συγκρούσεων δεν βλέπουν ποτέ μια ζώνη να λείπει ενώ ενημερώνεται. Τα πλοία που βρίσκονται μέσα
+ * σε κάθε ζώνη ({@link ZoneOccupancy}) δημοσιεύονται στο ίδιο στιγμιότυπο με τη γεωμετρία της.
  */
 @Service
 @DependsOn("entityManagerFactory")
 public class CollisionZoneCacheService {
 
     private final CollisionZoneRepository collisionZoneRepository;
+    private final AlertStateStore alertState;
+    private final ShipPositionCacheService positionCache;
 
     /**
-     * Χρησιμοποιούμε μια {@link CopyOnWriteArrayList}, η οποία είναι μια thread-safe λίστα.
-     * Είναι βελτιστοποιημένη για σενάρια όπου οι αναγνώσεις (reads) είναι πολύ πιο συχνές
-     * από τις εγγραφές (writes), όπως ακριβώς συμβαίνει εδώ: οι ζώνες αλλάζουν σπάνια,
-     * αλλά διαβάζονται συνεχώς από τον Kafka consumer.
+     * Το τρέχον στιγμιότυπο των ζωνών. Οι ζώνες αλλάζουν σπάνια, αλλά διαβάζονται συνεχώς από τον Kafka consumer,
+     * οπότε η ανάγνωση είναι μία ανάγνωση αναφοράς και κάθε αλλαγή αντιγράφει το στιγμιότυπο.
      */
-    private List<CollisionZone> activeZonesCache = new CopyOnWriteArrayList<>();
+    private final AtomicReference<ZoneSnapshot<CollisionZone>> snapshot =
+            new AtomicReference<>(ZoneSnapshot.empty(CollisionZone::getId));
 
     @Autowired
-    public CollisionZoneCacheService(CollisionZoneRepository collisionZoneRepository) {
+    public CollisionZoneCacheService(CollisionZoneRepository collisionZoneRepository,
+                                     AlertStateStore alertState,
+                                     ShipPositionCacheService positionCache) {
         this.collisionZoneRepository = collisionZoneRepository;
+        this.alertState = alertState;
+        this.positionCache = positionCache;
     }
 
     /**
@@ -43,19 +59,29 @@ public class CollisionZoneCacheService {
     @PostConstruct
     public void loadInitialZones() {
         System.out.println("COLLISION CACHE: Loading all Collision Zones into memory...");
-        activeZonesCache = new CopyOnWriteArrayList<>(collisionZoneRepository.findAll());
-        System.out.println("COLLISION CACHE: Loaded " + activeZonesCache.size() + " zones.");
+        List<CollisionZone> zones = collisionZoneRepository.findAll();
+        Map<Long, ZoneOccupancy> occupancies = new HashMap<>();
+        zones.forEach(zone -> occupancies.put(zone.getId(), scanOccupancy(zone)));
+        ZoneSnapshot<CollisionZone> loaded = snapshot.updateAndGet(current ->
+                current.withAll(zones, zone -> occupancies.get(zone.getId())));
+        System.out.println("COLLISION CACHE: Loaded " + loaded.size() + " zones.");
     }
 
     /**
      * Προσθέτει μια νέα ζώνη στην cache ή ενημερώνει μια υπάρχουσα.
+     * Η νέα έκδοση γίνεται ορατή μόνο αφού υπολογιστούν τα πλοία που βρίσκονται μέσα της.
      * @param zone Η ζώνη προς προσθήκη/ενημέρωση.
      */
     public void addOrUpdateZone(CollisionZone zone) {
-        // Αφαιρούμε την παλιά έκδοση της ζώνης, αν υπάρχει (για την περίπτωση της ενημέρωσης).
-        activeZonesCache.removeIf(z -> z.getId().equals(zone.getId()));
-        activeZonesCache.add(zone);
-        System.out.println("COLLISION CACHE: Added/Updated zone " + zone.getName() + ". Total zones in cache: " + activeZonesCache.size());
+        // Τα γεωμετρικά δεδομένα της ζώνης και τα πλοία που βρίσκονται ήδη μέσα της υπολογίζονται εδώ
+        // και όχι στο πρώτο μήνυμα AIS που θα την ελέγξει.
+        ZoneOccupancy occupancy = scanOccupancy(zone);
+        // Η παλιά έκδοση (αν υπάρχει) και τα μέλη της αντικαθίστανται με την ίδια ατομική αλλαγή.
+        ZoneSnapshot<CollisionZone> updated = snapshot.updateAndGet(current -> current.with(zone, occupancy));
+        // Οι ειδοποιήσεις που στάλθηκαν για την παλιά έκδοση της ζώνης δεν ισχύουν πλέον. Καθαρίζονται αφού
+        // δημοσιευτεί η νέα έκδοση· αλλιώς ένα μήνυμα που ελέγχεται ακόμη με την παλιά θα μπορούσε να τις ξαναγράψει.
+        alertState.clearZoneCollisionPairs(zone.getId());
+        System.out.println("COLLISION CACHE: Added/Updated zone " + zone.getName() + ". Total zones in cache: " + updated.size());
     }
 
     /**
@@ -63,15 +89,32 @@ public class CollisionZoneCacheService {
      * @param zoneId Το ID της ζώνης προς αφαίρεση.
      */
     public void removeZone(Long zoneId) {
-        activeZonesCache.removeIf(z -> z.getId().equals(zoneId));
-        System.out.println("COLLISION CACHE: Removed zone with ID " + zoneId + ". Total zones in cache: " + activeZonesCache.size());
+        ZoneSnapshot<CollisionZone> updated = snapshot.updateAndGet(current -> current.without(zoneId));
+        alertState.clearZoneCollisionPairs(zoneId);
+        System.out.println("COLLISION CACHE: Removed zone with ID " + zoneId + ". Total zones in cache: " + updated.size());
+    }
+
+    /**
+     * Υπολογίζει από την αρχή τα πλοία που βρίσκονται μέσα στη ζώνη.
+     */
+    private ZoneOccupancy scanOccupancy(CollisionZone zone) {
+        return ZoneOccupancy.scan(zone.getId(), zone.getName(), ZoneKind.COLLISION, zone.getUser(), zone.getGeofence(),
+                positionCache.getVesselStates());
+    }
+
+    /**
+     * Επιστρέφει το τρέχον στιγμιότυπο των ζωνών. Ένας έλεγχος σε πολλά βήματα πρέπει να το διαβάζει μία φορά.
+     * @return Το αμετάβλητο στιγμιότυπο.
+     */
+    public ZoneSnapshot<CollisionZone> getSnapshot() {
+        return snapshot.get();
     }
 
     /**
      * Επιστρέφει μια λίστα με όλες τις ενεργές ζώνες που βρίσκονται στην cache.
-     * @return Μια thread-safe λίστα με τις ζώνες.
+     * @return Μια αμετάβλητη λίστα με τις ζώνες του τρέχοντος στιγμιότυπου.
      */
     public List<CollisionZone> getAllActiveZones() {
-        return activeZonesCache;
+        return snapshot.get().getZones();
     }
-}
\ No newline at end of file
+}
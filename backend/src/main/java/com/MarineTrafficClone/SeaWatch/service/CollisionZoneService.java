@@ -58,9 +58,8 @@ public class CollisionZoneService {
 
         // Ενημέρωση των πεδίων της ζώνης με τα νέα δεδομένα από το DTO.
         zone.setName(zoneDTO.getName());
-        zone.setCenterLatitude(zoneDTO.getCenterLatitude());
-        zone.setCenterLongitude(zoneDTO.getCenterLongitude());
-        zone.setRadiusInMeters(zoneDTO.getRadiusInMeters());
+        ZoneGeometry.apply(zone, zoneDTO.getShape(), zoneDTO.getCenterLatitude(), zoneDTO.getCenterLongitude(),
+                zoneDTO.getRadiusInMeters(), zoneDTO.getVertices());
 
         // Αποθήκευση της ζώνης στη βάση δεδομένων.
         CollisionZone savedZone = collisionZoneRepository.save(zone);
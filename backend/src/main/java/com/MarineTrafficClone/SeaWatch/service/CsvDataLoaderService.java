@@ -2,22 +2,36 @@ package com.MarineTrafficClone.SeaWatch.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.MarineTrafficClone.SeaWatch.model.AisData;
+import com.MarineTrafficClone.SeaWatch.replay.AisCsvReader;
+import com.MarineTrafficClone.SeaWatch.replay.AisRecord;
+import com.MarineTrafficClone.SeaWatch.replay.AisRecordSource;
+import com.MarineTrafficClone.SeaWatch.replay.MergedAisRecordSource;
+import com.MarineTrafficClone.SeaWatch.replay.ParallelAisCsvReader;
+import com.MarineTrafficClone.SeaWatch.replay.ReplayPacer;
+import com.MarineTrafficClone.SeaWatch.replay.TimestampIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PreDestroy; // Για τον τερματισμό του executor
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.TimeUnit;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.annotation.Order;
 
 /**
@@ -27,14 +41,37 @@ import org.springframework.core.annotation.Order;
  * (ή με επιταχυνόμενο ρυθμό), στέλνοντάς τα σε ένα Kafka topic.
  * Αυτό προσομοιώνει μια ζωντανή ροή δεδομένων AIS.
  * Το @Order(2) εξασφαλίζει ότι αυτό το service θα εκτελεστεί ΜΕΤΑ το StaticShipDataLoaderService (@Order(1)).
+ * Είναι η προεπιλεγμένη πηγή δεδομένων· με {@code simulation.source=synthetic} τη θέση του παίρνει
+ * το {@link SyntheticAisGeneratorService}.
  */
 @Service
 @Order(2)
+@ConditionalOnProperty(name = "simulation.source", havingValue = "csv", matchIfMissing = true)
 public class CsvDataLoaderService implements CommandLineRunner {
 
     private final KafkaProducerService kafkaProducerService;
     private final ObjectMapper objectMapper;
     private final SimulationControlService simulationControlService;
+    private final BenchmarkService benchmarkService;
+    /** Ανάγνωση του CSV χωρίς καθυστέρηση και χωρίς αποστολή στο Kafka, για τη μέτρηση του ρυθμού ανάγνωσης. */
+    private final boolean dryRun;
+    /** Threads για την παράλληλη ανάλυση του CSV (1 = ανάλυση στο thread της προσομοίωσης). */
+    private final int parseThreads;
+    /** Το μέγεθος κάθε τμήματος του CSV που αναλύεται παράλληλα. */
+    private final long chunkBytes;
+    /** Πόσα τμήματα μπορούν να αναλύονται ή να περιμένουν το thread της προσομοίωσης ταυτόχρονα. */
+    private final int reorderWindow;
+    /** Κάθε πότε αναφέρεται ο ρυθμός της αναπαραγωγής σε σχέση με τον ζητούμενο. */
+    private final long paceReportIntervalMillis;
+    /** Η απόσταση (σε bytes) ανάμεσα στις καταχωρήσεις του ευρετηρίου χρονοσφραγίδων. */
+    private final long indexStrideBytes;
+    /** Τα ευρετήρια των CSV, μετά την πρώτη μετάβαση (χρησιμοποιούνται μόνο από το thread της προσομοίωσης). */
+    private final Map<String, TimestampIndex> timestampIndexes = new HashMap<>();
+    /** Τα CSV που αναπαράγονται (classpath ή, με το πρόθεμα "file:", αρχεία στον δίσκο). */
+    private final String[] sources;
+    /** Πόσες εγγραφές διαβάζονται μπροστά από κάθε CSV όταν συγχωνεύονται πολλά. */
+    private final int mergeReadAhead;
+    private final ResourceLoader resourceLoader = new DefaultResourceLoader();
 
     // Χρησιμοποιούμε έναν ExecutorService με ένα μόνο thread για να τρέξει η προσομοίωση ασύγχρονα στο background.
     private final ExecutorService simulationExecutor = Executors.newSingleThreadExecutor();
@@ -43,11 +80,32 @@ public class CsvDataLoaderService implements CommandLineRunner {
 
     private static final Logger log = LoggerFactory.getLogger(CsvDataLoaderService.class);
 
+    /** Πόσο περιμένει η σύνοψη τις επιβεβαιώσεις των μηνυμάτων που στάλθηκαν. */
+    private static final long PRODUCER_FLUSH_TIMEOUT_MILLIS = 10_000;
+
     @Autowired
-    public CsvDataLoaderService(KafkaProducerService kafkaProducerService, ObjectMapper objectMapper, SimulationControlService simulationControlService) {
+    public CsvDataLoaderService(KafkaProducerService kafkaProducerService, ObjectMapper objectMapper, SimulationControlService simulationControlService,
+                                BenchmarkService benchmarkService,
+                                @Value("${simulation.replay.dry-run:false}") boolean dryRun,
+                                @Value("${simulation.replay.parse-threads:4}") int parseThreads,
+                                @Value("${simulation.replay.chunk-bytes:8388608}") long chunkBytes,
+                                @Value("${simulation.replay.reorder-window:8}") int reorderWindow,
+                                @Value("${simulation.replay.pace-report-interval-ms:10000}") long paceReportIntervalMillis,
+                                @Value("${simulation.replay.index-stride-bytes:1048576}") long indexStrideBytes,
+                                @Value("${simulation.replay.sources:AIS-Data/nari_dynamic.csv}") String[] sources,
+                                @Value("${simulation.replay.merge-read-ahead:4096}") int mergeReadAhead) {
         this.kafkaProducerService = kafkaProducerService;
         this.objectMapper = objectMapper;
         this.simulationControlService = simulationControlService;
+        this.benchmarkService = benchmarkService;
+        this.dryRun = dryRun;
+        this.parseThreads = parseThreads;
+        this.chunkBytes = chunkBytes;
+        this.reorderWindow = reorderWindow;
+        this.paceReportIntervalMillis = paceReportIntervalMillis;
+        this.indexStrideBytes = indexStrideBytes;
+        this.sources = sources;
+        this.mergeReadAhead = mergeReadAhead;
     }
 
     /**
@@ -85,126 +143,276 @@ public class CsvDataLoaderService implements CommandLineRunner {
     }
 
     /**
-     * Η κύρια λογική της προσομοίωσης. Διαβάζει το CSV γραμμή-γραμμή,
-     * υπολογίζει την καθυστέρηση μεταξύ των εγγραφών και στέλνει τα δεδομένα στο Kafka.
+     * Η κύρια λογική της προσομοίωσης. Διαβάζει τα CSV εγγραφή-εγγραφή (βλ. {@link #openReplay(long)}),
+     * περιμένει τη στιγμή κάθε εγγραφής με τον {@link ReplayPacer} και στέλνει τα δεδομένα στο Kafka.
+     * Ο ρυθμός που επιτυγχάνεται σε σχέση με τον ζητούμενο αναφέρεται περιοδικά στον {@link SimulationControlService}.
+     * Οι εντολές του διαχειριστή (παύση, μετάβαση σε χρονοσφραγίδα, επανεκκίνηση) εφαρμόζονται από αυτό το thread:
+     * μια μετάβαση ξανανοίγει το CSV από τη θέση που δίνει το {@link TimestampIndex}. Στο τέλος του αρχείου
+     * η αναπαραγωγή περιμένει μια νέα μετάβαση.
+     * Σε λειτουργία firehose (μέτρηση φόρτου, {@link BenchmarkService}) οι εγγραφές στέλνονται χωρίς χρονοδιάγραμμα,
+     * όσο γρήγορα τις δέχεται ο producer, και το τέλος του αρχείου σηματοδοτεί το τέλος της παραγωγής.
+     * Σε dry-run οι εγγραφές αναλύονται και μετατρέπονται σε JSON χωρίς καθυστέρηση και χωρίς αποστολή,
+     * ώστε ο τελικός ρυθμός (εγγραφές/δευτερόλεπτο) να μετρά μόνο την ανάγνωση· τελειώνει στο τέλος του αρχείου.
      */
-    @SuppressWarnings("BusyWait") // Επιτρέπουμε το Thread.sleep() που είναι σκόπιμο εδώ.
     private void simulateRealTimeDataFlowFromSortedCsv() {
-        String filePath = "AIS-Data/nari_dynamic.csv";
-        System.out.println("SIMULATION: Thread started. Processing CSV: " + filePath);
+        String filePath = String.join(", ", sources);
+        System.out.println("SIMULATION: Thread started. Processing CSV: " + filePath + (dryRun ? " (dry run, nothing is sent)" : ""));
         System.out.println("SIMULATION: Initial speed factor: " + simulationControlService.getSpeedFactor());
 
-        long previousRecordEpoch = -1; // Η χρονοσφραγίδα της προηγούμενης εγγραφής.
+        ReplayPacer pacer = new ReplayPacer(this::pacedSpeedFactor, simulationControlService::hasPendingSeek);
+        long paceReportIntervalNanos = TimeUnit.MILLISECONDS.toNanos(paceReportIntervalMillis);
+        long lastPaceReportNanos = System.nanoTime();
         AtomicLong recordsSentCounter = new AtomicLong(0);
+        AisRecord record = new AisRecord(); // Επαναχρησιμοποιείται για κάθε γραμμή.
+        long startNanos = System.nanoTime();
+        // Μετά από μια μετάβαση παραλείπονται οι εγγραφές πριν από τη ζητούμενη χρονοσφραγίδα.
+        long seekEpoch = SimulationControlService.REPLAY_START;
+        boolean endOfFile = false;
+        // Σε λειτουργία firehose ο pacer παρακάμπτεται· όταν η λειτουργία τελειώσει, το χρονοδιάγραμμα ξεκινά από εκεί.
+        boolean firehoseSinceReset = false;
+        long firehoseEpoch = Long.MIN_VALUE;
+        AisRecordSource reader = null;
 
-        try (InputStream is = new ClassPathResource(filePath).getInputStream();
-             BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-
-            String line;
-            boolean headerSkipped = false;
-
-            // Διαβάζουμε το αρχείο γραμμή-γραμμή μέχρι το τέλος ή μέχρι να λάβουμε σήμα τερματισμού.
-            while ((line = reader.readLine()) != null && !shutdownSignal) {
-                if (!headerSkipped) {
-                    headerSkipped = true;
-                    continue; // Παρακάμπτουμε τη γραμμή-κεφαλίδα (header).
+        try {
+            reader = openReplay(seekEpoch);
+            // Διαβάζουμε το αρχείο μέχρι να λάβουμε σήμα τερματισμού (ή μέχρι το τέλος του σε dry-run).
+            while (!shutdownSignal) {
+                Long seek = simulationControlService.takePendingSeek();
+                if (seek != null) {
+                    if (!dryRun) {
+                        reportPace(pacer);
+                    }
+                    closeCsv(reader);
+                    reader = null; // Αν το άνοιγμα αποτύχει, δεν κλείνει ξανά στο finally.
+                    reader = openReplay(seek);
+                    seekEpoch = seek;
+                    pacer.reset();
+                    endOfFile = false;
+                    recordsSentCounter.set(0);
+                    startNanos = System.nanoTime();
+                    continue;
+                }
+                if (endOfFile || !reader.next(record)) {
+                    if (!endOfFile) {
+                        endOfFile = true;
+                        if (!dryRun) {
+                            reportPace(pacer);
+                            if (simulationControlService.isFirehose()) {
+                                benchmarkService.productionFinished();
+                            }
+                        }
+                        printSummary(recordsSentCounter.get(), startNanos);
+                        if (dryRun) {
+                            break;
+                        }
+                        System.out.println("SIMULATION: Waiting for a seek or restart request.");
+                    }
+                    Thread.sleep(100);
+                    continue;
                 }
-                if (line.trim().isEmpty()) {
-                    continue; // Παρακάμπτουμε κενές γραμμές.
+                if (record.getTimestampEpoch() < seekEpoch) {
+                    continue;
                 }
 
-                double currentSpeedFactor = simulationControlService.getSpeedFactor();
-
-                String[] values = line.split(",");
-                if (values.length == 9) {
-                    try {
-                        // Δημιουργία του αντικειμένου AisData από τις τιμές του CSV.
-                        AisData currentRecord = new AisData();
-                        currentRecord.setMmsi(values[0].trim());
-                        currentRecord.setNavigationalStatus(Integer.parseInt(values[1].trim()));
-                        currentRecord.setRateOfTurn(parseDoubleOrNull(values[2].trim()));
-                        currentRecord.setSpeedOverGround(Double.parseDouble(values[3].trim()));
-                        currentRecord.setCourseOverGround(Double.parseDouble(values[4].trim()));
-                        currentRecord.setTrueHeading(parseTrueHeading(values[5].trim()));
-                        currentRecord.setLongitude(Double.parseDouble(values[6].trim()));
-                        currentRecord.setLatitude(Double.parseDouble(values[7].trim()));
-                        currentRecord.setTimestampEpoch(Long.parseLong(values[8].trim()));
-
-                        if (previousRecordEpoch != -1) {
-                            // Υπολογίζουμε τη χρονική διαφορά (σε δευτερόλεπτα) από την προηγούμενη εγγραφή.
-                            long timestampDiffSeconds = currentRecord.getTimestampEpoch() - previousRecordEpoch;
-                            if (timestampDiffSeconds < 0) {
-                                // Το αρχείο πρέπει να είναι ταξινομημένο. Αν όχι, στέλνουμε το μήνυμα αμέσως.
-                                log.warn("SIMULATION: Timestamp out of order. Current: {}, Previous: {}. Sending with minimal delay.",
-                                        currentRecord.getTimestampEpoch(), previousRecordEpoch);
-                                timestampDiffSeconds = 0;
-                            }
-                            // Υπολογίζουμε την καθυστέρηση σε milliseconds, λαμβάνοντας υπόψη τον παράγοντα επιτάχυνσης.
-                            long delayMillis = (long) ((timestampDiffSeconds * 1000) / currentSpeedFactor);
-                            if (delayMillis > 0) {
-                                Thread.sleep(delayMillis);
+                boolean firehose = !dryRun && simulationControlService.isFirehose();
+                try {
+                    if (firehose) {
+                        // Χωρίς χρονοδιάγραμμα: ο ρυθμός ορίζεται από το όριο του producer για μηνύματα χωρίς επιβεβαίωση.
+                        while (simulationControlService.isPaused() && !shutdownSignal && !simulationControlService.hasPendingSeek()) {
+                            Thread.sleep(100);
+                        }
+                        if (record.getTimestampEpoch() != firehoseEpoch) {
+                            firehoseEpoch = record.getTimestampEpoch();
+                            simulationControlService.recordReplayPosition(firehoseEpoch);
+                        }
+                        firehoseSinceReset = true;
+                        if (shutdownSignal || simulationControlService.hasPendingSeek()) continue;
+                    } else if (!dryRun) {
+                        if (firehoseSinceReset) {
+                            pacer.reset();
+                            firehoseSinceReset = false;
+                        }
+                        // Η πρώτη εγγραφή κάθε χρονοσφραγίδας περιμένει τη στιγμή της· οι υπόλοιπες με την ίδια
+                        // χρονοσφραγίδα στέλνονται αμέσως μετά, ως μία ομάδα ασύγχρονων αποστολών.
+                        if (pacer.awaitDue(record.getTimestampEpoch())) {
+                            simulationControlService.recordReplayPosition(record.getTimestampEpoch());
+                            if (System.nanoTime() - lastPaceReportNanos >= paceReportIntervalNanos) {
+                                reportPace(pacer);
+                                lastPaceReportNanos = System.nanoTime();
                             }
                         }
-                        previousRecordEpoch = currentRecord.getTimestampEpoch(); // Ενημερώνουμε για την επόμενη επανάληψη.
 
-                        if (shutdownSignal) break; // Ελέγχουμε ξανά μετά την πιθανή καθυστέρηση.
+                        // Ελέγχουμε ξανά μετά την πιθανή καθυστέρηση· η εγγραφή δεν στέλνεται αν ζητήθηκε μετάβαση.
+                        if (shutdownSignal || simulationControlService.hasPendingSeek()) continue;
+                    }
 
-                        // Μετατρέπουμε το αντικείμενο σε JSON και το στέλνουμε στο Kafka.
-                        String aisDataJson = objectMapper.writeValueAsString(currentRecord);
+                    // Μετατρέπουμε την εγγραφή σε JSON και τη στέλνουμε στο Kafka.
+                    AisData currentRecord = record.toAisData();
+                    String aisDataJson = objectMapper.writeValueAsString(currentRecord);
+                    if (!dryRun) {
                         kafkaProducerService.sendAisDataAsJson(currentRecord.getMmsi(), aisDataJson);
-                        long count = recordsSentCounter.incrementAndGet();
-
-                        if (count % 100 == 0) { // Καταγραφή της προόδου κάθε 100 εγγραφές.
-                            log.info("SIMULATION: Sent record #{} (MMSI: {})", count, currentRecord.getMmsi());
-                        }
+                    }
+                    long count = recordsSentCounter.incrementAndGet();
 
-                    } catch (InterruptedException e) {
-                        log.warn("SIMULATION: Thread interrupted. Stopping simulation.");
-                        Thread.currentThread().interrupt();
-                        break;
-                    } catch (Exception e) {
-                        log.error("SIMULATION: Error processing line or sending to Kafka: {}", line, e);
+                    if (!dryRun && !firehose && count % 100 == 0) { // Καταγραφή της προόδου κάθε 100 εγγραφές.
+                        log.info("SIMULATION: Sent record #{} (MMSI: {})", count, currentRecord.getMmsi());
                     }
-                } else {
-                    log.error("SIMULATION: Malformed CSV line (expected 9 columns): {}", line);
+
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    log.error("SIMULATION: Error processing record or sending to Kafka (MMSI: {})", record.getMmsi(), e);
                 }
             }
+        } catch (InterruptedException e) {
+            log.warn("SIMULATION: Thread interrupted. Stopping simulation.");
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             if (!shutdownSignal) {
                 log.error("SIMULATION: Critical error reading CSV file '{}'", filePath, e);
             }
         } finally {
+            try {
+                closeCsv(reader);
+            } catch (IOException e) {
+                log.warn("SIMULATION: Could not close CSV file '{}'", filePath, e);
+            }
             if (shutdownSignal) {
                 System.out.println("SIMULATION: Processing loop interrupted by shutdown signal.");
             }
-            System.out.println("SIMULATION: Finished processing CSV. Total messages sent: " + recordsSentCounter.get() + ".");
+            if (!endOfFile) {
+                if (!dryRun) {
+                    reportPace(pacer);
+                }
+                printSummary(recordsSentCounter.get(), startNanos);
+            }
         }
     }
 
-    // Βοηθητική μέθοδος για την ανάλυση (parsing) ενός Double, επιστρέφοντας null αν αποτύχει.
-    private Double parseDoubleOrNull(String value) {
-        if (value == null || value.trim().isEmpty() || value.equalsIgnoreCase("NA")) {
-            return null;
+    /**
+     * Ο παράγοντας ταχύτητας για τον {@link ReplayPacer}: 0 όσο η αναπαραγωγή είναι σε παύση.
+     */
+    private double pacedSpeedFactor() {
+        return simulationControlService.isPaused() ? 0 : simulationControlService.getSpeedFactor();
+    }
+
+    private void printSummary(long records, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("SIMULATION: Finished processing CSV. Total messages %s: %d in %.1f s (%.0f records/s).%n",
+                dryRun ? "parsed" : "sent", records, seconds, records / Math.max(seconds, 1e-9));
+        if (!dryRun) {
+            printProducerSummary();
         }
+    }
+
+    /**
+     * Περιμένει (για λίγο) τις επιβεβαιώσεις των μηνυμάτων που στάλθηκαν και καταγράφει την έκβαση των αποστολών.
+     */
+    private void printProducerSummary() {
         try {
-            return Double.parseDouble(value.trim());
-        } catch (NumberFormatException e) {
-            log.warn("SIMULATION: Could not parse Double: '{}'", value);
-            return null;
+            if (!kafkaProducerService.flush(PRODUCER_FLUSH_TIMEOUT_MILLIS)) {
+                log.warn("SIMULATION: Kafka sends still in flight after {} ms.", PRODUCER_FLUSH_TIMEOUT_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        System.out.printf("SIMULATION: Kafka producer totals: %d sent, %d acknowledged, %d failed, %d retried, %d in flight.%n",
+                kafkaProducerService.getSent(), kafkaProducerService.getAcked(), kafkaProducerService.getFailed(),
+                kafkaProducerService.getRetried(), kafkaProducerService.getInFlight());
     }
 
-    // Βοηθητική μέθοδος για την ανάλυση του TrueHeading, επιστρέφοντας 511 (not available) αν αποτύχει.
-    private Integer parseTrueHeading(String value) {
-        final int UNAVAILABLE_HEADING = 511;
-        if (value == null || value.trim().isEmpty() || value.equalsIgnoreCase("NA")) {
-            return UNAVAILABLE_HEADING;
+    /**
+     * Δημοσιεύει τον ρυθμό της αναπαραγωγής από την προηγούμενη αναφορά και την απόκλισή του από τον ζητούμενο.
+     */
+    private void reportPace(ReplayPacer pacer) {
+        ReplayPacer.Report report = pacer.report();
+        if (Double.isNaN(report.actualSpeed())) {
+            return;
         }
+        simulationControlService.recordPace(report);
+        log.info("SIMULATION: Pace {}x for a target of {}x ({}% drift), last group sent {} ms late, {} out-of-order records so far, {} Kafka sends in flight, {} failed.",
+                String.format("%.2f", report.actualSpeed()), report.targetSpeed(), String.format("%+.1f", report.drift() * 100),
+                report.lagMillis(), pacer.getOutOfOrder(), kafkaProducerService.getInFlight(), kafkaProducerService.getFailed());
+    }
+
+    /**
+     * Ανοίγει τα CSV της αναπαραγωγής. Πολλά CSV συγχωνεύονται σε μία ροή ταξινομημένη κατά χρονοσφραγίδα
+     * ({@link MergedAisRecordSource}) και μοιράζονται τα threads ανάλυσης.
+     *
+     * @param fromEpoch Η χρονοσφραγίδα από την οποία θα διαβαστούν, ή {@link SimulationControlService#REPLAY_START}.
+     */
+    private AisRecordSource openReplay(long fromEpoch) throws IOException {
+        if (sources.length == 1) {
+            return openCsv(sources[0], fromEpoch, parseThreads);
+        }
+        int threadsPerSource = Math.max(1, parseThreads / sources.length);
+        List<AisRecordSource> opened = new ArrayList<>(sources.length);
         try {
-            return Integer.parseInt(value.trim());
-        } catch (NumberFormatException e) {
-            log.warn("SIMULATION: Could not parse TrueHeading: '{}', using default: {}", value, UNAVAILABLE_HEADING);
-            return UNAVAILABLE_HEADING;
+            for (String source : sources) {
+                opened.add(openCsv(source, fromEpoch, threadsPerSource));
+            }
+        } catch (IOException | RuntimeException e) {
+            for (AisRecordSource source : opened) {
+                try {
+                    source.close();
+                } catch (IOException closeFailure) {
+                    e.addSuppressed(closeFailure);
+                }
+            }
+            throw e;
+        }
+        System.out.println("SIMULATION: Merging " + sources.length + " CSV sources by timestamp.");
+        return MergedAisRecordSource.open(opened, mergeReadAhead);
+    }
+
+    /**
+     * Ανοίγει ένα CSV: memory-mapped αν το resource είναι αρχείο στον δίσκο, αλλιώς (π.χ. μέσα σε jar) ως stream.
+     * Ένα αρχείο στον δίσκο αναλύεται παράλληλα σε τμήματα, εκτός αν έχει ρυθμιστεί ένα μόνο thread ανάλυσης·
+     * η σειρά των εγγραφών είναι ίδια και στις δύο περιπτώσεις.
+     * Για μια μετάβαση, ένα αρχείο στον δίσκο διαβάζεται από τη θέση που δίνει το {@link TimestampIndex}
+     * (το οποίο δημιουργείται στην πρώτη μετάβαση), ενώ ένα stream διαβάζεται από την αρχή.
+     *
+     * @param fromEpoch Η χρονοσφραγίδα από την οποία θα διαβαστεί, ή {@link SimulationControlService#REPLAY_START}.
+     * @param threads   Τα threads ανάλυσης για αυτό το CSV.
+     */
+    private AisRecordSource openCsv(String filePath, long fromEpoch, int threads) throws IOException {
+        Resource resource = resourceLoader.getResource(filePath);
+        if (!resource.isFile()) {
+            if (fromEpoch != SimulationControlService.REPLAY_START) {
+                log.warn("SIMULATION: '{}' is not a file on disk; seeking by reading from the start.", filePath);
+            }
+            return AisCsvReader.open(resource.getInputStream());
+        }
+
+        Path path = resource.getFile().toPath();
+        long start = 0;
+        if (fromEpoch != SimulationControlService.REPLAY_START) {
+            TimestampIndex index = timestampIndexes.get(filePath);
+            if (index == null) {
+                index = TimestampIndex.loadOrBuild(path, indexStrideBytes);
+                timestampIndexes.put(filePath, index);
+            }
+            start = index.offsetOf(fromEpoch);
+            System.out.println("SIMULATION: Seeking " + filePath + " to epoch " + fromEpoch + " (byte offset " + start + ").");
+        }
+        if (threads > 1) {
+            ParallelAisCsvReader reader = ParallelAisCsvReader.open(path, start, threads, chunkBytes, reorderWindow);
+            System.out.println("SIMULATION: Parsing " + reader.getChunkCount() + " chunks of " + filePath + " on " + threads + " threads.");
+            return reader;
+        }
+        return AisCsvReader.open(path, start, Files.size(path));
+    }
+
+    /**
+     * Κλείνει το CSV και καταγράφει τις άκυρες γραμμές που παραλείφθηκαν.
+     */
+    private void closeCsv(AisRecordSource reader) throws IOException {
+        if (reader == null) {
+            return;
+        }
+        if (reader.getMalformedLines() > 0) {
+            log.warn("SIMULATION: Skipped {} malformed CSV lines.", reader.getMalformedLines());
         }
+        reader.close();
     }
-}
\ No newline at end of file
+}
@@ -1,27 +1,34 @@
 package com.MarineTrafficClone.SeaWatch.service;
 
-import com.MarineTrafficClone.SeaWatch.dto.CollisionNotificationDTO;
 import com.MarineTrafficClone.SeaWatch.dto.NotificationDTO;
 import com.MarineTrafficClone.SeaWatch.dto.RealTimeShipUpdateDTO;
 import com.MarineTrafficClone.SeaWatch.enumeration.ShipType;
-import com.MarineTrafficClone.SeaWatch.enumeration.ZoneConstraintType;
 import com.MarineTrafficClone.SeaWatch.model.*;
 import com.MarineTrafficClone.SeaWatch.repository.AisDataRepository;
 import com.MarineTrafficClone.SeaWatch.repository.ShipRepository;
 import com.MarineTrafficClone.SeaWatch.repository.UserEntityRepository;
+import com.MarineTrafficClone.SeaWatch.store.AlertStateStore;
+import com.MarineTrafficClone.SeaWatch.websocket.ConflatingWebSocketSessionDecorator;
+import com.MarineTrafficClone.SeaWatch.zone.CompiledConstraint;
+import com.MarineTrafficClone.SeaWatch.zone.CompiledZone;
+import com.MarineTrafficClone.SeaWatch.zone.ZoneOccupancy;
+import com.MarineTrafficClone.SeaWatch.zone.ZoneSnapshot;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -41,22 +48,18 @@ public class KafkaConsumerService {
     private final SimpMessagingTemplate messagingTemplate;
     private final ShipRepository shipRepository;
     private final ZoneOfInterestCacheService zoneCache; // Cache για τις ζώνες ενδιαφέροντος.
-    private final CollisionZoneCacheService collisionZoneCache; // Cache για τις ζώνες σύγκρουσης.
     private final ShipPositionCacheService positionCache; // Cache για τις τελευταίες θέσεις όλων των πλοίων.
-
-    // Ένα Set για να παρακολουθούμε ποια ζευγάρια πλοίων έχουν ήδη ειδοποιηθεί για σύγκρουση.
-    // Αυτό αποτρέπει την αποστολή εκατοντάδων ειδοποιήσεων για το ίδιο επικείμενο γεγονός.
-    // Το κλειδί είναι ένα string της μορφής "mmsi1-mmsi2" (ταξινομημένα).
-    // Χρησιμοποιούμε ConcurrentHashMap.newKeySet() για να είναι thread-safe.
-    private final Set<String> notifiedCollisionPairs = ConcurrentHashMap.newKeySet();
-
+    private final CollisionAlertService collisionAlertService; // Πρόβλεψη συγκρούσεων στις ζώνες σύγκρουσης.
     /**
-     * Cache για τις ενεργές παραβιάσεις ζωνών ενδιαφέροντος.
-     * Αποθηκεύει τις παραβιάσεις που "συμβαίνουν τώρα" για να μην στέλνονται επαναλαμβανόμενες ειδοποιήσεις.
-     * Κλειδί: Ένα μοναδικό string που συνδυάζει MMSI, Zone ID και Constraint Type.
-     * Χρησιμοποιούμε ConcurrentHashMap.newKeySet() για να είναι thread-safe, καθώς ο Kafka consumer μπορεί να τρέχει σε πολλαπλά threads.
+     * Οι ενεργές παραβιάσεις ζωνών ενδιαφέροντος. Αποθηκεύει τις παραβιάσεις που "συμβαίνουν τώρα"
+     * για να μην στέλνονται επαναλαμβανόμενες ειδοποιήσεις.
      */
-    private final Set<String> activeViolationsCache = ConcurrentHashMap.newKeySet();
+    private final AlertStateStore alertState;
+    private final ZoneOccupancyService zoneOccupancy; // Τα πλοία που βρίσκονται μέσα σε κάθε ζώνη.
+    private final BenchmarkService benchmarkService; // Καταγραφή των σταδίων κάθε μηνύματος στις μετρήσεις φόρτου.
+
+    /** Η χρονοσφραγίδα παραγωγής ενός μηνύματος που δεν ήρθε από το Kafka (δεν καταγράφεται σε μετρήσεις φόρτου). */
+    private static final long NOT_PRODUCED = Long.MIN_VALUE;
 
     @Autowired
     public KafkaConsumerService(AisDataRepository aisDataRepository,
@@ -65,26 +68,53 @@ public class KafkaConsumerService {
                                 UserEntityRepository userEntityRepository,
                                 SimpMessagingTemplate messagingTemplate,
                                 ZoneOfInterestCacheService zoneCache,
-                                CollisionZoneCacheService collisionZoneCache,
-                                ShipPositionCacheService positionCache) {
+                                ShipPositionCacheService positionCache,
+                                CollisionAlertService collisionAlertService,
+                                AlertStateStore alertState,
+                                ZoneOccupancyService zoneOccupancy,
+                                BenchmarkService benchmarkService) {
         this.aisDataRepository = aisDataRepository;
         this.userEntityRepository = userEntityRepository;
         this.shipRepository = shipRepository;
         this.objectMapper = objectMapper;
         this.messagingTemplate = messagingTemplate;
         this.zoneCache = zoneCache;
-        this.collisionZoneCache = collisionZoneCache;
         this.positionCache = positionCache;
+        this.collisionAlertService = collisionAlertService;
+        this.alertState = alertState;
+        this.zoneOccupancy = zoneOccupancy;
+        this.benchmarkService = benchmarkService;
     }
 
     /**
      * Η κύρια μέθοδος που καταναλώνει μηνύματα από το Kafka.
      * Το @KafkaListener την ορίζει ως τον παραλήπτη για το συγκεκριμένο topic και group ID.
+     * Η χρονοσφραγίδα της εγγραφής (η στιγμή που την έστειλε ο producer) χρησιμοποιείται για τις καθυστερήσεις
+     * των σταδίων στις μετρήσεις φόρτου ({@link BenchmarkService}). Η αποθήκευση και η δημοσίευση καταγράφονται
+     * μετά το commit της transaction, ώστε να περιλαμβάνουν τον χρόνο του.
      * @param messageJson Το μήνυμα από το Kafka, σε μορφή JSON string.
+     * @param producedAtMillis Η χρονοσφραγίδα της εγγραφής του Kafka (Unix epoch σε milliseconds).
      */
     @KafkaListener(topics = KafkaProducerService.AIS_TOPIC_NAME, groupId = "${spring.kafka.consumer.group-id}")
     @Transactional // Η επεξεργασία γίνεται μέσα σε transaction για ακεραιότητα.
+    public void consumeAisData(String messageJson, @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long producedAtMillis) {
+        processAisData(messageJson, producedAtMillis);
+    }
+
+    /**
+     * Επεξεργάζεται ένα μήνυμα AIS χωρίς χρονοσφραγίδα παραγωγής (δεν καταγράφεται σε μετρήσεις φόρτου).
+     * @param messageJson Το μήνυμα σε μορφή JSON string.
+     */
+    @Transactional
     public void consumeAisData(String messageJson) {
+        processAisData(messageJson, NOT_PRODUCED);
+    }
+
+    private void processAisData(String messageJson, long producedAtMillis) {
+        boolean recording = producedAtMillis != NOT_PRODUCED && benchmarkService.isRecording(producedAtMillis);
+        if (recording) {
+            benchmarkService.recordConsumed(producedAtMillis, System.currentTimeMillis());
+        }
         try {
             // 1. Μετατροπή του JSON σε αντικείμενο AisData.
             AisData aisData = objectMapper.readValue(messageJson, AisData.class);
@@ -94,18 +124,12 @@ public class KafkaConsumerService {
                 return;
             }
 
-            // 2. Βρίσκουμε την προηγούμενη θέση του πλοίου. Χρήσιμο για τον έλεγχο εισόδου/εξόδου από ζώνες.
-            Optional<AisData> previousAisDataOpt = aisDataRepository.findTopByMmsiOrderByTimestampEpochDesc(aisData.getMmsi());
-
-            // 3. Αποθήκευση της νέας εγγραφής στη βάση δεδομένων.
+            // 2. Αποθήκευση της νέας εγγραφής στη βάση δεδομένων.
             aisDataRepository.save(aisData);
 
-            // 4. Ενημέρωση της cache με την τελευταία θέση του πλοίου.
-            positionCache.updatePosition(aisData);
-
             Long mmsiLong = Long.parseLong(aisData.getMmsi());
 
-            // 5. Βρίσκουμε τα στατικά στοιχεία του πλοίου (τον τύπο του) από το repository.
+            // 3. Βρίσκουμε τα στατικά στοιχεία του πλοίου (τον τύπο του) από το repository.
             // Αν δεν βρεθεί (π.χ., είναι η πρώτη φορά που βλέπουμε αυτό το MMSI),
             // χρησιμοποιούμε τον τύπο UNKNOWN ως προεπιλογή.
             // Προσπαθούμε να βρούμε το πλοίο. Αν δεν υπάρχει, το orElseGet θα εκτελεστεί
@@ -120,14 +144,27 @@ public class KafkaConsumerService {
             // Τώρα είμαστε σίγουροι ότι έχουμε μια οντότητα Ship και μπορούμε να πάρουμε τον τύπο της.
             ShipType shipType = ship.getShiptype();
 
-            // 6. Αποστολή ενημερώσεων θέσης μέσω WebSocket στους clients.
-            sendRealTimeUpdates(aisData, shipType, mmsiLong);
+            // 4. Ενημέρωση της cache με την τελευταία θέση του πλοίου. Οι ενημερώσεις θέσης στέλνονται μέσω WebSocket
+            // στους clients μετά το commit, ώστε να μη δουν θέση που δεν αποθηκεύτηκε.
+            RealTimeShipUpdateDTO updateDTO = toRealTimeUpdate(aisData, shipType);
+            int slot = positionCache.updatePosition(aisData, updateDTO);
+            List<UserEntity> usersWatchingThisShip = userEntityRepository.findUsersWatchingMmsi(mmsiLong);
+            afterCommit(() -> {
+                if (recording) {
+                    benchmarkService.recordPersisted(producedAtMillis, System.currentTimeMillis());
+                }
+                sendRealTimeUpdates(updateDTO, usersWatchingThisShip);
+                if (recording) {
+                    benchmarkService.recordPublished(producedAtMillis, System.currentTimeMillis());
+                }
+            });
 
-            // 7. Έλεγχος για παραβιάσεις των ζωνών ενδιαφέροντος.
-            checkAllZoneViolations(aisData, previousAisDataOpt, shipType);
+            // 5. Έλεγχος για παραβιάσεις των ζωνών ενδιαφέροντος.
+            checkAllZoneViolations(aisData, mmsiLong, slot, shipType);
 
-            // 8. Έλεγχος για πιθανές συγκρούσεις.
-            checkCollisions(aisData);
+            // 6. Ενημέρωση των πλοίων κάθε ζώνης σύγκρουσης και έλεγχος για πιθανές συγκρούσεις.
+            zoneOccupancy.updateCollisionZones(aisData, slot);
+            collisionAlertService.checkCollisions(aisData, slot);
 
         } catch (NumberFormatException e) {
             log.warn("KAFKA CONSUMER: Could not parse MMSI to Long. Message: {}", messageJson, e);
@@ -139,10 +176,31 @@ public class KafkaConsumerService {
     }
 
     /**
-     * Στέλνει ενημερώσεις σε πραγματικό χρόνο μέσω WebSocket.
+     * Εκτελεί μια ενέργεια μετά το commit της τρέχουσας transaction, ή αμέσως αν δεν υπάρχει ενεργή transaction.
+     * Αν η transaction δεν ολοκληρωθεί, η ενέργεια δεν εκτελείται.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Η εγγραφή έχει ήδη αποθηκευτεί· ένα σφάλμα εδώ δεν πρέπει να φτάσει στον listener του Kafka.
+                try {
+                    action.run();
+                } catch (Exception e) {
+                    log.error("KAFKA CONSUMER: Error publishing a committed AIS message.", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Δημιουργεί την ενημέρωση θέσης που στέλνεται στους clients.
      */
-    private void sendRealTimeUpdates(AisData aisData, ShipType shipType, Long mmsiLong) {
-        // Δημιουργία του DTO που θα σταλεί.
+    private RealTimeShipUpdateDTO toRealTimeUpdate(AisData aisData, ShipType shipType) {
         RealTimeShipUpdateDTO updateDTO = new RealTimeShipUpdateDTO();
         updateDTO.setMmsi(aisData.getMmsi());
         updateDTO.setSpeedOverGround(aisData.getSpeedOverGround());
@@ -153,204 +211,134 @@ public class KafkaConsumerService {
         updateDTO.setLatitude(aisData.getLatitude());
         updateDTO.setTimestampEpoch(aisData.getTimestampEpoch());
         updateDTO.setShiptype(shipType);
+        return updateDTO;
+    }
+
+    /**
+     * Στέλνει μια ενημέρωση θέσης σε πραγματικό χρόνο μέσω WebSocket. Η ενημέρωση έχει ήδη καταχωρηθεί στην cache
+     * θέσεων, που της ανέθεσε sequence, ώστε τα snapshots των νέων clients να συνδέονται χωρίς κενά με τις ζωντανές
+     * ενημερώσεις· μια ενημέρωση που φτάνει μετά από snapshot που την περιέχει απορρίπτεται από τον client.
+     * @param usersWatchingThisShip Οι χρήστες που έχουν το πλοίο στον στόλο τους.
+     */
+    private void sendRealTimeUpdates(RealTimeShipUpdateDTO updateDTO, List<UserEntity> usersWatchingThisShip) {
+        // Το MMSI στέλνεται και ως STOMP header, ώστε οι ουρές εξερχομένων των sessions να μπορούν
+        // να συγχωνεύουν τις θέσεις του ίδιου πλοίου χωρίς να διαβάζουν το σώμα του μηνύματος.
+        Map<String, Object> headers = Map.of(ConflatingWebSocketSessionDecorator.MMSI_HEADER, updateDTO.getMmsi());
 
         // Αποστολή 1: Public broadcast στο κανάλι /topic/ais-updates για όλους τους clients.
-        messagingTemplate.convertAndSend("/topic/ais-updates", updateDTO);
+        messagingTemplate.convertAndSend("/topic/ais-updates", updateDTO, headers);
 
         // Αποστολή 2: Private updates στους χρήστες που παρακολουθούν αυτό το πλοίο στον στόλο τους.
-        List<UserEntity> usersWatchingThisShip = userEntityRepository.findUsersWatchingMmsi(mmsiLong);
         for (UserEntity userEntity : usersWatchingThisShip) {
             if (userEntity.getEmail() != null) {
                 // Η SimpMessagingTemplate χειρίζεται τη δρομολόγηση στο σωστό session του χρήστη.
-                messagingTemplate.convertAndSendToUser(userEntity.getEmail(), "/queue/fleet-updates", updateDTO);
+                messagingTemplate.convertAndSendToUser(userEntity.getEmail(), "/queue/fleet-updates", updateDTO, headers);
             }
         }
     }
 
-    /**
-     * Βοηθητική μέθοδος που δημιουργεί ένα μοναδικό, αναγνωρίσιμο κλειδί για την cache παραβιάσεων.
-     * @param mmsi Το MMSI του πλοίου.
-     * @param zoneId Το ID της ζώνης.
-     * @param type Ο τύπος του περιορισμού.
-     * @return Ένα string που λειτουργεί ως κλειδί, π.χ., "mmsi:123-zone:45-constraint:SPEED_LIMIT_ABOVE".
-     */
-    private String createViolationCacheKey(String mmsi, Long zoneId, ZoneConstraintType type) {
-        return "mmsi:" + mmsi + "-zone:" + zoneId + "-constraint:" + type.name();
-    }
-
     // ----- Λογική για τις Ζώνες Ενδιαφέροντος -----
 
     /**
      * Η κύρια λογική για τον έλεγχο όλων των παραβιάσεων.
      * Ελέγχει την τρέχουσα θέση ενός πλοίου σε σχέση με όλες τις ενεργές ζώνες ενδιαφέροντος
-     * και τους περιορισμούς τους, χρησιμοποιώντας την activeViolationsCache για να αποφύγει διπλές ειδοποιήσεις.
+     * και τους περιορισμούς τους, χρησιμοποιώντας το {@link AlertStateStore} για να αποφύγει διπλές ειδοποιήσεις.
+     * Η είσοδος/έξοδος προκύπτει από τα μέλη της ζώνης ({@link ZoneOccupancy}), που κρατούν αν το πλοίο ήταν μέσα
+     * με το προηγούμενο στίγμα του. Οι ζώνες και τα μέλη τους διαβάζονται από το ίδιο στιγμιότυπο.
      * @param currentPosition Τα τρέχοντα δεδομένα του πλοίου.
-     * @param previousAisDataOpt Τα προηγούμενα δεδομένα του πλοίου (αν υπάρχουν).
+     * @param mmsi Το MMSI του πλοίου ως αριθμός.
+     * @param slot Το slot του πλοίου στην cache θέσεων.
      * @param shipType Ο τύπος του πλοίου.
      */
-    private void checkAllZoneViolations(AisData currentPosition, Optional<AisData> previousAisDataOpt, ShipType shipType) {
-        List<ZoneOfInterest> zones = zoneCache.getAllActiveZones();
-        if (zones.isEmpty() || currentPosition.getLatitude() == null) {
+    private void checkAllZoneViolations(AisData currentPosition, long mmsi, int slot, ShipType shipType) {
+        ZoneSnapshot<CompiledZone> snapshot = zoneCache.getSnapshot();
+        if (snapshot.isEmpty() || currentPosition.getLatitude() == null) {
             return;
         }
 
-        for (ZoneOfInterest zone : zones) {
-            boolean isCurrentlyInZone = isInsideZone(currentPosition, zone);
-            boolean wasPreviouslyInZone = previousAisDataOpt
-                    .map(prev -> isInsideZone(prev, zone))
-                    .orElse(false);
+        for (CompiledZone compiledZone : snapshot.getZones()) {
+            boolean isCurrentlyInZone = isInsideZone(currentPosition, compiledZone);
+            ZoneOccupancy occupancy = snapshot.getOccupancy(compiledZone.getZone().getId());
+            boolean wasPreviouslyInZone = zoneOccupancy.updateInterestZone(occupancy, slot, isCurrentlyInZone);
 
             // Έλεγχos για παραβιάσεις που αφορούν ΑΛΛΑΓΗ κατάστασης (είσοδος/έξοδος).
             if (isCurrentlyInZone && !wasPreviouslyInZone) {
-                handleEntryExitViolation(zone, currentPosition, true); // Το πλοίο μόλις μπήκε.
+                handleEntryExitViolation(compiledZone, currentPosition, true); // Το πλοίο μόλις μπήκε.
             } else if (!isCurrentlyInZone && wasPreviouslyInZone) {
-                handleEntryExitViolation(zone, currentPosition, false); // Το πλοίο μόλις βγήκε.
+                handleEntryExitViolation(compiledZone, currentPosition, false); // Το πλοίο μόλις βγήκε.
             }
 
             // Έλεγχος για παραβιάσεις που αφορούν ΣΥΝΕΧΗ κατάσταση (ταχύτητα, τύπος, κλπ.).
             if (isCurrentlyInZone) {
                 // Αν το πλοίο είναι μέσα, ελέγχουμε όλους τους stateful περιορισμούς.
-                for (ZoneConstraint constraint : zone.getConstraints()) {
-                    handleStatefulViolation(constraint, zone, currentPosition, shipType);
+                for (CompiledConstraint constraint : compiledZone.getStatefulConstraints()) {
+                    handleStatefulViolation(constraint, compiledZone.getZone(), currentPosition, mmsi, shipType);
                 }
             } else {
                 // Αν το πλοίο είναι έξω, πρέπει να καθαρίσουμε τυχόν ενεργές παραβιάσεις του για αυτή τη ζώνη.
-                clearActiveViolationsForZone(zone, currentPosition.getMmsi());
+                clearActiveViolationsForZone(compiledZone, mmsi);
             }
         }
     }
 
     /**
      * Χειρίζεται τις παραβιάσεις εισόδου/εξόδου, που είναι γεγονότα και δεν χρειάζονται cache.
-     * @param zone Η ζώνη που παραβιάστηκε.
+     * @param compiledZone Η ζώνη που παραβιάστηκε.
      * @param position Η θέση του πλοίου.
      * @param isEntry True αν είναι είσοδος, false αν είναι έξοδος.
      */
-    private void handleEntryExitViolation(ZoneOfInterest zone, AisData position, boolean isEntry) {
-        ZoneConstraintType type = isEntry ? ZoneConstraintType.ZONE_ENTRY : ZoneConstraintType.ZONE_EXIT;
-        zone.getConstraints().stream()
-                .filter(c -> c.getConstraintType() == type)
-                .findFirst()
-                .ifPresent(constraint -> {
-                    String msg = String.format("Ship %s %s zone '%s'", position.getMmsi(), isEntry ? "entered" : "exited", zone.getName());
-                    sendNotification(msg, zone, position, constraint);
-                });
+    private void handleEntryExitViolation(CompiledZone compiledZone, AisData position, boolean isEntry) {
+        ZoneConstraint constraint = isEntry ? compiledZone.getEntryConstraint() : compiledZone.getExitConstraint();
+        if (constraint != null) {
+            ZoneOfInterest zone = compiledZone.getZone();
+            String msg = String.format("Ship %s %s zone '%s'", position.getMmsi(), isEntry ? "entered" : "exited", zone.getName());
+            sendNotification(msg, zone, position, constraint);
+        }
     }
 
     /**
      * Χειρίζεται τις παραβιάσεις που εξαρτώνται από την κατάσταση (stateful), όπως η ταχύτητα.
-     * Χρησιμοποιεί την cache για να στέλνει ειδοποίηση μόνο μία φορά.
-     * @param constraint Ο περιορισμός προς έλεγχο.
+     * Χρησιμοποιεί την cache για να στέλνει ειδοποίηση μόνο μία φορά. Το μήνυμα δημιουργείται
+     * μόνο όταν πράγματι στέλνεται ειδοποίηση.
+     * @param constraint Ο μεταγλωττισμένος περιορισμός προς έλεγχο.
      * @param zone Η ζώνη.
      * @param position Η θέση του πλοίου.
+     * @param mmsi Το MMSI του πλοίου ως αριθμός.
      * @param shipType Ο τύπος του πλοίου.
      */
-    private void handleStatefulViolation(ZoneConstraint constraint, ZoneOfInterest zone, AisData position, ShipType shipType) {
-        String cacheKey = createViolationCacheKey(position.getMmsi(), zone.getId(), constraint.getConstraintType());
-        boolean isViolating = false;
-        String msg = "";
-
-        try {
-            switch (constraint.getConstraintType()) {
-                case SPEED_LIMIT_ABOVE:
-                    if (position.getSpeedOverGround() != null) {
-                        double limit = Double.parseDouble(constraint.getConstraintValue());
-                        if (position.getSpeedOverGround() > limit) {
-                            isViolating = true;
-                            msg = String.format("Ship %s exceeded speed limit in zone '%s'. Speed: %.1f kts (Limit: %.1f kts)", position.getMmsi(), zone.getName(), position.getSpeedOverGround(), limit);
-                        }
-                    }
-                    break;
-                case SPEED_LIMIT_BELOW:
-                    if (position.getSpeedOverGround() != null) {
-                        double limit = Double.parseDouble(constraint.getConstraintValue());
-                        if (position.getSpeedOverGround() < limit) {
-                            isViolating = true;
-                            msg = String.format("Ship %s is below minimum speed in zone '%s'. Speed: %.1f kts (Limit: %.1f kts)", position.getMmsi(), zone.getName(), position.getSpeedOverGround(), limit);
-                        }
-                    }
-                    break;
-                case FORBIDDEN_SHIP_TYPE:
-                    if (shipType != null && shipType.getValue().equalsIgnoreCase(constraint.getConstraintValue())) {
-                        isViolating = true;
-                        msg = String.format("Forbidden ship type ('%s') detected in zone '%s'. Ship: %s", shipType.getValue(), zone.getName(), position.getMmsi());
-                    }
-                    break;
-                case UNWANTED_NAV_STATUS:
-                    if (position.getNavigationalStatus() != null) {
-                        int unwantedStatus = Integer.parseInt(constraint.getConstraintValue());
-                        if (position.getNavigationalStatus() == unwantedStatus) {
-                            isViolating = true;
-                            msg = String.format("Ship %s with unwanted status code (%d) detected in zone '%s'.", position.getMmsi(), unwantedStatus, zone.getName());
-                        }
-                    }
-                    break;
-                default:
-                    // Αυτό το switch χειρίζεται μόνο stateful παραβιάσεις.
-                    return;
-            }
-        } catch (NumberFormatException e) {
-            log.warn("ZONE CHECK: Invalid constraint value '{}' for constraint type {} in zone '{}'", constraint.getConstraintValue(), constraint.getConstraintType(), zone.getName());
-            return;
-        }
-
+    private void handleStatefulViolation(CompiledConstraint constraint, ZoneOfInterest zone, AisData position, long mmsi, ShipType shipType) {
         // Κεντρική Λογική: Αποφασίζει αν θα στείλει ειδοποίηση ή θα καθαρίσει την cache.
-        if (isViolating) {
-            // Αν το πλοίο παραβιάζει τον κανόνα ΚΑΙ είναι μια ΝΕΑ παραβίαση (δεν υπάρχει στην cache),
-            // τότε στέλνουμε ειδοποίηση και την προσθέτουμε στην cache.
-            if (!activeViolationsCache.contains(cacheKey)) {
-                sendNotification(msg, zone, position, constraint);
-                activeViolationsCache.add(cacheKey);
+        if (constraint.isViolatedBy(position, shipType)) {
+            // Αν το πλοίο παραβιάζει τον κανόνα ΚΑΙ είναι μια ΝΕΑ παραβίαση (δεν υπήρχε στην cache),
+            // τότε στέλνουμε ειδοποίηση.
+            if (alertState.markViolation(mmsi, zone.getId(), constraint.type())) {
+                sendNotification(constraint.violationMessage(position, zone.getName()), zone, position, constraint.source());
             }
         } else {
             // Αν το πλοίο ΔΕΝ παραβιάζει τον κανόνα, αφαιρούμε την παραβίαση από την cache
             // (αν υπήρχε), ώστε να μπορεί να ενεργοποιηθεί ξανά στο μέλλον.
-            activeViolationsCache.remove(cacheKey);
+            alertState.clearViolation(mmsi, zone.getId(), constraint.type());
         }
     }
 
     /**
      * Καθαρίζει όλες τις ενεργές stateful παραβιάσεις για ένα συγκεκριμένο πλοίο όταν αυτό βγαίνει από μια ζώνη.
-     * @param zone Η ζώνη από την οποία βγήκε το πλοίο.
-     * @param mmsi Το MMSI του πλοίου.
+     * @param compiledZone Η ζώνη από την οποία βγήκε το πλοίο.
+     * @param mmsi Το MMSI του πλοίου ως αριθμός.
      */
-    private void clearActiveViolationsForZone(ZoneOfInterest zone, String mmsi) {
-        for (ZoneConstraint constraint : zone.getConstraints()) {
-            switch (constraint.getConstraintType()) {
-                case SPEED_LIMIT_ABOVE:
-                case SPEED_LIMIT_BELOW:
-                case FORBIDDEN_SHIP_TYPE:
-                case UNWANTED_NAV_STATUS:
-                    String cacheKey = createViolationCacheKey(mmsi, zone.getId(), constraint.getConstraintType());
-                    activeViolationsCache.remove(cacheKey);
-                    break;
-                default:
-                    // Δεν κάνουμε τίποτα για τους περιορισμούς εισόδου/εξόδου.
-            }
+    private void clearActiveViolationsForZone(CompiledZone compiledZone, long mmsi) {
+        for (CompiledConstraint constraint : compiledZone.getStatefulConstraints()) {
+            alertState.clearViolation(mmsi, compiledZone.getZone().getId(), constraint.type());
         }
     }
 
     /**
-     * Υπολογίζει αν ένα σημείο βρίσκεται μέσα σε μια κυκλική ζώνη χρησιμοποιώντας τον τύπο Haversine.
+     * Υπολογίζει αν ένα σημείο βρίσκεται μέσα σε μια ζώνη (κυκλική ή πολυγωνική).
+     * Το {@link com.MarineTrafficClone.SeaWatch.geo.Geofence} της ζώνης είναι προετοιμασμένο μία φορά ανά ζώνη,
+     * οπότε ο έλεγχος δεν δεσμεύει μνήμη ανά μήνυμα.
      */
-    private boolean isInsideZone(AisData position, ZoneOfInterest zone) {
-        final int R = 6371 * 1000; // Ακτίνα της Γης σε μέτρα
-
-        // Υπολόγισε την διαφορά σε longitude και latitude ανάμεσα σε 2 σημεία (κέντρο ζώνης και θέση πλοίου)
-        double dLat = Math.toRadians(position.getLatitude() - zone.getCenterLatitude());
-        double dLon = Math.toRadians(position.getLongitude() - zone.getCenterLongitude());
-
-        // Υπολόγισε το τετράγωνο του μισού μήκους της χορδής μεταξύ των σημείων.
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-                + Math.cos(Math.toRadians(zone.getCenterLatitude())) * Math.cos(Math.toRadians(position.getLatitude()))
-                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
-
-        // Υπολόγισε τη γωνιακή απόσταση σε ακτίνια.
-        // Το atan2 είναι αριθμητικά πιο σταθερό από το asin(√a) όταν τα σημεία είναι πολύ κοντά το ένα στο άλλο.
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        // Υπολόγισε την τελική απόσταση και σύγκρινέ την με την ακτίνα της ζώνης
-        return (R * c) <= zone.getRadiusInMeters();
+    private boolean isInsideZone(AisData position, CompiledZone zone) {
+        return zone.getGeofence().contains(position.getLatitude(), position.getLongitude());
     }
 
     /**
@@ -373,191 +361,4 @@ public class KafkaConsumerService {
             messagingTemplate.convertAndSendToUser(user.getEmail(), "/queue/notifications", notification);
         }
     }
-
-    // ----- Λογική για τις Συγκρούσεις -----
-
-    /**
-     * Ελέγχει το τρέχον πλοίο για πιθανές συγκρούσεις με όλα τα άλλα ενεργά πλοία.
-     */
-    private void checkCollisions(AisData currentShipData) {
-        List<CollisionZone> zones = collisionZoneCache.getAllActiveZones();
-        if (zones.isEmpty() || currentShipData.getLatitude() == null) {
-            return;
-        }
-
-        // Παίρνουμε την τελευταία θέση ΟΛΩΝ των πλοίων από την cache για σύγκριση.
-        Collection<AisData> allOtherShips = positionCache.getAllLatestPositions();
-
-        for (CollisionZone zone : zones) {
-            // Έλεγχος αν το τρέχον πλοίο είναι μέσα στη ζώνη σύγκρουσης.
-            if (isInsideCollisionZone(currentShipData, zone)) {
-                // Αν είναι, το συγκρίνουμε με όλα τα άλλα πλοία.
-                for (AisData otherShipData : allOtherShips) {
-                    if (!shouldCompareShips(currentShipData, otherShipData)) {
-                        continue; // Αγνοούμε τη σύγκριση με τον εαυτό του ή με σταματημένα πλοία.
-                    }
-
-                    // Έλεγχος αν και το άλλο πλοίο είναι μέσα στην ΙΔΙΑ ζώνη.
-                    if (isInsideCollisionZone(otherShipData, zone)) {
-                        // Αν είναι και τα δύο μέσα, ελέγχουμε για πιθανή σύγκρουση.
-                        if (predictCollision(currentShipData, otherShipData)) {
-                            String pairKey = createCollisionPairKey(currentShipData.getMmsi(), otherShipData.getMmsi());
-                            // Στέλνουμε ειδοποίηση μόνο αν ΔΕΝ έχουμε ήδη ειδοποιήσει γι' αυτό το ζευγάρι.
-                            if (!notifiedCollisionPairs.contains(pairKey)) {
-                                String msg = String.format("Collision Alert in zone '%s'! Ship %s and Ship %s are on a collision course.",
-                                        zone.getName(), currentShipData.getMmsi(), otherShipData.getMmsi());
-                                sendCollisionNotification(msg, zone, currentShipData, otherShipData);
-                                notifiedCollisionPairs.add(pairKey); // Σημειώνουμε ότι έχουμε ειδοποιήσει.
-                            }
-                        } else {
-                            // Αν δεν βρίσκονται πλέον σε πορεία σύγκρουσης, τους αφαιρούμε από τη λίστα
-                            // ειδοποιημένων, ώστε να ειδοποιηθούν ξανά αν ο κίνδυνος επανεμφανιστεί.
-                            String pairKey = createCollisionPairKey(currentShipData.getMmsi(), otherShipData.getMmsi());
-                            notifiedCollisionPairs.remove(pairKey);
-                        }
-                    }
-                }
-            }
-        }
-    }
-
-    /**
-     * Απλός αλγόριθμος πρόβλεψης σύγκρουσης βασισμένος στον υπολογισμό του
-     * Closest Point of Approach (CPA).
-     */
-    private boolean predictCollision(AisData shipA, AisData shipB) {
-        // Ορίζουμε τα όρια μας: κίνδυνος αν θα πλησιάσουν κάτω από 500 μέτρα στα επόμενα 10 λεπτά (600 δευτ.)
-        final double DANGER_DISTANCE_METERS = 500.0; // Επικίνδυνη απόσταση < 500μ.
-        final double TIME_HORIZON_SECONDS = 600.0;   // Χρονικός ορίζοντας πρόβλεψης: 10 λεπτά.
-
-        // Μετατροπή ταχύτητας από κόμβους σε μέτρα/δευτερόλεπτο
-        double vA = shipA.getSpeedOverGround() * 0.514444; // κόμβοι σε m/s
-        double vB = shipB.getSpeedOverGround() * 0.514444; // κόμβοι σε m/s
-
-        // Μετατροπή πορείας από μοίρες σε radians
-        double courseA_rad = Math.toRadians(shipA.getCourseOverGround());
-        double courseB_rad = Math.toRadians(shipB.getCourseOverGround());
-
-        // Υπολογισμός συνιστωσών ταχύτητας (vx, vy) για κάθε πλοίο
-        double vAx = vA * Math.sin(courseA_rad);
-        double vAy = vA * Math.cos(courseA_rad);
-        double vBx = vB * Math.sin(courseB_rad);
-        double vBy = vB * Math.cos(courseB_rad);
-
-        // Απλοποιημένη μετατροπή συντεταγμένων σε μέτρα. Για μεγαλύτερη ακρίβεια, χρειάζεται προβολή (π.χ. Mercator).
-        double distanceX = (shipB.getLongitude() - shipA.getLongitude()) * 111111 * Math.cos(Math.toRadians(shipA.getLatitude()));
-        double distanceY = (shipB.getLatitude() - shipA.getLatitude()) * 111111;
-
-        // Σχετική ταχύτητα
-        double rVx = vBx - vAx;
-        double rVy = vBy - vAy;
-
-        // Υπολογισμός του χρόνου και της απόστασης στο Closest Point of Approach (CPA)
-        double dotProduct_v_d = (rVx * distanceX) + (rVy * distanceY);
-        double dotProduct_v_v = (rVx * rVx) + (rVy * rVy);
-
-        if (dotProduct_v_v == 0) return false; // Δεν έχουν σχετική ταχύτητα, δεν θα συγκρουστούν ποτέ.
-
-        double t_cpa = -dotProduct_v_d / dotProduct_v_v;
-
-        // Ελέγχουμε μόνο για μελλοντικές συγκρούσεις εντός του χρονικού μας ορίζοντα.
-        if (t_cpa > 0 && t_cpa < TIME_HORIZON_SECONDS) {
-            // Υπολογίζουμε την απόσταση στο σημείο CPA
-            double d_cpa_squared = Math.pow(distanceX + rVx * t_cpa, 2) + Math.pow(distanceY + rVy * t_cpa, 2);
-            return Math.sqrt(d_cpa_squared) < DANGER_DISTANCE_METERS; // ΚΙΝΔΥΝΟΣ!
-        }
-
-        return false;
-    }
-
-    // --- Βοηθητικές Μέθοδοι για τη Λογική Συγκρούσεων ---
-
-    /**
-     * Ελέγχει αν δύο πλοία πρέπει να συγκριθούν για σύγκρουση.
-     * @param shipA Το πρώτο πλοίο.
-     * @param shipB Το δεύτερο πλοίο.
-     * @return true αν πρέπει να γίνει σύγκριση.
-     */
-    private boolean shouldCompareShips(AisData shipA, AisData shipB) {
-        // Δεν συγκρίνουμε ένα πλοίο με τον εαυτό του.
-        if (shipA.getMmsi().equals(shipB.getMmsi())) {
-            return false;
-        }
-        // Αγνοούμε πλοία που είναι σχεδόν σταματημένα (ταχύτητα < 1 κόμβος) ή δεν έχουν έγκυρα δεδομένα ταχύτητας.
-        return shipB.getSpeedOverGround() != null && shipB.getSpeedOverGround() >= 1.0;
-    }
-
-    /**
-     * Δημιουργεί ένα σταθερό, ταξινομημένο κλειδί για ένα ζευγάρι MMSI.
-     * Εξασφαλίζει ότι το κλειδί για (A, B) είναι ίδιο με το κλειδί για (B, A).
-     * @param mmsi1 Το MMSI του πρώτου πλοίου.
-     * @param mmsi2 Το MMSI του δεύτερου πλοίου.
-     * @return Το ταξινομημένο κλειδί.
-     */
-    private String createCollisionPairKey(String mmsi1, String mmsi2) {
-        return mmsi1.compareTo(mmsi2) < 0 ? mmsi1 + "-" + mmsi2 : mmsi2 + "-" + mmsi1;
-    }
-
-    /**
-     * Ελέγχει αν μια θέση είναι μέσα σε μια ζώνη σύγκρουσης.
-     * (Ίδια λογική με την isInsideZone, αλλά για διαφορετικό τύπο αντικειμένου).
-     * @param data Τα δεδομένα θέσης του πλοίου.
-     * @param zone Η ζώνη σύγκρουσης.
-     * @return true αν το πλοίο είναι μέσα στη ζώνη.
-     */
-    private boolean isInsideCollisionZone(AisData data, CollisionZone zone) {
-        if (data.getLatitude() == null || data.getLongitude() == null) return false;
-        final int R = 6371 * 1000;  // Ακτίνα της Γης σε μέτρα
-
-        double dLat = Math.toRadians(data.getLatitude() - zone.getCenterLatitude());
-        double dLon = Math.toRadians(data.getLongitude() - zone.getCenterLongitude());
-
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                Math.cos(Math.toRadians(zone.getCenterLatitude())) * Math.cos(Math.toRadians(data.getLatitude())) *
-                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return (R * c) <= zone.getRadiusInMeters();
-    }
-
-    /**
-     * Στέλνει μια ειδοποίηση επικείμενης σύγκρουσης στον χρήστη.
-     * @param message Το μήνυμα της ειδοποίησης.
-     * @param zone Η ζώνη όπου εντοπίστηκε ο κίνδυνος.
-     * @param shipA Το πρώτο εμπλεκόμενο πλοίο.
-     * @param shipB Το δεύτερο εμπλεκόμενο πλοίο.
-     */
-    private void sendCollisionNotification(String message, CollisionZone zone, AisData shipA, AisData shipB) {
-        UserEntity user = zone.getUser();
-        if (user != null && user.getEmail() != null) {
-            log.info("COLLISION_ALERT -> To {}: {}", user.getEmail(), message);
-
-            // Δημιουργία των αντικειμένων ShipInfo για κάθε πλοίο
-            CollisionNotificationDTO.ShipInfo shipInfoA = CollisionNotificationDTO.ShipInfo.builder()
-                    .mmsi(shipA.getMmsi())
-                    .latitude(shipA.getLatitude())
-                    .longitude(shipA.getLongitude())
-                    .build();
-
-            CollisionNotificationDTO.ShipInfo shipInfoB = CollisionNotificationDTO.ShipInfo.builder()
-                    .mmsi(shipB.getMmsi())
-                    .latitude(shipB.getLatitude())
-                    .longitude(shipB.getLongitude())
-                    .build();
-
-            // Δημιουργία του τελικού DTO της ειδοποίησης
-            CollisionNotificationDTO notification = CollisionNotificationDTO.builder()
-                    .timestamp(Instant.now())
-                    .message(message)
-                    .zoneId(zone.getId())
-                    .zoneName(zone.getName())
-                    .shipA(shipInfoA)
-                    .shipB(shipInfoB)
-                    .build();
-
-            // Αποστολή σε ένα νέο, εξειδικευμένο κανάλι WebSocket για τις ειδοποιήσεις σύγκρουσης.
-            messagingTemplate.convertAndSendToUser(user.getEmail(), "/queue/collision-alerts", notification);
-        }
-    }
-}
\ No newline at end of file
+}
@@ -1,22 +1,60 @@
 package com.MarineTrafficClone.SeaWatch.service;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.common.errors.RetriableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
 /**
  * Service που λειτουργεί ως παραγωγός (Producer) για το Kafka.
  * Ο ρόλος του είναι να στέλνει μηνύματα (στην περίπτωσή μας, δεδομένα AIS σε μορφή JSON)
  * σε ένα συγκεκριμένο Kafka topic.
+ *
+ * Οι αποστολές είναι ασύγχρονες, αλλά το πλήθος των μηνυμάτων που δεν έχουν επιβεβαιωθεί ακόμα από τον broker
+ * (in-flight) είναι φραγμένο: όταν φτάσει το {@code kafka.producer.max-in-flight}, η {@link #sendAisDataAsJson}
+ * περιμένει μια επιβεβαίωση, οπότε η αναπαραγωγή επιβραδύνεται στον ρυθμό που αντέχει ο broker αντί να γεμίζει
+ * τη μνήμη. Η έκβαση κάθε αποστολής καταγράφεται από το callback της: επιβεβαίωση, ή αποτυχία που ξαναδοκιμάζεται
+ * με εκθετική αναμονή όταν είναι προσωρινή ({@link RetriableException}) και μετράται ως αποτυχημένη όταν δεν είναι
+ * ή όταν εξαντληθούν οι προσπάθειες. Οι μετρητές δημοσιεύονται ως {@code seawatch.kafka.producer.*}.
+ *
+ * Ο ίδιος ο Kafka producer ξαναστέλνει ένα batch μέχρι το {@code delivery.timeout.ms} διατηρώντας τη σειρά
+ * (idempotence)· οι επαναλήψεις εδώ καλύπτουν ό,τι αποτυγχάνει μετά από αυτό (π.χ. γεμάτο buffer ή λήξη του
+ * χρόνου παράδοσης), και ένα μήνυμα που ξαναστέλνεται μπορεί να φτάσει μετά από νεότερα του ίδιου πλοίου.
  */
 @Service
 public class KafkaProducerService {
 
+    private static final Logger log = LoggerFactory.getLogger(KafkaProducerService.class);
+
     /**
      * Το όνομα του Kafka topic στο οποίο θα στέλνονται τα δεδομένα AIS.
      */
     public static final String AIS_TOPIC_NAME = "ais-data-stream";
 
+    /** Οι αποτυχίες καταγράφονται το πολύ μία φορά ανά διάστημα, ώστε ένας broker εκτός λειτουργίας να μην πλημμυρίσει το log. */
+    private static final long FAILURE_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
     /**
      * Το KafkaTemplate είναι ένα high-level abstraction του Spring for Kafka
      * που απλοποιεί την αποστολή μηνυμάτων.
@@ -24,26 +62,243 @@ public class KafkaProducerService {
      */
     private final KafkaTemplate<String, String> kafkaTemplate;
 
+    private final int maxInFlight;
+    /** Μία άδεια ανά μήνυμα που δεν έχει ολοκληρωθεί (επιβεβαίωση ή οριστική αποτυχία). */
+    private final Semaphore inFlightPermits;
+    /** Οι προσπάθειες ανά μήνυμα, μαζί με την πρώτη. */
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long retryMaxBackoffMillis;
+    /** Οι επαναλήψεις προγραμματίζονται εδώ, όχι στο I/O thread του producer που εκτελεί τα callbacks. */
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor();
+    /**
+     * Οι επαναλήψεις στέλνονται από ξεχωριστό thread, γιατί η send μπορεί να μπλοκάρει έως το {@code max.block.ms}
+     * (π.χ. γεμάτο buffer) και δεν πρέπει να καθυστερεί τον χρονισμό των υπόλοιπων επαναλήψεων.
+     */
+    private final ExecutorService retrySender = Executors.newSingleThreadExecutor();
+    /**
+     * Οι επαναλήψεις που έχουν προγραμματιστεί και δεν έχουν ξεκινήσει. Όποιος αφαιρέσει μια επανάληψη από εδώ
+     * (το thread αποστολής ή ο τερματισμός) αναλαμβάνει την έκβασή της, ώστε να μετρηθεί ακριβώς μία φορά.
+     */
+    private final Set<PendingRetry> pendingRetries = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final AtomicLong lastFailureLogNanos = new AtomicLong(System.nanoTime() - FAILURE_LOG_INTERVAL_NANOS);
+    /** Οι αποτυχίες που δεν καταγράφηκαν ακόμα στο log. */
+    private final AtomicLong unloggedFailures = new AtomicLong();
+
     @Autowired
-    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate) {
+    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate, MeterRegistry meterRegistry,
+                                @Value("${kafka.producer.max-in-flight:10000}") int maxInFlight,
+                                @Value("${kafka.producer.retry.max-attempts:3}") int maxAttempts,
+                                @Value("${kafka.producer.retry.backoff-ms:100}") long retryBackoffMillis,
+                                @Value("${kafka.producer.retry.max-backoff-ms:5000}") long retryMaxBackoffMillis) {
+        if (maxInFlight < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("kafka.producer.max-in-flight and kafka.producer.retry.max-attempts must be positive");
+        }
         this.kafkaTemplate = kafkaTemplate;
+        this.maxInFlight = maxInFlight;
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.retryMaxBackoffMillis = retryMaxBackoffMillis;
+
+        registerCounter(meterRegistry, "sent", "Messages handed to the Kafka producer", KafkaProducerService::getSent);
+        registerCounter(meterRegistry, "acked", "Messages acknowledged by the Kafka broker", KafkaProducerService::getAcked);
+        registerCounter(meterRegistry, "failed", "Messages dropped after their last send attempt failed", KafkaProducerService::getFailed);
+        registerCounter(meterRegistry, "retried", "Send attempts repeated after a retriable failure", KafkaProducerService::getRetried);
+        Gauge.builder("seawatch.kafka.producer.in.flight", this, KafkaProducerService::getInFlight)
+                .description("Messages sent to Kafka and not yet acknowledged or dropped")
+                .register(meterRegistry);
+    }
+
+    private void registerCounter(MeterRegistry meterRegistry, String result, String description,
+                                 ToDoubleFunction<KafkaProducerService> count) {
+        FunctionCounter.builder("seawatch.kafka.producer.messages", this, count)
+                .description(description)
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     /**
-     * Στέλνει ένα μήνυμα AIS στο Kafka topic.
+     * Στέλνει ένα μήνυμα AIS στο Kafka topic. Επιστρέφει αμέσως, εκτός αν υπάρχουν ήδη
+     * {@code kafka.producer.max-in-flight} μηνύματα χωρίς επιβεβαίωση· τότε περιμένει να ολοκληρωθεί ένα.
      *
      * @param key Το κλειδί του μηνύματος. Στην περίπτωσή μας, χρησιμοποιούμε το MMSI του πλοίου.
      *            Η χρήση κλειδιού εξασφαλίζει ότι όλα τα μηνύματα για το ίδιο πλοίο θα πηγαίνουν
      *            στο ίδιο partition του topic, διατηρώντας τη σειρά τους.
      * @param aisDataJson Τα δεδομένα του μηνύματος, ως JSON string.
+     * @throws InterruptedException αν το thread διακοπεί όσο περιμένει (το μήνυμα δεν στέλνεται).
      */
-    public void sendAisDataAsJson(String key, String aisDataJson) {
+    public void sendAisDataAsJson(String key, String aisDataJson) throws InterruptedException {
+        inFlightPermits.acquire();
+        sent.increment();
+        attempt(key, aisDataJson, 1);
+    }
+
+    private void attempt(String key, String aisDataJson, int attempt) {
+        CompletableFuture<SendResult<String, String>> future;
         try {
-            kafkaTemplate.send(AIS_TOPIC_NAME, key, aisDataJson);
-            // Το παρακάτω logging είναι χρήσιμο για debugging, αλλά μπορεί να "πλημμυρίσει" την κονσόλα.
-            // System.out.println("Sent to Kafka topic '" + AIS_TOPIC_NAME + "', key='" + key + "': " + aisDataJson.substring(0, Math.min(100, aisDataJson.length())) + "...");
+            future = kafkaTemplate.send(AIS_TOPIC_NAME, key, aisDataJson);
         } catch (Exception e) {
-            System.err.println("Error sending message to Kafka: " + e.getMessage());
+            // Π.χ. γεμάτο buffer του producer μετά το max.block.ms.
+            onFailure(key, aisDataJson, attempt, e);
+            return;
         }
+        future.whenComplete((result, e) -> {
+            if (e == null) {
+                acked.increment();
+                inFlightPermits.release();
+            } else {
+                onFailure(key, aisDataJson, attempt, e);
+            }
+        });
+    }
+
+    private void onFailure(String key, String aisDataJson, int attempt, Throwable e) {
+        if (attempt < maxAttempts && isRetriable(e)) {
+            PendingRetry retry = new PendingRetry(key, aisDataJson, attempt + 1, e);
+            pendingRetries.add(retry);
+            try {
+                retryScheduler.schedule(() -> resend(retry), backoffMillis(attempt), TimeUnit.MILLISECONDS);
+                retried.increment();
+            } catch (RejectedExecutionException shuttingDown) {
+                // Η εφαρμογή τερματίζεται· το μήνυμα μετράται ως αποτυχημένο.
+                retry.cancel();
+            }
+            return;
+        }
+        drop(key, e);
+    }
+
+    /**
+     * Παραδίδει μια επανάληψη, που έφτασε η ώρα της, στο thread αποστολής· το thread του χρονισμού δεν στέλνει το ίδιο.
+     */
+    private void resend(PendingRetry retry) {
+        try {
+            retrySender.execute(retry);
+        } catch (RejectedExecutionException shuttingDown) {
+            retry.cancel();
+        }
+    }
+
+    /** Μια επανάληψη που περιμένει τη σειρά της στον χρονισμό ή στο thread αποστολής. */
+    private final class PendingRetry implements Runnable {
+        private final String key;
+        private final String aisDataJson;
+        private final int attempt;
+        private final Throwable lastFailure;
+
+        PendingRetry(String key, String aisDataJson, int attempt, Throwable lastFailure) {
+            this.key = key;
+            this.aisDataJson = aisDataJson;
+            this.attempt = attempt;
+            this.lastFailure = lastFailure;
+        }
+
+        /** Στέλνει το μήνυμα, εκτός αν η επανάληψη έχει ήδη ακυρωθεί από τον τερματισμό. */
+        @Override
+        public void run() {
+            if (pendingRetries.remove(this)) {
+                attempt(key, aisDataJson, attempt);
+            }
+        }
+
+        /** Μετρά το μήνυμα ως αποτυχημένο, αν η επανάληψη δεν έχει ήδη ξεκινήσει. */
+        void cancel() {
+            if (pendingRetries.remove(this)) {
+                drop(key, lastFailure);
+            }
+        }
+    }
+
+    /**
+     * Το μήνυμα μετράται ως αποτυχημένο και ελευθερώνει τη θέση του στα in-flight.
+     */
+    private void drop(String key, Throwable e) {
+        failed.increment();
+        inFlightPermits.release();
+        logFailure(key, e);
+    }
+
+    /**
+     * Η αναμονή πριν από την επανάληψη μετά την προσπάθεια {@code attempt}: διπλασιάζεται σε κάθε προσπάθεια, έως το μέγιστο.
+     */
+    long backoffMillis(int attempt) {
+        return Math.min(retryMaxBackoffMillis, retryBackoffMillis << Math.min(attempt - 1, 30));
+    }
+
+    private static boolean isRetriable(Throwable e) {
+        // Το Spring τυλίγει την εξαίρεση του producer (KafkaProducerException, CompletionException).
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void logFailure(String key, Throwable e) {
+        unloggedFailures.incrementAndGet();
+        long now = System.nanoTime();
+        long last = lastFailureLogNanos.get();
+        if (now - last >= FAILURE_LOG_INTERVAL_NANOS && lastFailureLogNanos.compareAndSet(last, now)) {
+            log.error("Error sending message to Kafka (key: {}); {} messages dropped since the last report, {} in total: {}",
+                    key, unloggedFailures.getAndSet(0), getFailed(), e.toString());
+        }
+    }
+
+    /**
+     * Στέλνει αμέσως ό,τι περιμένει στο buffer του producer (χωρίς το linger) και περιμένει να ολοκληρωθούν
+     * όλα τα μηνύματα, π.χ. πριν από τη σύνοψη στο τέλος της αναπαραγωγής.
+     *
+     * @return true αν δεν έμεινε κανένα μήνυμα χωρίς επιβεβαίωση μέσα στο χρονικό όριο.
+     */
+    public boolean flush(long timeoutMillis) throws InterruptedException {
+        kafkaTemplate.flush();
+        if (!inFlightPermits.tryAcquire(maxInFlight, timeoutMillis, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        inFlightPermits.release(maxInFlight);
+        return true;
+    }
+
+    @PreDestroy
+    public void stopRetries() {
+        // Οι επαναλήψεις που δεν έγιναν ακόμα δεν θα βρουν πια ανοιχτό producer.
+        retryScheduler.shutdownNow();
+        retrySender.shutdownNow();
+        // Μετρώνται ως αποτυχημένες και ελευθερώνουν τις θέσεις τους στα in-flight.
+        for (PendingRetry retry : pendingRetries) {
+            retry.cancel();
+        }
+    }
+
+    /** @return Τα μηνύματα που δόθηκαν στον producer. */
+    public long getSent() {
+        return sent.sum();
+    }
+
+    /** @return Τα μηνύματα που επιβεβαίωσε ο broker. */
+    public long getAcked() {
+        return acked.sum();
+    }
+
+    /** @return Τα μηνύματα που χάθηκαν μετά την τελευταία αποτυχημένη προσπάθεια. */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /** @return Οι επαναλήψεις μετά από προσωρινές αποτυχίες. */
+    public long getRetried() {
+        return retried.sum();
+    }
+
+    /** @return Τα μηνύματα που στάλθηκαν και δεν έχουν ολοκληρωθεί (επιβεβαίωση ή οριστική αποτυχία). */
+    public long getInFlight() {
+        return getSent() - getAcked() - getFailed();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,290 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.dto.RealTimeShipUpdateDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ShipClusterDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ShipClusterResponseDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ShipClusterTileDTO;
+import com.MarineTrafficClone.SeaWatch.map.WebMercator;
+import com.MarineTrafficClone.SeaWatch.store.VesselState;
+import com.MarineTrafficClone.SeaWatch.store.VesselStateStore;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service που διατηρεί clusters πλοίων ανά επίπεδο zoom για τον παγκόσμιο χάρτη.
+ *
+ * Για κάθε επίπεδο zoom κάτω από το κατώφλι {@code map.clustering.individual-ships-zoom} υπάρχει ένα πλέγμα
+ * σε προβολή Web Mercator με 4x4 κελιά ανά tile (περίπου 64 pixels ανά κελί). Κάθε κελί κρατά το πλήθος
+ * και τα αθροίσματα συντεταγμένων των πλοίων του, οπότε το centroid υπολογίζεται σε O(1).
+ * Τα πλέγματα ενημερώνονται σταδιακά από τις ζωντανές ενημερώσεις της {@link ShipPositionCacheService}:
+ * κάθε μετακίνηση αφαιρεί το πλοίο από το παλιό κελί και το προσθέτει στο νέο, χωρίς σάρωση όλων των πλοίων.
+ *
+ * Τα clusters διατίθενται:
+ * - μέσω REST, για ένα viewport ({@link #getClusters(int, double, double, double, double)}),
+ * - ζωντανά, ανά tile, στο {@code /topic/ais-clusters/{z}/{x}/{y}}, μόνο για τα tiles που άλλαξαν.
+ * Από το κατώφλι zoom και πάνω επιστρέφονται τα μεμονωμένα πλοία.
+ */
+@Service
+public class ShipClusterService implements ShipPositionCacheService.RealTimeUpdateListener {
+
+    public static final String CLUSTER_TOPIC_PREFIX = "/topic/ais-clusters/";
+
+    /** log2 του πλήθους κελιών ανά άξονα σε κάθε tile (2 -> 4x4 κελιά). */
+    private static final int CELLS_PER_TILE_SHIFT = 2;
+
+    private final ShipPositionCacheService positionCache;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int individualShipsZoom;
+
+    /** Ένα πλέγμα για κάθε επίπεδο zoom από 0 έως individualShipsZoom - 1. */
+    private final ClusterGrid[] grids;
+
+    @Autowired
+    public ShipClusterService(ShipPositionCacheService positionCache,
+                              SimpMessagingTemplate messagingTemplate,
+                              @Value("${map.clustering.individual-ships-zoom:10}") int individualShipsZoom) {
+        if (individualShipsZoom < 1 || individualShipsZoom > 20) {
+            throw new IllegalArgumentException("map.clustering.individual-ships-zoom must be between 1 and 20.");
+        }
+        this.positionCache = positionCache;
+        this.messagingTemplate = messagingTemplate;
+        this.individualShipsZoom = individualShipsZoom;
+        this.grids = new ClusterGrid[individualShipsZoom];
+        for (int zoom = 0; zoom < individualShipsZoom; zoom++) {
+            grids[zoom] = new ClusterGrid(zoom);
+        }
+    }
+
+    /**
+     * Εγγράφεται ως listener στην cache θέσεων, ώστε τα πλέγματα να ενημερώνονται σε κάθε νέα θέση.
+     */
+    @PostConstruct
+    public void registerListener() {
+        positionCache.addRealTimeUpdateListener(this);
+    }
+
+    /**
+     * Μετακινεί ένα πλοίο από το κελί της προηγούμενης θέσης του στο κελί της νέας, σε όλα τα επίπεδα zoom.
+     */
+    @Override
+    public synchronized void onRealTimeUpdate(VesselState previous, VesselState current) {
+        boolean hadPosition = previous != null && previous.hasPosition();
+        boolean hasPosition = current.hasPosition();
+        if (!hadPosition && !hasPosition) {
+            return;
+        }
+        double previousX = hadPosition ? WebMercator.worldX(previous.getLongitude()) : 0;
+        double previousY = hadPosition ? WebMercator.worldY(previous.getLatitude()) : 0;
+        double currentX = hasPosition ? WebMercator.worldX(current.getLongitude()) : 0;
+        double currentY = hasPosition ? WebMercator.worldY(current.getLatitude()) : 0;
+
+        for (ClusterGrid grid : grids) {
+            long previousCell = hadPosition ? grid.cellOf(previousX, previousY) : -1;
+            long currentCell = hasPosition ? grid.cellOf(currentX, currentY) : -1;
+            if (hadPosition && hasPosition && previousCell == currentCell) {
+                grid.moveWithinCell(currentCell, previous.getLatitude(), previous.getLongitude(),
+                        current.getLatitude(), current.getLongitude());
+                continue;
+            }
+            if (hadPosition) {
+                grid.remove(previousCell, previous.getLatitude(), previous.getLongitude());
+            }
+            if (hasPosition) {
+                grid.add(currentCell, current.getLatitude(), current.getLongitude());
+            }
+        }
+    }
+
+    /**
+     * Επιστρέφει τα clusters (ή τα μεμονωμένα πλοία, από το κατώφλι zoom και πάνω) ενός viewport.
+     * Αν minLon > maxLon, το viewport θεωρείται ότι διασχίζει τον αντιμεσημβρινό.
+     * Τα μεμονωμένα πλοία διαβάζονται από τα slots του {@link VesselStateStore} και μόνο όσα είναι μέσα
+     * στο viewport μετατρέπονται σε DTO.
+     *
+     * @param zoom Το επίπεδο zoom του χάρτη.
+     * @return Η απάντηση με τα clusters ή τα πλοία του viewport.
+     */
+    public ShipClusterResponseDTO getClusters(int zoom, double minLat, double minLon, double maxLat, double maxLon) {
+        if (zoom >= individualShipsZoom) {
+            List<RealTimeShipUpdateDTO> ships = new ArrayList<>();
+            VesselStateStore vesselStates = positionCache.getVesselStates();
+            VesselState ship = new VesselState();
+            for (int slot = 0, size = vesselStates.size(); slot < size; slot++) {
+                vesselStates.read(slot, ship);
+                if (ship.hasPosition()
+                        && ship.getLatitude() >= minLat && ship.getLatitude() <= maxLat
+                        && longitudeInRange(ship.getLongitude(), minLon, maxLon)) {
+                    ships.add(ShipPositionCacheService.toRealTimeUpdate(ship));
+                }
+            }
+            return ShipClusterResponseDTO.builder()
+                    .zoom(zoom).clustered(false).clusters(Collections.emptyList()).ships(ships).build();
+        }
+
+        ClusterGrid grid = grids[Math.max(0, zoom)];
+        int minCellX = WebMercator.cellIndex(WebMercator.worldX(minLon), grid.cellsPerAxis);
+        int maxCellX = WebMercator.cellIndex(WebMercator.worldX(maxLon), grid.cellsPerAxis);
+        // Ο άξονας y της προβολής αυξάνεται προς τα νότια.
+        int minCellY = WebMercator.cellIndex(WebMercator.worldY(maxLat), grid.cellsPerAxis);
+        int maxCellY = WebMercator.cellIndex(WebMercator.worldY(minLat), grid.cellsPerAxis);
+        boolean wrapsAntimeridian = minLon > maxLon;
+
+        List<ShipClusterDTO> clusters = new ArrayList<>();
+        for (Map.Entry<Long, ClusterCell> entry : grid.cells.entrySet()) {
+            int cellX = WebMercator.unpackX(entry.getKey());
+            int cellY = WebMercator.unpackY(entry.getKey());
+            boolean insideX = wrapsAntimeridian
+                    ? (cellX >= minCellX || cellX <= maxCellX)
+                    : (cellX >= minCellX && cellX <= maxCellX);
+            if (insideX && cellY >= minCellY && cellY <= maxCellY) {
+                ShipClusterDTO cluster = entry.getValue().toDto();
+                if (cluster != null) {
+                    clusters.add(cluster);
+                }
+            }
+        }
+        return ShipClusterResponseDTO.builder()
+                .zoom(zoom).clustered(true).clusters(clusters).ships(Collections.emptyList()).build();
+    }
+
+    /**
+     * Στέλνει τα clusters κάθε tile που άλλαξε από την προηγούμενη εκτέλεση στο
+     * {@code /topic/ais-clusters/{z}/{x}/{y}}. Οι clients εγγράφονται μόνο στα tiles του viewport τους.
+     */
+    @Scheduled(fixedRateString = "${map.clustering.broadcast-interval-ms:2000}")
+    public void broadcastDirtyTiles() {
+        for (ClusterGrid grid : grids) {
+            Iterator<Long> dirtyTiles = grid.dirtyTiles.iterator();
+            while (dirtyTiles.hasNext()) {
+                long tile = dirtyTiles.next();
+                // Αν το tile αλλάξει ξανά μετά την αφαίρεση, θα σταλεί στην επόμενη εκτέλεση.
+                dirtyTiles.remove();
+                int tileX = WebMercator.unpackX(tile);
+                int tileY = WebMercator.unpackY(tile);
+                ShipClusterTileDTO update = ShipClusterTileDTO.builder()
+                        .z(grid.zoom).x(tileX).y(tileY)
+                        .clusters(grid.clustersOfTile(tileX, tileY))
+                        .build();
+                messagingTemplate.convertAndSend(CLUSTER_TOPIC_PREFIX + grid.zoom + "/" + tileX + "/" + tileY, update);
+            }
+        }
+    }
+
+    /** @return Το επίπεδο zoom από το οποίο και πάνω επιστρέφονται μεμονωμένα πλοία. */
+    public int getIndividualShipsZoom() {
+        return individualShipsZoom;
+    }
+
+    private static boolean longitudeInRange(double longitude, double minLon, double maxLon) {
+        return minLon <= maxLon
+                ? longitude >= minLon && longitude <= maxLon
+                : longitude >= minLon || longitude <= maxLon;
+    }
+
+    /**
+     * Το πλέγμα clustering ενός επιπέδου zoom.
+     * Οι εγγραφές γίνονται μόνο μέσα στο synchronized {@code onRealTimeUpdate}, ενώ οι αναγνώσεις
+     * (REST, broadcast) διαβάζουν τα κελιά ταυτόχρονα μέσω του ConcurrentHashMap.
+     */
+    private static final class ClusterGrid {
+        private final int zoom;
+        private final int cellsPerAxis;
+        private final Map<Long, ClusterCell> cells = new ConcurrentHashMap<>();
+        private final Set<Long> dirtyTiles = ConcurrentHashMap.newKeySet();
+
+        private ClusterGrid(int zoom) {
+            this.zoom = zoom;
+            this.cellsPerAxis = 1 << (zoom + CELLS_PER_TILE_SHIFT);
+        }
+
+        private long cellOf(double worldX, double worldY) {
+            return WebMercator.packCell(WebMercator.cellIndex(worldX, cellsPerAxis), WebMercator.cellIndex(worldY, cellsPerAxis));
+        }
+
+        private void add(long cellKey, double latitude, double longitude) {
+            cells.computeIfAbsent(cellKey, k -> new ClusterCell()).shift(1, latitude, longitude);
+            markDirty(cellKey);
+        }
+
+        private void remove(long cellKey, double latitude, double longitude) {
+            ClusterCell cell = cells.get(cellKey);
+            if (cell == null) {
+                return;
+            }
+            if (cell.shift(-1, -latitude, -longitude) == 0) {
+                cells.remove(cellKey, cell);
+            }
+            markDirty(cellKey);
+        }
+
+        private void moveWithinCell(long cellKey, double oldLatitude, double oldLongitude, double newLatitude, double newLongitude) {
+            ClusterCell cell = cells.get(cellKey);
+            if (cell != null) {
+                cell.shift(0, newLatitude - oldLatitude, newLongitude - oldLongitude);
+                markDirty(cellKey);
+            }
+        }
+
+        private void markDirty(long cellKey) {
+            dirtyTiles.add(WebMercator.packCell(
+                    WebMercator.unpackX(cellKey) >> CELLS_PER_TILE_SHIFT,
+                    WebMercator.unpackY(cellKey) >> CELLS_PER_TILE_SHIFT));
+        }
+
+        private List<ShipClusterDTO> clustersOfTile(int tileX, int tileY) {
+            List<ShipClusterDTO> clusters = new ArrayList<>();
+            int firstX = tileX << CELLS_PER_TILE_SHIFT;
+            int firstY = tileY << CELLS_PER_TILE_SHIFT;
+            int cellsPerTile = 1 << CELLS_PER_TILE_SHIFT;
+            for (int x = firstX; x < firstX + cellsPerTile; x++) {
+                for (int y = firstY; y < firstY + cellsPerTile; y++) {
+                    ClusterCell cell = cells.get(WebMercator.packCell(x, y));
+                    ShipClusterDTO cluster = (cell != null) ? cell.toDto() : null;
+                    if (cluster != null) {
+                        clusters.add(cluster);
+                    }
+                }
+            }
+            return clusters;
+        }
+    }
+
+    /**
+     * Ένα κελί του πλέγματος: πλήθος πλοίων και αθροίσματα των συντεταγμένων τους.
+     */
+    private static final class ClusterCell {
+        private int count;
+        private double sumLatitude;
+        private double sumLongitude;
+
+        private synchronized int shift(int countDelta, double latitudeDelta, double longitudeDelta) {
+            count += countDelta;
+            sumLatitude += latitudeDelta;
+            sumLongitude += longitudeDelta;
+            return count;
+        }
+
+        private synchronized ShipClusterDTO toDto() {
+            if (count <= 0) {
+                return null;
+            }
+            return ShipClusterDTO.builder()
+                    .latitude(sumLatitude / count)
+                    .longitude(sumLongitude / count)
+                    .count(count)
+                    .build();
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package com.MarineTrafficClone.SeaWatch.service;
 
+import com.MarineTrafficClone.SeaWatch.dto.RealTimeShipUpdateDTO;
 import com.MarineTrafficClone.SeaWatch.model.AisData;
+import com.MarineTrafficClone.SeaWatch.store.VesselState;
+import com.MarineTrafficClone.SeaWatch.store.VesselStateStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Service που λειτουργεί ως in-memory cache για την αποθήκευση της πιο πρόσφατης
- * γνωστής θέσης και κατάστασης (ως αντικείμενο AisData) για κάθε πλοίο.
+ * γνωστής θέσης και κατάστασης για κάθε πλοίο (σε έναν {@link VesselStateStore}).
  * Αυτό είναι εξαιρετικά σημαντικό για την απόδοση του συστήματος, ειδικά για τον έλεγχο
  * των συγκρούσεων, καθώς μας επιτρέπει να έχουμε άμεση πρόσβαση στην τελευταία θέση
  * όλων των πλοίων χωρίς να χρειάζεται να κάνουμε query στη βάση δεδομένων.
@@ -17,36 +23,174 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class ShipPositionCacheService {
 
+    private static final Logger log = LoggerFactory.getLogger(ShipPositionCacheService.class);
+
+    /**
+     * Η τελευταία κατάσταση κάθε πλοίου σε πρωτογενείς πίνακες (ένα slot ανά MMSI), αντί για ένα
+     * Map με ολόκληρα αντικείμενα AisData. Οι αναγνώσεις δεν κλειδώνουν.
+     */
+    private final VesselStateStore vesselStates;
+
+    /**
+     * Κλείδωμα που προστατεύει τον μετρητή {@link #sequence}. Η ανάθεση του sequence και η εγγραφή
+     * στον {@link #vesselStates} γίνονται ατομικά, ώστε όταν ένα snapshot διαβάζει το high-water mark,
+     * όλες οι ενημερώσεις με μικρότερο ή ίσο sequence να είναι ήδη ορατές στα slots.
+     */
+    private final Object sequenceLock = new Object();
+    private long sequence = 0;
+
     /**
-     * Χρησιμοποιούμε ένα {@link ConcurrentHashMap} για την αποθήκευση της cache.
-     * Είναι ένα thread-safe Map, κατάλληλο για χρήση σε περιβάλλον με πολλά threads,
-     * όπως ο Kafka consumer.
-     * Το κλειδί (key) είναι το MMSI του πλοίου (String) και η τιμή (value) είναι
-     * το πιο πρόσφατο αντικείμενο AisData που έχουμε λάβει γι' αυτό.
+     * Οι listeners που ενημερώνονται για κάθε ζωντανή ενημέρωση, ώστε να διατηρούν
+     * σταδιακά (incrementally) τις δικές τους δομές χωρίς να σαρώνουν ολόκληρη την cache.
      */
-    private final Map<String, AisData> positionCache = new ConcurrentHashMap<>();
+    private final List<RealTimeUpdateListener> updateListeners = new CopyOnWriteArrayList<>();
+
+    // Η προηγούμενη και η νέα κατάσταση που παραδίδονται στους listeners, ανά thread εγγραφής.
+    private final ThreadLocal<VesselState> previousState = ThreadLocal.withInitial(VesselState::new);
+    private final ThreadLocal<VesselState> currentState = ThreadLocal.withInitial(VesselState::new);
+
+    @Autowired
+    public ShipPositionCacheService(VesselStateStore vesselStates) {
+        this.vesselStates = vesselStates;
+    }
 
     /**
-     * Ενημερώνει τη θέση ενός πλοίου στην cache.
+     * Ενημερώνει τη θέση ενός πλοίου στην cache, χωρίς ζωντανή ενημέρωση προς τους clients.
      * Αν το πλοίο δεν υπάρχει στην cache, προστίθεται.
      * Αν υπάρχει ήδη, η παλιά εγγραφή αντικαθίσταται από τη νέα.
      *
      * @param aisData Το νέο αντικείμενο AisData του πλοίου.
+     * @return Το slot του πλοίου στον {@link VesselStateStore}, ή -1 αν το στίγμα αγνοήθηκε.
      */
-    public void updatePosition(AisData aisData) {
-        if (aisData != null && aisData.getMmsi() != null) {
-            positionCache.put(aisData.getMmsi(), aisData);
+    public int updatePosition(AisData aisData) {
+        return updatePosition(aisData, null);
+    }
+
+    /**
+     * Ενημερώνει τη θέση ενός πλοίου στην cache και καταχωρεί τη ζωντανή ενημέρωση που πρόκειται να σταλεί στους clients.
+     * Η ενημέρωση παίρνει το επόμενο sequence, το οποίο γράφεται και στο slot του πλοίου, ώστε τα μελλοντικά
+     * snapshots να συνδέονται χωρίς κενά με τις ζωντανές ενημερώσεις. Στη συνέχεια ειδοποιούνται οι listeners.
+     *
+     * @param aisData Το νέο αντικείμενο AisData του πλοίου.
+     * @param update  Η ενημέρωση που πρόκειται να σταλεί, ή null. Ο τύπος του πλοίου διαβάζεται από εδώ
+     *                και το πεδίο sequence της συμπληρώνεται.
+     * @return Το slot του πλοίου στον {@link VesselStateStore}, ή -1 αν το στίγμα αγνοήθηκε.
+     */
+    public int updatePosition(AisData aisData, RealTimeShipUpdateDTO update) {
+        VesselState previous = previousState.get();
+        VesselState current = currentState.get();
+        int slot;
+        synchronized (sequenceLock) {
+            slot = vesselStates.update(aisData, update != null ? update.getShiptype() : null, sequence + 1, previous);
+            if (slot < 0) {
+                return -1;
+            }
+            sequence++;
+            if (update != null) {
+                update.setSequence(sequence);
+            }
+            vesselStates.read(slot, current);
+        }
+        for (RealTimeUpdateListener listener : updateListeners) {
+            try {
+                listener.onRealTimeUpdate(previous.getSlot() >= 0 ? previous : null, current);
+            } catch (RuntimeException e) {
+                // Ένας listener που αποτυγχάνει δεν πρέπει να σταματά την επεξεργασία του μηνύματος AIS.
+                log.error("Real-time update listener {} failed for MMSI {}", listener, current.getMmsi(), e);
+            }
         }
+        return slot;
     }
 
+    /**
+     * Επιστρέφει την αποθήκη με τις τελευταίες γνωστές καταστάσεις όλων των πλοίων.
+     * Οι σαρώσεις διατρέχουν τα slots από 0 έως {@link VesselStateStore#size()} - 1.
+     *
+     * @return Ο {@link VesselStateStore} της cache.
+     */
+    public VesselStateStore getVesselStates() {
+        return vesselStates;
+    }
 
     /**
-     * Επιστρέφει μια συλλογή (Collection) με τις τελευταίες γνωστές θέσεις
-     * όλων των πλοίων που βρίσκονται στην cache.
+     * Καταχωρεί έναν listener για τις ζωντανές ενημερώσεις των πλοίων.
      *
-     * @return Μια Collection από αντικείμενα AisData.
+     * @param listener Ο listener που θα καλείται μετά από κάθε {@link #updatePosition(AisData, RealTimeShipUpdateDTO)}.
      */
-    public Collection<AisData> getAllLatestPositions() {
-        return positionCache.values();
+    public void addRealTimeUpdateListener(RealTimeUpdateListener listener) {
+        updateListeners.add(listener);
+    }
+
+    /**
+     * Δημιουργεί ένα snapshot της τρέχουσας κατάστασης όλων των πλοίων.
+     * Το high-water mark διαβάζεται πριν τη συλλογή των εγγραφών, οπότε το snapshot περιέχει
+     * σίγουρα κάθε ενημέρωση με sequence μικρότερο ή ίσο από αυτό. Εγγραφές με μεγαλύτερο sequence
+     * μπορεί επίσης να εμφανιστούν (αν ενημερώθηκαν κατά τη συλλογή) και θα ξανασταλούν ως ζωντανές ενημερώσεις.
+     *
+     * @return Το snapshot με το high-water mark και τις εγγραφές των πλοίων.
+     */
+    public RealTimeSnapshot snapshotRealTimeState() {
+        long highWaterMark;
+        synchronized (sequenceLock) {
+            highWaterMark = sequence;
+        }
+        int size = vesselStates.size();
+        List<RealTimeShipUpdateDTO> ships = new ArrayList<>(size);
+        VesselState state = new VesselState();
+        for (int slot = 0; slot < size; slot++) {
+            ships.add(toRealTimeUpdate(vesselStates.read(slot, state)));
+        }
+        return new RealTimeSnapshot(highWaterMark, ships);
+    }
+
+    /**
+     * Δημιουργεί τη ζωντανή ενημέρωση ενός πλοίου από την κατάστασή του στον {@link VesselStateStore}.
+     * Τα DTO δημιουργούνται μόνο όταν ζητηθούν (snapshot, μεμονωμένα πλοία ενός viewport)· η cache δεν τα κρατά.
+     *
+     * @param state Η κατάσταση του πλοίου.
+     * @return Η ενημέρωση, με τις άγνωστες τιμές ως null.
+     */
+    public static RealTimeShipUpdateDTO toRealTimeUpdate(VesselState state) {
+        return RealTimeShipUpdateDTO.builder()
+                .mmsi(state.getMmsi())
+                .latitude(orNull(state.getLatitude()))
+                .longitude(orNull(state.getLongitude()))
+                .speedOverGround(orNull(state.getSpeedOverGround()))
+                .courseOverGround(orNull(state.getCourseOverGround()))
+                // Το 511 είναι η τιμή του AIS για μη διαθέσιμο heading, την οποία περιμένει και ο χάρτης.
+                .trueHeading((int) state.getTrueHeading())
+                .navigationalStatus(state.getNavigationalStatus() != VesselState.NO_STATUS ? (int) state.getNavigationalStatus() : null)
+                .timestampEpoch(state.getTimestampEpoch() != VesselState.NO_TIMESTAMP ? state.getTimestampEpoch() : null)
+                .shiptype(state.getShipType())
+                .sequence(state.getSequence())
+                .build();
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    /**
+     * Ένα στιγμιότυπο της ζωντανής κατάστασης των πλοίων.
+     *
+     * @param highWaterMark Το μεγαλύτερο sequence που είναι εγγυημένα ενσωματωμένο στο snapshot.
+     * @param ships Οι τελευταίες γνωστές ενημερώσεις όλων των πλοίων.
+     */
+    public record RealTimeSnapshot(long highWaterMark, List<RealTimeShipUpdateDTO> ships) {
+    }
+
+    /**
+     * Listener για τις ζωντανές ενημερώσεις των πλοίων.
+     * Καλείται από το thread που δημοσίευσε την ενημέρωση (τον Kafka consumer), αμέσως μετά την καταχώρησή της.
+     * Τα αντικείμενα {@link VesselState} επαναχρησιμοποιούνται και ισχύουν μόνο κατά τη διάρκεια της κλήσης.
+     */
+    @FunctionalInterface
+    public interface RealTimeUpdateListener {
+
+        /**
+         * @param previous Η προηγούμενη κατάσταση του ίδιου πλοίου, ή null αν το πλοίο εμφανίζεται για πρώτη φορά.
+         * @param current  Η νέα κατάσταση.
+         */
+        void onRealTimeUpdate(VesselState previous, VesselState current);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.dto.RealTimeShipUpdateDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ShipSnapshotChunkDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service που στέλνει σε έναν νέο client την τρέχουσα κατάσταση όλων των πλοίων (snapshot)
+ * απευθείας από την in-memory cache θέσεων, σε τμήματα (chunks) σταθερού μεγέθους.
+ * Κάθε chunk φέρει το high-water mark του snapshot, ώστε ο client να συνεχίσει
+ * με τις ζωντανές ενημερώσεις του /topic/ais-updates χωρίς κενά.
+ */
+@Service
+public class ShipSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(ShipSnapshotService.class);
+
+    /** Το (user) destination στο οποίο στέλνονται τα chunks του snapshot. */
+    public static final String SNAPSHOT_DESTINATION = "/queue/ais-snapshot";
+
+    private final ShipPositionCacheService positionCache;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public ShipSnapshotService(ShipPositionCacheService positionCache,
+                               SimpMessagingTemplate messagingTemplate,
+                               @Value("${websocket.snapshot.chunk-size:1000}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Snapshot chunk size must be positive.");
+        }
+        this.positionCache = positionCache;
+        this.messagingTemplate = messagingTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Στέλνει το snapshot στη συγκεκριμένη WebSocket session.
+     * Η αποστολή γίνεται με βάση το session ID (και όχι το όνομα χρήστη), ώστε να λειτουργεί
+     * και για ανώνυμους επισκέπτες του χάρτη.
+     *
+     * @param sessionId Το ID της STOMP session που ζήτησε το snapshot.
+     * @return Ο αριθμός των chunks που στάλθηκαν.
+     */
+    public int sendSnapshot(String sessionId) {
+        ShipPositionCacheService.RealTimeSnapshot snapshot = positionCache.snapshotRealTimeState();
+        List<RealTimeShipUpdateDTO> ships = snapshot.ships();
+
+        String snapshotId = UUID.randomUUID().toString();
+        // Ακόμη και ένα άδειο snapshot στέλνεται ως ένα (κενό) chunk, ώστε ο client να ξέρει ότι ολοκληρώθηκε.
+        int totalChunks = Math.max(1, (ships.size() + chunkSize - 1) / chunkSize);
+
+        for (int chunkIndex = 0; chunkIndex < totalChunks; chunkIndex++) {
+            int from = chunkIndex * chunkSize;
+            int to = Math.min(from + chunkSize, ships.size());
+            ShipSnapshotChunkDTO chunk = ShipSnapshotChunkDTO.builder()
+                    .snapshotId(snapshotId)
+                    .highWaterMark(snapshot.highWaterMark())
+                    .chunkIndex(chunkIndex)
+                    .totalChunks(totalChunks)
+                    .ships(ships.subList(from, to))
+                    .build();
+            messagingTemplate.convertAndSendToUser(sessionId, SNAPSHOT_DESTINATION, chunk, createSessionHeaders(sessionId));
+        }
+
+        log.debug("SNAPSHOT: Sent {} ships in {} chunks to session {} (high-water mark {}).",
+                ships.size(), totalChunks, sessionId, snapshot.highWaterMark());
+        return totalChunks;
+    }
+
+    /**
+     * Δημιουργεί headers που στοχεύουν μία συγκεκριμένη session.
+     * Όταν υπάρχει το session ID στα headers, ο UserDestinationResolver δρομολογεί το μήνυμα
+     * μόνο σε αυτή τη session, ανεξάρτητα από το αν ο χρήστης είναι αυθεντικοποιημένος.
+     */
+    private MessageHeaders createSessionHeaders(String sessionId) {
+        SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headerAccessor.setSessionId(sessionId);
+        headerAccessor.setLeaveMutable(true);
+        return headerAccessor.getMessageHeaders();
+    }
+}
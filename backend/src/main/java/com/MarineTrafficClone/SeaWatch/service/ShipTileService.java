@@ -0,0 +1,338 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.map.VectorTileEncoder;
+import com.MarineTrafficClone.SeaWatch.map.WebMercator;
+import com.MarineTrafficClone.SeaWatch.store.VesselState;
+import com.MarineTrafficClone.SeaWatch.store.VesselStateStore;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Service που παράγει Mapbox Vector Tiles με τις τρέχουσες θέσεις των πλοίων.
+ *
+ * Τα tiles παράγονται κατά παραγγελία από τη ζωντανή κατάσταση της {@link ShipPositionCacheService}
+ * και κρατιούνται σε μια LRU cache με μικρό TTL. Η ακύρωση γίνεται κατά την ανάγνωση: κάθε tile έως το zoom
+ * {@value #INDEX_ZOOM} έχει έναν αριθμό έκδοσης που αυξάνεται όταν αλλάζει ένα πλοίο μέσα του, και ένα cached tile
+ * σερβίρεται μόνο αν η έκδοση που κρατά είναι ακόμα η τρέχουσα. Τα tiles πάνω από το {@value #INDEX_ZOOM}
+ * χρησιμοποιούν την έκδοση του προγόνου τους στο {@value #INDEX_ZOOM}. Έτσι μια ενημέρωση θέσης κοστίζει
+ * {@value #INDEX_ZOOM} + 1 αυξήσεις σε έναν πίνακα, ανεξάρτητα από το πόσα tiles είναι στην cache.
+ *
+ * Για να μη σαρώνεται ολόκληρη η cache σε κάθε tile, τα slots των πλοίων στον {@link VesselStateStore}
+ * ομαδοποιούνται σε ένα ευρετήριο με τα tiles του zoom {@value #INDEX_ZOOM}, που ενημερώνεται σταδιακά
+ * από τις ζωντανές ενημερώσεις. Τα πεδία κάθε πλοίου διαβάζονται από τον store τη στιγμή της κωδικοποίησης.
+ */
+@Service
+public class ShipTileService implements ShipPositionCacheService.RealTimeUpdateListener {
+
+    public static final String LAYER_NAME = "ships";
+    public static final int MAX_ZOOM = 22;
+
+    /** Το επίπεδο zoom του ευρετηρίου πλοίων. */
+    private static final int INDEX_ZOOM = 8;
+    private static final int INDEX_TILES_PER_AXIS = 1 << INDEX_ZOOM;
+    private static final int NO_INDEX_TILE = -1;
+
+    /** Τιμή του AIS για μη διαθέσιμο true heading. */
+    private static final int HEADING_NOT_AVAILABLE = 511;
+
+    private final ShipPositionCacheService positionCache;
+    private final long tileTtlNanos;
+    private final int maxCachedTiles;
+
+    /**
+     * Τα slots των πλοίων κάθε tile του INDEX_ZOOM. Οι εγγραφές και οι αναγνώσεις του ευρετηρίου
+     * και των {@link #tileVersions} γίνονται συγχρονισμένα πάνω σε αυτό.
+     */
+    private final SlotIndex shipsByIndexTile = new SlotIndex(INDEX_TILES_PER_AXIS * INDEX_TILES_PER_AXIS);
+    /** Οι εκδόσεις των tiles από το zoom 0 έως το INDEX_ZOOM, σε μια πυραμίδα (βλ. {@link #versionIndex(int, int, int)}). */
+    private final int[] tileVersions = new int[versionIndex(INDEX_ZOOM + 1, 0, 0)];
+    private final ThreadLocal<VesselState> scratchState = ThreadLocal.withInitial(VesselState::new);
+
+    /** Η cache των κωδικοποιημένων tiles (LRU), με κλειδί το {@link #tileKey(int, int, int)}. Συγχρονίζεται πάνω στον εαυτό της. */
+    private final Map<Long, CachedTile> tileCache;
+
+    @Autowired
+    public ShipTileService(ShipPositionCacheService positionCache,
+                           @Value("${map.tiles.cache-ttl-ms:2000}") long tileTtlMillis,
+                           @Value("${map.tiles.cache-max-entries:10000}") int maxCachedTiles) {
+        this.positionCache = positionCache;
+        this.tileTtlNanos = tileTtlMillis * 1_000_000L;
+        this.maxCachedTiles = maxCachedTiles;
+        this.tileCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedTile> eldest) {
+                return size() > ShipTileService.this.maxCachedTiles;
+            }
+        };
+    }
+
+    /**
+     * Εγγράφεται ως listener στην cache θέσεων, ώστε το ευρετήριο και η cache των tiles να ενημερώνονται σε κάθε νέα θέση.
+     */
+    @PostConstruct
+    public void registerListener() {
+        positionCache.addRealTimeUpdateListener(this);
+    }
+
+    @Override
+    public void onRealTimeUpdate(VesselState previous, VesselState current) {
+        int indexTile = current.hasPosition()
+                ? indexTileOf(WebMercator.worldX(current.getLongitude()), WebMercator.worldY(current.getLatitude()))
+                : NO_INDEX_TILE;
+        synchronized (shipsByIndexTile) {
+            int previousIndexTile = shipsByIndexTile.move(current.getSlot(), indexTile);
+            // Τα cached tiles που περιείχαν ή θα περιέχουν το πλοίο δεν είναι πια έγκυρα.
+            if (previousIndexTile != NO_INDEX_TILE && previousIndexTile != indexTile) {
+                bumpVersions(previousIndexTile);
+            }
+            if (indexTile != NO_INDEX_TILE) {
+                bumpVersions(indexTile);
+            }
+        }
+    }
+
+    /**
+     * Αυξάνει την έκδοση ενός tile του ευρετηρίου και όλων των προγόνων του.
+     */
+    private void bumpVersions(int indexTile) {
+        int x = indexTileX(indexTile);
+        int y = indexTileY(indexTile);
+        for (int zoom = INDEX_ZOOM; zoom >= 0; zoom--, x >>= 1, y >>= 1) {
+            tileVersions[versionIndex(zoom, x, y)]++;
+        }
+    }
+
+    /**
+     * @return Η τρέχουσα έκδοση του tile: η δική του έως το INDEX_ZOOM, αλλιώς του προγόνου του στο INDEX_ZOOM.
+     */
+    private int versionOf(int z, int x, int y) {
+        int shift = Math.max(0, z - INDEX_ZOOM);
+        synchronized (shipsByIndexTile) {
+            return tileVersions[versionIndex(z - shift, x >> shift, y >> shift)];
+        }
+    }
+
+    /**
+     * Επιστρέφει το vector tile {z}/{x}/{y} με τα πλοία που βρίσκονται μέσα του,
+     * από την cache αν δεν έχει λήξει και η έκδοσή του είναι η τρέχουσα, αλλιώς παράγοντάς το εκ νέου.
+     *
+     * @return Τα bytes του tile (κενός πίνακας αν το tile δεν περιέχει πλοία).
+     * @throws IllegalArgumentException αν οι συντεταγμένες του tile είναι εκτός ορίων.
+     */
+    public byte[] getTile(int z, int x, int y) {
+        if (z < 0 || z > MAX_ZOOM || x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+            throw new IllegalArgumentException("Tile " + z + "/" + x + "/" + y + " is out of range.");
+        }
+        long key = tileKey(z, x, y);
+        long now = System.nanoTime();
+        // Η έκδοση διαβάζεται πριν την κωδικοποίηση: αν ένα πλοίο αλλάξει στο μεταξύ, το tile απλώς ξαναπαράγεται.
+        int version = versionOf(z, x, y);
+        CachedTile cached;
+        synchronized (tileCache) {
+            cached = tileCache.get(key);
+        }
+        if (cached != null && cached.version() == version && now < cached.expiresAtNanos()) {
+            return cached.data();
+        }
+
+        byte[] data = encodeTile(z, x, y);
+        synchronized (tileCache) {
+            // Η LRU cache αφαιρεί μόνη της το tile που δεν έχει ζητηθεί για περισσότερο καιρό.
+            tileCache.put(key, new CachedTile(data, version, now + tileTtlNanos));
+        }
+        return data;
+    }
+
+    /** @return Η διάρκεια ζωής των cached tiles σε δευτερόλεπτα (για το header Cache-Control). */
+    public long getTileTtlSeconds() {
+        return Math.max(1, tileTtlNanos / 1_000_000_000L);
+    }
+
+    private byte[] encodeTile(int z, int x, int y) {
+        VectorTileEncoder encoder = new VectorTileEncoder(LAYER_NAME, VectorTileEncoder.DEFAULT_EXTENT);
+        int tilesPerAxis = 1 << z;
+        VesselStateStore vesselStates = positionCache.getVesselStates();
+        VesselState ship = scratchState.get();
+        for (int slot : candidateSlots(z, x, y)) {
+            if (!vesselStates.read(slot, ship).hasPosition()) {
+                continue;
+            }
+            double pixelX = (WebMercator.worldX(ship.getLongitude()) * tilesPerAxis - x) * VectorTileEncoder.DEFAULT_EXTENT;
+            double pixelY = (WebMercator.worldY(ship.getLatitude()) * tilesPerAxis - y) * VectorTileEncoder.DEFAULT_EXTENT;
+            int tileX = (int) Math.floor(pixelX);
+            int tileY = (int) Math.floor(pixelY);
+            if (tileX < 0 || tileY < 0 || tileX >= VectorTileEncoder.DEFAULT_EXTENT || tileY >= VectorTileEncoder.DEFAULT_EXTENT) {
+                continue;
+            }
+            encoder.addPoint(parseId(ship.getMmsi()), tileX, tileY, attributesOf(ship));
+        }
+        return encoder.encode();
+    }
+
+    /**
+     * Επιστρέφει τα slots των πλοίων των tiles του ευρετηρίου που επικαλύπτουν το ζητούμενο tile.
+     */
+    private int[] candidateSlots(int z, int x, int y) {
+        synchronized (shipsByIndexTile) {
+            if (z >= INDEX_ZOOM) {
+                int shift = z - INDEX_ZOOM;
+                int indexTile = indexTile(x >> shift, y >> shift);
+                int[] candidates = new int[shipsByIndexTile.count(indexTile)];
+                shipsByIndexTile.copySlotsOf(indexTile, candidates, 0);
+                return candidates;
+            }
+            // Διατρέχουμε μόνο τα tiles του ευρετηρίου που καλύπτει το ζητούμενο tile.
+            int shift = INDEX_ZOOM - z;
+            int span = 1 << shift;
+            int firstX = x << shift;
+            int firstY = y << shift;
+            int total = 0;
+            for (int indexX = firstX; indexX < firstX + span; indexX++) {
+                for (int indexY = firstY; indexY < firstY + span; indexY++) {
+                    total += shipsByIndexTile.count(indexTile(indexX, indexY));
+                }
+            }
+            int[] candidates = new int[total];
+            int offset = 0;
+            for (int indexX = firstX; indexX < firstX + span; indexX++) {
+                for (int indexY = firstY; indexY < firstY + span; indexY++) {
+                    offset = shipsByIndexTile.copySlotsOf(indexTile(indexX, indexY), candidates, offset);
+                }
+            }
+            return candidates;
+        }
+    }
+
+    private static Map<String, Object> attributesOf(VesselState ship) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("mmsi", ship.getMmsi());
+        attributes.put("shiptype", ship.getShipType() != null ? ship.getShipType().getValue() : null);
+        Integer heading = (int) ship.getTrueHeading();
+        if (heading == HEADING_NOT_AVAILABLE) {
+            // Χωρίς true heading, ο προσανατολισμός του εικονιδίου βασίζεται στην πορεία (COG).
+            heading = ship.hasCourse() ? (int) Math.round(ship.getCourseOverGround()) : null;
+        }
+        attributes.put("heading", heading);
+        attributes.put("sog", ship.hasSpeed() ? ship.getSpeedOverGround() : null);
+        return attributes;
+    }
+
+    private static long parseId(String mmsi) {
+        try {
+            return Long.parseLong(mmsi);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int indexTileOf(double worldX, double worldY) {
+        return indexTile(WebMercator.cellIndex(worldX, INDEX_TILES_PER_AXIS), WebMercator.cellIndex(worldY, INDEX_TILES_PER_AXIS));
+    }
+
+    private static int indexTile(int x, int y) {
+        return (x << INDEX_ZOOM) | y;
+    }
+
+    private static int indexTileX(int indexTile) {
+        return indexTile >>> INDEX_ZOOM;
+    }
+
+    private static int indexTileY(int indexTile) {
+        return indexTile & (INDEX_TILES_PER_AXIS - 1);
+    }
+
+    /** Η θέση του tile στην πυραμίδα των εκδόσεων: τα tiles κάθε zoom ακολουθούν όλα τα tiles των μικρότερων. */
+    private static int versionIndex(int z, int x, int y) {
+        int firstOfZoom = ((1 << (2 * z)) - 1) / 3;
+        return firstOfZoom + (x << z) + y;
+    }
+
+    private static long tileKey(int z, int x, int y) {
+        return ((long) z << 58) | ((long) x << 29) | y;
+    }
+
+    private record CachedTile(byte[] data, int version, long expiresAtNanos) {
+    }
+
+    /**
+     * Ευρετήριο slots ανά tile, σε πρωτογενείς πίνακες: για κάθε tile ένας πίνακας με τα slots του,
+     * και για κάθε slot το tile του και η θέση του σε αυτόν, ώστε η μετακίνηση ενός πλοίου να κοστίζει O(1).
+     * Δεν είναι thread-safe· ο ShipTileService συγχρονίζει όλες τις κλήσεις πάνω στο ίδιο το ευρετήριο.
+     */
+    static final class SlotIndex {
+        private final int[][] slotsByTile;
+        private final int[] countByTile;
+        private int[] tileOfSlot = new int[0];
+        private int[] positionOfSlot = new int[0];
+
+        SlotIndex(int tiles) {
+            this.slotsByTile = new int[tiles][];
+            this.countByTile = new int[tiles];
+        }
+
+        /**
+         * Μεταφέρει ένα slot στο tile {@code tile} ({@code NO_INDEX_TILE} για αφαίρεση).
+         *
+         * @return Το προηγούμενο tile του slot, ή {@code NO_INDEX_TILE}.
+         */
+        int move(int slot, int tile) {
+            if (slot >= tileOfSlot.length) {
+                int grown = Math.max(slot + 1, tileOfSlot.length * 2);
+                int oldLength = tileOfSlot.length;
+                tileOfSlot = Arrays.copyOf(tileOfSlot, grown);
+                positionOfSlot = Arrays.copyOf(positionOfSlot, grown);
+                Arrays.fill(tileOfSlot, oldLength, grown, NO_INDEX_TILE);
+            }
+            int previous = tileOfSlot[slot];
+            if (previous == tile) {
+                return previous;
+            }
+            if (previous != NO_INDEX_TILE) {
+                // Το τελευταίο slot του tile παίρνει τη θέση αυτού που φεύγει.
+                int[] slots = slotsByTile[previous];
+                int last = slots[--countByTile[previous]];
+                int position = positionOfSlot[slot];
+                slots[position] = last;
+                positionOfSlot[last] = position;
+                if (countByTile[previous] == 0) {
+                    slotsByTile[previous] = null;
+                }
+            }
+            if (tile != NO_INDEX_TILE) {
+                int[] slots = slotsByTile[tile];
+                if (slots == null) {
+                    slots = slotsByTile[tile] = new int[4];
+                } else if (countByTile[tile] == slots.length) {
+                    slots = slotsByTile[tile] = Arrays.copyOf(slots, slots.length * 2);
+                }
+                positionOfSlot[slot] = countByTile[tile];
+                slots[countByTile[tile]++] = slot;
+            }
+            tileOfSlot[slot] = tile;
+            return previous;
+        }
+
+        int count(int tile) {
+            return countByTile[tile];
+        }
+
+        /**
+         * Αντιγράφει τα slots ενός tile στον πίνακα {@code into}, από τη θέση {@code offset}.
+         *
+         * @return Η θέση μετά το τελευταίο slot που αντιγράφηκε.
+         */
+        int copySlotsOf(int tile, int[] into, int offset) {
+            int count = countByTile[tile];
+            if (count > 0) {
+                System.arraycopy(slotsByTile[tile], 0, into, offset, count);
+            }
+            return offset + count;
+        }
+    }
+}
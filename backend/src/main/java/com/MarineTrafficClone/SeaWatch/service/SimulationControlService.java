@@ -1,5 +1,9 @@
 package com.MarineTrafficClone.SeaWatch.service;
 
+import com.MarineTrafficClone.SeaWatch.replay.ReplayPacer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -12,10 +16,23 @@ import java.util.concurrent.atomic.AtomicReference;
 @Service
 public class SimulationControlService {
 
+    /** Στόχος μετάβασης που σημαίνει επανεκκίνηση της αναπαραγωγής από την αρχή του αρχείου. */
+    public static final long REPLAY_START = Long.MIN_VALUE;
+
     // Χρησιμοποιούμε AtomicReference για να διασφαλίσουμε thread-safe αναγνώσεις και εγγραφές
     // της τιμής του speed factor, καθώς θα διαβάζεται από το thread της προσομοίωσης
     // και θα γράφεται από το thread του web server (μέσω του API call).
     private final AtomicReference<Double> speedFactor;
+    /** Η τελευταία αναφορά του ρυθμού της αναπαραγωγής (null πριν από την πρώτη). */
+    private volatile ReplayPacer.Report paceReport;
+    /** Αν η αναπαραγωγή είναι σε παύση. */
+    private volatile boolean paused;
+    /** Αν οι εγγραφές στέλνονται όσο γρήγορα τις δέχεται ο producer, χωρίς το χρονοδιάγραμμα των χρονοσφραγίδων. */
+    private volatile boolean firehose;
+    /** Η χρονοσφραγίδα στην οποία πρέπει να μεταβεί η αναπαραγωγή (null αν δεν έχει ζητηθεί μετάβαση). */
+    private final AtomicReference<Long> pendingSeek = new AtomicReference<>();
+    /** Η χρονοσφραγίδα της τελευταίας ομάδας εγγραφών που στάλθηκε (null πριν από την πρώτη). */
+    private volatile Long replayPosition;
 
     /**
      * Ο constructor αρχικοποιεί την τιμή από το application.properties,
@@ -23,9 +40,24 @@ public class SimulationControlService {
      *
      * @param initialSpeedFactor Η αρχική τιμή από το αρχείο ρυθμίσεων.
      */
-    public SimulationControlService(@Value("${simulation.speed.factor:1.0}") double initialSpeedFactor) {
+    @Autowired
+    public SimulationControlService(MeterRegistry meterRegistry,
+                                    @Value("${simulation.speed.factor:1.0}") double initialSpeedFactor) {
         this.speedFactor = new AtomicReference<>(initialSpeedFactor);
         System.out.println("SIMULATION CONTROL: Initial speed factor set to: " + initialSpeedFactor);
+
+        Gauge.builder("seawatch.replay.speed", this, SimulationControlService::getSpeedFactor)
+                .description("Replay speed factor (seconds of data per second)")
+                .tag("speed", "target")
+                .register(meterRegistry);
+        Gauge.builder("seawatch.replay.speed", this, SimulationControlService::getActualSpeedFactor)
+                .description("Replay speed factor (seconds of data per second)")
+                .tag("speed", "actual")
+                .register(meterRegistry);
+        Gauge.builder("seawatch.replay.lag", this, service -> service.getLagMillis() / 1000.0)
+                .description("How late the last group of replayed records was sent")
+                .baseUnit("seconds")
+                .register(meterRegistry);
     }
 
     /**
@@ -49,4 +81,124 @@ public class SimulationControlService {
             System.out.println("SIMULATION CONTROL: Speed factor changed from " + oldFactor + " to " + newSpeedFactor);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Καταγράφει τον ρυθμό που πέτυχε η αναπαραγωγή, όπως τον μέτρησε ο {@link ReplayPacer}.
+     * @param report η αναφορά του τελευταίου διαστήματος.
+     */
+    public void recordPace(ReplayPacer.Report report) {
+        this.paceReport = report;
+    }
+
+    /**
+     * Επιστρέφει τον πραγματικό παράγοντα ταχύτητας του τελευταίου διαστήματος μέτρησης.
+     * @return ο πραγματικός παράγοντας, ή NaN αν δεν έχει μετρηθεί ακόμα.
+     */
+    public double getActualSpeedFactor() {
+        ReplayPacer.Report report = paceReport;
+        return report == null ? Double.NaN : report.actualSpeed();
+    }
+
+    /**
+     * Επιστρέφει πόσο αργότερα από την προγραμματισμένη στιγμή στάλθηκαν οι τελευταίες εγγραφές.
+     * @return η καθυστέρηση σε milliseconds (0 πριν από την πρώτη μέτρηση).
+     */
+    public long getLagMillis() {
+        ReplayPacer.Report report = paceReport;
+        return report == null ? 0 : report.lagMillis();
+    }
+
+    /**
+     * Σταματά την αναπαραγωγή στη θέση όπου βρίσκεται.
+     */
+    public void pause() {
+        if (!paused) {
+            paused = true;
+            System.out.println("SIMULATION CONTROL: Replay paused.");
+        }
+    }
+
+    /**
+     * Συνεχίζει την αναπαραγωγή από τη θέση όπου σταμάτησε.
+     */
+    public void resume() {
+        if (paused) {
+            paused = false;
+            System.out.println("SIMULATION CONTROL: Replay resumed.");
+        }
+    }
+
+    /**
+     * @return true αν η αναπαραγωγή είναι σε παύση.
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Ενεργοποιεί ή απενεργοποιεί τη λειτουργία firehose: οι εγγραφές στέλνονται όσο γρήγορα τις δέχεται ο producer,
+     * αγνοώντας τον παράγοντα ταχύτητας. Η παύση εξακολουθεί να ισχύει.
+     * @param firehose true για αποστολή χωρίς χρονοδιάγραμμα.
+     */
+    public void setFirehose(boolean firehose) {
+        if (this.firehose != firehose) {
+            this.firehose = firehose;
+            System.out.println("SIMULATION CONTROL: Firehose mode " + (firehose ? "enabled." : "disabled."));
+        }
+    }
+
+    /**
+     * @return true αν η αναπαραγωγή στέλνει τις εγγραφές χωρίς χρονοδιάγραμμα.
+     */
+    public boolean isFirehose() {
+        return firehose;
+    }
+
+    /**
+     * Ζητά από την αναπαραγωγή να συνεχίσει από μια χρονοσφραγίδα (προς τα εμπρός ή προς τα πίσω).
+     * Η μετάβαση εφαρμόζεται από το thread της αναπαραγωγής· μια νεότερη αίτηση αντικαθιστά όποια δεν έχει εφαρμοστεί.
+     * @param epoch η χρονοσφραγίδα σε δευτερόλεπτα.
+     */
+    public void requestSeek(long epoch) {
+        pendingSeek.set(epoch);
+        System.out.println("SIMULATION CONTROL: Replay seek to epoch " + epoch + " requested.");
+    }
+
+    /**
+     * Ζητά από την αναπαραγωγή να ξεκινήσει ξανά από την αρχή του αρχείου.
+     */
+    public void requestRestart() {
+        pendingSeek.set(REPLAY_START);
+        System.out.println("SIMULATION CONTROL: Replay restart requested.");
+    }
+
+    /**
+     * @return true αν υπάρχει μετάβαση που δεν έχει εφαρμοστεί ακόμα.
+     */
+    public boolean hasPendingSeek() {
+        return pendingSeek.get() != null;
+    }
+
+    /**
+     * Παραλαμβάνει τη μετάβαση που περιμένει (καλείται από το thread της αναπαραγωγής).
+     * @return η χρονοσφραγίδα, {@link #REPLAY_START} για επανεκκίνηση, ή null αν δεν έχει ζητηθεί μετάβαση.
+     */
+    public Long takePendingSeek() {
+        return pendingSeek.getAndSet(null);
+    }
+
+    /**
+     * Καταγράφει τη χρονοσφραγίδα της ομάδας εγγραφών που μόλις στάλθηκε.
+     * @param epoch η χρονοσφραγίδα σε δευτερόλεπτα.
+     */
+    public void recordReplayPosition(long epoch) {
+        this.replayPosition = epoch;
+    }
+
+    /**
+     * @return η χρονοσφραγίδα της τελευταίας ομάδας εγγραφών που στάλθηκε, ή null πριν από την πρώτη.
+     */
+    public Long getReplayPosition() {
+        return replayPosition;
+    }
+}
@@ -1,51 +1,128 @@
 package com.MarineTrafficClone.SeaWatch.service;
 
+import com.MarineTrafficClone.SeaWatch.dto.SpeedHistogramBucketDTO;
+import com.MarineTrafficClone.SeaWatch.dto.StatisticsSnapshotDTO;
+import com.MarineTrafficClone.SeaWatch.enumeration.ShipType;
+import com.MarineTrafficClone.SeaWatch.store.VesselState;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
 /**
  * Service υπεύθυνο για τον υπολογισμό και την παροχή διαφόρων στατιστικών
  * στοιχείων σχετικά με την τρέχουσα κατάσταση του συστήματος.
- * Για λόγους απόδοσης, αντλεί τα δεδομένα του αποκλειστικά από τις
- * in-memory caches (ShipPositionCache, ZoneOfInterestCache, etc.),
- * αποφεύγοντας έτσι τις δαπανηρές κλήσεις στη βάση δεδομένων.
+ *
+ * Οι μετρητές των πλοίων (ενεργά, σταματημένα, ανά τύπο, ιστόγραμμα ταχυτήτων) διατηρούνται σταδιακά
+ * από τις ζωντανές ενημερώσεις της {@link ShipPositionCacheService}: κάθε ενημέρωση αφαιρεί τη συνεισφορά
+ * της προηγούμενης κατάστασης του πλοίου και προσθέτει τη νέα. Έτσι κάθε ανάγνωση κοστίζει O(1),
+ * χωρίς σάρωση της cache. Οι μετρητές των ζωνών διαβάζονται απευθείας από τις caches των ζωνών.
+ * Ένα πλήρες στιγμιότυπο στέλνεται περιοδικά στο {@code /topic/statistics}.
  */
 @Service
-public class StatisticsService {
+public class StatisticsService implements ShipPositionCacheService.RealTimeUpdateListener {
+
+    public static final String STATISTICS_TOPIC = "/topic/statistics";
+
+    /** Ένα πλοίο θεωρείται σταματημένο με ταχύτητα (SOG) μικρότερη ή ίση από αυτή την τιμή, σε κόμβους. */
+    public static final double STOPPED_SPEED_KNOTS = 1.0;
+
+    /** Τα άνω όρια (σε κόμβους) των κλάσεων του ιστογράμματος. Η τελευταία κλάση είναι ανοιχτή προς τα πάνω. */
+    private static final double[] SPEED_BUCKET_UPPER_BOUNDS = {1, 5, 10, 15, 20, 30};
+    private static final int OPEN_SPEED_BUCKET = SPEED_BUCKET_UPPER_BOUNDS.length;
+    private static final int UNKNOWN_SPEED_BUCKET = OPEN_SPEED_BUCKET + 1;
+
+    private static final ShipType[] SHIP_TYPES = ShipType.values();
 
     private final ShipPositionCacheService positionCache;
     private final ZoneOfInterestCacheService interestZoneCache;
     private final CollisionZoneCacheService collisionZoneCache;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final AtomicLong activeShips = new AtomicLong();
+    private final AtomicLong stoppedShips = new AtomicLong();
+    private final AtomicLongArray shipsByType = new AtomicLongArray(SHIP_TYPES.length);
+    private final AtomicLongArray speedHistogram = new AtomicLongArray(UNKNOWN_SPEED_BUCKET + 1);
 
     @Autowired
     public StatisticsService(ShipPositionCacheService positionCache,
                              ZoneOfInterestCacheService interestZoneCache,
-                             CollisionZoneCacheService collisionZoneCache) {
+                             CollisionZoneCacheService collisionZoneCache,
+                             SimpMessagingTemplate messagingTemplate) {
         this.positionCache = positionCache;
         this.interestZoneCache = interestZoneCache;
         this.collisionZoneCache = collisionZoneCache;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    /**
+     * Εγγράφεται ως listener στην cache θέσεων, ώστε οι μετρητές να ενημερώνονται σε κάθε νέο στίγμα.
+     */
+    @PostConstruct
+    public void registerListener() {
+        positionCache.addRealTimeUpdateListener(this);
+    }
+
+    /**
+     * Ενημερώνει τους μετρητές με τη διαφορά ανάμεσα στην προηγούμενη και τη νέα κατάσταση ενός πλοίου.
+     */
+    @Override
+    public void onRealTimeUpdate(VesselState previous, VesselState current) {
+        if (previous == null) {
+            activeShips.incrementAndGet();
+        } else {
+            count(previous, -1);
+        }
+        count(current, 1);
+    }
+
+    private void count(VesselState state, int delta) {
+        double speed = state.getSpeedOverGround();
+        if (state.hasSpeed() && speed <= STOPPED_SPEED_KNOTS) {
+            stoppedShips.addAndGet(delta);
+        }
+        ShipType type = state.getShipType() != null ? state.getShipType() : ShipType.UNKNOWN;
+        shipsByType.addAndGet(type.ordinal(), delta);
+        speedHistogram.addAndGet(speedBucket(speed), delta);
+    }
+
+    private static int speedBucket(double speed) {
+        if (Double.isNaN(speed)) {
+            return UNKNOWN_SPEED_BUCKET;
+        }
+        for (int bucket = 0; bucket < SPEED_BUCKET_UPPER_BOUNDS.length; bucket++) {
+            if (speed <= SPEED_BUCKET_UPPER_BOUNDS[bucket]) {
+                return bucket;
+            }
+        }
+        return OPEN_SPEED_BUCKET;
     }
 
     /**
-     * Υπολογίζει τον αριθμό των "ενεργών" πλοίων.
-     * Ένα πλοίο θεωρείται ενεργό αν έχει στείλει τουλάχιστον ένα στίγμα AIS
-     * και επομένως υπάρχει στην cache θέσεων.
+     * Επιστρέφει τον αριθμό των "ενεργών" πλοίων.
+     * Ένα πλοίο θεωρείται ενεργό αν έχει στείλει τουλάχιστον ένα στίγμα AIS.
      * @return Ο συνολικός αριθμός των ενεργών πλοίων.
      */
     public long getActiveShipCount() {
-        return positionCache.getAllLatestPositions().size();
+        return activeShips.get();
     }
 
     /**
-     * Υπολογίζει τον αριθμό των πλοίων που είναι σχεδόν σταματημένα.
+     * Επιστρέφει τον αριθμό των πλοίων που είναι σχεδόν σταματημένα.
      * Ένα πλοίο θεωρείται σταματημένο αν η ταχύτητά του (SOG) είναι
      * μικρότερη ή ίση από 1.0 κόμβο.
      * @return Ο αριθμός των σταματημένων πλοίων.
      */
     public long getStoppedShipCount() {
-        return positionCache.getAllLatestPositions().stream()
-                .filter(aisData -> aisData.getSpeedOverGround() != null && aisData.getSpeedOverGround() <= 1.0)
-                .count();
+        return stoppedShips.get();
     }
 
     /**
@@ -63,4 +140,47 @@ public class StatisticsService {
     public int getCollisionZoneCount() {
         return collisionZoneCache.getAllActiveZones().size();
     }
-}
\ No newline at end of file
+
+    /**
+     * Δημιουργεί ένα στιγμιότυπο όλων των στατιστικών. Το κόστος εξαρτάται μόνο από το πλήθος
+     * των τύπων πλοίων και των κλάσεων του ιστογράμματος, όχι από το πλήθος των πλοίων.
+     * @return Το στιγμιότυπο των στατιστικών.
+     */
+    public StatisticsSnapshotDTO getStatisticsSnapshot() {
+        Map<String, Long> byType = new LinkedHashMap<>();
+        for (ShipType type : SHIP_TYPES) {
+            long count = shipsByType.get(type.ordinal());
+            if (count > 0) {
+                byType.put(type.getValue(), count);
+            }
+        }
+
+        List<SpeedHistogramBucketDTO> histogram = new ArrayList<>();
+        double lowerBound = 0;
+        for (int bucket = 0; bucket < SPEED_BUCKET_UPPER_BOUNDS.length; bucket++) {
+            histogram.add(new SpeedHistogramBucketDTO(lowerBound, SPEED_BUCKET_UPPER_BOUNDS[bucket], speedHistogram.get(bucket)));
+            lowerBound = SPEED_BUCKET_UPPER_BOUNDS[bucket];
+        }
+        histogram.add(new SpeedHistogramBucketDTO(lowerBound, null, speedHistogram.get(OPEN_SPEED_BUCKET)));
+        histogram.add(new SpeedHistogramBucketDTO(null, null, speedHistogram.get(UNKNOWN_SPEED_BUCKET)));
+
+        return StatisticsSnapshotDTO.builder()
+                .generatedAt(System.currentTimeMillis())
+                .activeShips(getActiveShipCount())
+                .stoppedShips(getStoppedShipCount())
+                .interestZones(getInterestZoneCount())
+                .collisionZones(getCollisionZoneCount())
+                .shipsByType(byType)
+                .speedHistogram(histogram)
+                .build();
+    }
+
+    /**
+     * Στέλνει περιοδικά το στιγμιότυπο των στατιστικών στο {@code /topic/statistics},
+     * ώστε το dashboard να μη χρειάζεται να κάνει polling.
+     */
+    @Scheduled(fixedRateString = "${statistics.broadcast-interval-ms:2000}")
+    public void broadcastStatistics() {
+        messagingTemplate.convertAndSend(STATISTICS_TOPIC, getStatisticsSnapshot());
+    }
+}
@@ -0,0 +1,221 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import com.MarineTrafficClone.SeaWatch.replay.AisRecord;
+import com.MarineTrafficClone.SeaWatch.replay.SyntheticFleet;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Εναλλακτική του {@link CsvDataLoaderService} για δοκιμές φόρτου: αντί για το καταγεγραμμένο CSV, στέλνει στο Kafka
+ * τις αναφορές ενός συνθετικού στόλου ({@link SyntheticFleet}) με σταθερό ρυθμό μηνυμάτων ανά δευτερόλεπτο.
+ * Ενεργοποιείται με {@code simulation.source=synthetic}.
+ *
+ * Ο ρυθμός τηρείται με ένα σταθερό χρονοδιάγραμμα (το μήνυμα k στέλνεται τη στιγμή k / ρυθμός από την αρχή), οπότε
+ * οι καθυστερήσεις δεν αθροίζονται. Οι χρονοσφραγίδες του στόλου προχωρούν όσο γρήγορα απαιτούν τα μηνύματα:
+ * περισσότερα μηνύματα ανά δευτερόλεπτο για τα ίδια πλοία σημαίνουν ταχύτερη προσομοίωση. Με το ίδιο seed και
+ * τις ίδιες ρυθμίσεις στέλνεται πάντα η ίδια ακολουθία μηνυμάτων. Η παύση του διαχειριστή τηρείται, και μια
+ * μετάβαση ή επανεκκίνηση ξεκινά τον στόλο από την αρχή. Σε λειτουργία firehose ({@link BenchmarkService}) τα μηνύματα
+ * στέλνονται όσο γρήγορα τα δέχεται ο producer και, με {@code max-messages}, το όριο σηματοδοτεί το τέλος της παραγωγής.
+ */
+@Service
+@Order(2)
+@ConditionalOnProperty(name = "simulation.source", havingValue = "synthetic")
+public class SyntheticAisGeneratorService implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticAisGeneratorService.class);
+
+    /** Κάτω από αυτή την απόσταση από το χρονοδιάγραμμα το μήνυμα στέλνεται χωρίς αναμονή. */
+    private static final long MIN_SLEEP_NANOS = 1_000_000L;
+
+    private final KafkaProducerService kafkaProducerService;
+    private final ObjectMapper objectMapper;
+    private final SimulationControlService simulationControlService;
+    private final BenchmarkService benchmarkService;
+    private final SyntheticFleet.Settings settings;
+    private final double messagesPerSecond;
+    /** Μετά από πόσα μηνύματα σταματά η παραγωγή (0 = χωρίς όριο). */
+    private final long maxMessages;
+    private final long progressIntervalMillis;
+
+    private final ExecutorService generatorExecutor = Executors.newSingleThreadExecutor();
+    private volatile boolean shutdownSignal = false;
+
+    @Autowired
+    public SyntheticAisGeneratorService(KafkaProducerService kafkaProducerService, ObjectMapper objectMapper,
+                                        SimulationControlService simulationControlService, BenchmarkService benchmarkService,
+                                        @Value("${simulation.synthetic.seed:42}") long seed,
+                                        @Value("${simulation.synthetic.vessels:10000}") int vessels,
+                                        @Value("${simulation.synthetic.messages-per-second:2000}") double messagesPerSecond,
+                                        @Value("${simulation.synthetic.max-messages:0}") long maxMessages,
+                                        @Value("${simulation.synthetic.mmsi-base:900000000}") long mmsiBase,
+                                        @Value("${simulation.synthetic.start-epoch:1443650400}") long startEpoch,
+                                        @Value("${simulation.synthetic.min-latitude:47.0}") double minLatitude,
+                                        @Value("${simulation.synthetic.max-latitude:49.0}") double maxLatitude,
+                                        @Value("${simulation.synthetic.min-longitude:-7.0}") double minLongitude,
+                                        @Value("${simulation.synthetic.max-longitude:-4.0}") double maxLongitude,
+                                        @Value("${simulation.synthetic.encounter-probability:0.02}") double encounterProbability,
+                                        @Value("${simulation.synthetic.zone-crossing-probability:0.2}") double zoneCrossingProbability,
+                                        @Value("${simulation.synthetic.stop-probability:0.1}") double stopProbability,
+                                        @Value("${simulation.synthetic.hotspots:48.35:-4.55:5000,48.10:-4.40:8000}") String hotspots,
+                                        @Value("${simulation.replay.pace-report-interval-ms:10000}") long progressIntervalMillis) {
+        if (messagesPerSecond <= 0) {
+            throw new IllegalArgumentException("simulation.synthetic.messages-per-second must be positive");
+        }
+        this.kafkaProducerService = kafkaProducerService;
+        this.objectMapper = objectMapper;
+        this.simulationControlService = simulationControlService;
+        this.benchmarkService = benchmarkService;
+        this.settings = new SyntheticFleet.Settings(seed, vessels, mmsiBase, startEpoch,
+                minLatitude, maxLatitude, minLongitude, maxLongitude,
+                encounterProbability, zoneCrossingProbability, stopProbability, SyntheticFleet.Hotspot.parseList(hotspots));
+        this.messagesPerSecond = messagesPerSecond;
+        this.maxMessages = maxMessages;
+        this.progressIntervalMillis = progressIntervalMillis;
+    }
+
+    @Override
+    public void run(String... args) {
+        System.out.println("SIMULATION: Submitting synthetic AIS generator task to executor.");
+        generatorExecutor.submit(this::generate);
+    }
+
+    @PreDestroy
+    public void stopGenerator() {
+        System.out.println("SIMULATION: Shutdown signal received. Attempting to stop synthetic generator.");
+        shutdownSignal = true;
+        generatorExecutor.shutdown();
+        try {
+            if (!generatorExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.err.println("SIMULATION: Synthetic generator did not terminate in 30s. Forcing shutdown.");
+                generatorExecutor.shutdownNow();
+            } else {
+                System.out.println("SIMULATION: Synthetic generator shut down gracefully.");
+            }
+        } catch (InterruptedException e) {
+            System.err.println("SIMULATION: Interrupted while waiting for generator termination.");
+            generatorExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void generate() {
+        System.out.printf("SIMULATION: Synthetic fleet of %d vessels (seed %d) at %.0f messages/s%s.%n",
+                settings.vessels(), settings.seed(), messagesPerSecond,
+                maxMessages > 0 ? ", stopping after " + maxMessages + " messages" : "");
+
+        SyntheticFleet fleet = new SyntheticFleet(settings);
+        AisRecord record = new AisRecord();
+        long sent = 0;
+        long lastEpoch = Long.MIN_VALUE;
+        long startNanos = System.nanoTime();
+        // Το χρονοδιάγραμμα: το μήνυμα anchorCount + k στέλνεται τη στιγμή anchorNanos + k / ρυθμός.
+        long anchorNanos = startNanos;
+        long anchorCount = 0;
+        long progressIntervalNanos = TimeUnit.MILLISECONDS.toNanos(progressIntervalMillis);
+        long lastProgressNanos = startNanos;
+        boolean finished = false;
+
+        try {
+            while (!shutdownSignal) {
+                // Κάθε μετάβαση ή επανεκκίνηση ξεκινά τον στόλο από την αρχή (ίδιο seed, ίδια μηνύματα).
+                if (simulationControlService.takePendingSeek() != null) {
+                    System.out.println("SIMULATION: Restarting the synthetic fleet from the beginning.");
+                    fleet = new SyntheticFleet(settings);
+                    sent = 0;
+                    lastEpoch = Long.MIN_VALUE;
+                    startNanos = System.nanoTime();
+                    anchorNanos = startNanos;
+                    anchorCount = 0;
+                    finished = false;
+                    continue;
+                }
+                if (finished || (maxMessages > 0 && sent >= maxMessages)) {
+                    if (!finished) {
+                        finished = true;
+                        if (simulationControlService.isFirehose()) {
+                            benchmarkService.productionFinished();
+                        }
+                        printSummary(sent, startNanos);
+                        System.out.println("SIMULATION: Waiting for a restart request.");
+                    }
+                    Thread.sleep(100);
+                    continue;
+                }
+                boolean firehose = simulationControlService.isFirehose();
+                boolean paused = simulationControlService.isPaused();
+                if (paused || firehose) {
+                    // Μετά την παύση (ή τη λειτουργία firehose) το χρονοδιάγραμμα συνεχίζει από τώρα, χωρίς να
+                    // "προλάβει" τα μηνύματα που δεν στάλθηκαν στην ώρα τους.
+                    anchorNanos = System.nanoTime();
+                    anchorCount = sent;
+                }
+                if (paused) {
+                    Thread.sleep(100);
+                    continue;
+                }
+
+                fleet.next(record);
+                if (!firehose) {
+                    long due = anchorNanos + (long) ((sent - anchorCount) * 1e9 / messagesPerSecond);
+                    long ahead = due - System.nanoTime();
+                    if (ahead > MIN_SLEEP_NANOS) {
+                        TimeUnit.NANOSECONDS.sleep(ahead);
+                    }
+                }
+
+                try {
+                    AisData aisData = record.toAisData();
+                    kafkaProducerService.sendAisDataAsJson(aisData.getMmsi(), objectMapper.writeValueAsString(aisData));
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    log.error("SIMULATION: Error sending synthetic record to Kafka (MMSI: {})", record.getMmsi(), e);
+                }
+                sent++;
+                if (record.getTimestampEpoch() != lastEpoch) {
+                    lastEpoch = record.getTimestampEpoch();
+                    simulationControlService.recordReplayPosition(lastEpoch);
+                }
+
+                long now = System.nanoTime();
+                if (now - lastProgressNanos >= progressIntervalNanos) {
+                    log.info("SIMULATION: Synthetic fleet sent {} messages ({} msg/s), {} s simulated, {} encounter legs, {} zone-crossing legs, {} Kafka sends in flight, {} failed.",
+                            sent, String.format("%.0f", sent / ((now - startNanos) / 1e9)), lastEpoch - settings.startEpoch(),
+                            fleet.getEncounters(), fleet.getZoneCrossings(), kafkaProducerService.getInFlight(), kafkaProducerService.getFailed());
+                    lastProgressNanos = now;
+                }
+            }
+        } catch (InterruptedException e) {
+            log.warn("SIMULATION: Generator thread interrupted. Stopping.");
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("SIMULATION: Critical error in the synthetic generator", e);
+        } finally {
+            if (!finished) {
+                printSummary(sent, startNanos);
+            }
+        }
+    }
+
+    private void printSummary(long sent, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("SIMULATION: Synthetic generator finished. Total messages sent: %d in %.1f s (%.0f messages/s).%n",
+                sent, seconds, sent / Math.max(seconds, 1e-9));
+        System.out.printf("SIMULATION: Kafka producer totals: %d sent, %d acknowledged, %d failed, %d retried, %d in flight.%n",
+                kafkaProducerService.getSent(), kafkaProducerService.getAcked(), kafkaProducerService.getFailed(),
+                kafkaProducerService.getRetried(), kafkaProducerService.getInFlight());
+    }
+}
@@ -0,0 +1,57 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.dto.GeoPointDTO;
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneShape;
+import com.MarineTrafficClone.SeaWatch.exception.InvalidZoneGeometryException;
+import com.MarineTrafficClone.SeaWatch.geo.Geofences;
+import com.MarineTrafficClone.SeaWatch.geo.PolygonGeofence;
+import com.MarineTrafficClone.SeaWatch.model.GeoPoint;
+import com.MarineTrafficClone.SeaWatch.model.GeofencedZone;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Ο έλεγχος και η αντιστοίχιση της γεωμετρίας που στέλνει ο client σε μια ζώνη,
+ * κοινή για τις ζώνες ενδιαφέροντος και τις ζώνες σύγκρουσης.
+ */
+final class ZoneGeometry {
+
+    private ZoneGeometry() {
+    }
+
+    /**
+     * Ενημερώνει τη γεωμετρία της ζώνης. Για τις πολυγωνικές ζώνες το πολύγωνο προετοιμάζεται εδώ
+     * (ώστε μια άκυρη γεωμετρία να απορριφθεί πριν την αποθήκευση) και το κέντρο και η ακτίνα
+     * υπολογίζονται ως ο κύκλος που το περικλείει.
+     *
+     * @param zone            Η ζώνη που ενημερώνεται.
+     * @param shape           Το σχήμα (null σημαίνει κύκλος).
+     * @param centerLatitude  Το γεωγραφικό πλάτος του κέντρου (για κύκλους).
+     * @param centerLongitude Το γεωγραφικό μήκος του κέντρου (για κύκλους).
+     * @param radiusInMeters  Η ακτίνα σε μέτρα (για κύκλους).
+     * @param vertices        Οι κορυφές (για πολύγωνα).
+     * @throws InvalidZoneGeometryException Αν οι κορυφές δεν ορίζουν έγκυρο πολύγωνο.
+     */
+    static void apply(GeofencedZone zone, ZoneShape shape, Double centerLatitude, Double centerLongitude,
+                      Double radiusInMeters, List<GeoPointDTO> vertices) {
+        if (shape == ZoneShape.POLYGON) {
+            List<GeoPoint> points = vertices == null ? List.of() : vertices.stream()
+                    .map(v -> new GeoPoint(v.getLatitude(), v.getLongitude()))
+                    .collect(Collectors.toList());
+            // Η προετοιμασία γίνεται πριν αλλάξει οτιδήποτε, ώστε μια άκυρη γεωμετρία να αφήνει τη ζώνη ως είχε.
+            PolygonGeofence polygon = Geofences.preparePolygon(points);
+            zone.setShape(ZoneShape.POLYGON);
+            zone.setVertices(points);
+            zone.setCenterLatitude(polygon.getCenterLatitude());
+            zone.setCenterLongitude(polygon.getCenterLongitude());
+            zone.setRadiusInMeters(polygon.getBoundingRadiusInMeters());
+        } else {
+            zone.setShape(ZoneShape.CIRCLE);
+            zone.setVertices(List.of());
+            zone.setCenterLatitude(centerLatitude);
+            zone.setCenterLongitude(centerLongitude);
+            zone.setRadiusInMeters(radiusInMeters);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.dto.ZoneOccupancyDTO;
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import com.MarineTrafficClone.SeaWatch.store.VesselState;
+import com.MarineTrafficClone.SeaWatch.store.VesselStateStore;
+import com.MarineTrafficClone.SeaWatch.zone.ZoneOccupancy;
+import com.MarineTrafficClone.SeaWatch.zone.ZoneSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service που κρατά ενημερωμένα, για κάθε ζώνη ενδιαφέροντος και κάθε ζώνη σύγκρουσης, τα πλοία που βρίσκονται
+ * αυτή τη στιγμή μέσα της (με βάση την τελευταία γνωστή θέση τους).
+ *
+ * Τα μέλη μιας ζώνης ({@link ZoneOccupancy}) υπολογίζονται από την αρχή από την cache της ζώνης, όταν η ζώνη
+ * δημιουργείται ή αλλάζει, και δημοσιεύονται στο ίδιο {@link ZoneSnapshot} με τη γεωμετρία της. Από εκεί και πέρα
+ * ενημερώνονται σταδιακά από τον Kafka consumer, όταν ένα πλοίο μπαίνει ή βγαίνει. Τα πλοία αναφέρονται με το slot
+ * τους στον {@link VesselStateStore}, ώστε ο έλεγχος συγκρούσεων να διαβάζει απευθείας την κατάστασή τους.
+ *
+ * Όταν αλλάζει ο αριθμός των πλοίων μιας ζώνης, ο ιδιοκτήτης της λαμβάνει τον νέο αριθμό στο
+ * {@code /user/queue/zone-occupancy}, το πολύ μία φορά ανά {@code zones.occupancy.broadcast-interval-ms}.
+ */
+@Service
+public class ZoneOccupancyService {
+
+    private final ShipPositionCacheService positionCache;
+    private final ZoneOfInterestCacheService zoneOfInterestCache;
+    private final CollisionZoneCacheService collisionZoneCache;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    public ZoneOccupancyService(ShipPositionCacheService positionCache,
+                                ZoneOfInterestCacheService zoneOfInterestCache,
+                                CollisionZoneCacheService collisionZoneCache,
+                                SimpMessagingTemplate messagingTemplate) {
+        this.positionCache = positionCache;
+        this.zoneOfInterestCache = zoneOfInterestCache;
+        this.collisionZoneCache = collisionZoneCache;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    // ----- Ενημέρωση από τα μηνύματα AIS -----
+
+    /**
+     * Καταγράφει αν ένα πλοίο είναι μέσα σε μια ζώνη ενδιαφέροντος και επιστρέφει αν ήταν μέσα πριν,
+     * ώστε ο consumer να βρίσκει την είσοδο/έξοδο χωρίς να ξαναελέγχει την προηγούμενη θέση.
+     * Ο consumer έχει ήδη κάνει τον έλεγχο θέσης για τις παραβιάσεις, οπότε εδώ δεν επαναλαμβάνεται.
+     *
+     * @param occupancy Τα μέλη της ζώνης, από το ίδιο στιγμιότυπο με τη γεωμετρία που έλεγξε ο consumer
+     *                  (null αν η ζώνη δεν έχει μέλη).
+     * @param slot      Το slot του πλοίου στον {@link VesselStateStore}.
+     * @param inside    true αν το πλοίο είναι μέσα στη ζώνη.
+     * @return Αν το πλοίο ήταν μέσα στη ζώνη πριν από αυτό το στίγμα. Χωρίς μέλη επιστρέφεται το {@code inside},
+     *         δηλαδή καμία είσοδος ή έξοδος.
+     */
+    public boolean updateInterestZone(ZoneOccupancy occupancy, int slot, boolean inside) {
+        if (occupancy == null || slot < 0) {
+            return inside;
+        }
+        return occupancy.update(slot, inside);
+    }
+
+    /**
+     * Ενημερώνει τα μέλη όλων των ζωνών σύγκρουσης με τη νέα θέση ενός πλοίου.
+     *
+     * @param position Το νέο στίγμα.
+     * @param slot     Το slot του πλοίου στον {@link VesselStateStore}.
+     */
+    public void updateCollisionZones(AisData position, int slot) {
+        if (slot < 0 || position.getLatitude() == null || position.getLongitude() == null) {
+            return;
+        }
+        for (ZoneOccupancy occupancy : collisionZoneCache.getSnapshot().getOccupancies()) {
+            occupancy.update(slot, occupancy.getGeofence().contains(position.getLatitude(), position.getLongitude()));
+        }
+    }
+
+    // ----- Ανάγνωση -----
+
+    /**
+     * @return Τα πλοία που βρίσκονται μέσα στη ζώνη ενδιαφέροντος, αν η ζώνη είναι γνωστή.
+     */
+    public Optional<ZoneOccupancyDTO> getInterestZoneOccupancy(Long zoneId) {
+        return Optional.ofNullable(zoneOfInterestCache.getSnapshot().getOccupancy(zoneId)).map(this::toDtoWithMembers);
+    }
+
+    /**
+     * @return Τα πλοία που βρίσκονται μέσα στη ζώνη σύγκρουσης, αν η ζώνη είναι γνωστή.
+     */
+    public Optional<ZoneOccupancyDTO> getCollisionZoneOccupancy(Long zoneId) {
+        return Optional.ofNullable(collisionZoneCache.getSnapshot().getOccupancy(zoneId)).map(this::toDtoWithMembers);
+    }
+
+    private ZoneOccupancyDTO toDtoWithMembers(ZoneOccupancy occupancy) {
+        VesselStateStore vesselStates = positionCache.getVesselStates();
+        VesselState state = new VesselState();
+        List<String> mmsis = new ArrayList<>();
+        for (int slot : occupancy.copyMembers()) {
+            mmsis.add(vesselStates.read(slot, state).getMmsi());
+        }
+        Collections.sort(mmsis);
+        ZoneOccupancyDTO dto = toDto(occupancy, mmsis.size());
+        dto.setMmsis(mmsis);
+        return dto;
+    }
+
+    private static ZoneOccupancyDTO toDto(ZoneOccupancy occupancy, int shipCount) {
+        return ZoneOccupancyDTO.builder()
+                .timestamp(Instant.now())
+                .zoneId(occupancy.getZoneId())
+                .zoneName(occupancy.getZoneName())
+                .zoneKind(occupancy.getKind())
+                .shipCount(shipCount)
+                .build();
+    }
+
+    // ----- Αποστολή στους ιδιοκτήτες -----
+
+    /**
+     * Στέλνει στον ιδιοκτήτη κάθε ζώνης τον αριθμό των πλοίων της, αν άλλαξε από την τελευταία αποστολή.
+     * Οι αλλαγές συγκεντρώνονται, ώστε μια πολυσύχναστη ζώνη να μη στέλνει ένα μήνυμα ανά είσοδο/έξοδο.
+     */
+    @Scheduled(fixedDelayString = "${zones.occupancy.broadcast-interval-ms:2000}")
+    public void broadcastOccupancyCounts() {
+        zoneOfInterestCache.getSnapshot().getOccupancies().forEach(this::broadcastIfChanged);
+        collisionZoneCache.getSnapshot().getOccupancies().forEach(this::broadcastIfChanged);
+    }
+
+    private void broadcastIfChanged(ZoneOccupancy occupancy) {
+        if (!occupancy.takeCountChanged()) {
+            return;
+        }
+        if (occupancy.getOwner() != null && occupancy.getOwner().getEmail() != null) {
+            messagingTemplate.convertAndSendToUser(occupancy.getOwner().getEmail(), "/queue/zone-occupancy",
+                    toDto(occupancy, occupancy.memberCount()));
+        }
+    }
+}
@@ -1,34 +1,52 @@
 package com.MarineTrafficClone.SeaWatch.service;
 
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneKind;
 import com.MarineTrafficClone.SeaWatch.model.ZoneOfInterest;
 import com.MarineTrafficClone.SeaWatch.repository.ZoneOfInterestRepository;
+import com.MarineTrafficClone.SeaWatch.store.AlertStateStore;
+import com.MarineTrafficClone.SeaWatch.zone.CompiledZone;
+import com.MarineTrafficClone.SeaWatch.zone.ZoneOccupancy;
+import com.MarineTrafficClone.SeaWatch.zone.ZoneSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service που λειτουργεί ως in-memory cache για τις ενεργές ζώνες ενδιαφέροντος.
  * Ο σκοπός της cache είναι να αποφεύγονται οι συνεχείς κλήσεις στη βάση δεδομένων
  * κατά τον έλεγχο των παραβιάσεων για κάθε νέο μήνυμα AIS, βελτιώνοντας την απόδοση.
+ *
+ * Οι ζώνες δημοσιεύονται ως αμετάβλητο {@link ZoneSnapshot}, ήδη μεταγλωττισμένες. Κάθε αλλαγή
+ * δημιουργεί νέο στιγμιότυπο και το αντικαθιστά ατομικά, οπότε ο consumer δεν βλέπει ποτέ μια ζώνη
+ * να λείπει ενώ ενημερώνεται και δεν χρειάζεται κλείδωμα για την ανάγνωση. Τα πλοία που βρίσκονται μέσα
+ * σε κάθε ζώνη ({@link ZoneOccupancy}) δημοσιεύονται στο ίδιο στιγμιότυπο με τη γεωμετρία της.
  */
 @Service
 @DependsOn("entityManagerFactory")
 public class ZoneOfInterestCacheService {
 
     private final ZoneOfInterestRepository zoneRepository;
+    private final AlertStateStore alertState;
+    private final ShipPositionCacheService positionCache;
     /**
-     * Χρησιμοποιούμε μια {@link CopyOnWriteArrayList}, που είναι thread-safe και
-     * βελτιστοποιημένη για σενάρια όπου οι αναγνώσεις είναι πολύ πιο συχνές από τις εγγραφές.
+     * Το τρέχον στιγμιότυπο των ζωνών, μεταγλωττισμένων για τον έλεγχο των μηνυμάτων AIS.
      */
-    private List<ZoneOfInterest> activeZonesCache = new CopyOnWriteArrayList<>();
+    private final AtomicReference<ZoneSnapshot<CompiledZone>> snapshot =
+            new AtomicReference<>(ZoneSnapshot.empty(compiled -> compiled.getZone().getId()));
 
     @Autowired
-    public ZoneOfInterestCacheService(ZoneOfInterestRepository zoneRepository) {
+    public ZoneOfInterestCacheService(ZoneOfInterestRepository zoneRepository,
+                                      AlertStateStore alertState,
+                                      ShipPositionCacheService positionCache) {
         this.zoneRepository = zoneRepository;
+        this.alertState = alertState;
+        this.positionCache = positionCache;
     }
 
     /**
@@ -38,19 +56,31 @@ public class ZoneOfInterestCacheService {
     @PostConstruct
     public void loadInitialZones() {
         System.out.println("INTEREST CACHE: Loading all Zones of Interest into memory...");
-        activeZonesCache = new CopyOnWriteArrayList<>(zoneRepository.findAll());
-        System.out.println("INTEREST CACHE: Loaded " + activeZonesCache.size() + " zones.");
+        List<ZoneOfInterest> zones = zoneRepository.findAll();
+        List<CompiledZone> compiledZones = zones.stream().map(CompiledZone::compile).toList();
+        Map<Long, ZoneOccupancy> occupancies = new HashMap<>();
+        zones.forEach(zone -> occupancies.put(zone.getId(), scanOccupancy(zone)));
+        ZoneSnapshot<CompiledZone> loaded = snapshot.updateAndGet(current ->
+                current.withAll(compiledZones, compiled -> occupancies.get(compiled.getZone().getId())));
+        System.out.println("INTEREST CACHE: Loaded " + loaded.size() + " zones.");
     }
 
     /**
      * Προσθέτει μια νέα ζώνη στην cache ή ενημερώνει μια υπάρχουσα.
+     * Η νέα έκδοση γίνεται ορατή μόνο αφού μεταγλωττιστεί και υπολογιστούν τα πλοία που βρίσκονται μέσα της.
      * @param zone Η ζώνη προς προσθήκη/ενημέρωση.
      */
     public void addOrUpdateZone(ZoneOfInterest zone) {
-        // Αφαίρεση της παλιάς έκδοσης, αν υπάρχει (για την περίπτωση της ενημέρωσης).
-        activeZonesCache.removeIf(z -> z.getId().equals(zone.getId()));
-        activeZonesCache.add(zone);
-        System.out.println("INTEREST CACHE: Added/Updated zone " + zone.getName() + ". Total zones in cache: " + activeZonesCache.size());
+        // Η γεωμετρία και οι περιορισμοί της ζώνης προετοιμάζονται εδώ και όχι σε κάθε μήνυμα AIS που θα την ελέγξει.
+        CompiledZone compiled = CompiledZone.compile(zone);
+        // Τα πλοία που βρίσκονται ήδη μέσα στη (νέα ή αλλαγμένη) ζώνη.
+        ZoneOccupancy occupancy = scanOccupancy(zone);
+        // Η παλιά έκδοση (αν υπάρχει) και τα μέλη της αντικαθίστανται με την ίδια ατομική αλλαγή.
+        ZoneSnapshot<CompiledZone> updated = snapshot.updateAndGet(current -> current.with(compiled, occupancy));
+        // Οι ειδοποιήσεις που στάλθηκαν για την παλιά έκδοση της ζώνης δεν ισχύουν πλέον. Καθαρίζονται αφού
+        // δημοσιευτεί η νέα έκδοση· αλλιώς ένα μήνυμα που ελέγχεται ακόμη με την παλιά θα μπορούσε να τις ξαναγράψει.
+        alertState.clearZoneViolations(zone.getId());
+        System.out.println("INTEREST CACHE: Added/Updated zone " + zone.getName() + ". Total zones in cache: " + updated.size());
     }
 
     /**
@@ -58,15 +88,32 @@ public class ZoneOfInterestCacheService {
      * @param zoneId Το ID της ζώνης προς αφαίρεση.
      */
     public void removeZone(Long zoneId) {
-        activeZonesCache.removeIf(z -> z.getId().equals(zoneId));
-        System.out.println("INTEREST CACHE: Removed zone with ID " + zoneId + ". Total zones in cache: " + activeZonesCache.size());
+        ZoneSnapshot<CompiledZone> updated = snapshot.updateAndGet(current -> current.without(zoneId));
+        alertState.clearZoneViolations(zoneId);
+        System.out.println("INTEREST CACHE: Removed zone with ID " + zoneId + ". Total zones in cache: " + updated.size());
+    }
+
+    /**
+     * Υπολογίζει από την αρχή τα πλοία που βρίσκονται μέσα στη ζώνη.
+     */
+    private ZoneOccupancy scanOccupancy(ZoneOfInterest zone) {
+        return ZoneOccupancy.scan(zone.getId(), zone.getName(), ZoneKind.INTEREST, zone.getUser(), zone.getGeofence(),
+                positionCache.getVesselStates());
+    }
+
+    /**
+     * Επιστρέφει το τρέχον στιγμιότυπο των ζωνών. Ένας έλεγχος σε πολλά βήματα πρέπει να το διαβάζει μία φορά.
+     * @return Το αμετάβλητο στιγμιότυπο.
+     */
+    public ZoneSnapshot<CompiledZone> getSnapshot() {
+        return snapshot.get();
     }
 
     /**
      * Επιστρέφει μια λίστα με όλες τις ενεργές ζώνες που βρίσκονται στην cache.
-     * @return Μια thread-safe λίστα με τις ζώνες.
+     * @return Μια αμετάβλητη λίστα με τις ζώνες του τρέχοντος στιγμιότυπου.
      */
     public List<ZoneOfInterest> getAllActiveZones() {
-        return activeZonesCache;
+        return snapshot.get().getZones().stream().map(CompiledZone::getZone).toList();
     }
 }
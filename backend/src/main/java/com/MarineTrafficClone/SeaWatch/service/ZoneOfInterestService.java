@@ -5,6 +5,7 @@ import com.MarineTrafficClone.SeaWatch.model.UserEntity;
 import com.MarineTrafficClone.SeaWatch.model.ZoneConstraint;
 import com.MarineTrafficClone.SeaWatch.model.ZoneOfInterest;
 import com.MarineTrafficClone.SeaWatch.repository.ZoneOfInterestRepository;
+import com.MarineTrafficClone.SeaWatch.zone.CompiledConstraint;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -58,9 +59,8 @@ public class ZoneOfInterestService {
 
         // Ενημέρωση των βασικών πεδίων της ζώνης.
         zone.setName(zoneDTO.getName());
-        zone.setCenterLatitude(zoneDTO.getCenterLatitude());
-        zone.setCenterLongitude(zoneDTO.getCenterLongitude());
-        zone.setRadiusInMeters(zoneDTO.getRadiusInMeters());
+        ZoneGeometry.apply(zone, zoneDTO.getShape(), zoneDTO.getCenterLatitude(), zoneDTO.getCenterLongitude(),
+                zoneDTO.getRadiusInMeters(), zoneDTO.getVertices());
 
         // Ενημέρωση της λίστας των περιορισμών.
         // Μετατρέπουμε τα DTOs των περιορισμών σε οντότητες ZoneConstraint.
@@ -69,6 +69,8 @@ public class ZoneOfInterestService {
                     ZoneConstraint constraint = new ZoneConstraint();
                     constraint.setConstraintType(dto.getConstraintType());
                     constraint.setConstraintValue(dto.getConstraintValue());
+                    // Μια άκυρη τιμή απορρίπτεται εδώ (400) και όχι σε κάθε μήνυμα AIS που θα ελεγχθεί.
+                    CompiledConstraint.validate(constraint);
                     // Η σύνδεση με τη ζώνη (constraint.setZoneOfInterest(zone)) θα γίνει
                     // μέσα στη βοηθητική μέθοδο zone.setConstraints().
                     return constraint;
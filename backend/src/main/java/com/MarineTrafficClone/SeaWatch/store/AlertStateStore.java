@@ -0,0 +1,153 @@
+package com.MarineTrafficClone.SeaWatch.store;
+
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneConstraintType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Η κατάσταση των ειδοποιήσεων που έχουν ήδη σταλεί: οι ενεργές παραβιάσεις των ζωνών ενδιαφέροντος
+ * και τα ζευγάρια πλοίων για τα οποία έχει σταλεί ειδοποίηση σύγκρουσης. Χρησιμοποιείται για να μη
+ * στέλνεται η ίδια ειδοποίηση σε κάθε μήνυμα AIS όσο διαρκεί μια παραβίαση ή ένας κίνδυνος σύγκρουσης.
+ *
+ * Τα κλειδιά είναι αριθμοί {@code long} και όχι strings (βλ. {@link #violationKey} και {@link #collisionPairKey}),
+ * οπότε ο έλεγχος δεν δημιουργεί αντικείμενα. Κάθε κλειδί λήγει αν δεν ανανεωθεί για ένα διάστημα
+ * (π.χ. όταν ένα πλοίο σταματήσει να εκπέμπει) και τα κλειδιά μιας ζώνης αφαιρούνται όταν η ζώνη
+ * αλλάξει ή διαγραφεί. Το πλήθος των κλειδιών δημοσιεύεται στο metric {@code seawatch.alerts.state.size}.
+ */
+@Component
+public class AlertStateStore {
+
+    /** Τα MMSI είναι πεδία των 30 bits στα μηνύματα AIS. */
+    static final int MMSI_BITS = 30;
+    private static final long MMSI_MASK = (1L << MMSI_BITS) - 1;
+    private static final int CONSTRAINT_TYPE_BITS = 3;
+
+    private final ExpiringLongSet zoneViolations;
+    private final ExpiringLongSet collisionPairs;
+
+    @Autowired
+    public AlertStateStore(MeterRegistry meterRegistry,
+                           @Value("${alerts.state.violation-ttl-ms:1800000}") long violationTtlMillis,
+                           @Value("${alerts.state.collision-ttl-ms:900000}") long collisionTtlMillis,
+                           @Value("${alerts.state.max-entries:500000}") int maxEntries) {
+        this.zoneViolations = new ExpiringLongSet(violationTtlMillis, maxEntries);
+        this.collisionPairs = new ExpiringLongSet(collisionTtlMillis, maxEntries);
+
+        Gauge.builder("seawatch.alerts.state.size", zoneViolations, ExpiringLongSet::size)
+                .description("Active zone violations for which a notification has been sent")
+                .tag("state", "zone-violations")
+                .register(meterRegistry);
+        Gauge.builder("seawatch.alerts.state.size", collisionPairs, ExpiringLongSet::size)
+                .description("Ship pairs for which a collision alert has been sent")
+                .tag("state", "collision-pairs")
+                .register(meterRegistry);
+    }
+
+    // ----- Παραβιάσεις ζωνών ενδιαφέροντος -----
+
+    /**
+     * Καταγράφει ότι ένα πλοίο παραβιάζει έναν περιορισμό μιας ζώνης (ή ανανεώνει την καταγραφή).
+     *
+     * @return true αν η παραβίαση είναι νέα, δηλαδή πρέπει να σταλεί ειδοποίηση.
+     */
+    public boolean markViolation(long mmsi, long zoneId, ZoneConstraintType type) {
+        return zoneViolations.add(violationKey(mmsi, zoneId, type), zoneId);
+    }
+
+    /** Καταγράφει ότι ένα πλοίο δεν παραβιάζει πλέον έναν περιορισμό μιας ζώνης. */
+    public void clearViolation(long mmsi, long zoneId, ZoneConstraintType type) {
+        zoneViolations.remove(violationKey(mmsi, zoneId, type));
+    }
+
+    /** Αφαιρεί όλες τις παραβιάσεις μιας ζώνης (όταν η ζώνη αλλάζει ή διαγράφεται). */
+    public void clearZoneViolations(long zoneId) {
+        zoneViolations.removeGroup(zoneId);
+    }
+
+    // ----- Ζευγάρια σύγκρουσης -----
+
+    /**
+     * Καταγράφει ότι ένα ζευγάρι πλοίων είναι σε πορεία σύγκρουσης μέσα σε μια ζώνη (ή ανανεώνει την καταγραφή).
+     *
+     * @return true αν ο κίνδυνος είναι νέος, δηλαδή πρέπει να σταλεί ειδοποίηση.
+     */
+    public boolean markCollisionPair(long pairKey, long zoneId) {
+        return collisionPairs.add(pairKey, zoneId);
+    }
+
+    /** Καταγράφει ότι ένα ζευγάρι πλοίων δεν είναι πλέον σε πορεία σύγκρουσης. */
+    public void clearCollisionPair(long pairKey) {
+        collisionPairs.remove(pairKey);
+    }
+
+    /** Κρατά μόνο τα ζευγάρια που ικανοποιούν το κριτήριο. */
+    public void retainCollisionPairs(LongPredicate keep) {
+        collisionPairs.retainIf(keep);
+    }
+
+    /** Αφαιρεί όλα τα ζευγάρια σύγκρουσης. */
+    public void clearCollisionPairs() {
+        collisionPairs.clear();
+    }
+
+    /** Αφαιρεί τα ζευγάρια που ειδοποιήθηκαν μέσα σε μια ζώνη (όταν η ζώνη αλλάζει ή διαγράφεται). */
+    public void clearZoneCollisionPairs(long zoneId) {
+        collisionPairs.removeGroup(zoneId);
+    }
+
+    /**
+     * Αφαιρεί περιοδικά τα κλειδιά που έληξαν, ώστε το metric να είναι σωστό και όταν δεν έρχονται μηνύματα.
+     */
+    @Scheduled(fixedDelayString = "${alerts.state.expiry-interval-ms:60000}")
+    public void expire() {
+        zoneViolations.expire();
+        collisionPairs.expire();
+    }
+
+    public int getZoneViolationCount() {
+        return zoneViolations.size();
+    }
+
+    public int getCollisionPairCount() {
+        return collisionPairs.size();
+    }
+
+    // ----- Κλειδιά -----
+
+    /**
+     * Το κλειδί μιας παραβίασης: [zoneId: 31 bits][τύπος περιορισμού: 3 bits][MMSI: 30 bits].
+     */
+    public static long violationKey(long mmsi, long zoneId, ZoneConstraintType type) {
+        return (zoneId << (MMSI_BITS + CONSTRAINT_TYPE_BITS))
+                | ((long) type.ordinal() << MMSI_BITS)
+                | (mmsi & MMSI_MASK);
+    }
+
+    /**
+     * Το κλειδί ενός ζευγαριού πλοίων: [μικρότερο MMSI: 30 bits][μεγαλύτερο MMSI: 30 bits].
+     * Είναι ίδιο για τα (A, B) και (B, A).
+     */
+    public static long collisionPairKey(String mmsiA, String mmsiB) {
+        long a = mmsiBits(mmsiA);
+        long b = mmsiBits(mmsiB);
+        return a < b ? (a << MMSI_BITS) | b : (b << MMSI_BITS) | a;
+    }
+
+    /**
+     * Μετατρέπει ένα MMSI στα 30 bits του. Ένα άκυρο MMSI (που δεν είναι αριθμός) αντιστοιχίζεται στο hash του,
+     * ώστε ο έλεγχος να μην αποτύχει εξαιτίας του.
+     */
+    static long mmsiBits(String mmsi) {
+        try {
+            return Long.parseLong(mmsi) & MMSI_MASK;
+        } catch (NumberFormatException e) {
+            return mmsi.hashCode() & MMSI_MASK;
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package com.MarineTrafficClone.SeaWatch.store;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * Ένα σύνολο από κλειδιά {@code long} όπου κάθε κλειδί λήγει {@code ttl} χιλιοστά του δευτερολέπτου
+ * μετά την τελευταία φορά που προστέθηκε, με ανώτατο όριο στον αριθμό των κλειδιών.
+ *
+ * Τα κλειδιά κρατιούνται σε παράλληλους πρωτογενείς πίνακες με ευρετήριο ανοιχτής διευθυνσιοδότησης,
+ * οπότε δεν δημιουργείται κανένα αντικείμενο ανά κλειδί. Η λήξη γίνεται με έναν τροχό χρονισμού (timing wheel):
+ * κάθε κλειδί βρίσκεται στη λίστα της υποδοχής (bucket) που αντιστοιχεί στο tick της λήξης του, και σε κάθε
+ * κλήση ο τροχός προχωρά μέχρι την τρέχουσα ώρα αφαιρώντας τα κλειδιά των buckets που πέρασαν.
+ * Η προσθήκη, η ανανέωση και η αφαίρεση κοστίζουν O(1). Ο τροχός καλύπτει περισσότερο χρόνο από το ttl,
+ * οπότε κάθε bucket περιέχει μόνο κλειδιά μιας περιστροφής. Αν γεμίσει το σύνολο, αφαιρείται το κλειδί
+ * που θα έληγε πρώτο.
+ *
+ * Κάθε κλειδί ανήκει σε μια ομάδα (π.χ. το ID μιας ζώνης), ώστε να μπορούν να αφαιρεθούν μαζί.
+ * Οι μέθοδοι είναι synchronized· το {@link #size()} διαβάζεται χωρίς κλείδωμα (π.χ. από metrics).
+ */
+public final class ExpiringLongSet {
+
+    private static final int NONE = -1;
+    /** Τιμή του {@code expiresAt} για τις ελεύθερες θέσεις. */
+    private static final long FREE = Long.MIN_VALUE;
+    /** Ο τροχός χωρίζει το ttl σε περίπου τόσα ticks. */
+    private static final int TICKS_PER_TTL = 1024;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final long ttlMillis;
+    private final long tickMillis;
+    private final int maxSize;
+    private final LongSupplier clock;
+
+    // Οι θέσεις των κλειδιών. Για τις ελεύθερες θέσεις, το next δείχνει την επόμενη ελεύθερη.
+    private long[] keys;
+    private long[] groups;
+    private long[] expiresAt;
+    private int[] next;
+    private int[] prev;
+    private int allocated;
+    private int freeHead = NONE;
+    private volatile int size;
+
+    // Ευρετήριο κλειδί -> θέση, με γραμμική αναζήτηση (linear probing).
+    private int[] table;
+
+    // Ο τροχός: διπλά συνδεδεμένες λίστες θέσεων ανά bucket, με τη σειρά εισαγωγής.
+    private final int[] wheelHead;
+    private final int[] wheelTail;
+    private final int wheelMask;
+    /** Το επόμενο tick που δεν έχει ακόμη επεξεργαστεί ο τροχός. */
+    private long nextTick = Long.MIN_VALUE;
+
+    /**
+     * @param ttlMillis Ο χρόνος ζωής κάθε κλειδιού από την τελευταία προσθήκη του.
+     * @param maxSize   Ο μέγιστος αριθμός κλειδιών.
+     * @param clock     Η πηγή του χρόνου σε χιλιοστά του δευτερολέπτου.
+     */
+    public ExpiringLongSet(long ttlMillis, int maxSize, LongSupplier clock) {
+        if (ttlMillis <= 0 || maxSize <= 0) {
+            throw new IllegalArgumentException("ttl and maximum size must be positive");
+        }
+        this.ttlMillis = ttlMillis;
+        this.tickMillis = Math.max(1, ttlMillis / TICKS_PER_TTL);
+        this.maxSize = maxSize;
+        this.clock = clock;
+
+        // Ένα tick περισσότερο από το ttl και στρογγυλοποίηση σε δύναμη του 2.
+        long ticksPerTtl = ttlMillis / tickMillis + 2;
+        int wheelSize = Integer.highestOneBit((int) ticksPerTtl - 1) << 1;
+        this.wheelHead = new int[wheelSize];
+        this.wheelTail = new int[wheelSize];
+        this.wheelMask = wheelSize - 1;
+        Arrays.fill(wheelHead, NONE);
+        Arrays.fill(wheelTail, NONE);
+
+        allocateStorage(Math.min(INITIAL_CAPACITY, maxSize));
+    }
+
+    public ExpiringLongSet(long ttlMillis, int maxSize) {
+        this(ttlMillis, maxSize, System::currentTimeMillis);
+    }
+
+    /**
+     * Προσθέτει ένα κλειδί ή ανανεώνει τον χρόνο λήξης του αν υπάρχει ήδη.
+     *
+     * @param key   Το κλειδί.
+     * @param group Η ομάδα του κλειδιού (αντικαθιστά την προηγούμενη, αν το κλειδί υπήρχε).
+     * @return true αν το κλειδί δεν υπήρχε.
+     */
+    public synchronized boolean add(long key, long group) {
+        long now = clock.getAsLong();
+        advance(now);
+        long expiry = now + ttlMillis;
+        int entry = find(key, now);
+        if (entry != NONE) {
+            groups[entry] = group;
+            unlink(entry);
+            expiresAt[entry] = expiry;
+            link(entry);
+            return false;
+        }
+        if (size == maxSize) {
+            evictEarliest();
+        }
+        entry = allocate();
+        keys[entry] = key;
+        groups[entry] = group;
+        expiresAt[entry] = expiry;
+        link(entry);
+        insertIntoTable(entry);
+        size++;
+        return true;
+    }
+
+    /**
+     * @return true αν το κλειδί υπάρχει και δεν έχει λήξει.
+     */
+    public synchronized boolean contains(long key) {
+        long now = clock.getAsLong();
+        advance(now);
+        return find(key, now) != NONE;
+    }
+
+    /**
+     * Αφαιρεί ένα κλειδί.
+     *
+     * @return true αν το κλειδί υπήρχε.
+     */
+    public synchronized boolean remove(long key) {
+        long now = clock.getAsLong();
+        advance(now);
+        int entry = find(key, now);
+        if (entry == NONE) {
+            return false;
+        }
+        delete(entry);
+        return true;
+    }
+
+    /**
+     * Αφαιρεί όλα τα κλειδιά μιας ομάδας.
+     *
+     * @return Ο αριθμός των κλειδιών που αφαιρέθηκαν.
+     */
+    public synchronized int removeGroup(long group) {
+        int removed = 0;
+        for (int entry = 0; entry < allocated; entry++) {
+            if (expiresAt[entry] != FREE && groups[entry] == group) {
+                delete(entry);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Κρατά μόνο τα κλειδιά που ικανοποιούν το κριτήριο.
+     *
+     * @return Ο αριθμός των κλειδιών που αφαιρέθηκαν.
+     */
+    public synchronized int retainIf(LongPredicate keep) {
+        int removed = 0;
+        for (int entry = 0; entry < allocated; entry++) {
+            if (expiresAt[entry] != FREE && !keep.test(keys[entry])) {
+                delete(entry);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /** Αφαιρεί όλα τα κλειδιά. */
+    public synchronized void clear() {
+        allocateStorage(Math.min(INITIAL_CAPACITY, maxSize));
+        Arrays.fill(wheelHead, NONE);
+        Arrays.fill(wheelTail, NONE);
+        freeHead = NONE;
+        size = 0;
+    }
+
+    /**
+     * Αφαιρεί τα κλειδιά που έχουν λήξει. Οι υπόλοιπες μέθοδοι το κάνουν ήδη αυτόματα·
+     * χρειάζεται μόνο για να ενημερωθεί το {@link #size()} όταν δεν γίνονται άλλες κλήσεις.
+     */
+    public synchronized void expire() {
+        advance(clock.getAsLong());
+    }
+
+    /**
+     * @return Ο αριθμός των κλειδιών (μπορεί να περιλαμβάνει κλειδιά που έληξαν μέσα στο τελευταίο tick).
+     */
+    public int size() {
+        return size;
+    }
+
+    // ----- Τροχός χρονισμού -----
+
+    private void advance(long now) {
+        long nowTick = Math.floorDiv(now, tickMillis);
+        if (nextTick == Long.MIN_VALUE) {
+            nextTick = nowTick;
+            return;
+        }
+        if (nowTick <= nextTick) {
+            return;
+        }
+        // Ένα bucket επεξεργάζεται όταν το tick του έχει περάσει ολόκληρο, οπότε όλα του τα κλειδιά έχουν λήξει.
+        // Αν πέρασε χρόνος μεγαλύτερος από μια περιστροφή, αρκεί να επεξεργαστούμε κάθε bucket μία φορά.
+        long ticks = Math.min(nowTick - nextTick, wheelHead.length);
+        for (long tick = nowTick - ticks; tick < nowTick; tick++) {
+            expireBucket((int) (tick & wheelMask), now);
+        }
+        nextTick = nowTick;
+    }
+
+    private void expireBucket(int bucket, long now) {
+        int entry = wheelHead[bucket];
+        while (entry != NONE) {
+            int following = next[entry];
+            if (expiresAt[entry] <= now) {
+                delete(entry);
+            }
+            entry = following;
+        }
+    }
+
+    /** Αφαιρεί το κλειδί που λήγει πρώτο: το πρώτο του πρώτου μη κενού bucket μετά το τρέχον tick. */
+    private void evictEarliest() {
+        for (int offset = 0; offset < wheelHead.length; offset++) {
+            int entry = wheelHead[(int) ((nextTick + offset) & wheelMask)];
+            if (entry != NONE) {
+                delete(entry);
+                return;
+            }
+        }
+    }
+
+    private int bucketOf(int entry) {
+        return (int) (Math.floorDiv(expiresAt[entry], tickMillis) & wheelMask);
+    }
+
+    private void link(int entry) {
+        int bucket = bucketOf(entry);
+        int tail = wheelTail[bucket];
+        prev[entry] = tail;
+        next[entry] = NONE;
+        if (tail == NONE) {
+            wheelHead[bucket] = entry;
+        } else {
+            next[tail] = entry;
+        }
+        wheelTail[bucket] = entry;
+    }
+
+    private void unlink(int entry) {
+        int bucket = bucketOf(entry);
+        int before = prev[entry];
+        int after = next[entry];
+        if (before == NONE) {
+            wheelHead[bucket] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after == NONE) {
+            wheelTail[bucket] = before;
+        } else {
+            prev[after] = before;
+        }
+    }
+
+    // ----- Θέσεις -----
+
+    private void allocateStorage(int capacity) {
+        keys = new long[capacity];
+        groups = new long[capacity];
+        expiresAt = new long[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        allocated = 0;
+        table = new int[tableSizeFor(capacity)];
+        Arrays.fill(table, NONE);
+    }
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int entry = freeHead;
+            freeHead = next[entry];
+            return entry;
+        }
+        if (allocated == keys.length) {
+            int capacity = (int) Math.min((long) keys.length * 2, maxSize);
+            keys = Arrays.copyOf(keys, capacity);
+            groups = Arrays.copyOf(groups, capacity);
+            expiresAt = Arrays.copyOf(expiresAt, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            rebuildTable(tableSizeFor(capacity));
+        }
+        return allocated++;
+    }
+
+    private void delete(int entry) {
+        unlink(entry);
+        removeFromTable(entry);
+        expiresAt[entry] = FREE;
+        next[entry] = freeHead;
+        freeHead = entry;
+        size--;
+    }
+
+    // ----- Ευρετήριο -----
+
+    private static int tableSizeFor(int capacity) {
+        // Συντελεστής φόρτωσης το πολύ 0.5.
+        return Integer.highestOneBit(Math.max(capacity, 2) - 1) << 2;
+    }
+
+    private static int hash(long key) {
+        // Ο τελικός αναμείκτης του MurmurHash3, ώστε τα γειτονικά κλειδιά να μη συγκεντρώνονται.
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /** @return Η θέση του κλειδιού, ή NONE αν δεν υπάρχει ή έχει λήξει (οπότε και αφαιρείται). */
+    private int find(long key, long now) {
+        int mask = table.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int entry = table[i];
+            if (entry == NONE) {
+                return NONE;
+            }
+            if (keys[entry] == key) {
+                if (expiresAt[entry] <= now) {
+                    delete(entry);
+                    return NONE;
+                }
+                return entry;
+            }
+        }
+    }
+
+    private void insertIntoTable(int entry) {
+        int mask = table.length - 1;
+        int i = hash(keys[entry]) & mask;
+        while (table[i] != NONE) {
+            i = (i + 1) & mask;
+        }
+        table[i] = entry;
+    }
+
+    private void removeFromTable(int entry) {
+        int mask = table.length - 1;
+        int i = hash(keys[entry]) & mask;
+        while (table[i] != entry) {
+            i = (i + 1) & mask;
+        }
+        // Μετακινούμε προς τα πίσω τα επόμενα κλειδιά της ίδιας αλυσίδας, ώστε να μη χρειάζονται "tombstones".
+        for (int j = (i + 1) & mask; table[j] != NONE; j = (j + 1) & mask) {
+            int home = hash(keys[table[j]]) & mask;
+            boolean homeBetween = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (!homeBetween) {
+                table[i] = table[j];
+                i = j;
+            }
+        }
+        table[i] = NONE;
+    }
+
+    private void rebuildTable(int tableSize) {
+        table = new int[tableSize];
+        Arrays.fill(table, NONE);
+        for (int entry = 0; entry < allocated; entry++) {
+            if (expiresAt[entry] != FREE) {
+                insertIntoTable(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.MarineTrafficClone.SeaWatch.store;
+
+import com.MarineTrafficClone.SeaWatch.enumeration.ShipType;
+import lombok.Data;
+
+/**
+ * Επαναχρησιμοποιήσιμο αντικείμενο στο οποίο ο {@link VesselStateStore} αντιγράφει την κατάσταση ενός πλοίου.
+ * Τα πεδία είναι πρωτογενή· οι άγνωστες τιμές αναπαριστώνται με {@code NaN} ή με τις σταθερές
+ * {@link #NO_HEADING}, {@link #NO_STATUS} και {@link #NO_TIMESTAMP}. Ο τύπος του πλοίου είναι null όσο δεν είναι γνωστός.
+ */
+@Data
+public class VesselState {
+
+    /** Η κατεύθυνση δεν είναι διαθέσιμη (η τιμή 511 του AIS). */
+    public static final short NO_HEADING = 511;
+    /** Η ναυτιλιακή κατάσταση δεν είναι γνωστή. */
+    public static final byte NO_STATUS = -1;
+    /** Η χρονοσφραγίδα δεν είναι γνωστή. */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private int slot;
+    private String mmsi;
+    private double latitude;
+    private double longitude;
+    private double speedOverGround;
+    private double courseOverGround;
+    private short trueHeading;
+    private byte navigationalStatus;
+    private long timestampEpoch;
+    private ShipType shipType;
+    /** Το sequence της τελευταίας ζωντανής ενημέρωσης του πλοίου (βλ. {@code ShipPositionCacheService}). */
+    private long sequence;
+
+    public boolean hasPosition() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+
+    public boolean hasSpeed() {
+        return !Double.isNaN(speedOverGround);
+    }
+
+    public boolean hasCourse() {
+        return !Double.isNaN(courseOverGround);
+    }
+}
@@ -0,0 +1,211 @@
+package com.MarineTrafficClone.SeaWatch.store;
+
+import com.MarineTrafficClone.SeaWatch.enumeration.ShipType;
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Αποθήκη της τρέχουσας κατάστασης όλων των πλοίων σε μορφή structure of arrays.
+ *
+ * Κάθε MMSI αποκτά μια σταθερή, συνεχόμενη θέση (slot) την πρώτη φορά που εμφανίζεται και τα πεδία του
+ * (θέση, SOG, COG, heading, κατάσταση, χρονοσφραγίδα, τύπος πλοίου, sequence της τελευταίας ενημέρωσης) κρατιούνται σε παράλληλους πρωτογενείς πίνακες,
+ * χωρισμένους σε σελίδες των {@value #PAGE_SIZE} πλοίων. Έτσι δεν υπάρχει ένα αντικείμενο με boxed πεδία
+ * ανά πλοίο και οι σαρώσεις (π.χ. ο έλεγχος συγκρούσεων) διαβάζουν συνεχόμενη μνήμη.
+ *
+ * Οι εγγραφές σειριοποιούνται (στην πράξη γράφει μόνο ο Kafka consumer). Οι αναγνώσεις δεν κλειδώνουν:
+ * κάθε slot έχει έναν μετρητή έκδοσης (seqlock) που είναι μονός όσο γίνεται εγγραφή, και ο αναγνώστης
+ * ξαναδιαβάζει το slot αν η έκδοση άλλαξε στο μεταξύ. Έτσι ο αναγνώστης βλέπει πάντα μια συνεπή εικόνα του πλοίου.
+ */
+@Component
+public class VesselStateStore {
+
+    static final int PAGE_BITS = 12;
+    static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final ShipType[] SHIP_TYPES = ShipType.values();
+    /** Ο τύπος του πλοίου δεν είναι γνωστός. */
+    private static final byte NO_SHIP_TYPE = -1;
+
+    /** Μια σελίδα με τα πεδία {@value #PAGE_SIZE} πλοίων. */
+    private static final class Page {
+        final AtomicLongArray versions = new AtomicLongArray(PAGE_SIZE);
+        final String[] mmsi = new String[PAGE_SIZE];
+        final double[] latitude = new double[PAGE_SIZE];
+        final double[] longitude = new double[PAGE_SIZE];
+        final double[] speedOverGround = new double[PAGE_SIZE];
+        final double[] courseOverGround = new double[PAGE_SIZE];
+        final short[] trueHeading = new short[PAGE_SIZE];
+        final byte[] navigationalStatus = new byte[PAGE_SIZE];
+        final long[] timestampEpoch = new long[PAGE_SIZE];
+        final byte[] shipType = new byte[PAGE_SIZE];
+        final long[] sequence = new long[PAGE_SIZE];
+    }
+
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    // Οι σελίδες δημοσιεύονται πριν αυξηθεί το size, οπότε κάθε slot < size έχει τη σελίδα του.
+    private volatile Page[] pages = new Page[0];
+    private volatile int size;
+
+    /**
+     * Καταγράφει την τελευταία κατάσταση ενός πλοίου, χωρίς τύπο πλοίου και sequence.
+     *
+     * @param aisData Το στίγμα AIS. Αγνοείται αν δεν έχει MMSI.
+     * @return Το slot του πλοίου, ή -1 αν το στίγμα αγνοήθηκε.
+     */
+    public int update(AisData aisData) {
+        return update(aisData, null, 0, null);
+    }
+
+    /**
+     * Καταγράφει την τελευταία κατάσταση ενός πλοίου μαζί με τον τύπο του και το sequence της ενημέρωσης.
+     *
+     * @param aisData  Το στίγμα AIS. Αγνοείται αν δεν έχει MMSI.
+     * @param shipType Ο τύπος του πλοίου, ή null για να κρατηθεί ο τύπος που είναι ήδη γνωστός.
+     * @param sequence Το sequence της ενημέρωσης.
+     * @param previous Αν δεν είναι null, αντιγράφεται εδώ η κατάσταση που αντικαταστάθηκε
+     *                 (με slot -1 αν το πλοίο εμφανίζεται για πρώτη φορά).
+     * @return Το slot του πλοίου, ή -1 αν το στίγμα αγνοήθηκε.
+     */
+    public int update(AisData aisData, ShipType shipType, long sequence, VesselState previous) {
+        if (aisData == null || aisData.getMmsi() == null) {
+            return -1;
+        }
+        synchronized (writeLock) {
+            Integer existing = slots.get(aisData.getMmsi());
+            int slot = existing != null ? existing : allocate(aisData.getMmsi());
+            Page page = pages[slot >>> PAGE_BITS];
+            int i = slot & PAGE_MASK;
+            if (previous != null) {
+                // Μόνο αυτό το thread γράφει, οπότε το slot διαβάζεται χωρίς έλεγχο έκδοσης.
+                if (existing != null) {
+                    copy(page, i, previous);
+                    previous.setSlot(slot);
+                    previous.setMmsi(page.mmsi[i]);
+                } else {
+                    previous.setSlot(-1);
+                }
+            }
+
+            long version = page.versions.get(i);
+            page.versions.set(i, version + 1);
+            // Οι εγγραφές των πεδίων δεν πρέπει να γίνουν ορατές πριν η έκδοση γίνει μονή.
+            VarHandle.storeStoreFence();
+            page.latitude[i] = orNaN(aisData.getLatitude());
+            page.longitude[i] = orNaN(aisData.getLongitude());
+            page.speedOverGround[i] = orNaN(aisData.getSpeedOverGround());
+            page.courseOverGround[i] = orNaN(aisData.getCourseOverGround());
+            page.trueHeading[i] = aisData.getTrueHeading() != null ? aisData.getTrueHeading().shortValue() : VesselState.NO_HEADING;
+            page.navigationalStatus[i] = aisData.getNavigationalStatus() != null ? aisData.getNavigationalStatus().byteValue() : VesselState.NO_STATUS;
+            page.timestampEpoch[i] = aisData.getTimestampEpoch() != null ? aisData.getTimestampEpoch() : VesselState.NO_TIMESTAMP;
+            if (shipType != null) {
+                page.shipType[i] = (byte) shipType.ordinal();
+            } else if (existing == null) {
+                page.shipType[i] = NO_SHIP_TYPE;
+            }
+            page.sequence[i] = sequence;
+            page.versions.setRelease(i, version + 2);
+
+            if (existing == null) {
+                // Το νέο slot γίνεται ορατό στις σαρώσεις μόνο αφού γραφτούν τα πεδία του.
+                slots.put(aisData.getMmsi(), slot);
+                size = slot + 1;
+            }
+            return slot;
+        }
+    }
+
+    private int allocate(String mmsi) {
+        int slot = size;
+        int pageIndex = slot >>> PAGE_BITS;
+        if (pageIndex == pages.length) {
+            Page[] grown = Arrays.copyOf(pages, pageIndex + 1);
+            grown[pageIndex] = new Page();
+            pages = grown;
+        }
+        pages[pageIndex].mmsi[slot & PAGE_MASK] = mmsi;
+        return slot;
+    }
+
+    private static double orNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    /**
+     * @return Ο αριθμός των slots. Τα slots από 0 έως size-1 είναι όλα έγκυρα.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Το slot του πλοίου, ή -1 αν δεν το έχουμε δει ποτέ.
+     */
+    public int slotOf(String mmsi) {
+        Integer slot = slots.get(mmsi);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Αντιγράφει την κατάσταση ενός πλοίου, χωρίς κλείδωμα.
+     *
+     * @param slot Ένα slot μικρότερο από {@link #size()}.
+     * @param into Το αντικείμενο στο οποίο γράφεται η κατάσταση.
+     * @return Το ίδιο το {@code into}.
+     */
+    public VesselState read(int slot, VesselState into) {
+        Page page = pages[slot >>> PAGE_BITS];
+        int i = slot & PAGE_MASK;
+        while (true) {
+            long before = page.versions.getAcquire(i);
+            if ((before & 1) != 0) {
+                // Γίνεται εγγραφή αυτή τη στιγμή.
+                Thread.onSpinWait();
+                continue;
+            }
+            copy(page, i, into);
+            // Οι αναγνώσεις των πεδίων πρέπει να ολοκληρωθούν πριν ξαναδιαβαστεί η έκδοση.
+            VarHandle.loadLoadFence();
+            if (page.versions.get(i) == before) {
+                into.setSlot(slot);
+                into.setMmsi(page.mmsi[i]);
+                return into;
+            }
+        }
+    }
+
+    private static void copy(Page page, int i, VesselState into) {
+        into.setLatitude(page.latitude[i]);
+        into.setLongitude(page.longitude[i]);
+        into.setSpeedOverGround(page.speedOverGround[i]);
+        into.setCourseOverGround(page.courseOverGround[i]);
+        into.setTrueHeading(page.trueHeading[i]);
+        into.setNavigationalStatus(page.navigationalStatus[i]);
+        into.setTimestampEpoch(page.timestampEpoch[i]);
+        byte shipType = page.shipType[i];
+        into.setShipType(shipType != NO_SHIP_TYPE ? SHIP_TYPES[shipType] : null);
+        into.setSequence(page.sequence[i]);
+    }
+
+    /**
+     * Αντιγράφει την κατάσταση ενός πλοίου με βάση το MMSI του.
+     *
+     * @return true αν το πλοίο υπάρχει.
+     */
+    public boolean read(String mmsi, VesselState into) {
+        int slot = slotOf(mmsi);
+        if (slot < 0) {
+            return false;
+        }
+        read(slot, into);
+        return true;
+    }
+}
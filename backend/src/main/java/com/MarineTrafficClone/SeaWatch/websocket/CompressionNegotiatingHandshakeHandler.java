@@ -0,0 +1,121 @@
+package com.MarineTrafficClone.SeaWatch.websocket;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.server.HandshakeFailureException;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Handshake handler για το native WebSocket endpoint, που ελέγχει τη διαπραγμάτευση
+ * του permessage-deflate (RFC 7692) με τον browser.
+ *
+ * Η συμπίεση γίνεται από τον ίδιο τον container (Tomcat) σε κάθε μήνυμα, εφόσον το extension συμφωνηθεί στο handshake.
+ * Εδώ αποφασίζουμε αν θα συμφωνηθεί και με ποιες παραμέτρους:
+ * - με {@code enabled == false} το extension αφαιρείται από την προσφορά του client και τα frames στέλνονται ασυμπίεστα,
+ * - με {@code noContextTakeover == true} ζητείται {@code server_no_context_takeover} και {@code client_no_context_takeover},
+ *   ώστε ο compressor κάθε session να μην κρατά το λεξικό (έως 32KB) μεταξύ μηνυμάτων, με κόστος μικρότερο λόγο συμπίεσης.
+ *
+ * Ο Tomcat διαπραγματεύεται τα extensions με βάση το header {@code Sec-WebSocket-Extensions} του ίδιου του request
+ * και όχι με βάση τη λίστα που επιλέγει το Spring, οπότε η προσφορά του client ξαναγράφεται στο request πριν από το upgrade.
+ */
+public class CompressionNegotiatingHandshakeHandler extends DefaultHandshakeHandler {
+
+    public static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+    private final boolean enabled;
+    private final boolean noContextTakeover;
+
+    public CompressionNegotiatingHandshakeHandler(boolean enabled, boolean noContextTakeover) {
+        this.enabled = enabled;
+        this.noContextTakeover = noContextTakeover;
+    }
+
+    @Override
+    public boolean doHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Map<String, Object> attributes) throws HandshakeFailureException {
+        List<WebSocketExtension> offer = new WebSocketHttpHeaders(request.getHeaders()).getSecWebSocketExtensions();
+        if (!offer.isEmpty() && request instanceof ServletServerHttpRequest servletRequest) {
+            request = new ServletServerHttpRequest(
+                    new ExtensionOfferRequest(servletRequest.getServletRequest(), filterOffer(offer)));
+        }
+        return super.doHandshake(request, response, wsHandler, attributes);
+    }
+
+    /**
+     * Εφαρμόζει τις ρυθμίσεις της συμπίεσης στα extensions που προσφέρει ο client· τα υπόλοιπα μένουν ως έχουν.
+     */
+    private List<WebSocketExtension> filterOffer(List<WebSocketExtension> offer) {
+        List<WebSocketExtension> filtered = new ArrayList<>();
+        for (WebSocketExtension extension : offer) {
+            if (!PERMESSAGE_DEFLATE.equalsIgnoreCase(extension.getName())) {
+                filtered.add(extension);
+            } else if (enabled) {
+                filtered.add(noContextTakeover ? withoutContextTakeover(extension) : extension);
+            }
+        }
+        return filtered;
+    }
+
+    private static WebSocketExtension withoutContextTakeover(WebSocketExtension offer) {
+        Map<String, String> parameters = new LinkedHashMap<>(offer.getParameters());
+        parameters.put("server_no_context_takeover", null);
+        parameters.put("client_no_context_takeover", null);
+        return new WebSocketExtension(offer.getName(), parameters);
+    }
+
+    /**
+     * Το request του handshake με το header {@code Sec-WebSocket-Extensions} αντικατεστημένο από την φιλτραρισμένη προσφορά.
+     */
+    private static final class ExtensionOfferRequest extends HttpServletRequestWrapper {
+
+        private final List<String> extensions;
+
+        ExtensionOfferRequest(HttpServletRequest request, List<WebSocketExtension> offer) {
+            super(request);
+            this.extensions = offer.stream().map(WebSocketExtension::toString).toList();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (isExtensionsHeader(name)) {
+                return extensions.isEmpty() ? null : String.join(", ", extensions);
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (isExtensionsHeader(name)) {
+                return Collections.enumeration(extensions);
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(ExtensionOfferRequest::isExtensionsHeader);
+            if (!extensions.isEmpty()) {
+                names.add(WebSocketHttpHeaders.SEC_WEBSOCKET_EXTENSIONS);
+            }
+            return Collections.enumeration(names);
+        }
+
+        private static boolean isExtensionsHeader(String name) {
+            return WebSocketHttpHeaders.SEC_WEBSOCKET_EXTENSIONS.equalsIgnoreCase(name);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.MarineTrafficClone.SeaWatch.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorator μιας WebSocket session που παρεμβάλλει μια φραγμένη (bounded) ουρά εξερχομένων
+ * μηνυμάτων ανάμεσα στον STOMP handler του Spring και στο πραγματικό socket.
+ *
+ * Η {@link #sendMessage(WebSocketMessage)} δεν μπλοκάρει ποτέ: το frame μπαίνει στην ουρά της session
+ * και ένα κοινόχρηστο thread pool το στέλνει ασύγχρονα. Έτσι ένας αργός browser δεν κρατά δεσμευμένα
+ * τα threads του clientOutboundChannel ούτε καθυστερεί τα μηνύματα των υπόλοιπων clients.
+ *
+ * Κανόνες της ουράς:
+ * - Τα frames θέσης (MESSAGE με header {@code mmsi} σε ένα από τα conflatable destinations) συγχωνεύονται
+ *   ανά συνδρομή και MMSI: αν υπάρχει ήδη frame του ίδιου πλοίου σε αναμονή, αντικαθίσταται από το νεότερο
+ *   και κρατά τη θέση του στην ουρά (το νεότερο στίγμα κερδίζει).
+ * - Όλα τα υπόλοιπα frames (ειδοποιήσεις, alerts, snapshots, heartbeats) δεν απορρίπτονται ποτέ.
+ * - Αν η ουρά ξεπεράσει τη χωρητικότητά της ή δεν σημειωθεί πρόοδος στην αποστολή για περισσότερο από
+ *   το όριο χρόνου, η session κλείνει ως αργή ({@link CloseStatus#SESSION_NOT_RELIABLE}).
+ */
+public class ConflatingWebSocketSessionDecorator extends WebSocketSessionDecorator {
+
+    private static final Logger log = LoggerFactory.getLogger(ConflatingWebSocketSessionDecorator.class);
+
+    /** Το native STOMP header με το MMSI του πλοίου, πάνω στο οποίο γίνεται η συγχώνευση. */
+    public static final String MMSI_HEADER = "mmsi";
+    private static final String MMSI_HEADER_PREFIX = MMSI_HEADER + ":";
+
+    private final Executor drainExecutor;
+    private final Set<String> conflatableDestinations;
+    private final int capacity;
+    private final long slowConsumerTimeoutNanos;
+    private final int drainBatchSize;
+    private final Runnable slowDisconnectCallback;
+
+    /**
+     * Η ουρά της session. Τα κλειδιά είναι είτε String (conflation key ενός frame θέσης)
+     * είτε Long (μοναδικός αύξων αριθμός για frames που δεν συγχωνεύονται), οπότε δεν συγκρούονται ποτέ.
+     * Προστατεύεται από το κλείδωμα του ίδιου του αντικειμένου της ουράς.
+     */
+    private final LinkedHashMap<Object, WebSocketMessage<?>> queue = new LinkedHashMap<>();
+    private long nonConflatableKeySequence = 0;
+    private boolean draining = false;
+    private long lastProgressNanos = System.nanoTime();
+    private volatile boolean closing = false;
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong conflatedCount = new AtomicLong();
+
+    public ConflatingWebSocketSessionDecorator(WebSocketSession delegate,
+                                               Executor drainExecutor,
+                                               Set<String> conflatableDestinations,
+                                               int capacity,
+                                               long slowConsumerTimeoutMillis,
+                                               int drainBatchSize,
+                                               Runnable slowDisconnectCallback) {
+        super(delegate);
+        this.drainExecutor = drainExecutor;
+        this.conflatableDestinations = conflatableDestinations;
+        this.capacity = capacity;
+        this.slowConsumerTimeoutNanos = slowConsumerTimeoutMillis * 1_000_000L;
+        this.drainBatchSize = drainBatchSize;
+        this.slowDisconnectCallback = slowDisconnectCallback;
+    }
+
+    /**
+     * Βάζει το frame στην ουρά της session και, αν χρειάζεται, προγραμματίζει την αποστολή του.
+     * Επιστρέφει αμέσως, χωρίς να περιμένει το socket.
+     */
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (closing) {
+            return;
+        }
+        String conflationKey = conflationKey(message);
+        boolean scheduleDrain = false;
+        boolean slow;
+
+        synchronized (queue) {
+            long now = System.nanoTime();
+            if (queue.isEmpty() && !draining) {
+                // Η ουρά ήταν άδεια και αδρανής: ο χρόνος αναμονής μετράει από τώρα.
+                lastProgressNanos = now;
+            }
+            if (conflationKey != null && queue.containsKey(conflationKey)) {
+                // Το put σε υπάρχον κλειδί ενός LinkedHashMap διατηρεί τη σειρά εισαγωγής.
+                queue.put(conflationKey, message);
+                conflatedCount.incrementAndGet();
+            } else {
+                Object key = (conflationKey != null) ? conflationKey : Long.valueOf(++nonConflatableKeySequence);
+                queue.put(key, message);
+            }
+            enqueuedCount.incrementAndGet();
+
+            slow = queue.size() > capacity || (now - lastProgressNanos) > slowConsumerTimeoutNanos;
+            if (!slow && !draining) {
+                draining = true;
+                scheduleDrain = true;
+            }
+        }
+
+        if (slow) {
+            closeAsSlowConsumer();
+        } else if (scheduleDrain) {
+            drainExecutor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Στέλνει τα frames της ουράς στο πραγματικό socket, το πολύ {@code drainBatchSize} κάθε φορά.
+     * Μετά από κάθε παρτίδα η εργασία ξαναμπαίνει στο τέλος του thread pool, ώστε μια session
+     * με μεγάλη ουρά να μη μονοπωλεί τα threads εις βάρος των υπολοίπων.
+     */
+    private void drain() {
+        for (int sent = 0; ; sent++) {
+            WebSocketMessage<?> next;
+            synchronized (queue) {
+                if (closing || queue.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                if (sent >= drainBatchSize) {
+                    // Το draining παραμένει true: η συνέχεια ανήκει στην εργασία που υποβάλλουμε.
+                    break;
+                }
+                Iterator<WebSocketMessage<?>> iterator = queue.values().iterator();
+                next = iterator.next();
+                iterator.remove();
+            }
+            try {
+                getDelegate().sendMessage(next);
+            } catch (IOException | RuntimeException e) {
+                log.debug("WEBSOCKET: Failed to send frame to session {}. Closing it.", getId(), e);
+                closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+                return;
+            }
+            synchronized (queue) {
+                lastProgressNanos = System.nanoTime();
+            }
+        }
+        drainExecutor.execute(this::drain);
+    }
+
+    /**
+     * Υπολογίζει το κλειδί συγχώνευσης ενός frame, ή null αν το frame δεν πρέπει να συγχωνευτεί.
+     * Διαβάζει μόνο τα headers του STOMP frame (μέχρι την πρώτη κενή γραμμή), όχι το σώμα του.
+     */
+    String conflationKey(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage textMessage)) {
+            return null;
+        }
+        String frame = textMessage.getPayload();
+        if (!frame.startsWith("MESSAGE\n")) {
+            return null;
+        }
+        String destination = null;
+        String subscription = null;
+        String mmsi = null;
+        int lineStart = "MESSAGE\n".length();
+        while (lineStart < frame.length()) {
+            int lineEnd = frame.indexOf('\n', lineStart);
+            if (lineEnd < 0 || lineEnd == lineStart) {
+                break; // Τέλος των headers.
+            }
+            if (frame.startsWith("destination:", lineStart)) {
+                destination = frame.substring(lineStart + "destination:".length(), lineEnd);
+            } else if (frame.startsWith("subscription:", lineStart)) {
+                subscription = frame.substring(lineStart + "subscription:".length(), lineEnd);
+            } else if (frame.startsWith(MMSI_HEADER_PREFIX, lineStart)) {
+                mmsi = frame.substring(lineStart + MMSI_HEADER_PREFIX.length(), lineEnd);
+            }
+            lineStart = lineEnd + 1;
+        }
+        if (destination == null || mmsi == null || !conflatableDestinations.contains(destination)) {
+            return null;
+        }
+        return subscription + '|' + destination + '|' + mmsi;
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        markClosing();
+        super.close(status);
+    }
+
+    private void closeAsSlowConsumer() {
+        if (closing) {
+            return;
+        }
+        log.warn("WEBSOCKET: Session {} is too slow (queue depth {}). Disconnecting it.", getId(), getQueueDepth());
+        slowDisconnectCallback.run();
+        closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    private void closeQuietly(CloseStatus status) {
+        try {
+            close(status);
+        } catch (IOException | RuntimeException e) {
+            log.debug("WEBSOCKET: Error while closing session {}.", getId(), e);
+        }
+    }
+
+    private void markClosing() {
+        closing = true;
+        synchronized (queue) {
+            queue.clear();
+        }
+    }
+
+    /** @return Το τρέχον πλήθος των frames σε αναμονή. */
+    public int getQueueDepth() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    /** @return Το συνολικό πλήθος των frames που πέρασαν από την ουρά. */
+    public long getEnqueuedCount() {
+        return enqueuedCount.get();
+    }
+
+    /** @return Το πλήθος των frames θέσης που αντικαταστάθηκαν από νεότερα πριν σταλούν. */
+    public long getConflatedCount() {
+        return conflatedCount.get();
+    }
+
+    /** @return Το ποσοστό (0..1) των frames που συγχωνεύτηκαν. */
+    public double getConflationRatio() {
+        long enqueued = enqueuedCount.get();
+        return enqueued == 0 ? 0.0 : (double) conflatedCount.get() / enqueued;
+    }
+}
@@ -0,0 +1,125 @@
+package com.MarineTrafficClone.SeaWatch.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Factory που τυλίγει κάθε νέα WebSocket session σε έναν {@link ConflatingWebSocketSessionDecorator},
+ * δίνοντας σε κάθε client τη δική του φραγμένη ουρά εξερχομένων μηνυμάτων.
+ * Καταχωρείται στο {@code WebSocketConfig#configureWebSocketTransport}.
+ *
+ * Για κάθε session δημοσιεύονται metrics (tag {@code session}) για το βάθος της ουράς,
+ * τα frames που πέρασαν και τα frames που συγχωνεύτηκαν. Οι αποσυνδέσεις λόγω αργού client
+ * μετρώνται συνολικά στο {@code seawatch.websocket.slow.disconnects}.
+ */
+@Component
+public class OutboundQueueDecoratorFactory implements WebSocketHandlerDecoratorFactory {
+
+    /** Τα destinations των οποίων τα μηνύματα θέσης επιτρέπεται να συγχωνευτούν ανά MMSI. */
+    private static final Set<String> CONFLATABLE_DESTINATIONS = Set.of("/topic/ais-updates", "/user/queue/fleet-updates");
+
+    private final MeterRegistry meterRegistry;
+    private final int queueCapacity;
+    private final long slowConsumerTimeoutMillis;
+    private final int drainBatchSize;
+    private final ThreadPoolTaskExecutor drainExecutor;
+    private final Counter slowDisconnects;
+
+    /** Τα meters κάθε ενεργής session, ώστε να αφαιρούνται από το registry όταν αυτή κλείσει. */
+    private final Map<String, List<Meter>> sessionMeters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OutboundQueueDecoratorFactory(MeterRegistry meterRegistry,
+                                         @Value("${websocket.outbound.queue-capacity:2000}") int queueCapacity,
+                                         @Value("${websocket.outbound.slow-consumer-timeout-ms:15000}") long slowConsumerTimeoutMillis,
+                                         @Value("${websocket.outbound.drain-batch-size:64}") int drainBatchSize,
+                                         @Value("${websocket.outbound.drain-threads:4}") int drainThreads) {
+        this.meterRegistry = meterRegistry;
+        this.queueCapacity = queueCapacity;
+        this.slowConsumerTimeoutMillis = slowConsumerTimeoutMillis;
+        this.drainBatchSize = drainBatchSize;
+        this.slowDisconnects = Counter.builder("seawatch.websocket.slow.disconnects")
+                .description("WebSocket sessions closed because they could not keep up with outbound traffic")
+                .register(meterRegistry);
+
+        this.drainExecutor = new ThreadPoolTaskExecutor();
+        this.drainExecutor.setCorePoolSize(drainThreads);
+        this.drainExecutor.setMaxPoolSize(drainThreads);
+        this.drainExecutor.setThreadNamePrefix("ws-outbound-");
+        this.drainExecutor.initialize();
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                ConflatingWebSocketSessionDecorator decorated = new ConflatingWebSocketSessionDecorator(
+                        session, drainExecutor, CONFLATABLE_DESTINATIONS,
+                        queueCapacity, slowConsumerTimeoutMillis, drainBatchSize, slowDisconnects::increment);
+                registerMeters(decorated);
+                super.afterConnectionEstablished(decorated);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                removeMeters(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private void registerMeters(ConflatingWebSocketSessionDecorator session) {
+        String sessionId = session.getId();
+        List<Meter> meters = List.of(
+                Gauge.builder("seawatch.websocket.session.queue.depth", session, ConflatingWebSocketSessionDecorator::getQueueDepth)
+                        .description("Frames waiting in the outbound queue of the session")
+                        .tag("session", sessionId)
+                        .register(meterRegistry),
+                Gauge.builder("seawatch.websocket.session.conflation.ratio", session, ConflatingWebSocketSessionDecorator::getConflationRatio)
+                        .description("Fraction of outbound frames replaced by a newer position of the same ship")
+                        .tag("session", sessionId)
+                        .register(meterRegistry),
+                FunctionCounter.builder("seawatch.websocket.session.enqueued", session, ConflatingWebSocketSessionDecorator::getEnqueuedCount)
+                        .description("Frames that entered the outbound queue of the session")
+                        .tag("session", sessionId)
+                        .register(meterRegistry),
+                FunctionCounter.builder("seawatch.websocket.session.conflated", session, ConflatingWebSocketSessionDecorator::getConflatedCount)
+                        .description("Position frames replaced by a newer one before being sent")
+                        .tag("session", sessionId)
+                        .register(meterRegistry)
+        );
+        sessionMeters.put(sessionId, meters);
+    }
+
+    private void removeMeters(String sessionId) {
+        List<Meter> meters = sessionMeters.remove(sessionId);
+        if (meters != null) {
+            meters.forEach(meterRegistry::remove);
+        }
+    }
+
+    // Κλείνει το thread pool των ουρών όταν τερματίζει η εφαρμογή (ή το test context).
+    @PreDestroy
+    public void destroy() {
+        drainExecutor.shutdown();
+    }
+}
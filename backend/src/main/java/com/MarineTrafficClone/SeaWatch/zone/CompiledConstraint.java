@@ -0,0 +1,174 @@
+package com.MarineTrafficClone.SeaWatch.zone;
+
+import com.MarineTrafficClone.SeaWatch.enumeration.ShipType;
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneConstraintType;
+import com.MarineTrafficClone.SeaWatch.exception.InvalidZoneConstraintException;
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import com.MarineTrafficClone.SeaWatch.model.ZoneConstraint;
+
+/**
+ * Ένας stateful περιορισμός ζώνης (ταχύτητα, τύπος πλοίου, ναυτιλιακή κατάσταση) "μεταγλωττισμένος"
+ * σε τυποποιημένο κατηγόρημα (predicate). Η τιμή του περιορισμού μετατρέπεται από String μία φορά,
+ * όταν η ζώνη φορτώνεται στην cache, και όχι σε κάθε μήνυμα AIS.
+ *
+ * Οι περιορισμοί εισόδου/εξόδου είναι γεγονότα και δεν μεταγλωττίζονται (βλ. {@link CompiledZone}).
+ */
+public sealed interface CompiledConstraint {
+
+    /** Ο περιορισμός από τον οποίο προέκυψε το κατηγόρημα. */
+    ZoneConstraint source();
+
+    /** Ο τύπος του περιορισμού. */
+    default ZoneConstraintType type() {
+        return source().getConstraintType();
+    }
+
+    /**
+     * @param position Η θέση του πλοίου (μέσα στη ζώνη).
+     * @param shipType Ο τύπος του πλοίου (μπορεί να είναι null).
+     * @return true αν το πλοίο παραβιάζει τον περιορισμό.
+     */
+    boolean isViolatedBy(AisData position, ShipType shipType);
+
+    /**
+     * Δημιουργεί το μήνυμα της ειδοποίησης. Καλείται μόνο όταν πράγματι στέλνεται ειδοποίηση.
+     *
+     * @param position Η θέση του πλοίου που παραβιάζει τον περιορισμό.
+     * @param zoneName Το όνομα της ζώνης.
+     * @return Το μήνυμα της ειδοποίησης.
+     */
+    String violationMessage(AisData position, String zoneName);
+
+    /**
+     * @param type Ο τύπος ενός περιορισμού.
+     * @return true αν ο περιορισμός εξαρτάται από την κατάσταση του πλοίου (και όχι από την είσοδο/έξοδο).
+     */
+    static boolean isStateful(ZoneConstraintType type) {
+        return type != ZoneConstraintType.ZONE_ENTRY && type != ZoneConstraintType.ZONE_EXIT;
+    }
+
+    /**
+     * Ελέγχει ότι ένας περιορισμός έχει έγκυρη τιμή για τον τύπο του, χωρίς να τον κρατά.
+     * Χρησιμοποιείται κατά την αποθήκευση μιας ζώνης, ώστε οι άκυρες τιμές να απορρίπτονται εκεί.
+     *
+     * @param constraint Ο περιορισμός.
+     * @throws InvalidZoneConstraintException Αν ο τύπος λείπει ή η τιμή δεν είναι έγκυρη.
+     */
+    static void validate(ZoneConstraint constraint) {
+        if (constraint.getConstraintType() == null) {
+            throw new InvalidZoneConstraintException("Constraint type is required");
+        }
+        if (isStateful(constraint.getConstraintType())) {
+            compile(constraint);
+        }
+    }
+
+    /**
+     * Μεταγλωττίζει έναν stateful περιορισμό.
+     *
+     * @param constraint Ο περιορισμός.
+     * @return Το αντίστοιχο κατηγόρημα.
+     * @throws InvalidZoneConstraintException Αν η τιμή δεν είναι έγκυρη για τον τύπο του περιορισμού.
+     * @throws IllegalArgumentException       Αν ο περιορισμός είναι εισόδου/εξόδου.
+     */
+    static CompiledConstraint compile(ZoneConstraint constraint) {
+        ZoneConstraintType type = constraint.getConstraintType();
+        String value = constraint.getConstraintValue() == null ? "" : constraint.getConstraintValue().trim();
+        return switch (type) {
+            case SPEED_LIMIT_ABOVE -> new SpeedAbove(constraint, parseSpeed(type, value));
+            case SPEED_LIMIT_BELOW -> new SpeedBelow(constraint, parseSpeed(type, value));
+            case FORBIDDEN_SHIP_TYPE -> new ForbiddenShipType(constraint, parseShipType(type, value));
+            case UNWANTED_NAV_STATUS -> new UnwantedNavigationalStatus(constraint, parseNavigationalStatus(type, value));
+            case ZONE_ENTRY, ZONE_EXIT -> throw new IllegalArgumentException(type + " is an event, not a stateful constraint");
+        };
+    }
+
+    private static double parseSpeed(ZoneConstraintType type, String value) {
+        try {
+            double speed = Double.parseDouble(value);
+            if (Double.isFinite(speed) && speed >= 0) {
+                return speed;
+            }
+        } catch (NumberFormatException ignored) {
+            // Αναφέρεται παρακάτω μαζί με τις άλλες άκυρες τιμές.
+        }
+        throw invalid(type, value, "a non-negative speed in knots");
+    }
+
+    private static ShipType parseShipType(ZoneConstraintType type, String value) {
+        for (ShipType shipType : ShipType.values()) {
+            if (shipType.getValue().equalsIgnoreCase(value)) {
+                return shipType;
+            }
+        }
+        throw invalid(type, value, "a known ship type");
+    }
+
+    private static int parseNavigationalStatus(ZoneConstraintType type, String value) {
+        try {
+            int status = Integer.parseInt(value);
+            if (status >= 0 && status <= 15) {
+                return status;
+            }
+        } catch (NumberFormatException ignored) {
+            // Αναφέρεται παρακάτω μαζί με τις άλλες άκυρες τιμές.
+        }
+        throw invalid(type, value, "a navigational status code between 0 and 15");
+    }
+
+    private static InvalidZoneConstraintException invalid(ZoneConstraintType type, String value, String expected) {
+        return new InvalidZoneConstraintException("Invalid value '" + value + "' for " + type + ": expected " + expected);
+    }
+
+    /** Ειδοποίηση αν η ταχύτητα του πλοίου υπερβεί το όριο. */
+    record SpeedAbove(ZoneConstraint source, double limit) implements CompiledConstraint {
+        @Override
+        public boolean isViolatedBy(AisData position, ShipType shipType) {
+            return position.getSpeedOverGround() != null && position.getSpeedOverGround() > limit;
+        }
+
+        @Override
+        public String violationMessage(AisData position, String zoneName) {
+            return String.format("Ship %s exceeded speed limit in zone '%s'. Speed: %.1f kts (Limit: %.1f kts)", position.getMmsi(), zoneName, position.getSpeedOverGround(), limit);
+        }
+    }
+
+    /** Ειδοποίηση αν η ταχύτητα του πλοίου πέσει κάτω από το όριο. */
+    record SpeedBelow(ZoneConstraint source, double limit) implements CompiledConstraint {
+        @Override
+        public boolean isViolatedBy(AisData position, ShipType shipType) {
+            return position.getSpeedOverGround() != null && position.getSpeedOverGround() < limit;
+        }
+
+        @Override
+        public String violationMessage(AisData position, String zoneName) {
+            return String.format("Ship %s is below minimum speed in zone '%s'. Speed: %.1f kts (Limit: %.1f kts)", position.getMmsi(), zoneName, position.getSpeedOverGround(), limit);
+        }
+    }
+
+    /** Ειδοποίηση αν ένας απαγορευμένος τύπος πλοίου βρίσκεται μέσα στη ζώνη. */
+    record ForbiddenShipType(ZoneConstraint source, ShipType forbidden) implements CompiledConstraint {
+        @Override
+        public boolean isViolatedBy(AisData position, ShipType shipType) {
+            return shipType == forbidden;
+        }
+
+        @Override
+        public String violationMessage(AisData position, String zoneName) {
+            return String.format("Forbidden ship type ('%s') detected in zone '%s'. Ship: %s", forbidden.getValue(), zoneName, position.getMmsi());
+        }
+    }
+
+    /** Ειδοποίηση αν το πλοίο έχει μια ανεπιθύμητη ναυτιλιακή κατάσταση. */
+    record UnwantedNavigationalStatus(ZoneConstraint source, int status) implements CompiledConstraint {
+        @Override
+        public boolean isViolatedBy(AisData position, ShipType shipType) {
+            return position.getNavigationalStatus() != null && position.getNavigationalStatus() == status;
+        }
+
+        @Override
+        public String violationMessage(AisData position, String zoneName) {
+            return String.format("Ship %s with unwanted status code (%d) detected in zone '%s'.", position.getMmsi(), status, zoneName);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.MarineTrafficClone.SeaWatch.zone;
+
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneConstraintType;
+import com.MarineTrafficClone.SeaWatch.exception.InvalidZoneConstraintException;
+import com.MarineTrafficClone.SeaWatch.geo.Geofence;
+import com.MarineTrafficClone.SeaWatch.model.ZoneConstraint;
+import com.MarineTrafficClone.SeaWatch.model.ZoneOfInterest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Μια ζώνη ενδιαφέροντος έτοιμη για τον έλεγχο των μηνυμάτων AIS: η γεωμετρία της είναι προετοιμασμένη
+ * και οι περιορισμοί της μεταγλωττισμένοι, ώστε ο consumer να μην κάνει καμία μετατροπή ανά μήνυμα.
+ * Δημιουργείται από την {@link com.MarineTrafficClone.SeaWatch.service.ZoneOfInterestCacheService}
+ * κάθε φορά που μια ζώνη φορτώνεται ή ενημερώνεται.
+ */
+public final class CompiledZone {
+
+    private static final Logger log = LoggerFactory.getLogger(CompiledZone.class);
+
+    private final ZoneOfInterest zone;
+    private final Geofence geofence;
+    private final ZoneConstraint entryConstraint;
+    private final ZoneConstraint exitConstraint;
+    private final CompiledConstraint[] statefulConstraints;
+
+    private CompiledZone(ZoneOfInterest zone, ZoneConstraint entryConstraint, ZoneConstraint exitConstraint,
+                         CompiledConstraint[] statefulConstraints) {
+        this.zone = zone;
+        this.geofence = zone.getGeofence();
+        this.entryConstraint = entryConstraint;
+        this.exitConstraint = exitConstraint;
+        this.statefulConstraints = statefulConstraints;
+    }
+
+    /**
+     * Μεταγλωττίζει μια ζώνη. Οι νέες ζώνες ελέγχονται ήδη κατά την αποθήκευση, οπότε ένας άκυρος περιορισμός
+     * εδώ μπορεί να προέρχεται μόνο από παλαιότερα δεδομένα· καταγράφεται μία φορά και παραλείπεται.
+     *
+     * @param zone Η ζώνη.
+     * @return Η μεταγλωττισμένη ζώνη.
+     */
+    public static CompiledZone compile(ZoneOfInterest zone) {
+        ZoneConstraint entry = null;
+        ZoneConstraint exit = null;
+        List<CompiledConstraint> stateful = new ArrayList<>();
+
+        for (ZoneConstraint constraint : zone.getConstraints()) {
+            ZoneConstraintType type = constraint.getConstraintType();
+            if (type == ZoneConstraintType.ZONE_ENTRY) {
+                if (entry == null) entry = constraint;
+            } else if (type == ZoneConstraintType.ZONE_EXIT) {
+                if (exit == null) exit = constraint;
+            } else if (type != null) {
+                try {
+                    stateful.add(CompiledConstraint.compile(constraint));
+                } catch (InvalidZoneConstraintException e) {
+                    log.warn("ZONE CACHE: Skipping constraint of zone '{}': {}", zone.getName(), e.getMessage());
+                }
+            }
+        }
+        return new CompiledZone(zone, entry, exit, stateful.toArray(new CompiledConstraint[0]));
+    }
+
+    public ZoneOfInterest getZone() {
+        return zone;
+    }
+
+    public Geofence getGeofence() {
+        return geofence;
+    }
+
+    /** @return Ο περιορισμός εισόδου της ζώνης ή null αν δεν υπάρχει. */
+    public ZoneConstraint getEntryConstraint() {
+        return entryConstraint;
+    }
+
+    /** @return Ο περιορισμός εξόδου της ζώνης ή null αν δεν υπάρχει. */
+    public ZoneConstraint getExitConstraint() {
+        return exitConstraint;
+    }
+
+    /** @return Οι stateful περιορισμοί της ζώνης (ο πίνακας δεν πρέπει να τροποποιείται). */
+    public CompiledConstraint[] getStatefulConstraints() {
+        return statefulConstraints;
+    }
+}
@@ -0,0 +1,140 @@
+package com.MarineTrafficClone.SeaWatch.zone;
+
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneKind;
+import com.MarineTrafficClone.SeaWatch.geo.Geofence;
+import com.MarineTrafficClone.SeaWatch.model.UserEntity;
+import com.MarineTrafficClone.SeaWatch.store.VesselState;
+import com.MarineTrafficClone.SeaWatch.store.VesselStateStore;
+
+import java.util.Arrays;
+
+/**
+ * Τα πλοία που βρίσκονται μέσα σε μια ζώνη, για μία συγκεκριμένη έκδοσή της. Δημοσιεύεται στο ίδιο
+ * {@link ZoneSnapshot} με τη ζώνη, οπότε ένας αναγνώστης βρίσκει πάντα τα μέλη που υπολογίστηκαν με τη
+ * γεωμετρία που βλέπει. Όταν η ζώνη αλλάζει, δημιουργείται νέο αντικείμενο· τα πεδία της ζώνης είναι σταθερά.
+ *
+ * Τα πλοία αναφέρονται με το slot τους στον {@link VesselStateStore} και κρατιούνται σε bitset (ένα bit ανά slot),
+ * ώστε η ενημέρωση να μη δημιουργεί αντικείμενα. Οι αναγνώστες παίρνουν αντίγραφο με {@link #copyMembers()}.
+ */
+public final class ZoneOccupancy {
+
+    private final Long zoneId;
+    private final String zoneName;
+    private final ZoneKind kind;
+    private final UserEntity owner;
+    private final Geofence geofence;
+    private long[] members = new long[1];
+    private int memberCount;
+    /** Αν ο αριθμός των μελών άλλαξε από την τελευταία αποστολή του στον ιδιοκτήτη. */
+    private volatile boolean countChanged = true;
+
+    public ZoneOccupancy(Long zoneId, String zoneName, ZoneKind kind, UserEntity owner, Geofence geofence) {
+        this.zoneId = zoneId;
+        this.zoneName = zoneName;
+        this.kind = kind;
+        this.owner = owner;
+        this.geofence = geofence;
+    }
+
+    /**
+     * Υπολογίζει τα μέλη μιας ζώνης από την αρχή, με μία σάρωση της cache θέσεων (όταν η ζώνη δημιουργείται ή αλλάζει).
+     * Ένα στίγμα που φτάνει κατά τη σάρωση μπορεί να μην περιληφθεί· διορθώνεται με το επόμενο στίγμα του ίδιου πλοίου.
+     *
+     * @return Τα μέλη, έτοιμα να δημοσιευτούν μαζί με τη ζώνη.
+     */
+    public static ZoneOccupancy scan(Long zoneId, String zoneName, ZoneKind kind, UserEntity owner, Geofence geofence,
+                                     VesselStateStore vesselStates) {
+        ZoneOccupancy occupancy = new ZoneOccupancy(zoneId, zoneName, kind, owner, geofence);
+        VesselState state = new VesselState();
+        for (int slot = 0, size = vesselStates.size(); slot < size; slot++) {
+            vesselStates.read(slot, state);
+            if (state.hasPosition() && geofence.contains(state.getLatitude(), state.getLongitude())) {
+                occupancy.update(slot, true);
+            }
+        }
+        return occupancy;
+    }
+
+    /**
+     * Καταγράφει αν ένα πλοίο είναι μέσα στη ζώνη.
+     *
+     * @param slot   Το slot του πλοίου στον {@link VesselStateStore}.
+     * @param inside true αν το πλοίο είναι μέσα στη ζώνη.
+     * @return Αν το πλοίο ήταν μέλος πριν την ενημέρωση.
+     */
+    public synchronized boolean update(int slot, boolean inside) {
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+        if (word >= members.length) {
+            if (!inside) {
+                return false;
+            }
+            members = Arrays.copyOf(members, Math.max(word + 1, members.length * 2));
+        }
+        boolean wasMember = (members[word] & bit) != 0;
+        if (wasMember != inside) {
+            members[word] ^= bit;
+            memberCount += inside ? 1 : -1;
+            countChanged = true;
+        }
+        return wasMember;
+    }
+
+    /**
+     * @return Αν το πλοίο του slot είναι μέλος της ζώνης.
+     */
+    public synchronized boolean contains(int slot) {
+        int word = slot >>> 6;
+        return slot >= 0 && word < members.length && (members[word] & (1L << slot)) != 0;
+    }
+
+    public synchronized int memberCount() {
+        return memberCount;
+    }
+
+    /**
+     * @return Τα slots των μελών σε αύξουσα σειρά (αντίγραφο, που δεν επηρεάζεται από μεταγενέστερες ενημερώσεις).
+     */
+    public synchronized int[] copyMembers() {
+        int[] slots = new int[memberCount];
+        for (int word = 0, count = 0; count < slots.length; word++) {
+            for (long bits = members[word]; bits != 0; bits &= bits - 1) {
+                slots[count++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Μηδενίζει την ένδειξη αλλαγής του αριθμού των μελών.
+     *
+     * @return Αν ο αριθμός άλλαξε από την προηγούμενη κλήση.
+     */
+    public boolean takeCountChanged() {
+        if (!countChanged) {
+            return false;
+        }
+        countChanged = false;
+        return true;
+    }
+
+    public Long getZoneId() {
+        return zoneId;
+    }
+
+    public String getZoneName() {
+        return zoneName;
+    }
+
+    public ZoneKind getKind() {
+        return kind;
+    }
+
+    public UserEntity getOwner() {
+        return owner;
+    }
+
+    public Geofence getGeofence() {
+        return geofence;
+    }
+}
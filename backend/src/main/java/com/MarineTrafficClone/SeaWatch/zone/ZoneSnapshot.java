@@ -0,0 +1,166 @@
+package com.MarineTrafficClone.SeaWatch.zone;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Ένα αμετάβλητο στιγμιότυπο των ζωνών μιας cache: η λίστα των ζωνών, ένα ευρετήριο ανά ID,
+ * τα πλοία που βρίσκονται μέσα σε κάθε ζώνη ({@link ZoneOccupancy}) και ένας αριθμός έκδοσης. Κάθε αλλαγή δημιουργεί νέο στιγμιότυπο, το οποίο η cache δημοσιεύει με μία
+ * ατομική αντικατάσταση, οπότε ένας αναγνώστης βλέπει είτε την παλιά είτε τη νέα εικόνα και ποτέ
+ * μια ζώνη να λείπει στη μέση μιας ενημέρωσης.
+ *
+ * Ένας αναγνώστης που κάνει έναν έλεγχο σε πολλά βήματα παίρνει ένα στιγμιότυπο στην αρχή και
+ * χρησιμοποιεί μόνο αυτό· με την {@link #getVersion()} μπορεί να διαπιστώσει αν οι ζώνες άλλαξαν στο μεταξύ.
+ * Τα μέλη μιας ζώνης αλλάζουν μαζί με τη γεωμετρία της, στην ίδια αντικατάσταση, οπότε ένας αναγνώστης δεν
+ * συνδυάζει ποτέ την παλιά γεωμετρία με τα μέλη της νέας (ή το αντίστροφο).
+ *
+ * @param <T> Ο τύπος των ζωνών, μαζί με ό,τι έχει προϋπολογιστεί γι' αυτές (π.χ. {@link CompiledZone}).
+ */
+public final class ZoneSnapshot<T> {
+
+    private final long version;
+    private final List<T> zones;
+    private final Map<Long, T> zonesById;
+    private final Map<Long, ZoneOccupancy> occupancies;
+    private final Function<T, Long> idOf;
+
+    private ZoneSnapshot(long version, List<T> zones, Map<Long, ZoneOccupancy> occupancies, Function<T, Long> idOf) {
+        this.version = version;
+        this.zones = Collections.unmodifiableList(zones);
+        this.occupancies = Collections.unmodifiableMap(occupancies);
+        this.idOf = idOf;
+        Map<Long, T> byId = new HashMap<>();
+        for (T zone : zones) {
+            byId.put(idOf.apply(zone), zone);
+        }
+        this.zonesById = Collections.unmodifiableMap(byId);
+    }
+
+    /**
+     * @param idOf Η συνάρτηση που δίνει το ID μιας ζώνης.
+     * @return Ένα στιγμιότυπο χωρίς ζώνες, με έκδοση 0.
+     */
+    public static <T> ZoneSnapshot<T> empty(Function<T, Long> idOf) {
+        return new ZoneSnapshot<>(0, new ArrayList<>(), new HashMap<>(), idOf);
+    }
+
+    /**
+     * @param idOf  Η συνάρτηση που δίνει το ID μιας ζώνης.
+     * @param zones Οι ζώνες (χωρίς τα μέλη τους).
+     * @return Ένα στιγμιότυπο με τις ζώνες, με έκδοση 1.
+     */
+    public static <T> ZoneSnapshot<T> of(Function<T, Long> idOf, Collection<? extends T> zones) {
+        return ZoneSnapshot.<T>empty(idOf).withAll(zones, zone -> null);
+    }
+
+    /**
+     * @param occupancyOf Τα μέλη κάθε ζώνης (null για μια ζώνη χωρίς μέλη).
+     * @return Ένα νέο στιγμιότυπο που περιέχει μόνο τις δοσμένες ζώνες.
+     */
+    public ZoneSnapshot<T> withAll(Collection<? extends T> newZones, Function<? super T, ZoneOccupancy> occupancyOf) {
+        Map<Long, ZoneOccupancy> updatedOccupancies = new HashMap<>();
+        for (T zone : newZones) {
+            ZoneOccupancy occupancy = occupancyOf.apply(zone);
+            if (occupancy != null) {
+                updatedOccupancies.put(idOf.apply(zone), occupancy);
+            }
+        }
+        return new ZoneSnapshot<>(version + 1, new ArrayList<>(newZones), updatedOccupancies, idOf);
+    }
+
+    /**
+     * @param occupancy Τα μέλη της νέας έκδοσης της ζώνης (null για μια ζώνη χωρίς μέλη).
+     * @return Ένα νέο στιγμιότυπο με τη ζώνη και τα μέλη της προστεθειμένα, ή στη θέση της παλιάς έκδοσης
+     *         της ζώνης αν υπάρχει ήδη.
+     */
+    public ZoneSnapshot<T> with(T zone, ZoneOccupancy occupancy) {
+        Long id = idOf.apply(zone);
+        List<T> updated = new ArrayList<>(zones.size() + 1);
+        boolean replaced = false;
+        for (T existing : zones) {
+            if (idOf.apply(existing).equals(id)) {
+                updated.add(zone);
+                replaced = true;
+            } else {
+                updated.add(existing);
+            }
+        }
+        if (!replaced) {
+            updated.add(zone);
+        }
+        Map<Long, ZoneOccupancy> updatedOccupancies = new HashMap<>(occupancies);
+        if (occupancy != null) {
+            updatedOccupancies.put(id, occupancy);
+        } else {
+            updatedOccupancies.remove(id);
+        }
+        return new ZoneSnapshot<>(version + 1, updated, updatedOccupancies, idOf);
+    }
+
+    /**
+     * @return Ένα νέο στιγμιότυπο χωρίς τη ζώνη και τα μέλη της, ή το ίδιο στιγμιότυπο αν η ζώνη δεν υπάρχει.
+     */
+    public ZoneSnapshot<T> without(Long zoneId) {
+        if (!zonesById.containsKey(zoneId)) {
+            return this;
+        }
+        List<T> updated = new ArrayList<>(zones.size());
+        for (T existing : zones) {
+            if (!idOf.apply(existing).equals(zoneId)) {
+                updated.add(existing);
+            }
+        }
+        Map<Long, ZoneOccupancy> updatedOccupancies = new HashMap<>(occupancies);
+        updatedOccupancies.remove(zoneId);
+        return new ZoneSnapshot<>(version + 1, updated, updatedOccupancies, idOf);
+    }
+
+    /**
+     * @return Η έκδοση του στιγμιότυπου· αυξάνεται σε κάθε αλλαγή των ζωνών.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Οι ζώνες, με τη σειρά που προστέθηκαν (η λίστα δεν τροποποιείται).
+     */
+    public List<T> getZones() {
+        return zones;
+    }
+
+    /**
+     * @return Η ζώνη με το δοσμένο ID, ή null αν δεν υπάρχει.
+     */
+    public T get(Long zoneId) {
+        return zonesById.get(zoneId);
+    }
+
+    /**
+     * @return Τα μέλη της ζώνης με το δοσμένο ID, υπολογισμένα για την έκδοση της ζώνης αυτού του στιγμιότυπου,
+     *         ή null αν η ζώνη δεν υπάρχει ή δεν έχει μέλη.
+     */
+    public ZoneOccupancy getOccupancy(Long zoneId) {
+        return occupancies.get(zoneId);
+    }
+
+    /**
+     * @return Τα μέλη όλων των ζωνών (η συλλογή δεν τροποποιείται).
+     */
+    public Collection<ZoneOccupancy> getOccupancies() {
+        return occupancies.values();
+    }
+
+    public int size() {
+        return zones.size();
+    }
+
+    public boolean isEmpty() {
+        return zones.isEmpty();
+    }
+}
@@ -0,0 +1,313 @@
+package com.MarineTrafficClone.SeaWatch;
+
+import com.MarineTrafficClone.SeaWatch.configuration.WebSocketConfig;
+import com.MarineTrafficClone.SeaWatch.dto.NotificationDTO;
+import com.MarineTrafficClone.SeaWatch.dto.RealTimeShipUpdateDTO;
+import com.MarineTrafficClone.SeaWatch.enumeration.RoleType;
+import com.MarineTrafficClone.SeaWatch.model.UserEntity;
+import com.MarineTrafficClone.SeaWatch.repository.UserEntityRepository;
+import com.MarineTrafficClone.SeaWatch.security.JwtService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.broker.TransportConnector;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.config.AbstractMessageBrokerConfiguration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.*;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.DefaultSimpUserRegistry;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import javax.net.ssl.SSLContext;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests για τη λειτουργία {@code websocket.broker.mode=relay}.
+ * Ένας embedded ActiveMQ broker με STOMP connector παίζει τον ρόλο του εξωτερικού broker.
+ * Ένας δεύτερος STOMP client συνδέεται απευθείας στον broker και προσομοιώνει έναν άλλο κόμβο της εφαρμογής.
+ */
+@TestPropertySource(properties = {
+        "jwt.secret-key=dGVzdHNlY3JldHRlc3RzZWNyZXR0ZXN0c2VjcmV0dGVzdHNlY3JldHRlc3RzZWNyZXR0ZXN0c2VjcmV0",
+        "websocket.broker.mode=relay"
+})
+class BrokerRelayIntegrationTest extends AbstractTest {
+
+    private static BrokerService broker;
+    private static int stompPort;
+
+    @LocalServerPort
+    private Integer port;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private UserEntityRepository userRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private WebSocketStompClient stompClient;
+    private ThreadPoolTaskScheduler receiptScheduler;
+    private UserEntity testUser;
+
+    // Ο broker ξεκινά πριν από το Spring context, ώστε το relay να βρει τον STOMP connector κατά την εκκίνηση.
+    private static synchronized void startBroker() throws Exception {
+        if (broker != null) {
+            return;
+        }
+        broker = new BrokerService();
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.setBrokerName("relay-test-broker");
+        TransportConnector connector = broker.addConnector("stomp://localhost:0");
+        broker.start();
+        broker.waitUntilStarted();
+        stompPort = connector.getConnectUri().getPort();
+    }
+
+    @AfterAll
+    static void stopBroker() throws Exception {
+        if (broker != null) {
+            broker.stop();
+            broker.waitUntilStopped();
+        }
+    }
+
+    @DynamicPropertySource
+    static void relayProperties(DynamicPropertyRegistry registry) throws Exception {
+        startBroker();
+        registry.add("websocket.broker.relay.host", () -> "localhost");
+        registry.add("websocket.broker.relay.port", () -> stompPort);
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        // Ο client εμπιστεύεται το self-signed certificate του server, όπως στο WebSocketIntegrationTest.
+        SSLContext sslContext = SSLContexts.custom().loadTrustMaterial(null, (chain, authType) -> true).build();
+        StandardWebSocketClient webSocketClient = new StandardWebSocketClient();
+        webSocketClient.setUserProperties(Map.of("javax.websocket.ssl.SSLContext", sslContext));
+        stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(webSocketClient))));
+        stompClient.setMessageConverter(jsonConverter());
+        // Απαιτείται για την παρακολούθηση των RECEIPT frames.
+        receiptScheduler = new ThreadPoolTaskScheduler();
+        receiptScheduler.initialize();
+        stompClient.setTaskScheduler(receiptScheduler);
+    }
+
+    @AfterEach
+    void cleanup() {
+        receiptScheduler.shutdown();
+        if (testUser != null && testUser.getEmail() != null) {
+            userRepository.findByEmail(testUser.getEmail()).ifPresent(userRepository::delete);
+        }
+    }
+
+    @Test
+    void publicTopic_shouldDeliverMessagesPublishedByAnyNodeThroughTheBroker() throws Exception {
+        CompletableFuture<Void> subscribed = new CompletableFuture<>();
+        CompletableFuture<RealTimeShipUpdateDTO> fromThisNode = new CompletableFuture<>();
+        CompletableFuture<RealTimeShipUpdateDTO> fromOtherNode = new CompletableFuture<>();
+
+        StompSession session = stompClient.connectAsync("wss://localhost:" + port + "/ws-ais", new StompSessionHandlerAdapter() {
+            @Override
+            public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+                StompHeaders headers = new StompHeaders();
+                headers.setDestination("/topic/ais-updates");
+                headers.setReceipt("subscribed");
+                session.subscribe(headers, new TypedHandler<>(RealTimeShipUpdateDTO.class, update -> {
+                    if ("111".equals(update.getMmsi())) {
+                        fromThisNode.complete(update);
+                    } else if ("222".equals(update.getMmsi())) {
+                        fromOtherNode.complete(update);
+                    }
+                })).addReceiptTask(() -> subscribed.complete(null));
+            }
+        }).get(15, TimeUnit.SECONDS);
+        subscribed.get(15, TimeUnit.SECONDS);
+
+        // Μήνυμα από αυτόν τον κόμβο, μέσω του system connection του relay.
+        messagingTemplate.convertAndSend("/topic/ais-updates", RealTimeShipUpdateDTO.builder().mmsi("111").build());
+
+        // Μήνυμα από "άλλον κόμβο", που δημοσιεύει απευθείας στον broker.
+        StompSession otherNode = connectDirectlyToBroker();
+        otherNode.send("/topic/ais-updates", RealTimeShipUpdateDTO.builder().mmsi("222").build());
+
+        assertThat(fromThisNode.get(15, TimeUnit.SECONDS).getMmsi()).isEqualTo("111");
+        assertThat(fromOtherNode.get(15, TimeUnit.SECONDS).getMmsi()).isEqualTo("222");
+
+        otherNode.disconnect();
+        session.disconnect();
+    }
+
+    @Test
+    void userQueue_shouldBeResolvedToTheSessionThroughTheBroker() throws Exception {
+        testUser = UserEntity.builder()
+                .email("relay-user@test.com")
+                .password(passwordEncoder.encode("password"))
+                .role(RoleType.REGISTERED)
+                .build();
+        userRepository.save(testUser);
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + jwtService.generateToken(testUser));
+        CompletableFuture<NotificationDTO> received = new CompletableFuture<>();
+
+        StompSession session = stompClient.connectAsync("wss://localhost:" + port + "/ws-ais", new WebSocketHttpHeaders(),
+                connectHeaders, new StompSessionHandlerAdapter() {
+                    @Override
+                    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+                        session.subscribe("/user/queue/notifications", new TypedHandler<>(NotificationDTO.class, received::complete));
+                    }
+                }).get(15, TimeUnit.SECONDS);
+
+        // Ο χρήστης καταχωρείται στο μητρώο με το CONNECT. Το μήνυμα μένει στην ουρά του session στον broker
+        // μέχρι να φτάσει και το SUBSCRIBE, οπότε δεν χρειάζεται αναμονή.
+        messagingTemplate.convertAndSendToUser(testUser.getUsername(), "/queue/notifications",
+                NotificationDTO.builder().message("Relay Violation").timestamp(Instant.now()).mmsi("98765").build());
+
+        NotificationDTO notification = received.get(15, TimeUnit.SECONDS);
+        assertThat(notification.getMessage()).isEqualTo("Relay Violation");
+        assertThat(notification.getMmsi()).isEqualTo("98765");
+
+        session.disconnect();
+    }
+
+    @Test
+    void userQueue_sentFromAnotherNode_shouldReachTheSessionOnThisNode() throws Exception {
+        testUser = UserEntity.builder()
+                .email("relay-remote-user@test.com")
+                .password(passwordEncoder.encode("password"))
+                .role(RoleType.REGISTERED)
+                .build();
+        userRepository.save(testUser);
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + jwtService.generateToken(testUser));
+        CompletableFuture<Void> subscribed = new CompletableFuture<>();
+        CompletableFuture<NotificationDTO> received = new CompletableFuture<>();
+
+        StompSession session = stompClient.connectAsync("wss://localhost:" + port + "/ws-ais", new WebSocketHttpHeaders(),
+                connectHeaders, new StompSessionHandlerAdapter() {
+                    @Override
+                    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+                        StompHeaders headers = new StompHeaders();
+                        headers.setDestination("/user/queue/notifications");
+                        headers.setReceipt("subscribed");
+                        session.subscribe(headers, new TypedHandler<>(NotificationDTO.class, received::complete))
+                                .addReceiptTask(() -> subscribed.complete(null));
+                    }
+                }).get(15, TimeUnit.SECONDS);
+        subscribed.get(15, TimeUnit.SECONDS);
+
+        // Ο χρήστης είναι συνδεδεμένος μόνο σε αυτόν τον κόμβο. Ο δεύτερος κόμβος δεν έχει τοπικό session,
+        // οπότε το μήνυμα φτάνει εδώ μέσω του μητρώου χρηστών ή του broadcast των μη επιλυμένων προορισμών.
+        try (AnnotationConfigApplicationContext otherNode = new AnnotationConfigApplicationContext(OtherNodeConfig.class)) {
+            StompBrokerRelayMessageHandler relay = otherNode.getBean(StompBrokerRelayMessageHandler.class);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+            while (!relay.isBrokerAvailable() && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertThat(relay.isBrokerAvailable()).isTrue();
+
+            otherNode.getBean("brokerMessagingTemplate", SimpMessagingTemplate.class)
+                    .convertAndSendToUser(testUser.getUsername(), "/queue/notifications",
+                            NotificationDTO.builder().message("Remote Violation").timestamp(Instant.now()).mmsi("13579").build());
+
+            NotificationDTO notification = received.get(15, TimeUnit.SECONDS);
+            assertThat(notification.getMessage()).isEqualTo("Remote Violation");
+            assertThat(notification.getMmsi()).isEqualTo("13579");
+        }
+
+        session.disconnect();
+    }
+
+    private StompSession connectDirectlyToBroker() throws Exception {
+        ReactorNettyTcpStompClient brokerClient = new ReactorNettyTcpStompClient("localhost", stompPort);
+        brokerClient.setMessageConverter(jsonConverter());
+        return brokerClient.connectAsync(new StompSessionHandlerAdapter() {
+        }).get(15, TimeUnit.SECONDS);
+    }
+
+    private static MappingJackson2MessageConverter jsonConverter() {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        converter.setObjectMapper(objectMapper);
+        return converter;
+    }
+
+    /**
+     * Η διαμόρφωση messaging ενός δεύτερου κόμβου της εφαρμογής χωρίς WebSocket endpoints:
+     * relay προς τον ίδιο broker με τα ίδια broadcast topics, αλλά χωρίς κανένα τοπικό session.
+     */
+    @Configuration
+    static class OtherNodeConfig extends AbstractMessageBrokerConfiguration {
+
+        @Override
+        protected void configureMessageBroker(MessageBrokerRegistry registry) {
+            registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost("localhost")
+                    .setRelayPort(stompPort)
+                    .setUserRegistryBroadcast(WebSocketConfig.USER_REGISTRY_BROADCAST)
+                    .setUserDestinationBroadcast(WebSocketConfig.USER_DESTINATION_BROADCAST);
+            registry.setUserDestinationPrefix("/user");
+        }
+
+        @Override
+        protected boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+            messageConverters.add(jsonConverter());
+            return false;
+        }
+
+        @Override
+        protected SimpUserRegistry createLocalUserRegistry(Integer order) {
+            return new DefaultSimpUserRegistry();
+        }
+    }
+
+    /**
+     * Απλός StompFrameHandler για έναν συγκεκριμένο τύπο payload.
+     */
+    private record TypedHandler<T>(Class<T> type, Consumer<T> consumer) implements StompFrameHandler {
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return type;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void handleFrame(StompHeaders headers, Object payload) {
+            consumer.accept((T) payload);
+        }
+    }
+}
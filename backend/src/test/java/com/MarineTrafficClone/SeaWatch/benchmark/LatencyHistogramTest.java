@@ -0,0 +1,51 @@
+package com.MarineTrafficClone.SeaWatch.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests για το LatencyHistogram: τα εκατοστημόρια έχουν σχετικό σφάλμα έως 1/64 σε κάθε κλίμακα.
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void percentile_shouldBeWithinTheBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100_000; millis++) {
+            histogram.record(millis);
+        }
+
+        assertThat(histogram.count()).isEqualTo(100_000);
+        assertThat(histogram.max()).isEqualTo(100_000);
+        assertThat(histogram.percentile(50)).isBetween(50_000L, 50_000L + 50_000 / 64);
+        assertThat(histogram.percentile(99)).isBetween(99_000L, 99_000L + 99_000 / 64);
+        assertThat(histogram.percentile(100)).isEqualTo(100_000);
+    }
+
+    @Test
+    void percentile_forSmallValues_shouldBeExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(-5); // μετρά ως 0
+
+        assertThat(histogram.percentile(0)).isEqualTo(0);
+        assertThat(histogram.percentile(50)).isEqualTo(3);
+        assertThat(histogram.percentile(100)).isEqualTo(7);
+    }
+
+    @Test
+    void bucketBounds_shouldCoverEveryValueWithoutGaps() {
+        for (long value : new long[]{0, 127, 128, 129, 1_000, 65_535, 123_456_789L, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            long lower = index == 0 ? 0 : LatencyHistogram.upperBoundOf(index - 1) + 1;
+            assertThat(value).isBetween(lower, LatencyHistogram.upperBoundOf(index));
+        }
+    }
+
+    @Test
+    void percentile_withoutValues_shouldBeZero() {
+        assertThat(new LatencyHistogram().percentile(99)).isZero();
+    }
+}
@@ -0,0 +1,82 @@
+package com.MarineTrafficClone.SeaWatch.collision;
+
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark: ένα πλοίο απέναντι σε N υποψηφίους, με τον αρχικό αλγόριθμο ανά ζευγάρι
+ * και με τους δύο {@link CpaKernel} (μαζί με το γέμισμα του {@link CpaBatch}, όπως στον consumer).
+ *
+ * Εκτέλεση (από τον φάκελο backend):
+ * <pre>
+ * mvn test-compile
+ * java --add-modules jdk.incubator.vector -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     com.MarineTrafficClone.SeaWatch.collision.CpaKernelBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class CpaKernelBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int candidates;
+
+    private AisData ownShip;
+    private AisData[] ships;
+    private final CpaBatch batch = new CpaBatch();
+    private final CpaKernel scalarKernel = new ScalarCpaKernel();
+    private CpaKernel vectorKernel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ships = CpaKernelEquivalenceTest.randomShips(42, candidates);
+        ownShip = ships[0];
+        vectorKernel = CpaKernels.isVectorApiAvailable() ? new VectorCpaKernel() : scalarKernel;
+    }
+
+    @Benchmark
+    public void perPairReference(Blackhole blackhole) {
+        for (AisData other : ships) {
+            blackhole.consume(ReferenceCpa.predictCollision(ownShip, other));
+        }
+    }
+
+    @Benchmark
+    public boolean scalarKernel() {
+        CpaKernelEquivalenceTest.fill(batch, ownShip, ships, candidates);
+        scalarKernel.evaluate(batch);
+        return batch.isDanger(candidates - 1);
+    }
+
+    @Benchmark
+    public boolean vectorKernel() {
+        CpaKernelEquivalenceTest.fill(batch, ownShip, ships, candidates);
+        vectorKernel.evaluate(batch);
+        return batch.isDanger(candidates - 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CpaKernelBenchmark.class.getSimpleName()).build()).run();
+    }
+}
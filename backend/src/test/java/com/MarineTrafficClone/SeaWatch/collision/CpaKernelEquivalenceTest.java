@@ -0,0 +1,115 @@
+package com.MarineTrafficClone.SeaWatch.collision;
+
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Ελέγχει ότι οι {@link CpaKernel} δίνουν ακριβώς τα ίδια αποτελέσματα με τον αρχικό
+ * αλγόριθμο πρόβλεψης σύγκρουσης ανά ζευγάρι πλοίων.
+ */
+class CpaKernelEquivalenceTest {
+
+    private static final int SHIPS = 2_000;
+
+    /**
+     * Πλοία συγκεντρωμένα σε μια περιοχή ~5x5 km γύρω από τον Πειραιά, ώστε αρκετά ζευγάρια να είναι επικίνδυνα.
+     * Μερικά πλοία έχουν ακριβώς την ίδια κίνηση με το πλοίο αναφοράς (μηδενική σχετική ταχύτητα).
+     */
+    static AisData[] randomShips(long seed, int count) {
+        Random random = new Random(seed);
+        AisData[] ships = new AisData[count];
+        for (int i = 0; i < count; i++) {
+            ships[i] = ship(23.60 + random.nextDouble() * 0.05,
+                    37.92 + random.nextDouble() * 0.05,
+                    random.nextInt(10) == 0 ? 0.0 : random.nextDouble() * 30,
+                    random.nextDouble() * 360);
+        }
+        ships[1] = ship(ships[0].getLongitude(), ships[0].getLatitude(), ships[0].getSpeedOverGround(), ships[0].getCourseOverGround());
+        ships[2] = ship(ships[0].getLongitude() + 0.001, ships[0].getLatitude(), ships[0].getSpeedOverGround(), ships[0].getCourseOverGround());
+        return ships;
+    }
+
+    private static AisData ship(double longitude, double latitude, double speedOverGround, double courseOverGround) {
+        return AisData.builder()
+                .longitude(longitude)
+                .latitude(latitude)
+                .speedOverGround(speedOverGround)
+                .courseOverGround(courseOverGround)
+                .build();
+    }
+
+    static void fill(CpaBatch batch, AisData own, AisData[] candidates, int count) {
+        batch.reset(own.getLongitude(), own.getLatitude(), own.getSpeedOverGround(), own.getCourseOverGround());
+        for (int b = 0; b < count; b++) {
+            AisData other = candidates[b];
+            batch.add(b, other.getLongitude(), other.getLatitude(), other.getSpeedOverGround(), other.getCourseOverGround());
+        }
+    }
+
+    private static void assertEquivalent(CpaKernel kernel) {
+        CpaBatch batch = new CpaBatch();
+        int dangerous = 0;
+        for (long seed = 1; seed <= 5; seed++) {
+            AisData[] ships = randomShips(seed, SHIPS);
+            for (int a = 0; a < 50; a++) {
+                // Διαφορετικά μεγέθη batch ώστε να ελέγχεται και η ουρά που δεν γεμίζει ένα vector.
+                int count = SHIPS - a * 7;
+                fill(batch, ships[a], ships, count);
+
+                kernel.evaluate(batch);
+
+                for (int b = 0; b < count; b++) {
+                    boolean expected = ReferenceCpa.predictCollision(ships[a], ships[b]);
+                    assertThat(batch.isDanger(b))
+                            .as("seed %d, ship %d against ship %d", seed, a, b)
+                            .isEqualTo(expected);
+                    if (expected) {
+                        dangerous++;
+                    }
+                }
+            }
+        }
+        // Το σύνολο δεδομένων πρέπει να περιέχει και επικίνδυνα ζευγάρια, αλλιώς ο έλεγχος δεν λέει τίποτα.
+        assertThat(dangerous).isGreaterThan(100);
+    }
+
+    @Test
+    void scalarKernel_shouldMatchReferenceImplementation() {
+        assertEquivalent(new ScalarCpaKernel());
+    }
+
+    @Test
+    void vectorKernel_shouldMatchReferenceImplementation() {
+        assumeTrue(CpaKernels.isVectorApiAvailable(), "Vector API not available in this JVM");
+
+        assertEquivalent(new VectorCpaKernel());
+    }
+
+    @Test
+    void headOnShips_shouldBeDangerousAndParallelShips_shouldNot() {
+        CpaBatch batch = new CpaBatch();
+        // Πλοίο αναφοράς με πορεία ανατολικά, 10 κόμβοι.
+        batch.reset(23.60, 37.95, 10, 90);
+        // 1 ναυτικό μίλι ανατολικά, πορεία δυτικά: μετωπική πορεία.
+        int headOn = batch.add(1, 23.621, 37.95, 10, 270);
+        // 1 ναυτικό μίλι βόρεια, ίδια πορεία και ταχύτητα: δεν πλησιάζουν ποτέ.
+        int parallel = batch.add(2, 23.60, 37.9667, 10, 90);
+
+        CpaKernels.select("auto").evaluate(batch);
+
+        assertThat(batch.isDanger(headOn)).isTrue();
+        assertThat(batch.isDanger(parallel)).isFalse();
+    }
+
+    @Test
+    void select_shouldRejectUnknownKernel() {
+        assertThatThrownBy(() -> CpaKernels.select("gpu"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
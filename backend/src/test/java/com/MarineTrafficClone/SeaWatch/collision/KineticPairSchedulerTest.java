@@ -0,0 +1,162 @@
+package com.MarineTrafficClone.SeaWatch.collision;
+
+import com.MarineTrafficClone.SeaWatch.store.VesselState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests για τον KineticPairScheduler.
+ */
+class KineticPairSchedulerTest {
+
+    private static final long T0 = 1_700_000_000L;
+    /** Μοίρες γεωγραφικού μήκους ανά μέτρο στο πλάτος 37.95. */
+    private static final double LONGITUDE_PER_METER = 1 / (CpaKernel.METERS_PER_DEGREE * Math.cos(Math.toRadians(37.95)));
+
+    private KineticPairScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new KineticPairScheduler(5, 1, 50, 30, 600);
+    }
+
+    private static VesselState state(int slot, double longitude, double latitude, double speed, double course, long timestamp) {
+        VesselState state = new VesselState();
+        state.setSlot(slot);
+        state.setMmsi(String.valueOf(237_000_000 + slot));
+        state.setLongitude(longitude);
+        state.setLatitude(latitude);
+        state.setSpeedOverGround(speed);
+        state.setCourseOverGround(course);
+        state.setTimestampEpoch(timestamp);
+        return state;
+    }
+
+    /** Η θέση ενός πλοίου που πλέει ανατολικά με 10 κόμβους, μετά από {@code seconds} δευτερόλεπτα. */
+    private static double eastbound(double startLongitude, long seconds) {
+        return startLongitude + 10 * CpaKernel.KNOTS_TO_METERS_PER_SECOND * seconds * LONGITUDE_PER_METER;
+    }
+
+    @Test
+    void parallelShips_shouldBeDeferredWhileTheyKeepTheirCourse() {
+        // Δύο πλοία σε παράλληλη πορεία, 3 km το ένα από το άλλο.
+        VesselState own = state(0, 23.60, 37.95, 10, 90, T0);
+        VesselState other = state(1, 23.60, 37.977, 10, 90, T0);
+        scheduler.record(own, other, false);
+
+        VesselState ownLater = state(0, eastbound(23.60, 10), 37.95, 10, 90, T0 + 10);
+        VesselState otherLater = state(1, eastbound(23.60, 8), 37.977, 10, 90, T0 + 8);
+
+        assertThat(scheduler.isDue(ownLater, otherLater)).isFalse();
+        assertThat(scheduler.isDue(otherLater, ownLater)).isFalse();
+        assertThat(scheduler.getDeferredPairs()).isEqualTo(2);
+        assertThat(scheduler.size()).isEqualTo(1);
+    }
+
+    @Test
+    void pair_shouldBeDueWhenAShipTurnsOrChangesSpeed() {
+        VesselState own = state(0, 23.60, 37.95, 10, 90, T0);
+        VesselState other = state(1, 23.60, 37.977, 10, 90, T0);
+        scheduler.record(own, other, false);
+
+        VesselState turned = state(1, eastbound(23.60, 10), 37.977, 10, 180, T0 + 10);
+        VesselState faster = state(1, eastbound(23.60, 10), 37.977, 12, 90, T0 + 10);
+        VesselState ownLater = state(0, eastbound(23.60, 10), 37.95, 10, 90, T0 + 10);
+
+        assertThat(scheduler.isDue(ownLater, turned)).isTrue();
+        assertThat(scheduler.isDue(ownLater, faster)).isTrue();
+    }
+
+    @Test
+    void pair_shouldBeDueWhenAShipIsNotWhereItsCourseWouldTakeIt() {
+        VesselState own = state(0, 23.60, 37.95, 10, 90, T0);
+        VesselState other = state(1, 23.60, 37.977, 10, 90, T0);
+        scheduler.record(own, other, false);
+
+        // Ίδια πορεία και ταχύτητα, αλλά 300 μέτρα νοτιότερα από την πρόβλεψη.
+        VesselState jumped = state(1, eastbound(23.60, 10), 37.977 - 300 / CpaKernel.METERS_PER_DEGREE, 10, 90, T0 + 10);
+        VesselState ownLater = state(0, eastbound(23.60, 10), 37.95, 10, 90, T0 + 10);
+
+        assertThat(scheduler.isDue(ownLater, jumped)).isTrue();
+    }
+
+    @Test
+    void dangerousOrUntimedPairs_shouldNeverBeDeferred() {
+        VesselState own = state(0, 23.60, 37.95, 10, 90, T0);
+        VesselState other = state(1, 23.60, 37.977, 10, 90, T0);
+
+        scheduler.record(own, other, true);
+        assertThat(scheduler.isDue(own, other)).isTrue();
+
+        VesselState untimed = state(1, 23.60, 37.977, 10, 90, VesselState.NO_TIMESTAMP);
+        scheduler.record(own, untimed, false);
+        assertThat(scheduler.isDue(own, untimed)).isTrue();
+        assertThat(scheduler.size()).isZero();
+    }
+
+    @Test
+    void closePair_shouldNotBeDeferred() {
+        // 400 μέτρα: ήδη μέσα στην επικίνδυνη απόσταση συν τα περιθώρια.
+        VesselState own = state(0, 23.60, 37.95, 10, 90, T0);
+        VesselState other = state(1, 23.60, 37.95 + 400 / CpaKernel.METERS_PER_DEGREE, 10, 270, T0);
+
+        scheduler.record(own, other, false);
+
+        assertThat(scheduler.size()).isZero();
+        assertThat(scheduler.isDue(own, other)).isTrue();
+    }
+
+    @Test
+    void manyPairs_shouldKeepTheirOwnDeferralAfterOthersAreRemoved() {
+        // Αρκετά ζευγάρια ώστε να μεγαλώσει το ευρετήριο, και μετά αφαίρεση των μισών.
+        VesselState own = state(0, 23.60, 37.95, 10, 90, T0);
+        VesselState[] others = new VesselState[300];
+        for (int i = 0; i < others.length; i++) {
+            others[i] = state(i + 1, 23.60, 37.977 + i * 0.001, 10, 90, T0);
+            scheduler.record(own, others[i], false);
+        }
+        for (int i = 0; i < others.length; i += 2) {
+            scheduler.record(own, others[i], true);
+        }
+
+        assertThat(scheduler.size()).isEqualTo(150);
+        for (int i = 0; i < others.length; i++) {
+            assertThat(scheduler.isDue(own, others[i])).isEqualTo(i % 2 == 0);
+        }
+    }
+
+    @Test
+    void expire_shouldDropPairsWhoseDeferralEnded() {
+        // Μετωπική πορεία από 15 km: το ζευγάρι αναβάλλεται για λιγότερο από τον μέγιστο χρόνο.
+        VesselState own = state(0, 23.60, 37.95, 10, 90, T0);
+        VesselState other = state(1, 23.60 + 15_000 * LONGITUDE_PER_METER, 37.95, 10, 270, T0);
+        // Δύο πλοία που απομακρύνονται: αναβάλλονται για τον μέγιστο χρόνο.
+        VesselState away = state(2, 23.60 - 3_000 * LONGITUDE_PER_METER, 37.95, 10, 270, T0);
+        scheduler.record(own, other, false);
+        scheduler.record(own, away, false);
+        assertThat(scheduler.size()).isEqualTo(2);
+
+        scheduler.expire(T0 + 599);
+        assertThat(scheduler.size()).isEqualTo(1);
+
+        scheduler.expire(T0 + 600);
+        assertThat(scheduler.size()).isZero();
+        assertThat(scheduler.isDue(own, away)).isTrue();
+    }
+
+    @Test
+    void firstApproach_shouldFollowTheRelativeMotion() {
+        // Μετωπική προσέγγιση από 10 km με 10 m/s: κάτω από 500 μέτρα μετά από 950 δευτερόλεπτα.
+        assertThat(KineticPairScheduler.firstApproach(10_000, 0, -10, 0, 500, 0)).isCloseTo(950, within(1e-9));
+        // Με απόκλιση 2 m/s η προσέγγιση μπορεί να γίνει νωρίτερα: 10000 - 10x = 500 + 2x.
+        assertThat(KineticPairScheduler.firstApproach(10_000, 0, -10, 0, 500, 2)).isCloseTo(9_500.0 / 12, within(1e-9));
+        // Πλοία που απομακρύνονται δεν πλησιάζουν ποτέ, εκτός αν η απόκλιση ξεπερνά τη σχετική ταχύτητα.
+        assertThat(KineticPairScheduler.firstApproach(10_000, 0, 10, 0, 500, 2)).isInfinite();
+        assertThat(KineticPairScheduler.firstApproach(10_000, 0, 1, 0, 500, 2)).isCloseTo(9_500, within(1e-9));
+        // Ήδη κοντά.
+        assertThat(KineticPairScheduler.firstApproach(300, 0, 10, 0, 500, 0)).isZero();
+    }
+}
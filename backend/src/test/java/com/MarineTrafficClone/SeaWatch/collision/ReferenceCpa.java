@@ -0,0 +1,63 @@
+package com.MarineTrafficClone.SeaWatch.collision;
+
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+
+/**
+ * Πιστό αντίγραφο του αρχικού αλγορίθμου πρόβλεψης σύγκρουσης ανά ζευγάρι πλοίων
+ * ({@code KafkaConsumerService.predictCollision}), πριν αντικατασταθεί από τους {@link CpaKernel}.
+ * Χρησιμοποιείται ως σημείο αναφοράς στα tests και στο benchmark.
+ */
+final class ReferenceCpa {
+
+    private ReferenceCpa() {
+    }
+
+    /**
+     * Απλός αλγόριθμος πρόβλεψης σύγκρουσης βασισμένος στον υπολογισμό του
+     * Closest Point of Approach (CPA).
+     */
+    static boolean predictCollision(AisData shipA, AisData shipB) {
+        // Ορίζουμε τα όρια μας: κίνδυνος αν θα πλησιάσουν κάτω από 500 μέτρα στα επόμενα 10 λεπτά (600 δευτ.)
+        final double DANGER_DISTANCE_METERS = 500.0; // Επικίνδυνη απόσταση < 500μ.
+        final double TIME_HORIZON_SECONDS = 600.0;   // Χρονικός ορίζοντας πρόβλεψης: 10 λεπτά.
+
+        // Μετατροπή ταχύτητας από κόμβους σε μέτρα/δευτερόλεπτο
+        double vA = shipA.getSpeedOverGround() * 0.514444; // κόμβοι σε m/s
+        double vB = shipB.getSpeedOverGround() * 0.514444; // κόμβοι σε m/s
+
+        // Μετατροπή πορείας από μοίρες σε radians
+        double courseA_rad = Math.toRadians(shipA.getCourseOverGround());
+        double courseB_rad = Math.toRadians(shipB.getCourseOverGround());
+
+        // Υπολογισμός συνιστωσών ταχύτητας (vx, vy) για κάθε πλοίο
+        double vAx = vA * Math.sin(courseA_rad);
+        double vAy = vA * Math.cos(courseA_rad);
+        double vBx = vB * Math.sin(courseB_rad);
+        double vBy = vB * Math.cos(courseB_rad);
+
+        // Απλοποιημένη μετατροπή συντεταγμένων σε μέτρα. Για μεγαλύτερη ακρίβεια, χρειάζεται προβολή (π.χ. Mercator).
+        double distanceX = (shipB.getLongitude() - shipA.getLongitude()) * 111111 * Math.cos(Math.toRadians(shipA.getLatitude()));
+        double distanceY = (shipB.getLatitude() - shipA.getLatitude()) * 111111;
+
+        // Σχετική ταχύτητα
+        double rVx = vBx - vAx;
+        double rVy = vBy - vAy;
+
+        // Υπολογισμός του χρόνου και της απόστασης στο Closest Point of Approach (CPA)
+        double dotProduct_v_d = (rVx * distanceX) + (rVy * distanceY);
+        double dotProduct_v_v = (rVx * rVx) + (rVy * rVy);
+
+        if (dotProduct_v_v == 0) return false; // Δεν έχουν σχετική ταχύτητα, δεν θα συγκρουστούν ποτέ.
+
+        double t_cpa = -dotProduct_v_d / dotProduct_v_v;
+
+        // Ελέγχουμε μόνο για μελλοντικές συγκρούσεις εντός του χρονικού μας ορίζοντα.
+        if (t_cpa > 0 && t_cpa < TIME_HORIZON_SECONDS) {
+            // Υπολογίζουμε την απόσταση στο σημείο CPA
+            double d_cpa_squared = Math.pow(distanceX + rVx * t_cpa, 2) + Math.pow(distanceY + rVy * t_cpa, 2);
+            return Math.sqrt(d_cpa_squared) < DANGER_DISTANCE_METERS; // ΚΙΝΔΥΝΟΣ!
+        }
+
+        return false;
+    }
+}
@@ -1,5 +1,8 @@
 package com.MarineTrafficClone.SeaWatch.controller;
 
+import com.MarineTrafficClone.SeaWatch.dto.BenchmarkReportDTO;
+import com.MarineTrafficClone.SeaWatch.dto.LatencyPercentilesDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ReplaySeekRequestDTO;
 import com.MarineTrafficClone.SeaWatch.dto.ShipDetailsDTO;
 import com.MarineTrafficClone.SeaWatch.dto.ShipTypeUpdateRequest;
 import com.MarineTrafficClone.SeaWatch.dto.SimulationSpeedUpdateRequestDTO;
@@ -7,6 +10,7 @@ import com.MarineTrafficClone.SeaWatch.enumeration.ShipType;
 import com.MarineTrafficClone.SeaWatch.security.JwtService;
 import com.MarineTrafficClone.SeaWatch.security.SecurityConfiguration;
 import com.MarineTrafficClone.SeaWatch.service.AdminService;
+import com.MarineTrafficClone.SeaWatch.service.BenchmarkService;
 import com.MarineTrafficClone.SeaWatch.service.CsvDataLoaderService;
 import com.MarineTrafficClone.SeaWatch.service.SimulationControlService;
 import com.MarineTrafficClone.SeaWatch.service.StaticShipDataLoaderService;
@@ -21,10 +25,14 @@ import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -47,6 +55,9 @@ class AdminControllerTest {
     @MockBean
     private SimulationControlService simulationControlService;
 
+    @MockBean
+    private BenchmarkService benchmarkService;
+
     // Πρέπει να κάνουμε mock τις εξαρτήσεις που χρειάζεται το SecurityConfiguration
     @MockBean
     private JwtService jwtService;
@@ -107,6 +118,21 @@ class AdminControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.speedFactor").value(expectedSpeed));
     }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void getSimulationSpeed_whenPaceWasMeasured_shouldIncludeActualSpeedAndLag() throws Exception {
+        when(simulationControlService.getSpeedFactor()).thenReturn(10.0);
+        when(simulationControlService.getActualSpeedFactor()).thenReturn(9.5);
+        when(simulationControlService.getLagMillis()).thenReturn(120L);
+
+        mockMvc.perform(get("/api/admin/simulation/speed")
+                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.speedFactor").value(10.0))
+                .andExpect(jsonPath("$.actualSpeedFactor").value(9.5))
+                .andExpect(jsonPath("$.lagMillis").value(120.0));
+    }
     
     @Test
     @WithMockUser(authorities = "ADMIN")
@@ -143,4 +169,107 @@ class AdminControllerTest {
                 .content(objectMapper.writeValueAsString(requestBody)))
                 .andExpect(status().isForbidden());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void getReplayState_shouldReturnPauseStateAndPosition() throws Exception {
+        when(simulationControlService.isPaused()).thenReturn(true);
+        when(simulationControlService.getReplayPosition()).thenReturn(1443650402L);
+
+        mockMvc.perform(get("/api/admin/simulation/replay")
+                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.paused").value(true))
+                .andExpect(jsonPath("$.positionEpoch").value(1443650402L));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void seekReplay_shouldRequestSeek() throws Exception {
+        ReplaySeekRequestDTO requestBody = new ReplaySeekRequestDTO(1443672000L);
+
+        mockMvc.perform(post("/api/admin/simulation/replay/seek")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestBody)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").exists());
+
+        verify(simulationControlService).requestSeek(1443672000L);
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void seekReplay_withoutEpoch_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/admin/simulation/replay/seek")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(simulationControlService, never()).requestSeek(anyLong());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void pauseResumeAndRestartReplay_shouldForwardToTheControlService() throws Exception {
+        mockMvc.perform(post("/api/admin/simulation/replay/pause").with(csrf())).andExpect(status().isOk());
+        mockMvc.perform(post("/api/admin/simulation/replay/resume").with(csrf())).andExpect(status().isOk());
+        mockMvc.perform(post("/api/admin/simulation/replay/restart").with(csrf())).andExpect(status().isOk());
+
+        verify(simulationControlService).pause();
+        verify(simulationControlService).resume();
+        verify(simulationControlService).requestRestart();
+    }
+
+    @Test
+    @WithMockUser(authorities = "REGISTERED")
+    void pauseReplay_whenUserIsNotAdmin_shouldReturnForbidden() throws Exception {
+        mockMvc.perform(post("/api/admin/simulation/replay/pause")
+                .with(csrf()))
+                .andExpect(status().isForbidden());
+
+        verify(simulationControlService, never()).pause();
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void startAndStopBenchmark_shouldForwardToTheBenchmarkService() throws Exception {
+        mockMvc.perform(post("/api/admin/simulation/benchmark/start").with(csrf())).andExpect(status().isOk());
+        mockMvc.perform(post("/api/admin/simulation/benchmark/stop").with(csrf())).andExpect(status().isOk());
+
+        verify(benchmarkService).start();
+        verify(benchmarkService).stop();
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void getBenchmarkReport_shouldReturnThroughputAndLatencies() throws Exception {
+        BenchmarkReportDTO report = BenchmarkReportDTO.builder()
+                .status("COMPLETED")
+                .produced(1000)
+                .consumed(1000)
+                .endToEndThroughput(250.0)
+                .publishLatency(LatencyPercentilesDTO.builder().count(1000).p50(12).p99(80).max(95).build())
+                .consumerLag(List.of())
+                .build();
+        when(benchmarkService.getReport()).thenReturn(report);
+
+        mockMvc.perform(get("/api/admin/simulation/benchmark")
+                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.endToEndThroughput").value(250.0))
+                .andExpect(jsonPath("$.publishLatency.p99").value(80));
+    }
+
+    @Test
+    @WithMockUser(authorities = "REGISTERED")
+    void startBenchmark_whenUserIsNotAdmin_shouldReturnForbidden() throws Exception {
+        mockMvc.perform(post("/api/admin/simulation/benchmark/start")
+                .with(csrf()))
+                .andExpect(status().isForbidden());
+
+        verify(benchmarkService, never()).start();
+    }
+}
@@ -1,14 +1,21 @@
 package com.MarineTrafficClone.SeaWatch.controller;
 
 import com.MarineTrafficClone.SeaWatch.dto.CollisionZoneDTO;
+import com.MarineTrafficClone.SeaWatch.dto.GeoPointDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ZoneOccupancyDTO;
 import com.MarineTrafficClone.SeaWatch.enumeration.RoleType;
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneKind;
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneShape;
+import com.MarineTrafficClone.SeaWatch.exception.InvalidZoneGeometryException;
 import com.MarineTrafficClone.SeaWatch.model.CollisionZone;
+import com.MarineTrafficClone.SeaWatch.model.GeoPoint;
 import com.MarineTrafficClone.SeaWatch.model.UserEntity;
 import com.MarineTrafficClone.SeaWatch.security.JwtService;
 import com.MarineTrafficClone.SeaWatch.security.SecurityConfiguration;
 import com.MarineTrafficClone.SeaWatch.service.CollisionZoneService;
 import com.MarineTrafficClone.SeaWatch.service.CsvDataLoaderService;
 import com.MarineTrafficClone.SeaWatch.service.StaticShipDataLoaderService;
+import com.MarineTrafficClone.SeaWatch.service.ZoneOccupancyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +28,7 @@ import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -45,6 +53,9 @@ class CollisionZoneControllerTest {
     @MockBean
     private CollisionZoneService collisionZoneService;
 
+    @MockBean
+    private ZoneOccupancyService zoneOccupancyService;
+
     // Mocks για το SecurityConfiguration
     @MockBean private JwtService jwtService;
     @MockBean private AuthenticationProvider authenticationProvider;
@@ -87,6 +98,37 @@ class CollisionZoneControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getMyZoneOccupancy_whenZoneExists_shouldReturnShips() throws Exception {
+        ZoneOccupancyDTO occupancy = ZoneOccupancyDTO.builder()
+                .zoneId(20L)
+                .zoneName("Collision Test Zone")
+                .zoneKind(ZoneKind.COLLISION)
+                .shipCount(2)
+                .mmsis(List.of("237000001", "237000002"))
+                .build();
+        when(collisionZoneService.getZoneForUser(testUser.getId())).thenReturn(Optional.of(testZone));
+        when(zoneOccupancyService.getCollisionZoneOccupancy(20L)).thenReturn(Optional.of(occupancy));
+
+        mockMvc.perform(get("/api/collision-zone/mine/occupancy")
+                        .with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.zoneId").value(20L))
+                .andExpect(jsonPath("$.zoneKind").value("COLLISION"))
+                .andExpect(jsonPath("$.shipCount").value(2))
+                .andExpect(jsonPath("$.mmsis[1]").value("237000002"));
+    }
+
+    @Test
+    void getMyZoneOccupancy_whenZoneNotExists_shouldReturnNotFound() throws Exception {
+        when(collisionZoneService.getZoneForUser(testUser.getId())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/collision-zone/mine/occupancy")
+                        .with(user(testUser)))
+                .andExpect(status().isNotFound());
+        verifyNoInteractions(zoneOccupancyService);
+    }
+
     @Test
     void createOrUpdateMyZone_shouldReturnUpdatedZone() throws Exception {
         CollisionZoneDTO requestDto = new CollisionZoneDTO();
@@ -103,6 +145,47 @@ class CollisionZoneControllerTest {
                 .andExpect(jsonPath("$.name").value("Collision Test Zone"));
     }
 
+    @Test
+    void createOrUpdateMyZone_withPolygon_shouldReturnShapeAndVertices() throws Exception {
+        CollisionZoneDTO requestDto = new CollisionZoneDTO();
+        requestDto.setName("Port Approach");
+        requestDto.setShape(ZoneShape.POLYGON);
+        requestDto.setVertices(List.of(new GeoPointDTO(37.90, 23.60), new GeoPointDTO(37.90, 23.65), new GeoPointDTO(37.95, 23.62)));
+
+        testZone.setShape(ZoneShape.POLYGON);
+        testZone.setVertices(List.of(new GeoPoint(37.90, 23.60), new GeoPoint(37.90, 23.65), new GeoPoint(37.95, 23.62)));
+        when(collisionZoneService.createOrUpdateZone(any(CollisionZoneDTO.class), any(UserEntity.class))).thenReturn(testZone);
+
+        mockMvc.perform(put("/api/collision-zone/mine")
+                        .with(user(testUser))
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shape").value("POLYGON"))
+                .andExpect(jsonPath("$.vertices.length()").value(3))
+                .andExpect(jsonPath("$.vertices[2].latitude").value(37.95));
+    }
+
+    @Test
+    void createOrUpdateMyZone_withInvalidPolygon_shouldReturnBadRequest() throws Exception {
+        CollisionZoneDTO requestDto = new CollisionZoneDTO();
+        requestDto.setName("Broken Zone");
+        requestDto.setShape(ZoneShape.POLYGON);
+        requestDto.setVertices(List.of(new GeoPointDTO(37.90, 23.60), new GeoPointDTO(37.90, 23.65)));
+
+        when(collisionZoneService.createOrUpdateZone(any(CollisionZoneDTO.class), any(UserEntity.class)))
+                .thenThrow(new InvalidZoneGeometryException("A polygon needs at least 3 distinct vertices"));
+
+        mockMvc.perform(put("/api/collision-zone/mine")
+                        .with(user(testUser))
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("A polygon needs at least 3 distinct vertices"));
+    }
+
     @Test
     void deleteMyZone_shouldReturnNoContent() throws Exception {
         doNothing().when(collisionZoneService).deleteZoneForUser(testUser.getId());
@@ -0,0 +1,65 @@
+package com.MarineTrafficClone.SeaWatch.controller;
+
+import com.MarineTrafficClone.SeaWatch.dto.ShipClusterDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ShipClusterResponseDTO;
+import com.MarineTrafficClone.SeaWatch.security.JwtService;
+import com.MarineTrafficClone.SeaWatch.security.SecurityConfiguration;
+import com.MarineTrafficClone.SeaWatch.service.CsvDataLoaderService;
+import com.MarineTrafficClone.SeaWatch.service.ShipClusterService;
+import com.MarineTrafficClone.SeaWatch.service.StaticShipDataLoaderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ShipClusterController.class)
+@Import(SecurityConfiguration.class)
+class ShipClusterControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ShipClusterService shipClusterService;
+
+    // Mocks για το SecurityConfiguration
+    @MockBean private JwtService jwtService;
+    @MockBean private AuthenticationProvider authenticationProvider;
+    @MockBean private StaticShipDataLoaderService staticShipDataLoaderService;
+    @MockBean private CsvDataLoaderService csvDataLoaderService;
+
+    @Test
+    void getClusters_shouldBePublicAndReturnClustersOfViewport() throws Exception {
+        // Arrange
+        ShipClusterResponseDTO response = ShipClusterResponseDTO.builder()
+                .zoom(4)
+                .clustered(true)
+                .clusters(List.of(new ShipClusterDTO(37.9, 23.6, 12)))
+                .ships(Collections.emptyList())
+                .build();
+        when(shipClusterService.getClusters(4, 30.0, 15.0, 45.0, 35.0)).thenReturn(response);
+
+        // Act & Assert: το /api/ship-data/** είναι δημόσιο, όπως και ο χάρτης.
+        mockMvc.perform(get("/api/ship-data/clusters")
+                        .param("zoom", "4")
+                        .param("minLat", "30").param("minLon", "15")
+                        .param("maxLat", "45").param("maxLon", "35"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.clustered", is(true)))
+                .andExpect(jsonPath("$.clusters", hasSize(1)))
+                .andExpect(jsonPath("$.clusters[0].count", is(12)));
+    }
+}
@@ -1,5 +1,7 @@
 package com.MarineTrafficClone.SeaWatch.controller;
 
+import com.MarineTrafficClone.SeaWatch.dto.SpeedHistogramBucketDTO;
+import com.MarineTrafficClone.SeaWatch.dto.StatisticsSnapshotDTO;
 import com.MarineTrafficClone.SeaWatch.security.JwtService;
 import com.MarineTrafficClone.SeaWatch.security.SecurityConfiguration;
 import com.MarineTrafficClone.SeaWatch.service.CsvDataLoaderService;
@@ -14,6 +16,9 @@ import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -46,6 +51,28 @@ class StatisticsControllerTest {
     @MockBean
     private CsvDataLoaderService csvDataLoaderService;
 
+    @Test
+    void getStatisticsSnapshot_shouldReturnSnapshot() throws Exception {
+        // Arrange
+        StatisticsSnapshotDTO snapshot = StatisticsSnapshotDTO.builder()
+                .activeShips(150L)
+                .stoppedShips(25L)
+                .interestZones(5)
+                .collisionZones(2)
+                .shipsByType(Map.of("cargo", 150L))
+                .speedHistogram(List.of(new SpeedHistogramBucketDTO(0.0, 1.0, 25L)))
+                .build();
+        when(statisticsService.getStatisticsSnapshot()).thenReturn(snapshot);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/statistics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.activeShips").value(150))
+                .andExpect(jsonPath("$.stoppedShips").value(25))
+                .andExpect(jsonPath("$.shipsByType.cargo").value(150))
+                .andExpect(jsonPath("$.speedHistogram[0].maxKnots").value(1.0));
+    }
+
     @Test
     void getActiveShipCount_shouldReturnCount() throws Exception {
         // Arrange
@@ -0,0 +1,60 @@
+package com.MarineTrafficClone.SeaWatch.controller;
+
+import com.MarineTrafficClone.SeaWatch.security.JwtService;
+import com.MarineTrafficClone.SeaWatch.security.SecurityConfiguration;
+import com.MarineTrafficClone.SeaWatch.service.CsvDataLoaderService;
+import com.MarineTrafficClone.SeaWatch.service.ShipTileService;
+import com.MarineTrafficClone.SeaWatch.service.StaticShipDataLoaderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = VectorTileController.class)
+@Import(SecurityConfiguration.class)
+class VectorTileControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ShipTileService shipTileService;
+
+    // Mocks για το SecurityConfiguration
+    @MockBean private JwtService jwtService;
+    @MockBean private AuthenticationProvider authenticationProvider;
+    @MockBean private StaticShipDataLoaderService staticShipDataLoaderService;
+    @MockBean private CsvDataLoaderService csvDataLoaderService;
+
+    @Test
+    void getShipTile_shouldBePublicAndReturnCacheableVectorTile() throws Exception {
+        // Arrange
+        byte[] tile = {0x1A, 0x00};
+        when(shipTileService.getTile(8, 144, 98)).thenReturn(tile);
+        when(shipTileService.getTileTtlSeconds()).thenReturn(2L);
+
+        // Act & Assert: χωρίς αυθεντικοποίηση, όπως και τα υπόλοιπα δεδομένα του χάρτη.
+        mockMvc.perform(get("/tiles/ships/8/144/98.mvt"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/vnd.mapbox-vector-tile"))
+                .andExpect(header().string("Cache-Control", "max-age=2, public"))
+                .andExpect(content().bytes(tile));
+    }
+
+    @Test
+    void getShipTile_withInvalidCoordinates_shouldReturnBadRequest() throws Exception {
+        when(shipTileService.getTile(2, 9, 0)).thenThrow(new IllegalArgumentException("Tile 2/9/0 is out of range."));
+
+        mockMvc.perform(get("/tiles/ships/2/9/0.mvt"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -1,13 +1,21 @@
 package com.MarineTrafficClone.SeaWatch.controller;
 
+import com.MarineTrafficClone.SeaWatch.dto.ZoneConstraintDTO;
 import com.MarineTrafficClone.SeaWatch.dto.ZoneOfInterestDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ZoneOccupancyDTO;
 import com.MarineTrafficClone.SeaWatch.enumeration.RoleType;
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneConstraintType;
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneKind;
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneShape;
+import com.MarineTrafficClone.SeaWatch.exception.InvalidZoneConstraintException;
+import com.MarineTrafficClone.SeaWatch.exception.InvalidZoneGeometryException;
 import com.MarineTrafficClone.SeaWatch.model.UserEntity;
 import com.MarineTrafficClone.SeaWatch.model.ZoneOfInterest;
 import com.MarineTrafficClone.SeaWatch.security.JwtService;
 import com.MarineTrafficClone.SeaWatch.security.SecurityConfiguration;
 import com.MarineTrafficClone.SeaWatch.service.CsvDataLoaderService;
 import com.MarineTrafficClone.SeaWatch.service.StaticShipDataLoaderService;
+import com.MarineTrafficClone.SeaWatch.service.ZoneOccupancyService;
 import com.MarineTrafficClone.SeaWatch.service.ZoneOfInterestService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,6 +30,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -46,6 +55,9 @@ class ZoneOfInterestControllerTest {
     @MockBean
     private ZoneOfInterestService zoneService;
 
+    @MockBean
+    private ZoneOccupancyService zoneOccupancyService;
+
     // Mocks για το SecurityConfiguration
     @MockBean private JwtService jwtService;
     @MockBean private AuthenticationProvider authenticationProvider;
@@ -88,6 +100,37 @@ class ZoneOfInterestControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getMyZoneOccupancy_whenZoneExists_shouldReturnShips() throws Exception {
+        ZoneOccupancyDTO occupancy = ZoneOccupancyDTO.builder()
+                .zoneId(10L)
+                .zoneName("Test Zone")
+                .zoneKind(ZoneKind.INTEREST)
+                .shipCount(2)
+                .mmsis(List.of("237000001", "237000002"))
+                .build();
+        when(zoneService.getZoneForUser(testUser.getId())).thenReturn(Optional.of(testZone));
+        when(zoneOccupancyService.getInterestZoneOccupancy(10L)).thenReturn(Optional.of(occupancy));
+
+        mockMvc.perform(get("/api/zone/mine/occupancy")
+                        .with(user(testUser)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.zoneId").value(10L))
+                .andExpect(jsonPath("$.zoneKind").value("INTEREST"))
+                .andExpect(jsonPath("$.shipCount").value(2))
+                .andExpect(jsonPath("$.mmsis[1]").value("237000002"));
+    }
+
+    @Test
+    void getMyZoneOccupancy_whenZoneNotExists_shouldReturnNotFound() throws Exception {
+        when(zoneService.getZoneForUser(testUser.getId())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/zone/mine/occupancy")
+                        .with(user(testUser)))
+                .andExpect(status().isNotFound());
+        verifyNoInteractions(zoneOccupancyService);
+    }
+
     @Test
     void createOrUpdateMyZone_shouldReturnUpdatedZone() throws Exception {
         ZoneOfInterestDTO requestDto = new ZoneOfInterestDTO();
@@ -105,6 +148,51 @@ class ZoneOfInterestControllerTest {
                 .andExpect(jsonPath("$.name").value("Test Zone")); // Ο controller επιστρέφει το DTO του testZone
     }
 
+    @Test
+    void createOrUpdateMyZone_withInvalidPolygon_shouldReturnBadRequest() throws Exception {
+        ZoneOfInterestDTO requestDto = new ZoneOfInterestDTO();
+        requestDto.setName("Broken Zone");
+        requestDto.setShape(ZoneShape.POLYGON);
+        requestDto.setVertices(Collections.emptyList());
+        requestDto.setConstraints(Collections.emptyList());
+
+        when(zoneService.createOrUpdateZone(any(ZoneOfInterestDTO.class), any(UserEntity.class)))
+                .thenThrow(new InvalidZoneGeometryException("A polygon needs at least 3 distinct vertices"));
+
+        mockMvc.perform(put("/api/zone/mine")
+                        .with(user(testUser))
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("A polygon needs at least 3 distinct vertices"));
+    }
+
+    @Test
+    void createOrUpdateMyZone_withInvalidConstraintValue_shouldReturnBadRequest() throws Exception {
+        ZoneConstraintDTO constraintDto = new ZoneConstraintDTO();
+        constraintDto.setConstraintType(ZoneConstraintType.SPEED_LIMIT_ABOVE);
+        constraintDto.setConstraintValue("fast");
+
+        ZoneOfInterestDTO requestDto = new ZoneOfInterestDTO();
+        requestDto.setName("Speed Zone");
+        requestDto.setCenterLatitude(35.0);
+        requestDto.setCenterLongitude(25.0);
+        requestDto.setRadiusInMeters(1000.0);
+        requestDto.setConstraints(List.of(constraintDto));
+
+        when(zoneService.createOrUpdateZone(any(ZoneOfInterestDTO.class), any(UserEntity.class)))
+                .thenThrow(new InvalidZoneConstraintException("Invalid value 'fast' for SPEED_LIMIT_ABOVE: expected a non-negative speed in knots"));
+
+        mockMvc.perform(put("/api/zone/mine")
+                        .with(user(testUser))
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid value 'fast' for SPEED_LIMIT_ABOVE: expected a non-negative speed in knots"));
+    }
+
     @Test
     void deleteMyZone_shouldReturnNoContent() throws Exception {
         doNothing().when(zoneService).deleteZoneForUser(testUser.getId());
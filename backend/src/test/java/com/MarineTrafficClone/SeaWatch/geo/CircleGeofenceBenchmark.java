@@ -0,0 +1,93 @@
+package com.MarineTrafficClone.SeaWatch.geo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark: έλεγχος 10.000 θέσεων απέναντι σε μία κυκλική ζώνη, με τον αρχικό υπολογισμό Haversine
+ * και με το {@link CircleGeofence}. Με {@code near} όλες οι θέσεις είναι σε απόσταση έως δύο ακτίνες από το κέντρο
+ * (το χειρότερο σενάριο για το πλαίσιο), με {@code global} είναι διάσπαρτες σε όλη τη Μεσόγειο.
+ *
+ * Εκτέλεση (από τον φάκελο backend):
+ * <pre>
+ * mvn test-compile
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     com.MarineTrafficClone.SeaWatch.geo.CircleGeofenceBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CircleGeofenceBenchmark {
+
+    private static final int POINTS = 10_000;
+    private static final double CENTER_LATITUDE = 37.94;
+    private static final double CENTER_LONGITUDE = 23.64;
+    private static final double RADIUS_METERS = 5_000;
+
+    @Param({"near", "global"})
+    private String distribution;
+
+    private final double[] latitudes = new double[POINTS];
+    private final double[] longitudes = new double[POINTS];
+    private CircleGeofence geofence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < POINTS; i++) {
+            double[] point = "near".equals(distribution)
+                    ? CircleGeofenceTest.destination(CENTER_LATITUDE, CENTER_LONGITUDE,
+                            RADIUS_METERS * 2 * random.nextDouble(), random.nextDouble() * 2 * Math.PI)
+                    : new double[]{30 + random.nextDouble() * 16, -6 + random.nextDouble() * 42};
+            latitudes[i] = point[0];
+            longitudes[i] = point[1];
+        }
+        geofence = new CircleGeofence(CENTER_LATITUDE, CENTER_LONGITUDE, RADIUS_METERS);
+    }
+
+    @Benchmark
+    public int haversine() {
+        int inside = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (CircleGeofenceTest.referenceIsInside(latitudes[i], longitudes[i], CENTER_LATITUDE, CENTER_LONGITUDE, RADIUS_METERS)) {
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    @Benchmark
+    public int geofence() {
+        int inside = 0;
+        for (int i = 0; i < POINTS; i++) {
+            if (geofence.contains(latitudes[i], longitudes[i])) {
+                inside++;
+            }
+        }
+        return inside;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CircleGeofenceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
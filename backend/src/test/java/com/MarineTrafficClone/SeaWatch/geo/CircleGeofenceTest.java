@@ -0,0 +1,125 @@
+package com.MarineTrafficClone.SeaWatch.geo;
+
+import com.MarineTrafficClone.SeaWatch.model.ZoneOfInterest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ελέγχει ότι το {@link CircleGeofence} δίνει ακριβώς το ίδιο αποτέλεσμα με τον αρχικό υπολογισμό Haversine,
+ * ιδιαίτερα για σημεία πάνω στο όριο της ζώνης, κοντά στους πόλους και στον αντιμεσημβρινό.
+ */
+class CircleGeofenceTest {
+
+    private static final double[] RADII = {0, 1, 50, 500, 5_000, 50_000, 200_000, 1_000_000, 5_000_000};
+
+    /**
+     * Ο αρχικός έλεγχος του KafkaConsumerService.isInsideZone, αυτούσιος.
+     */
+    static boolean referenceIsInside(double latitude, double longitude,
+                                     double centerLatitude, double centerLongitude, double radiusInMeters) {
+        final int R = 6371 * 1000;
+        double dLat = Math.toRadians(latitude - centerLatitude);
+        double dLon = Math.toRadians(longitude - centerLongitude);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(centerLatitude)) * Math.cos(Math.toRadians(latitude))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return (R * c) <= radiusInMeters;
+    }
+
+    /**
+     * Ένα σημείο σε απόσταση {@code distanceMeters} και αζιμούθιο {@code bearing} (ακτίνια) από το κέντρο.
+     * Επιστρέφει {πλάτος, μήκος} σε μοίρες, με το μήκος στο [-180, 180].
+     */
+    static double[] destination(double centerLatitude, double centerLongitude, double distanceMeters, double bearing) {
+        double angle = distanceMeters / CircleGeofence.EARTH_RADIUS_METERS;
+        double lat1 = Math.toRadians(centerLatitude);
+        double lon1 = Math.toRadians(centerLongitude);
+        double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angle) + Math.cos(lat1) * Math.sin(angle) * Math.cos(bearing));
+        double lon2 = lon1 + Math.atan2(Math.sin(bearing) * Math.sin(angle) * Math.cos(lat1),
+                Math.cos(angle) - Math.sin(lat1) * Math.sin(lat2));
+        double longitude = Math.toDegrees(lon2);
+        longitude = longitude - 360 * Math.rint(longitude / 360);
+        return new double[]{Math.toDegrees(lat2), longitude};
+    }
+
+    private static void assertMatchesReference(double centerLatitude, double centerLongitude, double radius,
+                                               double latitude, double longitude) {
+        CircleGeofence geofence = new CircleGeofence(centerLatitude, centerLongitude, radius);
+        assertThat(geofence.contains(latitude, longitude))
+                .as("zone (%s, %s, r=%s), point (%s, %s)", centerLatitude, centerLongitude, radius, latitude, longitude)
+                .isEqualTo(referenceIsInside(latitude, longitude, centerLatitude, centerLongitude, radius));
+    }
+
+    @Test
+    void matchesHaversineForRandomZonesAndPoints() {
+        Random random = new Random(7);
+        int inside = 0;
+        for (int z = 0; z < 500; z++) {
+            double centerLatitude = z % 25 == 0 ? 89.9 * (random.nextBoolean() ? 1 : -1) : random.nextDouble() * 170 - 85;
+            double centerLongitude = z % 7 == 0 ? 179.99 * (random.nextBoolean() ? 1 : -1) : random.nextDouble() * 360 - 180;
+            double radius = RADII[random.nextInt(RADII.length)] * (0.5 + random.nextDouble());
+            CircleGeofence geofence = new CircleGeofence(centerLatitude, centerLongitude, radius);
+
+            for (int i = 0; i < 2_000; i++) {
+                double[] point;
+                switch (i % 4) {
+                    case 0 -> point = new double[]{random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180};
+                    case 1 -> point = destination(centerLatitude, centerLongitude,
+                            radius * random.nextDouble() * 2, random.nextDouble() * 2 * Math.PI);
+                    // Σημεία σε απόσταση ±5 ppm από το όριο, όπου αποφασίζει ο Haversine.
+                    default -> point = destination(centerLatitude, centerLongitude,
+                            radius * (1 + (random.nextDouble() - 0.5) * 1e-5), random.nextDouble() * 2 * Math.PI);
+                }
+                boolean expected = referenceIsInside(point[0], point[1], centerLatitude, centerLongitude, radius);
+                assertThat(geofence.contains(point[0], point[1]))
+                        .as("zone (%s, %s, r=%s), point (%s, %s)", centerLatitude, centerLongitude, radius, point[0], point[1])
+                        .isEqualTo(expected);
+                if (expected) {
+                    inside++;
+                }
+            }
+        }
+        // Το σύνολο δεδομένων πρέπει να περιέχει αρκετά σημεία και από τις δύο πλευρές του ορίου.
+        assertThat(inside).isBetween(100_000, 900_000);
+    }
+
+    @Test
+    void includesPointsAcrossTheAntimeridian() {
+        assertMatchesReference(10, 179.999, 1_000, 10, -179.9995);
+        assertThat(new CircleGeofence(10, 179.999, 1_000).contains(10, -179.9995)).isTrue();
+    }
+
+    @Test
+    void handlesZonesThatContainAPole() {
+        assertMatchesReference(89.99, 0, 5_000, 89.99, 180);
+        assertMatchesReference(89.99, 0, 5_000, 89.97, 90);
+        assertThat(new CircleGeofence(89.99, 0, 5_000).contains(89.99, 180)).isTrue();
+    }
+
+    @Test
+    void centerIsInsideZeroRadiusButNotNegativeRadius() {
+        assertThat(new CircleGeofence(37.9, 23.6, 0).contains(37.9, 23.6)).isTrue();
+        assertThat(new CircleGeofence(37.9, 23.6, -1).contains(37.9, 23.6)).isFalse();
+    }
+
+    @Test
+    void zoneRebuildsItsGeofenceWhenTheGeometryChanges() {
+        ZoneOfInterest zone = ZoneOfInterest.builder()
+                .centerLatitude(37.9)
+                .centerLongitude(23.6)
+                .radiusInMeters(1_000.0)
+                .build();
+        CircleGeofence first = zone.getGeofence();
+        assertThat(zone.getGeofence()).isSameAs(first);
+        assertThat(first.contains(37.91, 23.6)).isFalse();
+
+        zone.setRadiusInMeters(2_000.0);
+
+        assertThat(zone.getGeofence()).isNotSameAs(first);
+        assertThat(zone.getGeofence().contains(37.91, 23.6)).isTrue();
+    }
+}
@@ -0,0 +1,87 @@
+package com.MarineTrafficClone.SeaWatch.geo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark: έλεγχος 10.000 θέσεων γύρω από ένα πολύγωνο με "οδοντωτό" περίγραμμα (σαν ακτογραμμή),
+ * με τον κανόνα άρτιας-περιττής τομής απέναντι σε όλες τις ακμές και με το προετοιμασμένο {@link PolygonGeofence}.
+ *
+ * Εκτέλεση (από τον φάκελο backend):
+ * <pre>
+ * mvn test-compile
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     com.MarineTrafficClone.SeaWatch.geo.PolygonGeofenceBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolygonGeofenceBenchmark {
+
+    private static final int POINTS = 10_000;
+
+    @Param({"16", "1000", "10000"})
+    private int vertices;
+
+    private double[] polygonLatitudes;
+    private double[] polygonLongitudes;
+    private final double[] latitudes = new double[POINTS];
+    private final double[] longitudes = new double[POINTS];
+    private PolygonGeofence geofence;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        polygonLatitudes = new double[vertices];
+        polygonLongitudes = new double[vertices];
+        for (int i = 0; i < vertices; i++) {
+            double angle = 2 * Math.PI * i / vertices;
+            double radius = 0.1 * (1 + 0.3 * Math.sin(37 * angle) + 0.1 * random.nextDouble());
+            polygonLatitudes[i] = 37.9 + radius * Math.sin(angle);
+            polygonLongitudes[i] = 23.6 + radius * Math.cos(angle);
+        }
+        for (int i = 0; i < POINTS; i++) {
+            latitudes[i] = 37.9 + (random.nextDouble() - 0.5) * 0.3;
+            longitudes[i] = 23.6 + (random.nextDouble() - 0.5) * 0.3;
+        }
+        geofence = new PolygonGeofence(polygonLatitudes, polygonLongitudes);
+    }
+
+    /** Ένας έλεγχος ανά κλήση, ώστε ο χρόνος να αντιστοιχεί σε ένα σημείο. */
+    @Benchmark
+    public boolean allEdges() {
+        int i = next++ % POINTS;
+        return PolygonGeofenceTest.referenceContains(polygonLatitudes, polygonLongitudes, latitudes[i], longitudes[i]);
+    }
+
+    @Benchmark
+    public boolean prepared() {
+        int i = next++ % POINTS;
+        return geofence.contains(latitudes[i], longitudes[i]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PolygonGeofenceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,200 @@
+package com.MarineTrafficClone.SeaWatch.geo;
+
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneShape;
+import com.MarineTrafficClone.SeaWatch.exception.InvalidZoneGeometryException;
+import com.MarineTrafficClone.SeaWatch.model.CollisionZone;
+import com.MarineTrafficClone.SeaWatch.model.GeoPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Ελέγχει ότι το {@link PolygonGeofence} (πλέγμα και ευρετήριο ακμών) δίνει ακριβώς το ίδιο αποτέλεσμα
+ * με τον κανόνα άρτιας-περιττής τομής απέναντι σε όλες τις ακμές του πολυγώνου.
+ */
+class PolygonGeofenceTest {
+
+    /**
+     * Ο κανόνας άρτιας-περιττής τομής με όλες τις ακμές, στα "ξετυλιγμένα" μήκη του πολυγώνου.
+     */
+    static boolean referenceContains(double[] latitudes, double[] longitudes, double latitude, double longitude) {
+        int n = latitudes.length;
+        double[] unwrapped = new double[n];
+        double minLongitude = Double.POSITIVE_INFINITY, maxLongitude = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            unwrapped[i] = i == 0 ? longitudes[0] : longitudes[i] + 360 * Math.rint((unwrapped[i - 1] - longitudes[i]) / 360);
+            minLongitude = Math.min(minLongitude, unwrapped[i]);
+            maxLongitude = Math.max(maxLongitude, unwrapped[i]);
+        }
+        if (longitude < minLongitude) {
+            longitude += 360;
+        } else if (longitude >= maxLongitude) {
+            longitude -= 360;
+        }
+        boolean inside = false;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            if ((latitudes[i] > latitude) != (latitudes[j] > latitude)
+                    && longitude < (unwrapped[j] - unwrapped[i]) * (latitude - latitudes[i]) / (latitudes[j] - latitudes[i]) + unwrapped[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Τυχαίο πολύγωνο γύρω από ένα κέντρο: αστεροειδές (απλό) ή με τυχαία σειρά κορυφών (αυτοτεμνόμενο).
+     * Με {@code snap} οι συντεταγμένες στρογγυλοποιούνται, ώστε να υπάρχουν πολλές κορυφές και σημεία
+     * στην ίδια οριζόντια/κατακόρυφη γραμμή.
+     */
+    static double[][] randomPolygon(Random random, int vertices, double centerLatitude, double centerLongitude,
+                                    double radiusDegrees, boolean starShaped, boolean snap) {
+        double[] latitudes = new double[vertices];
+        double[] longitudes = new double[vertices];
+        for (int i = 0; i < vertices; i++) {
+            double angle = starShaped ? 2 * Math.PI * i / vertices : random.nextDouble() * 2 * Math.PI;
+            double radius = radiusDegrees * (0.2 + random.nextDouble());
+            double latitude = Math.max(-90, Math.min(90, centerLatitude + radius * Math.sin(angle)));
+            double longitude = centerLongitude + radius * Math.cos(angle);
+            longitude -= 360 * Math.rint(longitude / 360);
+            latitudes[i] = snap ? Math.round(latitude * 1000) / 1000.0 : latitude;
+            longitudes[i] = snap ? Math.round(longitude * 1000) / 1000.0 : longitude;
+        }
+        return new double[][]{latitudes, longitudes};
+    }
+
+    @Test
+    void matchesFullRayCastingForRandomPolygons() {
+        Random random = new Random(3);
+        int checked = 0;
+        int inside = 0;
+        for (int p = 0; p < 300; p++) {
+            int vertices = 3 + random.nextInt(p % 10 == 0 ? 2_000 : 40);
+            double centerLatitude = random.nextDouble() * 140 - 70;
+            double centerLongitude = p % 6 == 0 ? 179.9 : random.nextDouble() * 360 - 180;
+            double radius = random.nextDouble() * (p % 5 == 0 ? 20 : 0.5) + 1e-4;
+            double[][] polygon = randomPolygon(random, vertices, centerLatitude, centerLongitude, radius,
+                    random.nextInt(3) != 0, p % 4 == 0);
+            double[] latitudes = polygon[0];
+            double[] longitudes = polygon[1];
+            PolygonGeofence geofence;
+            try {
+                geofence = new PolygonGeofence(latitudes, longitudes);
+            } catch (IllegalArgumentException e) {
+                continue; // Εκφυλισμένο πολύγωνο (π.χ. μηδενικό εμβαδόν μετά τη στρογγυλοποίηση).
+            }
+
+            for (int k = 0; k < 1_500; k++) {
+                double latitude;
+                double longitude;
+                int i = random.nextInt(vertices);
+                switch (k % 3) {
+                    case 0 -> {
+                        latitude = centerLatitude + (random.nextDouble() * 2 - 1) * radius * 1.3;
+                        longitude = centerLongitude + (random.nextDouble() * 2 - 1) * radius * 1.3;
+                    }
+                    // Στο ίδιο πλάτος με μια κορυφή (ή πάνω της), όπου ο κανόνας έχει τις οριακές του περιπτώσεις.
+                    case 1 -> {
+                        latitude = latitudes[i];
+                        longitude = longitudes[i] + (random.nextBoolean() ? 0 : (random.nextDouble() - 0.5) * radius * 0.1);
+                    }
+                    // Πάνω σε μια ακμή.
+                    default -> {
+                        int j = (i + 1) % vertices;
+                        double t = random.nextDouble();
+                        latitude = latitudes[i] + (latitudes[j] - latitudes[i]) * t;
+                        longitude = longitudes[i] + (longitudes[j] - longitudes[i]) * t;
+                    }
+                }
+                longitude -= 360 * Math.rint(longitude / 360);
+
+                boolean expected = referenceContains(latitudes, longitudes, latitude, longitude);
+                assertThat(geofence.contains(latitude, longitude))
+                        .as("polygon %d (%d vertices), point (%s, %s)", p, vertices, latitude, longitude)
+                        .isEqualTo(expected);
+                checked++;
+                if (expected) {
+                    inside++;
+                }
+            }
+        }
+        assertThat(checked).isGreaterThan(300_000);
+        assertThat(inside).isGreaterThan(checked / 10);
+    }
+
+    @Test
+    void concavePolygonExcludesItsNotch() {
+        // Σχήμα "U": το άνοιγμα στη μέση δεν ανήκει στη ζώνη.
+        PolygonGeofence geofence = new PolygonGeofence(
+                new double[]{0, 0, 3, 3, 1, 1, 3, 3},
+                new double[]{0, 3, 3, 2, 2, 1, 1, 0});
+
+        assertThat(geofence.contains(0.5, 1.5)).isTrue();
+        assertThat(geofence.contains(2, 0.5)).isTrue();
+        assertThat(geofence.contains(2, 1.5)).isFalse();
+        assertThat(geofence.contains(3.5, 1.5)).isFalse();
+    }
+
+    @Test
+    void polygonAcrossTheAntimeridianContainsPointsOnBothSides() {
+        PolygonGeofence geofence = new PolygonGeofence(
+                new double[]{-1, -1, 1, 1},
+                new double[]{179, -179, -179, 179});
+
+        assertThat(geofence.contains(0, 179.5)).isTrue();
+        assertThat(geofence.contains(0, -179.5)).isTrue();
+        assertThat(geofence.contains(0, 0)).isFalse();
+        assertThat(geofence.contains(0, 178.5)).isFalse();
+    }
+
+    @Test
+    void rejectsInvalidPolygons() {
+        assertThatThrownBy(() -> new PolygonGeofence(new double[]{0, 1}, new double[]{0, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+        // Ένα κλειστό περίγραμμα με δύο διακριτές κορυφές.
+        assertThatThrownBy(() -> new PolygonGeofence(new double[]{0, 1, 0}, new double[]{0, 1, 0}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PolygonGeofence(new double[]{0, 1, 2}, new double[]{0, 1, 2}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("zero area");
+        assertThatThrownBy(() -> new PolygonGeofence(new double[]{0, 91, 0}, new double[]{0, 1, 2}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Geofences.preparePolygon(List.of(new GeoPoint(0, 0))))
+                .isInstanceOf(InvalidZoneGeometryException.class);
+    }
+
+    @Test
+    void polygonZoneUsesItsVerticesInsteadOfTheBoundingCircle() {
+        CollisionZone zone = CollisionZone.builder()
+                .centerLatitude(0.5)
+                .centerLongitude(0.5)
+                .radiusInMeters(100_000.0)
+                .shape(ZoneShape.POLYGON)
+                .vertices(List.of(new GeoPoint(0, 0), new GeoPoint(0, 1), new GeoPoint(1, 0)))
+                .build();
+
+        assertThat(zone.getGeofence()).isInstanceOf(PolygonGeofence.class);
+        assertThat(zone.getGeofence().contains(0.2, 0.2)).isTrue();
+        // Μέσα στον περιβάλλοντα κύκλο, αλλά έξω από το τρίγωνο.
+        assertThat(zone.getGeofence().contains(0.8, 0.8)).isFalse();
+
+        zone.setShape(ZoneShape.CIRCLE);
+        assertThat(zone.getGeofence().contains(0.8, 0.8)).isTrue();
+    }
+
+    @Test
+    void boundingCircleContainsAllVertices() {
+        double[] latitudes = {37.90, 37.90, 37.95, 37.97};
+        double[] longitudes = {23.60, 23.65, 23.66, 23.58};
+        PolygonGeofence polygon = new PolygonGeofence(latitudes, longitudes);
+        CircleGeofence circle = new CircleGeofence(polygon.getCenterLatitude(), polygon.getCenterLongitude(),
+                polygon.getBoundingRadiusInMeters());
+
+        for (int i = 0; i < latitudes.length; i++) {
+            assertThat(circle.contains(latitudes[i], longitudes[i])).isTrue();
+        }
+    }
+}
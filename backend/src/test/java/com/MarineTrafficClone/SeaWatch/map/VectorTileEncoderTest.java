@@ -0,0 +1,58 @@
+package com.MarineTrafficClone.SeaWatch.map;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests για τον VectorTileEncoder.
+ * Τα αναμενόμενα bytes έχουν υπολογιστεί με το χέρι από την προδιαγραφή Mapbox Vector Tile 2.1.
+ */
+class VectorTileEncoderTest {
+
+    @Test
+    void encode_singlePointWithoutAttributes_shouldProduceSpecCompliantBytes() {
+        VectorTileEncoder encoder = new VectorTileEncoder("ships", 4096);
+        encoder.addPoint(7, 10, 20, Map.of());
+
+        byte[] expected = {
+                0x1A, 0x17,                                  // Tile.layers (field 3), 23 bytes
+                0x78, 0x02,                                  // Layer.version = 2
+                0x0A, 0x05, 's', 'h', 'i', 'p', 's',         // Layer.name = "ships"
+                0x12, 0x09,                                  // Layer.features (field 2), 9 bytes
+                0x08, 0x07,                                  //   Feature.id = 7
+                0x18, 0x01,                                  //   Feature.type = POINT
+                0x22, 0x03, 0x09, 0x14, 0x28,                //   Feature.geometry = MoveTo(1), zigzag(10), zigzag(20)
+                0x28, (byte) 0x80, 0x20                      // Layer.extent = 4096
+        };
+        assertThat(encoder.encode()).containsExactly(expected);
+    }
+
+    @Test
+    void encode_shouldStoreRepeatedAttributeValuesOnce() {
+        VectorTileEncoder encoder = new VectorTileEncoder("ships", 4096);
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            attributes.put("mmsi", "24000000" + i);
+            attributes.put("shiptype", "cargo");
+            attributes.put("heading", null); // Οι τιμές null παραλείπονται.
+            encoder.addPoint(i, i, i, attributes);
+        }
+
+        String tile = new String(encoder.encode(), StandardCharsets.ISO_8859_1);
+
+        assertThat(encoder.getFeatureCount()).isEqualTo(3);
+        assertThat(tile.split("cargo", -1)).hasSize(2);      // Μία εμφάνιση της τιμής.
+        assertThat(tile.split("shiptype", -1)).hasSize(2);   // Μία εμφάνιση του κλειδιού.
+        assertThat(tile).doesNotContain("heading");
+    }
+
+    @Test
+    void encode_withoutFeatures_shouldReturnEmptyTile() {
+        assertThat(new VectorTileEncoder("ships", 4096).encode()).isEmpty();
+    }
+}
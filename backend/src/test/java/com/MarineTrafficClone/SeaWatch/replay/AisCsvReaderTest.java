@@ -0,0 +1,134 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests για τον AisCsvReader: ίδια αποτελέσματα με την ανάλυση με {@code split}/{@code parseDouble},
+ * τόσο memory-mapped όσο και από stream, και με γραμμές που μοιράζονται ανάμεσα σε δύο παράθυρα.
+ */
+class AisCsvReaderTest {
+
+    private static final String CSV = """
+            sourcemmsi,navigationalstatus,rateofturn,speedoverground,courseoverground,trueheading,lon,lat,t
+            245257000,0,0,0.1,13.1,36,-4.4657183,48.38249,1443650402
+            227705102,15,-127,0,262.7,511,-4.4965715,48.36132,1443650403\r
+             228131600 , 0 , NA , 9.6 , 0.0 , NA , -4.4793 , 48.3522 , 1443650405
+
+            227592820,12,NA,0.8,295.2,90,-4.5180833,48.10475,1443650410
+            not,a,valid,line
+            228051000,0,0,x,0,0,-4.5,48.1,1443650411
+            227574020,0,-2.5,1E1,330.3,511,-4.5152717,48.112,1443650420""";
+
+    @TempDir
+    Path tempDir;
+
+    private static List<AisData> readAll(AisCsvReader reader) throws IOException {
+        List<AisData> result = new ArrayList<>();
+        AisRecord record = new AisRecord();
+        while (reader.next(record)) {
+            result.add(record.toAisData());
+        }
+        return result;
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("ais.csv");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    @Test
+    void next_shouldParseEveryValidLineAndSkipTheRest() throws IOException {
+        try (AisCsvReader reader = AisCsvReader.open(write(CSV))) {
+            List<AisData> records = readAll(reader);
+
+            assertThat(records).extracting(AisData::getMmsi)
+                    .containsExactly("245257000", "227705102", "228131600", "227592820", "227574020");
+            assertThat(records.get(0)).isEqualTo(AisData.builder()
+                    .mmsi("245257000").navigationalStatus(0).rateOfTurn(0.0).speedOverGround(0.1).courseOverGround(13.1)
+                    .trueHeading(36).longitude(-4.4657183).latitude(48.38249).timestampEpoch(1443650402L).build());
+            // Τα "NA" γίνονται null (ρυθμός στροφής) και 511 (κατεύθυνση), όπως πριν.
+            assertThat(records.get(2).getRateOfTurn()).isNull();
+            assertThat(records.get(2).getTrueHeading()).isEqualTo(511);
+            assertThat(records.get(2).getLongitude()).isEqualTo(-4.4793);
+            assertThat(records.get(4).getSpeedOverGround()).isEqualTo(10.0);
+            assertThat(reader.getRecords()).isEqualTo(5);
+            assertThat(reader.getMalformedLines()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void next_shouldGiveTheSameRecordsFromAStreamAndAcrossSmallWindows() throws IOException {
+        Path file = write(CSV);
+        List<AisData> expected;
+        try (AisCsvReader reader = AisCsvReader.open(file)) {
+            expected = readAll(reader);
+        }
+
+        // Παράθυρα των 100 bytes: σχεδόν κάθε γραμμή μοιράζεται ανάμεσα σε δύο.
+        try (AisCsvReader mapped = AisCsvReader.open(file, 100);
+             AisCsvReader streamed = AisCsvReader.open(new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), 100)) {
+            assertThat(readAll(mapped)).isEqualTo(expected);
+            assertThat(readAll(streamed)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void next_shouldRejectLinesLongerThanTheWindow() throws IOException {
+        try (AisCsvReader reader = AisCsvReader.open(write("header\n" + "1".repeat(200) + "\n"), 64)) {
+            assertThatThrownBy(() -> reader.next(new AisRecord())).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void next_onEmptyFile_shouldReturnFalse() throws IOException {
+        try (AisCsvReader reader = AisCsvReader.open(write(""))) {
+            assertThat(reader.next(new AisRecord())).isFalse();
+        }
+    }
+
+    @Test
+    void parseDouble_shouldMatchDoubleParseDouble() {
+        Random random = new Random(3);
+        List<String> values = new ArrayList<>(List.of("0", "-0", "0.0", "-0.000", "1.", ".5", "+2.25", "180",
+                "0.1", "13.1", "-4.4657183", "48.38249", "123456789012345", "1234567890123456789", "1.0E-5", "12.5e2",
+                "0.000000000000000000000001"));
+        for (int i = 0; i < 10_000; i++) {
+            values.add(String.format(Locale.ROOT, "%.7f", (random.nextDouble() - 0.5) * 360));
+            values.add(String.valueOf(random.nextDouble() * 1000));
+        }
+
+        for (String value : values) {
+            ByteBuffer bytes = ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII));
+            assertThat(Double.doubleToRawLongBits(AisCsvReader.parseDouble(bytes, 0, bytes.limit())))
+                    .as(value)
+                    .isEqualTo(Double.doubleToRawLongBits(Double.parseDouble(value)));
+        }
+    }
+
+    @Test
+    void parseLong_shouldMatchLongParseLong() {
+        for (String value : List.of("0", "-7", "+15", "1443650402", "9223372036854775807", "-9223372036854775808")) {
+            ByteBuffer bytes = ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII));
+            assertThat(AisCsvReader.parseLong(bytes, 0, bytes.limit())).isEqualTo(Long.parseLong(value));
+        }
+        ByteBuffer invalid = ByteBuffer.wrap("12a".getBytes(StandardCharsets.US_ASCII));
+        assertThatThrownBy(() -> AisCsvReader.parseLong(invalid, 0, invalid.limit())).isInstanceOf(NumberFormatException.class);
+    }
+}
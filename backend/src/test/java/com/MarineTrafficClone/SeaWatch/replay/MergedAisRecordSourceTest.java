@@ -0,0 +1,102 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests για το MergedAisRecordSource: η συγχώνευση δίνει όλες τις εγγραφές ταξινομημένες κατά χρονοσφραγίδα,
+ * με σταθερή σειρά για ίδιες χρονοσφραγίδες, για κάθε μέγεθος read-ahead.
+ */
+class MergedAisRecordSourceTest {
+
+    /** Μια πηγή από μια λίστα εγγραφών, ως "MMSI@χρονοσφραγίδα". */
+    private static final class ListSource implements AisRecordSource {
+        private final List<String> records;
+        private int next;
+        private boolean closed;
+
+        ListSource(List<String> records) {
+            this.records = records;
+        }
+
+        @Override
+        public boolean next(AisRecord into) {
+            if (next == records.size()) {
+                return false;
+            }
+            String[] parts = records.get(next++).split("@");
+            into.setMmsi(parts[0]);
+            into.setTimestampEpoch(Long.parseLong(parts[1]));
+            return true;
+        }
+
+        @Override
+        public long getMalformedLines() {
+            return 1;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static List<String> readAll(AisRecordSource source) throws IOException {
+        List<String> result = new ArrayList<>();
+        AisRecord record = new AisRecord();
+        while (source.next(record)) {
+            result.add(record.getMmsi() + "@" + record.getTimestampEpoch());
+        }
+        return result;
+    }
+
+    private static long timestampOf(String record) {
+        return Long.parseLong(record.split("@")[1]);
+    }
+
+    @Test
+    void next_shouldMergeAllSourcesInTimestampOrder() throws IOException {
+        Random random = new Random(5);
+        List<List<String>> inputs = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int s = 0; s < 7; s++) {
+            List<String> input = new ArrayList<>();
+            long t = 1_443_650_400L;
+            for (int i = random.nextInt(300); i > 0; i--) {
+                t += random.nextInt(3);
+                input.add(s + "" + i + "@" + t);
+            }
+            inputs.add(input);
+            expected.addAll(input);
+        }
+        // Σταθερή ταξινόμηση: για ίδιες χρονοσφραγίδες πρώτα η προηγούμενη πηγή, μετά η σειρά μέσα στην πηγή.
+        expected.sort(Comparator.comparingLong(MergedAisRecordSourceTest::timestampOf));
+
+        for (int readAhead : new int[]{1, 2, 7, 1_000}) {
+            List<ListSource> sources = inputs.stream().map(ListSource::new).toList();
+            try (MergedAisRecordSource merged = MergedAisRecordSource.open(sources, readAhead)) {
+                assertThat(readAll(merged)).as("read-ahead %d", readAhead).isEqualTo(expected);
+                assertThat(merged.getMalformedLines()).isEqualTo(7);
+            }
+            assertThat(sources).allMatch(source -> source.closed);
+        }
+    }
+
+    @Test
+    void next_withEmptySources_shouldReturnTheOthers() throws IOException {
+        List<ListSource> sources = List.of(new ListSource(List.of()), new ListSource(List.of("1@10", "1@20")),
+                new ListSource(List.of()), new ListSource(List.of("2@15")));
+
+        try (MergedAisRecordSource merged = MergedAisRecordSource.open(sources, 4)) {
+            assertThat(readAll(merged)).containsExactly("1@10", "2@15", "1@20");
+            assertThat(merged.next(new AisRecord())).isFalse();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests για τον ParallelAisCsvReader: οι εγγραφές πρέπει να είναι ακριβώς ίδιες, με την ίδια σειρά,
+ * με εκείνες του AisCsvReader, για οποιοδήποτε μέγεθος τμήματος και παραθύρου.
+ */
+class ParallelAisCsvReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path syntheticCsv(int lines) throws IOException {
+        Random random = new Random(5);
+        StringBuilder csv = new StringBuilder("sourcemmsi,navigationalstatus,rateofturn,speedoverground,courseoverground,trueheading,lon,lat,t\n");
+        for (int i = 0; i < lines; i++) {
+            if (i % 97 == 0) {
+                csv.append("broken line\n");
+            }
+            csv.append(String.format(Locale.ROOT, "%d,%d,%s,%.1f,%.1f,%s,%.7f,%.5f,%d%n",
+                    227_000_000 + random.nextInt(500), random.nextInt(16), i % 3 == 0 ? "NA" : "0",
+                    random.nextDouble() * 20, random.nextDouble() * 360, i % 5 == 0 ? "NA" : "90",
+                    -4.5 + random.nextDouble(), 48 + random.nextDouble(), 1_443_650_402L + i / 4));
+        }
+        Path file = tempDir.resolve("ais.csv");
+        Files.writeString(file, csv);
+        return file;
+    }
+
+    private static List<AisData> readAll(AisRecordSource source) throws IOException {
+        List<AisData> result = new ArrayList<>();
+        AisRecord record = new AisRecord();
+        while (source.next(record)) {
+            result.add(record.toAisData());
+        }
+        return result;
+    }
+
+    @Test
+    void next_shouldEmitTheSameStreamAsTheSequentialReader() throws IOException {
+        Path file = syntheticCsv(5_000);
+        List<AisData> expected;
+        long expectedMalformed;
+        try (AisCsvReader sequential = AisCsvReader.open(file)) {
+            expected = readAll(sequential);
+            expectedMalformed = sequential.getMalformedLines();
+        }
+
+        for (long chunkBytes : new long[]{1, 100, 4_096, 1 << 20}) {
+            for (int window : new int[]{1, 3, 16}) {
+                try (ParallelAisCsvReader parallel = ParallelAisCsvReader.open(file, 4, chunkBytes, window)) {
+                    assertThat(readAll(parallel)).as("chunk %d, window %d", chunkBytes, window).isEqualTo(expected);
+                    assertThat(parallel.getMalformedLines()).isEqualTo(expectedMalformed);
+                }
+            }
+        }
+    }
+
+    @Test
+    void chunkBoundaries_shouldStartEveryChunkAtALineStart() throws IOException {
+        Path file = syntheticCsv(1_000);
+        byte[] bytes = Files.readAllBytes(file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] boundaries = ParallelAisCsvReader.chunkBoundaries(channel, 1_000);
+
+            assertThat(boundaries[0]).isZero();
+            assertThat(boundaries[boundaries.length - 1]).isEqualTo(bytes.length);
+            assertThat(boundaries.length).isGreaterThan(10);
+            for (int i = 1; i < boundaries.length - 1; i++) {
+                assertThat(bytes[(int) boundaries[i] - 1]).isEqualTo((byte) '\n');
+                assertThat(boundaries[i]).isGreaterThanOrEqualTo(boundaries[i - 1] + 1_000);
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests για τον ReplayPacer, με ρολόι και αναμονή που ελέγχονται από το test.
+ */
+class ReplayPacerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long T0 = 1_443_650_400L;
+
+    private long now;
+    private long oversleepNanos;
+    private double speed;
+    private boolean cancelled;
+    private ReplayPacer pacer;
+
+    @BeforeEach
+    void setUp() {
+        now = 0;
+        oversleepNanos = 0;
+        speed = 1;
+        cancelled = false;
+        pacer = new ReplayPacer(() -> speed, () -> cancelled, () -> now, nanos -> now += nanos + oversleepNanos);
+    }
+
+    @Test
+    void awaitDue_shouldWaitOnlyForTheFirstRecordOfEachTimestamp() throws InterruptedException {
+        speed = 2;
+
+        assertThat(pacer.awaitDue(T0)).isTrue();
+        assertThat(pacer.awaitDue(T0)).isFalse();
+        assertThat(pacer.awaitDue(T0 + 1)).isTrue();
+        assertThat(now).isEqualTo(SECOND / 2);
+        assertThat(pacer.awaitDue(T0 + 1)).isFalse();
+        assertThat(pacer.awaitDue(T0 + 3)).isTrue();
+        assertThat(now).isEqualTo(3 * SECOND / 2);
+    }
+
+    @Test
+    void awaitDue_shouldNotAccumulateSleepOvershoot() throws InterruptedException {
+        // Κάθε αναμονή διαρκεί 3 ms περισσότερο από όσο ζητήθηκε, με ομάδες ανά 10 ms (1 s δεδομένων, x100).
+        speed = 100;
+        oversleepNanos = 3_000_000;
+
+        for (int i = 0; i <= 1_000; i++) {
+            pacer.awaitDue(T0 + i);
+        }
+
+        // Με καθυστερήσεις από ομάδα σε ομάδα η αναπαραγωγή θα διαρκούσε 13 s αντί για 10 s.
+        assertThat(now).isBetween(10 * SECOND, 10 * SECOND + oversleepNanos);
+        ReplayPacer.Report report = pacer.report();
+        assertThat(report.actualSpeed()).isCloseTo(100, within(0.1));
+        assertThat(report.groups()).isEqualTo(1_001);
+        assertThat(report.lagMillis()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void awaitDue_shouldApplyASpeedChangeDuringALongWait() throws InterruptedException {
+        pacer = new ReplayPacer(() -> speed, () -> cancelled, () -> now, nanos -> {
+            now += nanos;
+            if (now >= 60 * SECOND) {
+                speed = 60;
+            }
+        });
+        pacer.awaitDue(T0);
+
+        // Κενό μίας ώρας στα δεδομένα: μετά από 60 s η ταχύτητα γίνεται x60, οπότε απομένουν (3600 - 60) / 60 = 59 s.
+        pacer.awaitDue(T0 + 3_600);
+
+        assertThat(now).isCloseTo(119 * SECOND, within(ReplayPacer.MAX_SLEEP_NANOS));
+    }
+
+    @Test
+    void report_shouldShowDriftWhenSendingFallsBehind() throws InterruptedException {
+        // Η αποστολή κάθε ομάδας διαρκεί 20 ms, ενώ οι ομάδες απέχουν 10 ms (x100).
+        speed = 100;
+        for (int i = 0; i <= 100; i++) {
+            pacer.awaitDue(T0 + i);
+            now += 20_000_000;
+        }
+
+        ReplayPacer.Report report = pacer.report();
+        assertThat(report.targetSpeed()).isEqualTo(100);
+        assertThat(report.actualSpeed()).isCloseTo(50, within(1.0));
+        assertThat(report.drift()).isCloseTo(-0.5, within(0.01));
+        assertThat(report.lagMillis()).isGreaterThan(900);
+    }
+
+    @Test
+    void awaitDue_shouldSendOutOfOrderRecordsImmediately() throws InterruptedException {
+        pacer.awaitDue(T0 + 10);
+
+        assertThat(pacer.awaitDue(T0 + 5)).isFalse();
+        assertThat(now).isZero();
+        assertThat(pacer.getOutOfOrder()).isEqualTo(1);
+    }
+
+    @Test
+    void awaitDue_whilePaused_shouldHoldEveryRecordAndResumeWhereItStopped() throws InterruptedException {
+        pacer = new ReplayPacer(() -> speed, () -> cancelled, () -> now, nanos -> {
+            now += nanos;
+            if (now >= 2 * SECOND && now < 12 * SECOND) {
+                speed = 0; // Παύση για 10 s, 2 s μετά την πρώτη ομάδα.
+            } else if (now >= 12 * SECOND) {
+                speed = 1;
+            }
+        });
+        pacer.awaitDue(T0);
+        pacer.awaitDue(T0 + 5);
+
+        // Πριν από την παύση είχαν περάσει 2 από τα 5 δευτερόλεπτα· τα υπόλοιπα 3 μετρούν μετά τη συνέχιση.
+        assertThat(now).isCloseTo(15 * SECOND, within(ReplayPacer.MAX_SLEEP_NANOS));
+        assertThat(pacer.awaitDue(T0 + 5)).isFalse();
+        assertThat(pacer.report().actualSpeed()).isCloseTo(1, within(0.05));
+    }
+
+    @Test
+    void awaitDue_whenCancelled_shouldStopWaiting() throws InterruptedException {
+        pacer = new ReplayPacer(() -> speed, () -> cancelled, () -> now, nanos -> {
+            now += nanos;
+            cancelled = now >= 30 * SECOND;
+        });
+        pacer.awaitDue(T0);
+
+        assertThat(pacer.awaitDue(T0 + 3_600)).isFalse();
+        assertThat(now).isCloseTo(30 * SECOND, within(ReplayPacer.MAX_SLEEP_NANOS));
+    }
+
+    @Test
+    void reset_shouldStartANewScheduleFromTheNextRecord() throws InterruptedException {
+        pacer.awaitDue(T0 + 100);
+        pacer.reset();
+
+        assertThat(pacer.awaitDue(T0)).isTrue();
+        assertThat(pacer.getOutOfOrder()).isZero();
+        assertThat(pacer.awaitDue(T0 + 2)).isTrue();
+        assertThat(now).isEqualTo(2 * SECOND);
+    }
+
+    @Test
+    void report_withoutNewGroups_shouldHaveNoActualSpeed() throws InterruptedException {
+        pacer.awaitDue(T0);
+        pacer.report();
+
+        assertThat(pacer.report().actualSpeed()).isNaN();
+    }
+
+    @Test
+    void report_whilePaused_shouldHaveNoDrift() throws InterruptedException {
+        pacer.awaitDue(T0);
+        pacer.awaitDue(T0 + 1);
+        speed = 0;
+
+        // Ο ρυθμός μέχρι την παύση μετρήθηκε, αλλά δεν υπάρχει ζητούμενος ρυθμός για να συγκριθεί.
+        ReplayPacer.Report report = pacer.report();
+        assertThat(report.actualSpeed()).isCloseTo(1, within(0.01));
+        assertThat(report.drift()).isNaN();
+    }
+}
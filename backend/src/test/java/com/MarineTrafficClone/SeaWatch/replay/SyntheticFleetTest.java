@@ -0,0 +1,105 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Unit tests για τον SyntheticFleet: ίδιο seed δίνει ίδια μηνύματα, οι χρονοσφραγίδες είναι ταξινομημένες,
+ * η κίνηση συμφωνεί με την ταχύτητα που αναφέρεται και οι πορείες σύγκρουσης φέρνουν πλοία κοντά.
+ */
+class SyntheticFleetTest {
+
+    private static final long START = 1_443_650_400L;
+
+    private static SyntheticFleet fleet(long seed, int vessels, double encounterProbability, double zoneCrossingProbability, double stopProbability) {
+        return new SyntheticFleet(new SyntheticFleet.Settings(seed, vessels, 900_000_000L, START,
+                47.5, 48.5, -5.5, -4.0, encounterProbability, zoneCrossingProbability, stopProbability,
+                SyntheticFleet.Hotspot.parseList("48.38:-4.49:5000")));
+    }
+
+    private static List<AisData> take(SyntheticFleet fleet, int count) {
+        List<AisData> records = new ArrayList<>(count);
+        AisRecord record = new AisRecord();
+        for (int i = 0; i < count; i++) {
+            fleet.next(record);
+            records.add(record.toAisData());
+        }
+        return records;
+    }
+
+    @Test
+    void next_shouldBeDeterministicBySeed() {
+        List<AisData> first = take(fleet(42, 200, 0.05, 0.2, 0.1), 20_000);
+
+        assertThat(take(fleet(42, 200, 0.05, 0.2, 0.1), 20_000)).isEqualTo(first);
+        assertThat(take(fleet(43, 200, 0.05, 0.2, 0.1), 20_000)).isNotEqualTo(first);
+    }
+
+    @Test
+    void next_shouldReportEveryVesselInTimestampOrderAtItsReportedSpeed() {
+        List<AisData> records = take(fleet(7, 300, 0.05, 0.2, 0.1), 100_000);
+        Map<String, AisData> previous = new HashMap<>();
+
+        long lastTimestamp = START;
+        for (AisData record : records) {
+            assertThat(record.getTimestampEpoch()).isGreaterThanOrEqualTo(lastTimestamp);
+            lastTimestamp = record.getTimestampEpoch();
+            assertThat(record.getMmsi()).hasSize(9).startsWith("900000");
+            assertThat(record.getRateOfTurn()).isBetween(-126.0, 126.0);
+
+            AisData before = previous.put(record.getMmsi(), record);
+            long seconds = before == null ? 0 : record.getTimestampEpoch() - before.getTimestampEpoch();
+            if (seconds >= 9) {
+                // Οι χρονοσφραγίδες έχουν ακρίβεια δευτερολέπτου: έως 22 κόμβοι σε (έως) ένα δευτερόλεπτο περισσότερο.
+                double meters = SyntheticFleet.distanceMeters(before.getLatitude(), before.getLongitude(), record.getLatitude(), record.getLongitude());
+                assertThat(meters / (seconds - 1)).isLessThanOrEqualTo(22 * 1852.0 / 3600 + 1e-6);
+            }
+        }
+        assertThat(previous).hasSize(300);
+        assertThat(records).anyMatch(record -> record.getNavigationalStatus() != 0);
+        assertThat(records).anyMatch(record -> record.getRateOfTurn() != 0);
+    }
+
+    @Test
+    void next_withEncounterLegs_shouldBringVesselsClose() {
+        SyntheticFleet fleet = fleet(1, 2, 1.0, 0, 0);
+        double[][] positions = new double[2][];
+        double closest = Double.MAX_VALUE;
+
+        AisRecord record = new AisRecord();
+        for (int i = 0; i < 20_000; i++) {
+            fleet.next(record);
+            int vessel = (int) (Long.parseLong(record.getMmsi()) - 900_000_000L);
+            positions[vessel] = new double[]{record.getLatitude(), record.getLongitude()};
+            if (positions[0] != null && positions[1] != null) {
+                closest = Math.min(closest, SyntheticFleet.distanceMeters(positions[0][0], positions[0][1], positions[1][0], positions[1][1]));
+            }
+        }
+
+        assertThat(fleet.getEncounters()).isPositive();
+        assertThat(closest).isLessThan(500);
+    }
+
+    @Test
+    void destination_shouldInvertDistanceAndBearing() {
+        double[] point = SyntheticFleet.destination(48.38, -4.49, 63, 25_000);
+
+        assertThat(SyntheticFleet.distanceMeters(48.38, -4.49, point[0], point[1])).isCloseTo(25_000, offset(0.01));
+        assertThat(SyntheticFleet.initialBearing(48.38, -4.49, point[0], point[1])).isCloseTo(63, offset(1e-6));
+    }
+
+    @Test
+    void settings_shouldRejectMmsisWithoutNineDigits() {
+        assertThatThrownBy(() -> new SyntheticFleet.Settings(1, 10, 999_999_995L, START, 47, 48, -5, -4, 0, 0, 0, List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
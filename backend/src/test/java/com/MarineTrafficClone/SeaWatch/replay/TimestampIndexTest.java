@@ -0,0 +1,111 @@
+package com.MarineTrafficClone.SeaWatch.replay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests για το TimestampIndex: η ανάγνωση από τη θέση του ευρετηρίου δίνει όλες τις εγγραφές
+ * από τη ζητούμενη χρονοσφραγίδα και μετά, και το αποθηκευμένο ευρετήριο ξαναχρησιμοποιείται όσο το CSV δεν αλλάζει.
+ */
+class TimestampIndexTest {
+
+    private static final long T0 = 1_443_650_400L;
+
+    @TempDir
+    Path tempDir;
+
+    /** Ένα ταξινομημένο CSV με 1-20 εγγραφές ανά χρονοσφραγίδα και κενά έως 30 s ανάμεσά τους. */
+    private Path writeCsv(int groups) throws IOException {
+        Random random = new Random(11);
+        StringBuilder csv = new StringBuilder("sourcemmsi,navigationalstatus,rateofturn,speedoverground,courseoverground,trueheading,lon,lat,t\n");
+        long t = T0;
+        for (int g = 0; g < groups; g++) {
+            t += 1 + random.nextInt(30);
+            for (int i = random.nextInt(20); i >= 0; i--) {
+                csv.append(String.format(Locale.ROOT, "%d,0,0,%.1f,%.1f,511,%.7f,%.5f,%d%n",
+                        227_000_000 + random.nextInt(1_000), random.nextDouble() * 20, random.nextDouble() * 360,
+                        -5 + random.nextDouble(), 48 + random.nextDouble(), t));
+            }
+        }
+        Path file = tempDir.resolve("ais.csv");
+        Files.writeString(file, csv);
+        return file;
+    }
+
+    /** Οι χρονοσφραγίδες των εγγραφών από τη θέση {@code start}, χωρίς όσες είναι πριν από το {@code epoch}. */
+    private static List<Long> readFrom(Path file, long start, long epoch) throws IOException {
+        List<Long> result = new ArrayList<>();
+        AisRecord record = new AisRecord();
+        try (AisCsvReader reader = AisCsvReader.open(file, start, Files.size(file))) {
+            while (reader.next(record)) {
+                if (record.getTimestampEpoch() >= epoch) {
+                    result.add(record.getTimestampEpoch());
+                }
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void offsetOf_shouldStartAtOrBeforeTheFirstRecordOfTheEpoch() throws IOException {
+        Path file = writeCsv(500);
+        TimestampIndex index = TimestampIndex.build(file, 2_000);
+        List<Long> all = readFrom(file, 0, Long.MIN_VALUE);
+
+        assertThat(index.size()).isBetween(10, 200);
+        assertThat(index.getFirstEpoch()).isEqualTo(all.get(0));
+        assertThat(index.getLastEpoch()).isEqualTo(all.get(all.size() - 1));
+        for (long epoch = T0 - 10; epoch <= index.getLastEpoch() + 10; epoch += 7) {
+            long target = epoch;
+            List<Long> expected = all.stream().filter(t -> t >= target).toList();
+            long offset = index.offsetOf(target);
+
+            assertThat(readFrom(file, offset, target)).as("epoch %d", target).isEqualTo(expected);
+            // Το πολύ μία απόσταση καταχωρήσεων (και μία ομάδα) με παλαιότερες εγγραφές πριν από τη ζητούμενη.
+            assertThat(readFrom(file, offset, Long.MIN_VALUE).size() - expected.size()).isLessThan(100);
+        }
+    }
+
+    @Test
+    void loadOrBuild_shouldReuseTheSavedIndexUntilTheCsvChanges() throws IOException {
+        Path file = writeCsv(200);
+        TimestampIndex built = TimestampIndex.loadOrBuild(file, 1_000);
+        Path indexFile = TimestampIndex.indexFileOf(file);
+        assertThat(indexFile).exists();
+
+        TimestampIndex loaded = TimestampIndex.loadOrBuild(file, 1_000);
+        assertThat(loaded.size()).isEqualTo(built.size());
+        assertThat(loaded.getLastEpoch()).isEqualTo(built.getLastEpoch());
+        for (long epoch = T0; epoch <= built.getLastEpoch(); epoch += 13) {
+            assertThat(loaded.offsetOf(epoch)).isEqualTo(built.offsetOf(epoch));
+        }
+
+        // Άλλη απόσταση καταχωρήσεων ή αλλαγμένο CSV: το ευρετήριο δημιουργείται ξανά.
+        assertThat(TimestampIndex.read(indexFile, Files.size(file), Files.getLastModifiedTime(file).toMillis(), 500)).isNull();
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1_000));
+        assertThat(TimestampIndex.read(indexFile, Files.size(file), Files.getLastModifiedTime(file).toMillis(), 1_000)).isNull();
+        assertThat(TimestampIndex.loadOrBuild(file, 1_000).size()).isEqualTo(built.size());
+    }
+
+    @Test
+    void offsetOf_onEmptyFile_shouldReturnZero() throws IOException {
+        Path file = tempDir.resolve("empty.csv");
+        Files.writeString(file, "sourcemmsi,navigationalstatus,rateofturn,speedoverground,courseoverground,trueheading,lon,lat,t\n");
+
+        TimestampIndex index = TimestampIndex.build(file, 1_000);
+
+        assertThat(index.size()).isZero();
+        assertThat(index.offsetOf(T0)).isZero();
+    }
+}
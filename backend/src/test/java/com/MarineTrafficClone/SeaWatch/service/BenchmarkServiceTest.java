@@ -0,0 +1,106 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.dto.BenchmarkReportDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests για τον BenchmarkService.
+ * Οι μετρητές του producer είναι mock, οπότε κάθε test ορίζει πόσα μηνύματα "στάλθηκαν".
+ */
+@ExtendWith(MockitoExtension.class)
+class BenchmarkServiceTest {
+
+    @Mock
+    private SimulationControlService simulationControlService;
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    private BenchmarkService benchmarkService;
+
+    @BeforeEach
+    void setUp() {
+        benchmarkService = new BenchmarkService(simulationControlService, kafkaProducerService, 4, false);
+    }
+
+    @Test
+    void getReport_beforeAnyRun_shouldBeIdle() {
+        assertEquals("IDLE", benchmarkService.getReport().getStatus());
+    }
+
+    @Test
+    void start_shouldRestartTheReplayInFirehoseMode() {
+        benchmarkService.start();
+
+        verify(simulationControlService).setFirehose(true);
+        verify(simulationControlService).requestRestart();
+        assertEquals("RUNNING", benchmarkService.getReport().getStatus());
+    }
+
+    @Test
+    void recordStages_shouldOnlyCountMessagesProducedDuringTheRun() {
+        when(kafkaProducerService.getSent()).thenReturn(100L);
+        benchmarkService.start();
+        long startedAt = benchmarkService.getReport().getStartedAt();
+
+        assertFalse(benchmarkService.isRecording(startedAt - 1));
+        benchmarkService.recordConsumed(startedAt - 1, startedAt + 5);
+        assertTrue(benchmarkService.isRecording(startedAt));
+        benchmarkService.recordConsumed(startedAt, startedAt + 5);
+        benchmarkService.recordPersisted(startedAt, startedAt + 8);
+        benchmarkService.recordPublished(startedAt, startedAt + 10);
+
+        BenchmarkReportDTO report = benchmarkService.getReport();
+        assertEquals(1, report.getConsumed());
+        assertEquals(5, report.getConsumeLatency().getP50());
+        assertEquals(8, report.getPersistLatency().getP50());
+        assertEquals(10, report.getPublishLatency().getMax());
+    }
+
+    @Test
+    void sampleLag_whenEveryProducedMessageWasConsumed_shouldCompleteTheRun() {
+        when(kafkaProducerService.getSent()).thenReturn(100L);
+        benchmarkService.start();
+        long startedAt = benchmarkService.getReport().getStartedAt();
+
+        // Στάλθηκαν 3 μηνύματα· ο consumer έχει παραλάβει 2.
+        when(kafkaProducerService.getSent()).thenReturn(103L);
+        for (int i = 0; i < 2; i++) {
+            benchmarkService.recordConsumed(startedAt, startedAt + 1);
+            benchmarkService.recordPublished(startedAt, startedAt + 2);
+        }
+        benchmarkService.productionFinished();
+        benchmarkService.sampleLag();
+        assertEquals("RUNNING", benchmarkService.getReport().getStatus());
+        assertEquals(1, benchmarkService.getReport().getConsumerLag().get(0).getLag());
+
+        benchmarkService.recordConsumed(startedAt, startedAt + 1);
+        benchmarkService.recordPublished(startedAt, startedAt + 2);
+        benchmarkService.sampleLag();
+
+        BenchmarkReportDTO report = benchmarkService.getReport();
+        assertEquals("COMPLETED", report.getStatus());
+        assertEquals(3, report.getProduced());
+        assertEquals(3, report.getConsumed());
+        assertEquals(3, report.getPublishLatency().getCount());
+        verify(simulationControlService).setFirehose(false);
+    }
+
+    @Test
+    void sampleLag_whenSamplesAreFull_shouldKeepEveryOtherSample() {
+        benchmarkService.start();
+
+        for (int i = 0; i < 5; i++) {
+            benchmarkService.sampleLag();
+        }
+
+        // Το όριο είναι 4: μετά την πέμπτη μέτρηση μένουν η 1η, η 3η και η 5η.
+        assertEquals(3, benchmarkService.getReport().getConsumerLag().size());
+    }
+}
@@ -0,0 +1,402 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.collision.CpaBatch;
+import com.MarineTrafficClone.SeaWatch.collision.KineticPairScheduler;
+import com.MarineTrafficClone.SeaWatch.collision.ScalarCpaKernel;
+import com.MarineTrafficClone.SeaWatch.dto.CollisionNotificationDTO;
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import com.MarineTrafficClone.SeaWatch.model.CollisionZone;
+import com.MarineTrafficClone.SeaWatch.model.UserEntity;
+import com.MarineTrafficClone.SeaWatch.repository.CollisionZoneRepository;
+import com.MarineTrafficClone.SeaWatch.store.AlertStateStore;
+import com.MarineTrafficClone.SeaWatch.store.VesselStateStore;
+import com.MarineTrafficClone.SeaWatch.zone.ZoneSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests για τον CollisionAlertService.
+ * Χρησιμοποιεί πραγματική cache θέσεων και τον scalar kernel, ώστε να ελέγχεται ολόκληρη η πρόβλεψη.
+ */
+@ExtendWith(MockitoExtension.class)
+class CollisionAlertServiceTest {
+
+    @Mock
+    private CollisionZoneRepository collisionZoneRepository;
+    @Mock
+    private ZoneOfInterestCacheService zoneOfInterestCache;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private ShipPositionCacheService positionCache;
+    private CollisionZoneCacheService collisionZoneCache;
+    private ZoneOccupancyService zoneOccupancy;
+    private CollisionZone zone;
+
+    @BeforeEach
+    void setUp() {
+        positionCache = new ShipPositionCacheService(new VesselStateStore());
+        UserEntity user = UserEntity.builder().email("captain@seawatch.gr").build();
+        zone = CollisionZone.builder()
+                .id(1L)
+                .name("Saronic")
+                .centerLatitude(37.95)
+                .centerLongitude(23.60)
+                .radiusInMeters(20_000.0)
+                .user(user)
+                .build();
+        collisionZoneCache = spy(zoneCache(positionCache));
+        zoneOccupancy = new ZoneOccupancyService(positionCache, zoneOfInterestCache, collisionZoneCache, messagingTemplate);
+    }
+
+    private CollisionZoneCacheService zoneCache(ShipPositionCacheService positions) {
+        return new CollisionZoneCacheService(collisionZoneRepository,
+                new AlertStateStore(new SimpleMeterRegistry(), 1_800_000, 900_000, 10_000), positions);
+    }
+
+    private CollisionAlertService service(boolean perMessage, boolean sweep) {
+        return new CollisionAlertService(collisionZoneCache, positionCache, messagingTemplate,
+                new ScalarCpaKernel(), kineticScheduler(),
+                new AlertStateStore(new SimpleMeterRegistry(), 1_800_000, 900_000, 10_000),
+                perMessage, sweep, true);
+    }
+
+    private static KineticPairScheduler kineticScheduler() {
+        return new KineticPairScheduler(5, 1, 50, 30, 600);
+    }
+
+    private AisData report(String mmsi, double longitude, double latitude, double speed, double course) {
+        AisData data = AisData.builder()
+                .mmsi(mmsi)
+                .longitude(longitude)
+                .latitude(latitude)
+                .speedOverGround(speed)
+                .courseOverGround(course)
+                .build();
+        // Όπως και στον consumer: πρώτα η cache θέσεων και μετά τα μέλη των ζωνών.
+        zoneOccupancy.updateCollisionZones(data, positionCache.updatePosition(data));
+        return data;
+    }
+
+    private int slotOf(AisData data) {
+        return positionCache.getVesselStates().slotOf(data.getMmsi());
+    }
+
+    private Set<String> notifiedPairs() {
+        ArgumentCaptor<CollisionNotificationDTO> captor = ArgumentCaptor.forClass(CollisionNotificationDTO.class);
+        verify(messagingTemplate, atLeast(0)).convertAndSendToUser(anyString(), eq("/queue/collision-alerts"), captor.capture());
+        Set<String> pairs = new HashSet<>();
+        for (CollisionNotificationDTO notification : captor.getAllValues()) {
+            String a = notification.getShipA().getMmsi();
+            String b = notification.getShipB().getMmsi();
+            pairs.add(a.compareTo(b) < 0 ? a + "-" + b : b + "-" + a);
+        }
+        return pairs;
+    }
+
+    @Test
+    void checkCollisions_shouldNotifyOncePerDangerousPair() {
+        // Arrange: δύο πλοία σε μετωπική πορεία, 1 ναυτικό μίλι μακριά.
+        collisionZoneCache.addOrUpdateZone(zone);
+        CollisionAlertService service = service(true, false);
+        report("237000002", 23.621, 37.95, 10, 270);
+        AisData current = report("237000001", 23.60, 37.95, 10, 90);
+
+        // Act
+        service.checkCollisions(current, slotOf(current));
+        service.checkCollisions(current, slotOf(current));
+
+        // Assert
+        assertThat(notifiedPairs()).containsExactly("237000001-237000002");
+        verify(messagingTemplate, times(1)).convertAndSendToUser(eq("captain@seawatch.gr"), eq("/queue/collision-alerts"), any(CollisionNotificationDTO.class));
+    }
+
+    @Test
+    void checkCollisions_shouldUseTheZoneMembershipInsteadOfTheGeometry() {
+        // Arrange: το τρέχον πλοίο είναι γεωμετρικά μέσα στη ζώνη, αλλά δεν είναι μέλος της.
+        collisionZoneCache.addOrUpdateZone(zone);
+        CollisionAlertService service = service(true, false);
+        report("237000002", 23.621, 37.95, 10, 270);
+        AisData current = report("237000001", 23.60, 37.95, 10, 90);
+        collisionZoneCache.getSnapshot().getOccupancy(zone.getId()).update(slotOf(current), false);
+
+        // Act
+        service.checkCollisions(current, slotOf(current));
+
+        // Assert
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void checkCollisions_shouldDoNothingWhenPerMessageChecksAreDisabled() {
+        CollisionAlertService service = service(false, true);
+        report("237000002", 23.621, 37.95, 10, 270);
+        AisData current = report("237000001", 23.60, 37.95, 10, 90);
+        clearInvocations(collisionZoneCache);
+
+        service.checkCollisions(current, slotOf(current));
+
+        verifyNoInteractions(collisionZoneCache, messagingTemplate);
+    }
+
+    @Test
+    void sweep_shouldFindDangerousPairsWithoutNewReports() {
+        // Arrange: τα πλοία αναφέρθηκαν πριν ενεργοποιηθεί η ζώνη, οπότε ο έλεγχος ανά μήνυμα δεν τα είδε.
+        report("237000001", 23.60, 37.95, 10, 90);
+        report("237000002", 23.621, 37.95, 10, 270);
+        // Ένα τρίτο πλοίο μακριά, με πορεία που δεν το φέρνει κοντά σε κανένα.
+        report("237000003", 23.60, 38.05, 12, 0);
+        collisionZoneCache.addOrUpdateZone(zone);
+
+        // Act
+        service(false, true).sweep();
+
+        // Assert
+        assertThat(notifiedPairs()).containsExactly("237000001-237000002");
+    }
+
+    @Test
+    void sweep_shouldNotifyAgainAfterDangerHasPassed() {
+        collisionZoneCache.addOrUpdateZone(zone);
+        CollisionAlertService service = service(false, true);
+        report("237000001", 23.60, 37.95, 10, 90);
+        report("237000002", 23.621, 37.95, 10, 270);
+
+        service.sweep();
+        // Το δεύτερο πλοίο στρίβει και απομακρύνεται.
+        report("237000002", 23.621, 37.95, 10, 90);
+        service.sweep();
+        // Και ξαναγυρίζει σε μετωπική πορεία.
+        report("237000002", 23.621, 37.95, 10, 270);
+        service.sweep();
+
+        verify(messagingTemplate, times(2)).convertAndSendToUser(anyString(), eq("/queue/collision-alerts"), any(CollisionNotificationDTO.class));
+    }
+
+    @Test
+    void sweep_shouldKeepNotifiedPairsWhenZonesChangeDuringTheSweep() {
+        // Arrange: ο δεύτερος γύρος ξεκινά με την τρέχουσα έκδοση των ζωνών και τελειώνει με την επόμενη.
+        collisionZoneCache.addOrUpdateZone(zone);
+        CollisionAlertService service = service(false, true);
+        report("237000001", 23.60, 37.95, 10, 90);
+        report("237000002", 23.621, 37.95, 10, 270);
+        ZoneSnapshot<CollisionZone> before = collisionZoneCache.getSnapshot();
+        ZoneSnapshot<CollisionZone> after = before.with(zone, before.getOccupancy(zone.getId()));
+        // Δύο αναγνώσεις από τον πρώτο γύρο, μία από το στίγμα ανάμεσα και δύο από τον δεύτερο γύρο.
+        doReturn(before, before, before, before, after).when(collisionZoneCache).getSnapshot();
+
+        // Act: ίδια σειρά κινήσεων με το προηγούμενο test.
+        service.sweep();
+        report("237000002", 23.621, 37.95, 10, 90);
+        service.sweep();
+        report("237000002", 23.621, 37.95, 10, 270);
+        service.sweep();
+
+        // Assert: ο δεύτερος γύρος δεν αφαίρεσε το ζευγάρι, οπότε δεν ειδοποιήθηκε ξανά.
+        verify(messagingTemplate, times(1)).convertAndSendToUser(anyString(), eq("/queue/collision-alerts"), any(CollisionNotificationDTO.class));
+    }
+
+    @Test
+    void sortByKey_shouldSortTheKeysAndPermuteTheIndicesTheSameWay() {
+        Random random = new Random(11);
+        for (int count : new int[]{0, 1, 2, 15, 16, 17, 100, 5_000}) {
+            double[] original = new double[count];
+            for (int k = 0; k < count; k++) {
+                // Πολλές ίσες τιμές, όπως τα πλοία στην ίδια θέση.
+                original[k] = random.nextInt(4) == 0 ? 42.0 : random.nextGaussian() * 1_000;
+            }
+            double[] keys = original.clone();
+            int[] order = new int[count];
+            for (int k = 0; k < count; k++) {
+                order[k] = k;
+            }
+
+            CollisionAlertService.sortByKey(keys, order, 0, count - 1);
+
+            double[] expected = original.clone();
+            Arrays.sort(expected);
+            assertThat(keys).containsExactly(expected);
+            assertThat(order).doesNotHaveDuplicates();
+            for (int a = 0; a < count; a++) {
+                assertThat(original[order[a]]).isEqualTo(keys[a]);
+            }
+        }
+    }
+
+    /**
+     * Το sweep-and-prune δεν πρέπει να απορρίπτει κανένα επικίνδυνο ζευγάρι: τα ζευγάρια που ειδοποιούνται
+     * πρέπει να είναι ακριβώς εκείνα που βρίσκει ο έλεγχος όλων των ζευγαριών.
+     */
+    @Test
+    void sweep_shouldMatchBruteForceOverAllPairs() {
+        collisionZoneCache.addOrUpdateZone(zone);
+        Random random = new Random(7);
+        int ships = 400;
+        double[][] kinematics = new double[ships][];
+        for (int i = 0; i < ships; i++) {
+            kinematics[i] = new double[]{
+                    23.57 + random.nextDouble() * 0.06,
+                    37.92 + random.nextDouble() * 0.06,
+                    random.nextInt(5) == 0 ? 0.5 : random.nextDouble() * 25,
+                    random.nextDouble() * 360
+            };
+            report(String.valueOf(237_000_000 + i), kinematics[i][0], kinematics[i][1], kinematics[i][2], kinematics[i][3]);
+        }
+
+        service(false, true).sweep();
+
+        Set<String> expected = new HashSet<>();
+        Set<String> ambiguous = new HashSet<>();
+        ScalarCpaKernel kernel = new ScalarCpaKernel();
+        for (int a = 0; a < ships; a++) {
+            for (int b = a + 1; b < ships; b++) {
+                if (kinematics[a][2] < 1.0 && kinematics[b][2] < 1.0) {
+                    continue;
+                }
+                boolean ab = dangerous(kernel, kinematics[a], kinematics[b]);
+                boolean ba = dangerous(kernel, kinematics[b], kinematics[a]);
+                String key = (237_000_000 + a) + "-" + (237_000_000 + b);
+                if (ab != ba) {
+                    // Το αποτέλεσμα εξαρτάται (οριακά) από το ποιο πλοίο είναι το πλοίο αναφοράς.
+                    ambiguous.add(key);
+                } else if (ab) {
+                    expected.add(key);
+                }
+            }
+        }
+
+        Set<String> notified = notifiedPairs();
+        notified.removeAll(ambiguous);
+        assertThat(expected).hasSizeGreaterThan(10);
+        assertThat(notified).isEqualTo(expected);
+    }
+
+    private static boolean dangerous(ScalarCpaKernel kernel, double[] own, double[] other) {
+        CpaBatch batch = new CpaBatch();
+        batch.reset(own[0], own[1], own[2], own[3]);
+        batch.add(0, other[0], other[1], other[2], other[3]);
+        kernel.evaluate(batch);
+        return batch.isDanger(0);
+    }
+
+    /**
+     * Ο kinetic προγραμματισμός πρέπει να δίνει ακριβώς τις ίδιες ειδοποιήσεις, με την ίδια σειρά, με τον έλεγχο
+     * όλων των ζευγαριών σε κάθε στίγμα, αξιολογώντας λιγότερα ζευγάρια.
+     */
+    @Test
+    void checkCollisions_withKineticScheduling_shouldReplayToTheSameAlerts() {
+        List<AisData> stream = syntheticTraffic(11, 60, 900);
+        KineticPairScheduler scheduler = kineticScheduler();
+
+        List<String> everyPair = replay(stream, null);
+        List<String> kinetic = replay(stream, scheduler);
+
+        assertThat(everyPair).hasSizeGreaterThan(20);
+        assertThat(kinetic).isEqualTo(everyPair);
+        assertThat(scheduler.getDeferredPairs()).isGreaterThan(scheduler.getEvaluatedPairs());
+    }
+
+    /**
+     * Περνά τα στίγματα από μια νέα υπηρεσία, με ή χωρίς kinetic προγραμματισμό.
+     *
+     * @return Τα ζευγάρια των ειδοποιήσεων, με τη σειρά που στάλθηκαν.
+     */
+    private List<String> replay(List<AisData> stream, KineticPairScheduler scheduler) {
+        SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+        ShipPositionCacheService cache = new ShipPositionCacheService(new VesselStateStore());
+        CollisionZoneCacheService zones = zoneCache(cache);
+        zones.addOrUpdateZone(zone);
+        ZoneOccupancyService occupancy = new ZoneOccupancyService(cache, zoneOfInterestCache, zones, template);
+        CollisionAlertService service = new CollisionAlertService(zones, cache, template,
+                new ScalarCpaKernel(), scheduler != null ? scheduler : kineticScheduler(),
+                new AlertStateStore(new SimpleMeterRegistry(), 1_800_000, 900_000, 10_000),
+                true, false, scheduler != null);
+
+        for (AisData data : stream) {
+            int slot = cache.updatePosition(data);
+            occupancy.updateCollisionZones(data, slot);
+            service.checkCollisions(data, slot);
+        }
+
+        ArgumentCaptor<CollisionNotificationDTO> captor = ArgumentCaptor.forClass(CollisionNotificationDTO.class);
+        verify(template, atLeast(0)).convertAndSendToUser(anyString(), eq("/queue/collision-alerts"), captor.capture());
+        List<String> alerts = new ArrayList<>();
+        for (CollisionNotificationDTO notification : captor.getAllValues()) {
+            alerts.add(notification.getShipA().getMmsi() + "-" + notification.getShipB().getMmsi());
+        }
+        return alerts;
+    }
+
+    /**
+     * Στίγματα από πλοία σε μια περιοχή ~9x9 km μέσα στη ζώνη: τα περισσότερα κινούνται με σταθερή πορεία,
+     * μερικά στρίβουν συνεχώς, όλα κάνουν περιστασιακά απότομες στροφές ή αλλαγές ταχύτητας, ενώ οι θέσεις
+     * έχουν θόρυβο μερικών μέτρων και κάθε πλοίο εκπέμπει κάθε 2-10 δευτερόλεπτα.
+     */
+    private static List<AisData> syntheticTraffic(long seed, int ships, int seconds) {
+        Random random = new Random(seed);
+        double[] longitude = new double[ships];
+        double[] latitude = new double[ships];
+        double[] speed = new double[ships];
+        double[] course = new double[ships];
+        double[] turnRate = new double[ships];
+        int[] interval = new int[ships];
+        int[] nextReport = new int[ships];
+        for (int i = 0; i < ships; i++) {
+            longitude[i] = 23.55 + random.nextDouble() * 0.10;
+            latitude[i] = 37.91 + random.nextDouble() * 0.08;
+            speed[i] = random.nextInt(10) == 0 ? 0.3 : 5 + random.nextDouble() * 15;
+            course[i] = random.nextDouble() * 360;
+            turnRate[i] = random.nextInt(5) == 0 ? (random.nextDouble() - 0.5) * 0.4 : 0;
+            interval[i] = 2 + random.nextInt(9);
+            nextReport[i] = random.nextInt(interval[i]);
+        }
+
+        List<AisData> stream = new ArrayList<>();
+        for (int t = 0; t < seconds; t++) {
+            for (int i = 0; i < ships; i++) {
+                if (random.nextInt(1500) == 0) {
+                    course[i] = (course[i] + (random.nextBoolean() ? 30 : 330)) % 360;
+                }
+                if (random.nextInt(2000) == 0 && speed[i] > 1) {
+                    speed[i] = Math.max(2, speed[i] + (random.nextBoolean() ? 4 : -4));
+                }
+                course[i] = (course[i] + turnRate[i] + 360) % 360;
+                double metersPerSecond = speed[i] * 0.514444;
+                latitude[i] += metersPerSecond * Math.cos(Math.toRadians(course[i])) / 111111;
+                longitude[i] += metersPerSecond * Math.sin(Math.toRadians(course[i])) / (111111 * Math.cos(Math.toRadians(latitude[i])));
+
+                if (t == nextReport[i]) {
+                    nextReport[i] += interval[i];
+                    stream.add(AisData.builder()
+                            .mmsi(String.valueOf(237_000_000 + i))
+                            .longitude(longitude[i] + random.nextGaussian() * 5 / 88_000)
+                            .latitude(latitude[i] + random.nextGaussian() * 5 / 111_111)
+                            .speedOverGround(Math.round(speed[i] * 10) / 10.0)
+                            .courseOverGround((double) (Math.round(course[i]) % 360))
+                            .timestampEpoch(1_700_000_000L + t)
+                            .build());
+                }
+            }
+        }
+        return stream;
+    }
+}
@@ -1,21 +1,34 @@
 package com.MarineTrafficClone.SeaWatch.service;
 
+import com.MarineTrafficClone.SeaWatch.dto.NotificationDTO;
 import com.MarineTrafficClone.SeaWatch.dto.RealTimeShipUpdateDTO;
 import com.MarineTrafficClone.SeaWatch.enumeration.ShipType;
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneConstraintType;
 import com.MarineTrafficClone.SeaWatch.model.AisData;
 import com.MarineTrafficClone.SeaWatch.model.Ship;
+import com.MarineTrafficClone.SeaWatch.model.UserEntity;
+import com.MarineTrafficClone.SeaWatch.model.ZoneConstraint;
+import com.MarineTrafficClone.SeaWatch.model.ZoneOfInterest;
 import com.MarineTrafficClone.SeaWatch.repository.AisDataRepository;
 import com.MarineTrafficClone.SeaWatch.repository.ShipRepository;
 import com.MarineTrafficClone.SeaWatch.repository.UserEntityRepository;
+import com.MarineTrafficClone.SeaWatch.store.AlertStateStore;
+import com.MarineTrafficClone.SeaWatch.zone.CompiledZone;
+import com.MarineTrafficClone.SeaWatch.zone.ZoneSnapshot;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -40,9 +53,13 @@ class KafkaConsumerServiceTest {
     @Mock
     private ZoneOfInterestCacheService zoneCache;
     @Mock
-    private CollisionZoneCacheService collisionZoneCache;
+    private CollisionAlertService collisionAlertService;
     @Mock
     private UserEntityRepository userEntityRepository;
+    @Mock
+    private ZoneOccupancyService zoneOccupancy;
+    @Mock
+    private BenchmarkService benchmarkService;
 
     // Θα χρησιμοποιήσουμε έναν πραγματικό ObjectMapper, όπως και στο service.
     private ObjectMapper objectMapper;
@@ -67,8 +84,11 @@ class KafkaConsumerServiceTest {
                 userEntityRepository,
                 messagingTemplate,
                 zoneCache,
-                collisionZoneCache,
-                positionCache
+                positionCache,
+                collisionAlertService,
+                new AlertStateStore(new SimpleMeterRegistry(), 1_800_000, 900_000, 10_000),
+                zoneOccupancy,
+                benchmarkService
         );
 
         // Αρχικοποίηση των test data
@@ -83,14 +103,21 @@ class KafkaConsumerServiceTest {
         testShip = new Ship(1L, 123456789L, ShipType.CARGO);
     }
 
+    /**
+     * Το στιγμιότυπο της cache με τις δοσμένες ζώνες μεταγλωττισμένες.
+     */
+    private static ZoneSnapshot<CompiledZone> snapshotOf(ZoneOfInterest... zones) {
+        return ZoneSnapshot.of(compiled -> compiled.getZone().getId(),
+                Arrays.stream(zones).map(CompiledZone::compile).toList());
+    }
+
     @Test
     void consumeAisData_shouldProcessMessageAndSendUpdates() throws Exception {
         // 1. Ρύθμιση (Arrange)
         // Προετοιμασία των mocks
         when(shipRepository.findByMmsi(123456789L)).thenReturn(Optional.of(testShip));
         when(userEntityRepository.findUsersWatchingMmsi(anyLong())).thenReturn(Collections.emptyList());
-        when(zoneCache.getAllActiveZones()).thenReturn(Collections.emptyList());
-        when(collisionZoneCache.getAllActiveZones()).thenReturn(Collections.emptyList());
+        when(zoneCache.getSnapshot()).thenReturn(snapshotOf());
 
         // Μετατροπή του αντικειμένου σε JSON string, όπως θα ερχόταν από το Kafka.
         // Χρησιμοποιούμε τον objectMapper που αρχικοποιήθηκε στο setUp.
@@ -105,10 +132,126 @@ class KafkaConsumerServiceTest {
         // - Το νέο στίγμα αποθηκεύτηκε στη βάση.
         verify(aisDataRepository, times(1)).save(any(AisData.class));
         // - Η cache θέσεων ενημερώθηκε.
-        verify(positionCache, times(1)).updatePosition(any(AisData.class));
+        verify(positionCache, times(1)).updatePosition(any(AisData.class), any(RealTimeShipUpdateDTO.class));
+        // - Έγινε έλεγχος για συγκρούσεις με το νέο στίγμα.
+        verify(collisionAlertService, times(1)).checkCollisions(any(AisData.class), anyInt());
         // - Στάλθηκε ένα public update στο WebSocket.
-        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/ais-updates"), any(RealTimeShipUpdateDTO.class));
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/ais-updates"), any(RealTimeShipUpdateDTO.class), anyMap());
         // - Δεν στάλθηκε private update, αφού κανείς δεν παρακολουθεί το πλοίο.
-        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), eq("/queue/fleet-updates"), any(Object.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), eq("/queue/fleet-updates"), any(Object.class), anyMap());
+    }
+
+    @Test
+    void consumeAisData_duringBenchmarkRun_shouldRecordEveryStage() throws Exception {
+        when(shipRepository.findByMmsi(123456789L)).thenReturn(Optional.of(testShip));
+        when(userEntityRepository.findUsersWatchingMmsi(anyLong())).thenReturn(Collections.emptyList());
+        when(zoneCache.getSnapshot()).thenReturn(snapshotOf());
+        long producedAt = System.currentTimeMillis();
+        when(benchmarkService.isRecording(producedAt)).thenReturn(true);
+
+        kafkaConsumerService.consumeAisData(objectMapper.writeValueAsString(testAisData), producedAt);
+
+        verify(benchmarkService).recordConsumed(eq(producedAt), anyLong());
+        verify(benchmarkService).recordPersisted(eq(producedAt), anyLong());
+        verify(benchmarkService).recordPublished(eq(producedAt), anyLong());
+    }
+
+    @Test
+    void consumeAisData_withinTransaction_shouldPublishAndRecordOnlyAfterCommit() throws Exception {
+        when(shipRepository.findByMmsi(123456789L)).thenReturn(Optional.of(testShip));
+        when(userEntityRepository.findUsersWatchingMmsi(anyLong())).thenReturn(Collections.emptyList());
+        when(zoneCache.getSnapshot()).thenReturn(snapshotOf());
+        long producedAt = System.currentTimeMillis();
+        when(benchmarkService.isRecording(producedAt)).thenReturn(true);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            kafkaConsumerService.consumeAisData(objectMapper.writeValueAsString(testAisData), producedAt);
+
+            // Πριν το commit: η εγγραφή αποθηκεύτηκε στη transaction, αλλά τίποτα δεν στάλθηκε ούτε καταγράφηκε.
+            verify(aisDataRepository).save(any(AisData.class));
+            verify(messagingTemplate, never()).convertAndSend(eq("/topic/ais-updates"), any(RealTimeShipUpdateDTO.class), anyMap());
+            verify(benchmarkService, never()).recordPersisted(anyLong(), anyLong());
+            verify(benchmarkService, never()).recordPublished(anyLong(), anyLong());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/ais-updates"), any(RealTimeShipUpdateDTO.class), anyMap());
+        verify(benchmarkService).recordPersisted(eq(producedAt), anyLong());
+        verify(benchmarkService).recordPublished(eq(producedAt), anyLong());
+    }
+
+    @Test
+    void consumeAisData_shouldDeriveEntryAndExitFromTheZoneMembership() throws Exception {
+        ZoneConstraint entry = new ZoneConstraint();
+        entry.setConstraintType(ZoneConstraintType.ZONE_ENTRY);
+        ZoneConstraint exit = new ZoneConstraint();
+        exit.setConstraintType(ZoneConstraintType.ZONE_EXIT);
+
+        UserEntity owner = new UserEntity();
+        owner.setEmail("owner@test.com");
+
+        ZoneOfInterest zone = new ZoneOfInterest();
+        zone.setId(1L);
+        zone.setName("Harbour");
+        zone.setCenterLatitude(35.12);
+        zone.setCenterLongitude(25.34);
+        zone.setRadiusInMeters(1000.0);
+        zone.setUser(owner);
+        zone.setConstraints(List.of(entry, exit));
+
+        when(shipRepository.findByMmsi(123456789L)).thenReturn(Optional.of(testShip));
+        when(userEntityRepository.findUsersWatchingMmsi(anyLong())).thenReturn(Collections.emptyList());
+        when(zoneCache.getSnapshot()).thenReturn(snapshotOf(zone));
+        // Το πλοίο δεν ήταν μέλος της ζώνης πριν το πρώτο στίγμα και ήταν πριν το δεύτερο.
+        when(zoneOccupancy.updateInterestZone(any(), anyInt(), anyBoolean())).thenReturn(false, true);
+
+        kafkaConsumerService.consumeAisData(objectMapper.writeValueAsString(testAisData));
+        testAisData.setLatitude(36.0);
+        kafkaConsumerService.consumeAisData(objectMapper.writeValueAsString(testAisData));
+
+        verify(zoneOccupancy).updateInterestZone(any(), anyInt(), eq(true));
+        verify(zoneOccupancy).updateInterestZone(any(), anyInt(), eq(false));
+        verify(messagingTemplate).convertAndSendToUser(eq("owner@test.com"), eq("/queue/notifications"),
+                argThat(n -> n instanceof NotificationDTO dto && dto.getMessage().equals("Ship 123456789 entered zone 'Harbour'")));
+        verify(messagingTemplate).convertAndSendToUser(eq("owner@test.com"), eq("/queue/notifications"),
+                argThat(n -> n instanceof NotificationDTO dto && dto.getMessage().equals("Ship 123456789 exited zone 'Harbour'")));
+        verify(aisDataRepository, never()).findTopByMmsiOrderByTimestampEpochDesc(anyString());
+    }
+
+    @Test
+    void consumeAisData_whenSpeedLimitIsExceeded_shouldNotifyOnlyOnce() throws Exception {
+        ZoneConstraint speedLimit = new ZoneConstraint();
+        speedLimit.setConstraintType(ZoneConstraintType.SPEED_LIMIT_ABOVE);
+        speedLimit.setConstraintValue("10");
+
+        UserEntity owner = new UserEntity();
+        owner.setEmail("owner@test.com");
+
+        ZoneOfInterest zone = new ZoneOfInterest();
+        zone.setId(1L);
+        zone.setName("Speed Zone");
+        zone.setCenterLatitude(35.12);
+        zone.setCenterLongitude(25.34);
+        zone.setRadiusInMeters(1000.0);
+        zone.setUser(owner);
+        zone.setConstraints(List.of(speedLimit));
+
+        when(shipRepository.findByMmsi(123456789L)).thenReturn(Optional.of(testShip));
+        when(userEntityRepository.findUsersWatchingMmsi(anyLong())).thenReturn(Collections.emptyList());
+        when(zoneCache.getSnapshot()).thenReturn(snapshotOf(zone));
+
+        // Δύο διαδοχικά μηνύματα με ταχύτητα 12.5 kts (> 10): η παραβίαση είναι συνεχής, άρα μία ειδοποίηση.
+        String messageJson = objectMapper.writeValueAsString(testAisData);
+        kafkaConsumerService.consumeAisData(messageJson);
+        kafkaConsumerService.consumeAisData(messageJson);
+
+        verify(messagingTemplate, times(1)).convertAndSendToUser(eq("owner@test.com"), eq("/queue/notifications"),
+                argThat(n -> n instanceof NotificationDTO dto
+                        && dto.getViolationType() == ZoneConstraintType.SPEED_LIMIT_ABOVE
+                        && dto.getMessage().startsWith("Ship 123456789 exceeded speed limit in zone 'Speed Zone'")));
     }
-}
\ No newline at end of file
+}
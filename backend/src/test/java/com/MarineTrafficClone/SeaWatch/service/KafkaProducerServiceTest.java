@@ -0,0 +1,187 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.NotLeaderOrFollowerException;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests για τον KafkaProducerService.
+ * Το KafkaTemplate είναι mock, οπότε κάθε test ολοκληρώνει τις αποστολές (επιτυχία ή αποτυχία) όποτε θέλει.
+ */
+@ExtendWith(MockitoExtension.class)
+class KafkaProducerServiceTest {
+
+    private static final String TOPIC = KafkaProducerService.AIS_TOPIC_NAME;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private KafkaProducerService kafkaProducerService;
+
+    @BeforeEach
+    void setUp() {
+        // Το πολύ 2 μηνύματα χωρίς επιβεβαίωση, 3 προσπάθειες με αναμονή 1 ms.
+        kafkaProducerService = new KafkaProducerService(kafkaTemplate, new SimpleMeterRegistry(), 2, 3, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        kafkaProducerService.stopRetries();
+    }
+
+    @Test
+    void sendAisDataAsJson_whenBrokerAcknowledges_shouldCountAckedMessages() throws Exception {
+        CompletableFuture<SendResult<String, String>> delivery = new CompletableFuture<>();
+        when(kafkaTemplate.send(TOPIC, "123", "{}")).thenReturn(delivery);
+
+        kafkaProducerService.sendAisDataAsJson("123", "{}");
+        assertEquals(1, kafkaProducerService.getSent());
+        assertEquals(1, kafkaProducerService.getInFlight());
+
+        delivery.complete(null);
+        assertEquals(1, kafkaProducerService.getAcked());
+        assertEquals(0, kafkaProducerService.getInFlight());
+        assertEquals(0, kafkaProducerService.getFailed());
+    }
+
+    @Test
+    void sendAisDataAsJson_whenMaxInFlightIsReached_shouldWaitForAnAcknowledgement() throws Exception {
+        CompletableFuture<SendResult<String, String>> first = new CompletableFuture<>();
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), anyString()))
+                .thenReturn(first, new CompletableFuture<>(), CompletableFuture.completedFuture(null));
+        kafkaProducerService.sendAisDataAsJson("1", "{}");
+        kafkaProducerService.sendAisDataAsJson("2", "{}");
+
+        CountDownLatch thirdSent = new CountDownLatch(1);
+        Thread sender = new Thread(() -> {
+            try {
+                kafkaProducerService.sendAisDataAsJson("3", "{}");
+                thirdSent.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        sender.start();
+
+        // Το τρίτο μήνυμα περιμένει όσο υπάρχουν 2 χωρίς επιβεβαίωση.
+        assertFalse(thirdSent.await(200, TimeUnit.MILLISECONDS));
+        first.complete(null);
+        assertTrue(thirdSent.await(5, TimeUnit.SECONDS));
+        sender.join();
+        assertEquals(3, kafkaProducerService.getSent());
+        assertEquals(2, kafkaProducerService.getAcked());
+        assertEquals(1, kafkaProducerService.getInFlight());
+    }
+
+    @Test
+    void sendAisDataAsJson_whenFailureIsRetriable_shouldRetryUntilAcknowledged() throws Exception {
+        when(kafkaTemplate.send(TOPIC, "123", "{}"))
+                .thenReturn(CompletableFuture.failedFuture(new NotLeaderOrFollowerException("leader moved")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        kafkaProducerService.sendAisDataAsJson("123", "{}");
+
+        assertTrue(kafkaProducerService.flush(5000));
+        verify(kafkaTemplate, times(2)).send(TOPIC, "123", "{}");
+        assertEquals(1, kafkaProducerService.getRetried());
+        assertEquals(1, kafkaProducerService.getAcked());
+        assertEquals(0, kafkaProducerService.getFailed());
+    }
+
+    @Test
+    void sendAisDataAsJson_whenRetryIsAcknowledged_shouldLeaveNothingInFlight() throws Exception {
+        CompletableFuture<SendResult<String, String>> retry = new CompletableFuture<>();
+        CountDownLatch retrySent = new CountDownLatch(1);
+        when(kafkaTemplate.send(TOPIC, "123", "{}"))
+                .thenReturn(CompletableFuture.failedFuture(new NotLeaderOrFollowerException("leader moved")))
+                .thenAnswer(invocation -> {
+                    retrySent.countDown();
+                    return retry;
+                });
+
+        kafkaProducerService.sendAisDataAsJson("123", "{}");
+
+        // Η επανάληψη στάλθηκε αλλά δεν επιβεβαιώθηκε ακόμα, οπότε το μήνυμα κρατά τη θέση του.
+        assertTrue(retrySent.await(5, TimeUnit.SECONDS));
+        assertEquals(1, kafkaProducerService.getInFlight());
+
+        retry.complete(null);
+        assertTrue(kafkaProducerService.flush(5000));
+        assertEquals(0, kafkaProducerService.getInFlight());
+        assertEquals(1, kafkaProducerService.getRetried());
+        assertEquals(1, kafkaProducerService.getAcked());
+        assertEquals(0, kafkaProducerService.getFailed());
+    }
+
+    @Test
+    void sendAisDataAsJson_whenRetriesAreExhausted_shouldCountFailedMessage() throws Exception {
+        when(kafkaTemplate.send(TOPIC, "123", "{}"))
+                .thenReturn(CompletableFuture.failedFuture(new NotLeaderOrFollowerException("leader moved")));
+
+        kafkaProducerService.sendAisDataAsJson("123", "{}");
+
+        assertTrue(kafkaProducerService.flush(5000));
+        verify(kafkaTemplate, times(3)).send(TOPIC, "123", "{}");
+        assertEquals(2, kafkaProducerService.getRetried());
+        assertEquals(1, kafkaProducerService.getFailed());
+        assertEquals(0, kafkaProducerService.getInFlight());
+    }
+
+    @Test
+    void sendAisDataAsJson_whenFailureIsNotRetriable_shouldFailWithoutRetrying() throws Exception {
+        when(kafkaTemplate.send(TOPIC, "123", "{}")).thenThrow(new RecordTooLargeException("too large"));
+
+        kafkaProducerService.sendAisDataAsJson("123", "{}");
+
+        verify(kafkaTemplate, times(1)).send(TOPIC, "123", "{}");
+        assertEquals(0, kafkaProducerService.getRetried());
+        assertEquals(1, kafkaProducerService.getFailed());
+        assertEquals(0, kafkaProducerService.getInFlight());
+    }
+
+    @Test
+    void stopRetries_shouldCountPendingRetriesAsFailed() throws Exception {
+        // Αναμονή ενός λεπτού, ώστε η επανάληψη να περιμένει ακόμα όταν σταματούν οι επαναλήψεις.
+        KafkaProducerService service = new KafkaProducerService(kafkaTemplate, new SimpleMeterRegistry(), 2, 3, 60_000, 60_000);
+        when(kafkaTemplate.send(TOPIC, "123", "{}"))
+                .thenReturn(CompletableFuture.failedFuture(new NotLeaderOrFollowerException("leader moved")));
+
+        service.sendAisDataAsJson("123", "{}");
+        assertEquals(1, service.getRetried());
+        assertEquals(1, service.getInFlight());
+
+        service.stopRetries();
+
+        verify(kafkaTemplate, times(1)).send(TOPIC, "123", "{}");
+        assertEquals(1, service.getFailed());
+        assertEquals(0, service.getInFlight());
+        assertTrue(service.flush(0));
+    }
+
+    @Test
+    void backoffMillis_shouldDoubleUpToTheMaximum() {
+        KafkaProducerService service = new KafkaProducerService(kafkaTemplate, new SimpleMeterRegistry(), 1, 10, 100, 500);
+
+        assertEquals(100, service.backoffMillis(1));
+        assertEquals(200, service.backoffMillis(2));
+        assertEquals(400, service.backoffMillis(3));
+        assertEquals(500, service.backoffMillis(4));
+        assertEquals(500, service.backoffMillis(40));
+        service.stopRetries();
+    }
+}
@@ -0,0 +1,105 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.dto.RealTimeShipUpdateDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ShipClusterDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ShipClusterResponseDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ShipClusterTileDTO;
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import com.MarineTrafficClone.SeaWatch.store.VesselStateStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests για τον ShipClusterService.
+ * Οι θέσεις περνούν από πραγματική ShipPositionCacheService, ώστε να ελέγχεται και η σταδιακή ενημέρωση μέσω listener.
+ */
+@ExtendWith(MockitoExtension.class)
+class ShipClusterServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private ShipPositionCacheService positionCache;
+    private ShipClusterService shipClusterService;
+
+    @BeforeEach
+    void setUp() {
+        positionCache = new ShipPositionCacheService(new VesselStateStore());
+        shipClusterService = new ShipClusterService(positionCache, messagingTemplate, 10);
+        shipClusterService.registerListener();
+    }
+
+    private void publish(String mmsi, double lat, double lon) {
+        positionCache.updatePosition(AisData.builder().mmsi(mmsi).latitude(lat).longitude(lon).build());
+    }
+
+    @Test
+    void getClusters_shouldGroupNearbyShipsAndFollowTheirMovements() {
+        // Arrange: δύο πλοία κοντά στον Πειραιά.
+        publish("111", 37.90, 23.60);
+        publish("222", 37.94, 23.64);
+
+        // Act & Assert: σε zoom 3 βρίσκονται στο ίδιο κελί.
+        ShipClusterResponseDTO response = shipClusterService.getClusters(3, -90, -180, 90, 180);
+        assertThat(response.isClustered()).isTrue();
+        assertThat(response.getClusters()).hasSize(1);
+        ShipClusterDTO cluster = response.getClusters().get(0);
+        assertThat(cluster.getCount()).isEqualTo(2);
+        assertThat(cluster.getLatitude()).isCloseTo(37.92, within(1e-9));
+        assertThat(cluster.getLongitude()).isCloseTo(23.62, within(1e-9));
+
+        // Act: το ένα πλοίο μετακινείται στον Ατλαντικό.
+        publish("222", 40.0, -30.0);
+
+        // Assert: δύο clusters με ένα πλοίο το καθένα, και μόνο ένα μέσα σε viewport γύρω από την Ελλάδα.
+        assertThat(shipClusterService.getClusters(3, -90, -180, 90, 180).getClusters())
+                .hasSize(2)
+                .allSatisfy(c -> assertThat(c.getCount()).isEqualTo(1));
+        assertThat(shipClusterService.getClusters(3, 30, 15, 45, 35).getClusters())
+                .singleElement()
+                .satisfies(c -> assertThat(c.getLatitude()).isCloseTo(37.90, within(1e-9)));
+    }
+
+    @Test
+    void getClusters_atOrAboveThreshold_shouldReturnIndividualShipsInViewport() {
+        publish("111", 37.90, 23.60);
+        publish("222", 40.0, -30.0);
+
+        ShipClusterResponseDTO response = shipClusterService.getClusters(10, 37, 23, 38, 24);
+
+        assertThat(response.isClustered()).isFalse();
+        assertThat(response.getClusters()).isEmpty();
+        assertThat(response.getShips()).extracting(RealTimeShipUpdateDTO::getMmsi).containsExactly("111");
+    }
+
+    @Test
+    void broadcastDirtyTiles_shouldSendOnlyChangedTilesOnce() {
+        publish("111", 37.90, 23.60);
+
+        // Πρώτη εκτέλεση: ένα tile ανά επίπεδο zoom άλλαξε.
+        shipClusterService.broadcastDirtyTiles();
+        ArgumentCaptor<ShipClusterTileDTO> updates = ArgumentCaptor.forClass(ShipClusterTileDTO.class);
+        verify(messagingTemplate, times(10)).convertAndSend(anyString(), updates.capture());
+        ShipClusterTileDTO zoomZero = updates.getAllValues().get(0);
+        assertThat(zoomZero.getZ()).isZero();
+        assertThat(zoomZero.getClusters()).hasSize(1);
+        verify(messagingTemplate).convertAndSend(eq("/topic/ais-clusters/0/0/0"), any(ShipClusterTileDTO.class));
+
+        // Δεύτερη εκτέλεση χωρίς νέες θέσεις: τίποτα δεν στέλνεται.
+        clearInvocations(messagingTemplate);
+        shipClusterService.broadcastDirtyTiles();
+        verifyNoInteractions(messagingTemplate);
+    }
+}
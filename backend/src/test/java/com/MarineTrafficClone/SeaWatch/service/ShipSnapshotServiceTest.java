@@ -0,0 +1,93 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.dto.RealTimeShipUpdateDTO;
+import com.MarineTrafficClone.SeaWatch.dto.ShipSnapshotChunkDTO;
+import com.MarineTrafficClone.SeaWatch.enumeration.ShipType;
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import com.MarineTrafficClone.SeaWatch.store.VesselStateStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests για τον ShipSnapshotService.
+ * Ελέγχει ότι το snapshot χωρίζεται σωστά σε chunks και ότι φέρει το σωστό high-water mark.
+ */
+@ExtendWith(MockitoExtension.class)
+class ShipSnapshotServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    // Χρησιμοποιούμε πραγματική cache, ώστε να ελέγξουμε και την ανάθεση των sequences.
+    private ShipPositionCacheService positionCache;
+    private ShipSnapshotService shipSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        positionCache = new ShipPositionCacheService(new VesselStateStore());
+        shipSnapshotService = new ShipSnapshotService(positionCache, messagingTemplate, 2);
+    }
+
+    @Test
+    void sendSnapshot_shouldSplitShipsIntoChunksTaggedWithHighWaterMark() {
+        // Arrange: 5 ενημερώσεις για 4 διαφορετικά πλοία (το 111 ενημερώνεται δύο φορές).
+        for (String mmsi : List.of("111", "222", "333", "444", "111")) {
+            positionCache.updatePosition(AisData.builder().mmsi(mmsi).build(),
+                    RealTimeShipUpdateDTO.builder().mmsi(mmsi).shiptype(ShipType.TUG).build());
+        }
+
+        // Act
+        int chunks = shipSnapshotService.sendSnapshot("session-1");
+
+        // Assert
+        assertThat(chunks).isEqualTo(2);
+        ArgumentCaptor<ShipSnapshotChunkDTO> chunkCaptor = ArgumentCaptor.forClass(ShipSnapshotChunkDTO.class);
+        ArgumentCaptor<MessageHeaders> headersCaptor = ArgumentCaptor.forClass(MessageHeaders.class);
+        verify(messagingTemplate, times(2)).convertAndSendToUser(eq("session-1"), eq(ShipSnapshotService.SNAPSHOT_DESTINATION),
+                chunkCaptor.capture(), headersCaptor.capture());
+
+        List<ShipSnapshotChunkDTO> sent = chunkCaptor.getAllValues();
+        assertThat(sent).allSatisfy(chunk -> {
+            assertThat(chunk.getHighWaterMark()).isEqualTo(5L);
+            assertThat(chunk.getTotalChunks()).isEqualTo(2);
+            assertThat(chunk.getSnapshotId()).isEqualTo(sent.get(0).getSnapshotId());
+        });
+        assertThat(sent.get(0).getShips()).hasSize(2);
+        assertThat(sent.get(1).getShips()).hasSize(2);
+        assertThat(sent.stream().flatMap(chunk -> chunk.getShips().stream()))
+                .filteredOn(ship -> ship.getMmsi().equals("111"))
+                .singleElement()
+                .satisfies(ship -> {
+                    assertThat(ship.getSequence()).isEqualTo(5L);
+                    assertThat(ship.getShiptype()).isEqualTo(ShipType.TUG);
+                });
+        assertThat(SimpMessageHeaderAccessor.getSessionId(headersCaptor.getValue())).isEqualTo("session-1");
+    }
+
+    @Test
+    void sendSnapshot_withEmptyCache_shouldSendSingleEmptyChunk() {
+        int chunks = shipSnapshotService.sendSnapshot("session-2");
+
+        assertThat(chunks).isEqualTo(1);
+        ArgumentCaptor<ShipSnapshotChunkDTO> chunkCaptor = ArgumentCaptor.forClass(ShipSnapshotChunkDTO.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("session-2"), eq(ShipSnapshotService.SNAPSHOT_DESTINATION),
+                chunkCaptor.capture(), any(MessageHeaders.class));
+        assertThat(chunkCaptor.getValue().getShips()).isEmpty();
+        assertThat(chunkCaptor.getValue().getHighWaterMark()).isZero();
+    }
+}
@@ -0,0 +1,107 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.dto.RealTimeShipUpdateDTO;
+import com.MarineTrafficClone.SeaWatch.enumeration.ShipType;
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import com.MarineTrafficClone.SeaWatch.store.VesselStateStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests για τον ShipTileService.
+ * Ελέγχει την παραγωγή tiles από την cache θέσεων και την ακύρωσή τους όταν μετακινείται ένα πλοίο.
+ */
+class ShipTileServiceTest {
+
+    private ShipPositionCacheService positionCache;
+    private ShipTileService shipTileService;
+
+    @BeforeEach
+    void setUp() {
+        positionCache = new ShipPositionCacheService(new VesselStateStore());
+        // Μεγάλο TTL, ώστε οποιαδήποτε αλλαγή tile στο test να οφείλεται σε ακύρωση.
+        shipTileService = new ShipTileService(positionCache, 60_000, 100);
+        shipTileService.registerListener();
+    }
+
+    private void publish(String mmsi, double lat, double lon) {
+        positionCache.updatePosition(AisData.builder().mmsi(mmsi).latitude(lat).longitude(lon).trueHeading(90).build(),
+                RealTimeShipUpdateDTO.builder().mmsi(mmsi).shiptype(ShipType.CARGO).build());
+    }
+
+    private static String asText(byte[] tile) {
+        return new String(tile, StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    void getTile_shouldContainOnlyShipsInsideTheTile() {
+        // Πειραιάς (tile 8/144/98) και Βρέστη.
+        publish("240000001", 37.94, 23.63);
+        publish("227000002", 48.38, -4.49);
+
+        String piraeusTile = asText(shipTileService.getTile(8, 144, 98));
+        String worldTile = asText(shipTileService.getTile(0, 0, 0));
+
+        assertThat(piraeusTile).contains("240000001").doesNotContain("227000002").contains("cargo");
+        assertThat(worldTile).contains("240000001").contains("227000002");
+        assertThat(shipTileService.getTile(8, 0, 0)).isEmpty();
+    }
+
+    @Test
+    void getTile_shouldServeFromCacheAndInvalidateWhenShipMoves() {
+        publish("240000001", 37.94, 23.63);
+        byte[] first = shipTileService.getTile(8, 144, 98);
+
+        // Χωρίς μετακινήσεις, το tile σερβίρεται από την cache.
+        assertThat(shipTileService.getTile(8, 144, 98)).isSameAs(first);
+
+        // Μια ενημέρωση άσχετου πλοίου μακριά δεν ακυρώνει το tile.
+        publish("227000002", 48.38, -4.49);
+        assertThat(shipTileService.getTile(8, 144, 98)).isSameAs(first);
+
+        // Το πλοίο φεύγει από το tile: η cache ακυρώνεται και το νέο tile είναι κενό.
+        publish("240000001", 35.0, 10.0);
+        assertThat(shipTileService.getTile(8, 144, 98)).isEmpty();
+    }
+
+    @Test
+    void getTile_shouldInvalidateLowAndHighZoomTilesOfTheMovedShip() {
+        publish("240000001", 37.94, 23.63);
+        byte[] world = shipTileService.getTile(0, 0, 0);
+        byte[] street = shipTileService.getTile(14, 9267, 6323);
+        assertThat(asText(street)).contains("240000001");
+
+        // Μετακίνηση μέσα στο ίδιο tile του zoom 8: αλλάζει η έκδοση και των δύο tiles.
+        publish("240000001", 37.9405, 23.6305);
+
+        assertThat(shipTileService.getTile(0, 0, 0)).isNotSameAs(world);
+        assertThat(shipTileService.getTile(14, 9267, 6323)).isNotSameAs(street);
+    }
+
+    @Test
+    void getTile_whenCacheIsFull_shouldEvictLeastRecentlyUsedTile() {
+        ShipTileService smallCache = new ShipTileService(positionCache, 60_000, 2);
+        smallCache.registerListener();
+        publish("240000001", 37.94, 23.63);
+        byte[] first = smallCache.getTile(8, 144, 98);
+        byte[] second = smallCache.getTile(8, 0, 0);
+
+        // Το πρώτο tile ζητείται ξανά, οπότε το τρίτο εκτοπίζει το δεύτερο.
+        assertThat(smallCache.getTile(8, 144, 98)).isSameAs(first);
+        smallCache.getTile(8, 1, 1);
+
+        assertThat(smallCache.getTile(8, 144, 98)).isSameAs(first);
+        assertThat(smallCache.getTile(8, 0, 0)).isNotSameAs(second);
+    }
+
+    @Test
+    void getTile_withOutOfRangeCoordinates_shouldThrow() {
+        assertThatThrownBy(() -> shipTileService.getTile(2, 4, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> shipTileService.getTile(23, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
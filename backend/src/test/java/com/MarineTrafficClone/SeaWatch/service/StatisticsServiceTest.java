@@ -1,22 +1,30 @@
 package com.MarineTrafficClone.SeaWatch.service;
 
-import com.MarineTrafficClone.SeaWatch.model.AisData;
+import com.MarineTrafficClone.SeaWatch.dto.SpeedHistogramBucketDTO;
+import com.MarineTrafficClone.SeaWatch.dto.StatisticsSnapshotDTO;
+import com.MarineTrafficClone.SeaWatch.enumeration.ShipType;
 import com.MarineTrafficClone.SeaWatch.model.CollisionZone;
 import com.MarineTrafficClone.SeaWatch.model.ZoneOfInterest;
+import com.MarineTrafficClone.SeaWatch.store.VesselState;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
  * Unit tests για τον StatisticsService.
- * Ελέγχει ότι τα στατιστικά υπολογίζονται σωστά βάσει των δεδομένων από τις caches.
+ * Ελέγχει ότι τα στατιστικά διατηρούνται σωστά από τις ζωντανές ενημερώσεις και τις caches των ζωνών.
  */
 @ExtendWith(MockitoExtension.class)
 class StatisticsServiceTest {
@@ -27,18 +35,26 @@ class StatisticsServiceTest {
     private ZoneOfInterestCacheService interestZoneCache;
     @Mock
     private CollisionZoneCacheService collisionZoneCache;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
 
     @InjectMocks
     private StatisticsService statisticsService;
 
+    private static VesselState update(String mmsi, Double speed, ShipType type) {
+        VesselState state = new VesselState();
+        state.setMmsi(mmsi);
+        state.setSpeedOverGround(speed != null ? speed : Double.NaN);
+        state.setShipType(type);
+        return state;
+    }
+
     @Test
     void getActiveAndStoppedShipCount_shouldReturnCorrectCounts() {
         // Arrange
-        AisData movingShip = AisData.builder().speedOverGround(10.5).build();
-        AisData stoppedShip1 = AisData.builder().speedOverGround(0.5).build();
-        AisData stoppedShip2 = AisData.builder().speedOverGround(1.0).build();
-
-        when(positionCache.getAllLatestPositions()).thenReturn(List.of(movingShip, stoppedShip1, stoppedShip2));
+        statisticsService.onRealTimeUpdate(null, update("1", 10.5, ShipType.CARGO));
+        statisticsService.onRealTimeUpdate(null, update("2", 0.5, ShipType.CARGO));
+        statisticsService.onRealTimeUpdate(null, update("3", 1.0, ShipType.CARGO));
 
         // Act
         long activeCount = statisticsService.getActiveShipCount();
@@ -49,6 +65,51 @@ class StatisticsServiceTest {
         assertThat(stoppedCount).isEqualTo(2);
     }
 
+    @Test
+    void onRealTimeUpdate_shouldMoveShipBetweenCountersWithoutChangingActiveCount() {
+        // Arrange
+        VesselState stopped = update("1", 0.2, ShipType.TUG);
+        VesselState moving = update("1", 12.0, ShipType.TUG);
+        statisticsService.onRealTimeUpdate(null, stopped);
+
+        // Act
+        statisticsService.onRealTimeUpdate(stopped, moving);
+
+        // Assert
+        assertThat(statisticsService.getActiveShipCount()).isEqualTo(1);
+        assertThat(statisticsService.getStoppedShipCount()).isZero();
+        StatisticsSnapshotDTO snapshot = statisticsService.getStatisticsSnapshot();
+        assertThat(snapshot.getShipsByType()).containsExactly(Map.entry("tug", 1L));
+        assertThat(snapshot.getSpeedHistogram().get(0).getCount()).isZero();
+        assertThat(snapshot.getSpeedHistogram().get(3).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getStatisticsSnapshot_shouldGroupShipsByTypeAndSpeed() {
+        // Arrange
+        statisticsService.onRealTimeUpdate(null, update("1", 0.0, ShipType.CARGO));
+        statisticsService.onRealTimeUpdate(null, update("2", 5.0, ShipType.CARGO));
+        statisticsService.onRealTimeUpdate(null, update("3", 31.0, ShipType.PASSENGER));
+        statisticsService.onRealTimeUpdate(null, update("4", null, null));
+
+        // Act
+        StatisticsSnapshotDTO snapshot = statisticsService.getStatisticsSnapshot();
+
+        // Assert
+        assertThat(snapshot.getActiveShips()).isEqualTo(4);
+        assertThat(snapshot.getShipsByType())
+                .containsEntry("cargo", 2L)
+                .containsEntry("passenger", 1L)
+                .containsEntry("unknown", 1L)
+                .hasSize(3);
+        List<SpeedHistogramBucketDTO> histogram = snapshot.getSpeedHistogram();
+        assertThat(histogram).hasSize(8);
+        assertThat(histogram.get(0)).isEqualTo(new SpeedHistogramBucketDTO(0.0, 1.0, 1));
+        assertThat(histogram.get(1)).isEqualTo(new SpeedHistogramBucketDTO(1.0, 5.0, 1));
+        assertThat(histogram.get(6)).isEqualTo(new SpeedHistogramBucketDTO(30.0, null, 1));
+        assertThat(histogram.get(7)).isEqualTo(new SpeedHistogramBucketDTO(null, null, 1));
+    }
+
     @Test
     void getZoneCounts_shouldReturnCorrectCounts() {
         // Arrange
@@ -63,4 +124,26 @@ class StatisticsServiceTest {
         assertThat(interestCount).isEqualTo(2);
         assertThat(collisionCount).isEqualTo(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void broadcastStatistics_shouldSendSnapshotToStatisticsTopic() {
+        // Arrange
+        statisticsService.onRealTimeUpdate(null, update("1", 8.0, ShipType.FISHING));
+
+        // Act
+        statisticsService.broadcastStatistics();
+
+        // Assert
+        ArgumentCaptor<StatisticsSnapshotDTO> captor = ArgumentCaptor.forClass(StatisticsSnapshotDTO.class);
+        verify(messagingTemplate).convertAndSend(eq(StatisticsService.STATISTICS_TOPIC), captor.capture());
+        assertThat(captor.getValue().getActiveShips()).isEqualTo(1);
+        assertThat(captor.getValue().getShipsByType()).containsEntry("fishing", 1L);
+    }
+
+    @Test
+    void registerListener_shouldSubscribeToPositionCache() {
+        statisticsService.registerListener();
+
+        verify(positionCache).addRealTimeUpdateListener(statisticsService);
+    }
+}
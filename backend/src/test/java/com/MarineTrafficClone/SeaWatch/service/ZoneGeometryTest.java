@@ -0,0 +1,73 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.dto.GeoPointDTO;
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneShape;
+import com.MarineTrafficClone.SeaWatch.exception.InvalidZoneGeometryException;
+import com.MarineTrafficClone.SeaWatch.model.CollisionZone;
+import com.MarineTrafficClone.SeaWatch.model.ZoneOfInterest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests για την κοινή αντιστοίχιση της γεωμετρίας στις ζώνες ({@link ZoneGeometry}).
+ */
+class ZoneGeometryTest {
+
+    private static final List<GeoPointDTO> SQUARE = List.of(
+            new GeoPointDTO(37.0, 24.0),
+            new GeoPointDTO(37.0, 25.0),
+            new GeoPointDTO(38.0, 25.0),
+            new GeoPointDTO(38.0, 24.0));
+
+    @Test
+    void apply_withoutShape_shouldKeepTheCircleFromTheRequest() {
+        CollisionZone zone = new CollisionZone();
+
+        ZoneGeometry.apply(zone, null, 37.94, 23.64, 1_000.0, SQUARE);
+
+        assertThat(zone.getShape()).isEqualTo(ZoneShape.CIRCLE);
+        assertThat(zone.getVertices()).isEmpty();
+        assertThat(zone.getRadiusInMeters()).isEqualTo(1_000.0);
+        assertThat(zone.getGeofence().contains(37.94, 23.64)).isTrue();
+    }
+
+    @Test
+    void apply_withPolygon_shouldDeriveTheBoundingCircleAndReplaceTheGeofence() {
+        ZoneOfInterest zone = ZoneOfInterest.builder()
+                .centerLatitude(37.94)
+                .centerLongitude(23.64)
+                .radiusInMeters(5_000.0)
+                .build();
+        assertThat(zone.getGeofence().contains(37.94, 23.64)).isTrue();
+
+        ZoneGeometry.apply(zone, ZoneShape.POLYGON, null, null, null, SQUARE);
+
+        assertThat(zone.getShape()).isEqualTo(ZoneShape.POLYGON);
+        assertThat(zone.getVertices()).hasSize(4);
+        assertThat(zone.getCenterLatitude()).isEqualTo(37.5);
+        assertThat(zone.getCenterLongitude()).isEqualTo(24.5);
+        assertThat(zone.getGeofence().contains(37.5, 24.5)).isTrue();
+        assertThat(zone.getGeofence().contains(37.94, 23.64)).isFalse();
+    }
+
+    @Test
+    void apply_withInvalidPolygon_shouldThrowAndLeaveTheZoneUnchanged() {
+        CollisionZone zone = CollisionZone.builder()
+                .centerLatitude(37.94)
+                .centerLongitude(23.64)
+                .radiusInMeters(5_000.0)
+                .build();
+
+        assertThatThrownBy(() -> ZoneGeometry.apply(zone, ZoneShape.POLYGON, null, null, null,
+                List.of(new GeoPointDTO(37.0, 24.0))))
+                .isInstanceOf(InvalidZoneGeometryException.class);
+
+        assertThat(zone.getShape()).isEqualTo(ZoneShape.CIRCLE);
+        assertThat(zone.getVertices()).isEmpty();
+        assertThat(zone.getGeofence().contains(37.94, 23.64)).isTrue();
+    }
+}
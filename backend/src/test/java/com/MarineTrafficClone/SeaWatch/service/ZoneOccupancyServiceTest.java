@@ -0,0 +1,224 @@
+package com.MarineTrafficClone.SeaWatch.service;
+
+import com.MarineTrafficClone.SeaWatch.dto.ZoneOccupancyDTO;
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneKind;
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import com.MarineTrafficClone.SeaWatch.model.CollisionZone;
+import com.MarineTrafficClone.SeaWatch.model.UserEntity;
+import com.MarineTrafficClone.SeaWatch.model.ZoneOfInterest;
+import com.MarineTrafficClone.SeaWatch.repository.CollisionZoneRepository;
+import com.MarineTrafficClone.SeaWatch.repository.ZoneOfInterestRepository;
+import com.MarineTrafficClone.SeaWatch.store.AlertStateStore;
+import com.MarineTrafficClone.SeaWatch.store.VesselStateStore;
+import com.MarineTrafficClone.SeaWatch.zone.ZoneOccupancy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests για τον ZoneOccupancyService. Οι ζώνες και τα μέλη τους δημοσιεύονται από τις πραγματικές caches ζωνών.
+ */
+@ExtendWith(MockitoExtension.class)
+class ZoneOccupancyServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private ZoneOfInterestRepository zoneOfInterestRepository;
+    @Mock
+    private CollisionZoneRepository collisionZoneRepository;
+
+    private ShipPositionCacheService positionCache;
+    private ZoneOfInterestCacheService zoneOfInterestCache;
+    private CollisionZoneCacheService collisionZoneCache;
+    private ZoneOccupancyService zoneOccupancy;
+    private UserEntity owner;
+
+    @BeforeEach
+    void setUp() {
+        positionCache = new ShipPositionCacheService(new VesselStateStore());
+        AlertStateStore alertState = new AlertStateStore(new SimpleMeterRegistry(), 1_800_000, 900_000, 10_000);
+        zoneOfInterestCache = new ZoneOfInterestCacheService(zoneOfInterestRepository, alertState, positionCache);
+        collisionZoneCache = new CollisionZoneCacheService(collisionZoneRepository, alertState, positionCache);
+        zoneOccupancy = new ZoneOccupancyService(positionCache, zoneOfInterestCache, collisionZoneCache, messagingTemplate);
+        owner = UserEntity.builder().email("captain@seawatch.gr").build();
+    }
+
+    private int[] collisionZoneMembers() {
+        return collisionZoneCache.getSnapshot().getOccupancy(1L).copyMembers();
+    }
+
+    private int report(String mmsi, double longitude, double latitude) {
+        AisData data = AisData.builder()
+                .mmsi(mmsi)
+                .longitude(longitude)
+                .latitude(latitude)
+                .speedOverGround(10.0)
+                .courseOverGround(90.0)
+                .build();
+        int slot = positionCache.updatePosition(data);
+        zoneOccupancy.updateCollisionZones(data, slot);
+        return slot;
+    }
+
+    private CollisionZone collisionZone() {
+        // Κύκλος 5 χλμ. γύρω από τον Πειραιά.
+        return CollisionZone.builder()
+                .id(1L)
+                .name("Piraeus")
+                .centerLatitude(37.94)
+                .centerLongitude(23.64)
+                .radiusInMeters(5_000.0)
+                .user(owner)
+                .build();
+    }
+
+    @Test
+    void addOrUpdateZone_shouldIncludeOnlyShipsAlreadyInside() {
+        // Arrange: ένα πλοίο μέσα και ένα έξω από τη ζώνη, πριν αυτή δημιουργηθεί.
+        report("237000001", 23.64, 37.94);
+        report("237000002", 24.50, 37.00);
+
+        // Act
+        collisionZoneCache.addOrUpdateZone(collisionZone());
+
+        // Assert
+        assertThat(zoneOccupancy.getCollisionZoneOccupancy(1L))
+                .hasValueSatisfying(dto -> {
+                    assertThat(dto.getZoneKind()).isEqualTo(ZoneKind.COLLISION);
+                    assertThat(dto.getShipCount()).isEqualTo(1);
+                    assertThat(dto.getMmsis()).containsExactly("237000001");
+                });
+    }
+
+    @Test
+    void addOrUpdateZone_shouldPublishNewMembersWithTheNewGeometry() {
+        // Arrange
+        collisionZoneCache.addOrUpdateZone(collisionZone());
+        int slot = report("237000001", 23.64, 37.94);
+        ZoneOccupancy before = collisionZoneCache.getSnapshot().getOccupancy(1L);
+
+        // Act: η ζώνη μετακινείται μακριά από το πλοίο.
+        CollisionZone moved = collisionZone();
+        moved.setCenterLatitude(37.00);
+        moved.setCenterLongitude(24.50);
+        collisionZoneCache.addOrUpdateZone(moved);
+
+        // Assert: το νέο στιγμιότυπο έχει τη νέα γεωμετρία με τα δικά της μέλη και το παλιό έμεινε ως είχε.
+        assertThat(collisionZoneCache.getSnapshot().get(1L)).isSameAs(moved);
+        assertThat(collisionZoneMembers()).isEmpty();
+        assertThat(before.copyMembers()).containsExactly(slot);
+    }
+
+    @Test
+    void updateCollisionZones_shouldTrackEntryAndExit() {
+        // Arrange
+        collisionZoneCache.addOrUpdateZone(collisionZone());
+
+        // Act & Assert: είσοδος δύο πλοίων και έξοδος του ενός.
+        int first = report("237000001", 23.64, 37.94);
+        int second = report("237000002", 23.65, 37.945);
+        assertThat(collisionZoneMembers()).containsExactlyInAnyOrder(first, second);
+
+        report("237000001", 24.50, 37.00);
+        assertThat(collisionZoneMembers()).containsExactly(second);
+    }
+
+    @Test
+    void copyMembers_shouldReturnACopyInSlotOrder() {
+        // Arrange: 100 πλοία έξω από τη ζώνη, ώστε τα μέλη να έχουν slots πέρα από την πρώτη λέξη του bitset.
+        collisionZoneCache.addOrUpdateZone(collisionZone());
+        for (int i = 0; i < 100; i++) {
+            report(String.valueOf(240000000 + i), 24.50, 37.00);
+        }
+        int late = report("237000002", 23.65, 37.945);
+        int early = report("240000000", 23.64, 37.94);
+
+        // Act
+        int[] members = collisionZoneMembers();
+        report("237000002", 24.50, 37.00);
+
+        // Assert: το αντίγραφο δεν αλλάζει με την έξοδο του πλοίου.
+        assertThat(members).containsExactly(early, late);
+        assertThat(collisionZoneMembers()).containsExactly(early);
+    }
+
+    @Test
+    void updateInterestZone_shouldRecordTheConsumersDecision() {
+        // Arrange
+        ZoneOfInterest zone = ZoneOfInterest.builder()
+                .id(7L)
+                .name("Saronic")
+                .centerLatitude(37.94)
+                .centerLongitude(23.64)
+                .radiusInMeters(5_000.0)
+                .user(owner)
+                .build();
+        zoneOfInterestCache.addOrUpdateZone(zone);
+        ZoneOccupancy occupancy = zoneOfInterestCache.getSnapshot().getOccupancy(7L);
+        int slot = report("237000001", 23.64, 37.94);
+
+        // Act & Assert: η πρώτη ενημέρωση είναι είσοδος (το πλοίο δεν ήταν μέλος πριν).
+        assertThat(zoneOccupancy.updateInterestZone(occupancy, slot, true)).isFalse();
+        assertThat(zoneOccupancy.getInterestZoneOccupancy(7L))
+                .hasValueSatisfying(dto -> assertThat(dto.getMmsis()).containsExactly("237000001"));
+
+        assertThat(zoneOccupancy.updateInterestZone(occupancy, slot, true)).isTrue();
+        assertThat(zoneOccupancy.updateInterestZone(occupancy, slot, false)).isTrue();
+        assertThat(zoneOccupancy.getInterestZoneOccupancy(7L))
+                .hasValueSatisfying(dto -> assertThat(dto.getShipCount()).isZero());
+    }
+
+    @Test
+    void updateInterestZone_withoutMembers_shouldReportNoTransition() {
+        int slot = report("237000001", 23.64, 37.94);
+
+        assertThat(zoneOccupancy.updateInterestZone(null, slot, true)).isTrue();
+        assertThat(zoneOccupancy.updateInterestZone(null, slot, false)).isFalse();
+    }
+
+    @Test
+    void getOccupancy_forUnknownOrRemovedZone_shouldBeEmpty() {
+        collisionZoneCache.addOrUpdateZone(collisionZone());
+        collisionZoneCache.removeZone(1L);
+
+        assertThat(zoneOccupancy.getCollisionZoneOccupancy(1L)).isEmpty();
+        assertThat(collisionZoneCache.getSnapshot().getOccupancy(1L)).isNull();
+        assertThat(zoneOccupancy.getInterestZoneOccupancy(99L)).isEmpty();
+    }
+
+    @Test
+    void broadcastOccupancyCounts_shouldSendOnlyWhenTheCountChanged() {
+        // Arrange
+        collisionZoneCache.addOrUpdateZone(collisionZone());
+        report("237000001", 23.64, 37.94);
+        report("237000002", 23.65, 37.945);
+
+        // Act: δύο είσοδοι συγκεντρώνονται σε ένα μήνυμα και η επόμενη αποστολή χωρίς αλλαγή παραλείπεται.
+        zoneOccupancy.broadcastOccupancyCounts();
+        zoneOccupancy.broadcastOccupancyCounts();
+
+        // Assert
+        ArgumentCaptor<ZoneOccupancyDTO> captor = ArgumentCaptor.forClass(ZoneOccupancyDTO.class);
+        verify(messagingTemplate, times(1))
+                .convertAndSendToUser(eq("captain@seawatch.gr"), eq("/queue/zone-occupancy"), captor.capture());
+        assertThat(captor.getValue().getShipCount()).isEqualTo(2);
+        assertThat(captor.getValue().getMmsis()).isNull();
+
+        // Μια έξοδος στέλνει ξανά τον νέο αριθμό.
+        report("237000002", 24.50, 37.00);
+        zoneOccupancy.broadcastOccupancyCounts();
+        verify(messagingTemplate, times(2))
+                .convertAndSendToUser(eq("captain@seawatch.gr"), eq("/queue/zone-occupancy"), any(ZoneOccupancyDTO.class));
+    }
+}
@@ -0,0 +1,62 @@
+package com.MarineTrafficClone.SeaWatch.store;
+
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneConstraintType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests για το AlertStateStore.
+ */
+class AlertStateStoreTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AlertStateStore store = new AlertStateStore(meterRegistry, 1_800_000, 900_000, 10_000);
+
+    @Test
+    void violationKey_shouldBeDistinctPerShipZoneAndConstraint() {
+        long key = AlertStateStore.violationKey(999_999_999L, 7L, ZoneConstraintType.SPEED_LIMIT_ABOVE);
+
+        assertThat(key).isNotEqualTo(AlertStateStore.violationKey(999_999_998L, 7L, ZoneConstraintType.SPEED_LIMIT_ABOVE));
+        assertThat(key).isNotEqualTo(AlertStateStore.violationKey(999_999_999L, 8L, ZoneConstraintType.SPEED_LIMIT_ABOVE));
+        assertThat(key).isNotEqualTo(AlertStateStore.violationKey(999_999_999L, 7L, ZoneConstraintType.SPEED_LIMIT_BELOW));
+    }
+
+    @Test
+    void collisionPairKey_shouldNotDependOnOrder() {
+        assertThat(AlertStateStore.collisionPairKey("237000001", "240000002"))
+                .isEqualTo(AlertStateStore.collisionPairKey("240000002", "237000001"))
+                .isNotEqualTo(AlertStateStore.collisionPairKey("237000001", "240000003"));
+        // Ένα άκυρο MMSI δεν προκαλεί εξαίρεση.
+        assertThat(AlertStateStore.collisionPairKey("not-a-number", "237000001"))
+                .isEqualTo(AlertStateStore.collisionPairKey("237000001", "not-a-number"));
+    }
+
+    @Test
+    void clearZone_shouldRemoveOnlyThatZonesEntriesAndUpdateTheGauge() {
+        store.markViolation(237000001L, 1L, ZoneConstraintType.SPEED_LIMIT_ABOVE);
+        store.markViolation(237000002L, 1L, ZoneConstraintType.FORBIDDEN_SHIP_TYPE);
+        store.markViolation(237000001L, 2L, ZoneConstraintType.SPEED_LIMIT_ABOVE);
+        assertThat(store.markViolation(237000001L, 1L, ZoneConstraintType.SPEED_LIMIT_ABOVE)).isFalse();
+
+        store.clearZoneViolations(1L);
+
+        assertThat(store.getZoneViolationCount()).isEqualTo(1);
+        assertThat(store.markViolation(237000001L, 1L, ZoneConstraintType.SPEED_LIMIT_ABOVE)).isTrue();
+        assertThat(meterRegistry.get("seawatch.alerts.state.size").tag("state", "zone-violations").gauge().value())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    void collisionPairs_shouldBeClearedPerZone() {
+        long pair = AlertStateStore.collisionPairKey("237000001", "237000002");
+        assertThat(store.markCollisionPair(pair, 5L)).isTrue();
+        assertThat(store.markCollisionPair(pair, 5L)).isFalse();
+
+        store.clearZoneCollisionPairs(5L);
+
+        assertThat(store.getCollisionPairCount()).isZero();
+        assertThat(store.markCollisionPair(pair, 5L)).isTrue();
+    }
+}
@@ -0,0 +1,117 @@
+package com.MarineTrafficClone.SeaWatch.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests για το ExpiringLongSet, με ελεγχόμενο ρολόι.
+ */
+class ExpiringLongSetTest {
+
+    private long now = 1_000_000L;
+
+    @Test
+    void add_shouldReportNewKeysAndRefreshExistingOnes() {
+        ExpiringLongSet set = new ExpiringLongSet(10_000, 100, () -> now);
+
+        assertThat(set.add(42L, 1L)).isTrue();
+        assertThat(set.add(42L, 1L)).isFalse();
+        assertThat(set.contains(42L)).isTrue();
+        assertThat(set.size()).isEqualTo(1);
+
+        // Η ανανέωση μετατοπίζει τη λήξη.
+        now += 8_000;
+        set.add(42L, 1L);
+        now += 8_000;
+        assertThat(set.contains(42L)).isTrue();
+
+        now += 10_000;
+        set.expire();
+        assertThat(set.contains(42L)).isFalse();
+        assertThat(set.size()).isZero();
+    }
+
+    @Test
+    void expire_shouldDropKeysAfterLongIdlePeriods() {
+        ExpiringLongSet set = new ExpiringLongSet(1_000, 100, () -> now);
+        for (long key = 0; key < 50; key++) {
+            set.add(key, 0L);
+        }
+
+        // Πολύ περισσότερος χρόνος από μια περιστροφή του τροχού.
+        now += 1_000_000;
+        set.expire();
+
+        assertThat(set.size()).isZero();
+        assertThat(set.add(7L, 0L)).isTrue();
+    }
+
+    @Test
+    void add_whenFull_shouldEvictTheKeyThatExpiresFirst() {
+        ExpiringLongSet set = new ExpiringLongSet(10_000, 3, () -> now);
+        set.add(1L, 0L);
+        now += 1_000;
+        set.add(2L, 0L);
+        now += 1_000;
+        set.add(3L, 0L);
+        now += 1_000;
+        set.add(1L, 0L); // Το 1 ανανεώνεται, οπότε το 2 λήγει πρώτο.
+
+        set.add(4L, 0L);
+
+        assertThat(set.size()).isEqualTo(3);
+        assertThat(set.contains(2L)).isFalse();
+        assertThat(set.contains(1L)).isTrue();
+        assertThat(set.contains(3L)).isTrue();
+        assertThat(set.contains(4L)).isTrue();
+    }
+
+    @Test
+    void removeGroupAndRetainIf_shouldRemoveMatchingKeys() {
+        ExpiringLongSet set = new ExpiringLongSet(10_000, 100, () -> now);
+        for (long key = 0; key < 20; key++) {
+            set.add(key, key % 2);
+        }
+
+        assertThat(set.removeGroup(1L)).isEqualTo(10);
+        assertThat(set.retainIf(key -> key < 10)).isEqualTo(5);
+
+        assertThat(set.size()).isEqualTo(5);
+        assertThat(set.contains(4L)).isTrue();
+        assertThat(set.contains(5L)).isFalse();
+        assertThat(set.contains(12L)).isFalse();
+    }
+
+    @Test
+    void randomOperations_shouldMatchReferenceModel() {
+        Random random = new Random(7);
+        long ttl = 5_000;
+        ExpiringLongSet set = new ExpiringLongSet(ttl, 1_000, () -> now);
+        Map<Long, Long> expiries = new HashMap<>();
+
+        for (int op = 0; op < 200_000; op++) {
+            if (random.nextInt(3) == 0) {
+                now += random.nextInt(1_000);
+            }
+            expiries.values().removeIf(expiry -> expiry <= now);
+            // Κλειδιά σε όλο το εύρος του long, ώστε να ελέγχονται και οι συγκρούσεις στο ευρετήριο.
+            long key = (random.nextInt(600) - 300L) * 0x9E3779B97F4A7C15L;
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    assertThat(set.add(key, 0L)).isEqualTo(!expiries.containsKey(key));
+                    expiries.put(key, now + ttl);
+                }
+                case 1 -> assertThat(set.remove(key)).isEqualTo(expiries.remove(key) != null);
+                default -> assertThat(set.contains(key)).isEqualTo(expiries.containsKey(key));
+            }
+        }
+        for (long key : expiries.keySet()) {
+            assertThat(set.contains(key)).isTrue();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.MarineTrafficClone.SeaWatch.store;
+
+import com.MarineTrafficClone.SeaWatch.enumeration.ShipType;
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests για τον VesselStateStore.
+ */
+class VesselStateStoreTest {
+
+    private final VesselStateStore store = new VesselStateStore();
+
+    private static AisData position(String mmsi, double latitude, double longitude) {
+        return AisData.builder()
+                .mmsi(mmsi)
+                .latitude(latitude)
+                .longitude(longitude)
+                .speedOverGround(12.5)
+                .courseOverGround(270.0)
+                .trueHeading(268)
+                .navigationalStatus(0)
+                .timestampEpoch(1_700_000_000L)
+                .build();
+    }
+
+    @Test
+    void update_shouldAssignDenseSlotsAndKeepThemForTheSameMmsi() {
+        int first = store.update(position("237000001", 37.9, 23.6));
+        int second = store.update(position("237000002", 38.0, 23.7));
+        int firstAgain = store.update(position("237000001", 37.91, 23.61));
+
+        assertThat(first).isZero();
+        assertThat(second).isEqualTo(1);
+        assertThat(firstAgain).isEqualTo(first);
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.slotOf("237000002")).isEqualTo(1);
+        assertThat(store.slotOf("999999999")).isEqualTo(-1);
+    }
+
+    @Test
+    void read_shouldReturnLatestState() {
+        store.update(position("237000001", 37.9, 23.6));
+        store.update(position("237000001", 37.95, 23.65));
+
+        VesselState state = new VesselState();
+        assertThat(store.read("237000001", state)).isTrue();
+
+        assertThat(state.getMmsi()).isEqualTo("237000001");
+        assertThat(state.getLatitude()).isEqualTo(37.95);
+        assertThat(state.getLongitude()).isEqualTo(23.65);
+        assertThat(state.getSpeedOverGround()).isEqualTo(12.5);
+        assertThat(state.getCourseOverGround()).isEqualTo(270.0);
+        assertThat(state.getTrueHeading()).isEqualTo((short) 268);
+        assertThat(state.getNavigationalStatus()).isEqualTo((byte) 0);
+        assertThat(state.getTimestampEpoch()).isEqualTo(1_700_000_000L);
+    }
+
+    @Test
+    void read_shouldUseSentinelsForMissingFields() {
+        store.update(AisData.builder().mmsi("237000001").build());
+
+        VesselState state = store.read(0, new VesselState());
+
+        assertThat(state.hasPosition()).isFalse();
+        assertThat(state.hasSpeed()).isFalse();
+        assertThat(state.hasCourse()).isFalse();
+        assertThat(state.getTrueHeading()).isEqualTo(VesselState.NO_HEADING);
+        assertThat(state.getNavigationalStatus()).isEqualTo(VesselState.NO_STATUS);
+        assertThat(state.getTimestampEpoch()).isEqualTo(VesselState.NO_TIMESTAMP);
+    }
+
+    @Test
+    void update_shouldKeepShipTypeAndSequenceAndReturnThePreviousState() {
+        VesselState previous = new VesselState();
+        store.update(position("237000001", 37.9, 23.6), ShipType.TANKER, 1, previous);
+        assertThat(previous.getSlot()).isEqualTo(-1);
+
+        // Χωρίς τύπο, κρατιέται ο τύπος που είναι ήδη γνωστός.
+        int slot = store.update(position("237000001", 37.95, 23.65), null, 2, previous);
+
+        assertThat(previous.getSlot()).isEqualTo(slot);
+        assertThat(previous.getLatitude()).isEqualTo(37.9);
+        assertThat(previous.getSequence()).isEqualTo(1);
+        VesselState current = store.read(slot, new VesselState());
+        assertThat(current.getShipType()).isEqualTo(ShipType.TANKER);
+        assertThat(current.getSequence()).isEqualTo(2);
+        assertThat(store.read(store.update(position("237000002", 0, 0)), new VesselState()).getShipType()).isNull();
+    }
+
+    @Test
+    void update_shouldIgnorePositionsWithoutMmsi() {
+        assertThat(store.update(AisData.builder().latitude(1.0).build())).isEqualTo(-1);
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void update_shouldGrowAcrossPages() {
+        int ships = VesselStateStore.PAGE_SIZE * 2 + 10;
+        for (int i = 0; i < ships; i++) {
+            store.update(position(String.valueOf(200_000_000 + i), i, -i));
+        }
+
+        VesselState state = new VesselState();
+        assertThat(store.size()).isEqualTo(ships);
+        store.read(ships - 1, state);
+        assertThat(state.getMmsi()).isEqualTo(String.valueOf(200_000_000 + ships - 1));
+        assertThat(state.getLatitude()).isEqualTo(ships - 1);
+    }
+
+    /**
+     * Ο writer γράφει πάντα latitude == -longitude. Ένας αναγνώστης που θα έβλεπε μισογραμμένη εγγραφή
+     * θα έβρισκε τις δύο τιμές από διαφορετικές ενημερώσεις.
+     */
+    @Test
+    void read_shouldNeverObserveTornWritesWhileWriterIsActive() throws InterruptedException {
+        store.update(position("237000001", 0, 0));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> tornRead = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            VesselState state = new VesselState();
+            while (running.get()) {
+                store.read(0, state);
+                if (state.getLatitude() != -state.getLongitude()) {
+                    tornRead.set(state.getLatitude() + " / " + state.getLongitude());
+                }
+            }
+        });
+        reader.start();
+
+        for (int i = 1; i <= 200_000; i++) {
+            store.update(position("237000001", i % 90, -(i % 90)));
+        }
+        running.set(false);
+        reader.join();
+
+        assertThat(tornRead.get()).isNull();
+    }
+}
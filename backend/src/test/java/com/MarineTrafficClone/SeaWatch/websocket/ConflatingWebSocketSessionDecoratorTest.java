@@ -0,0 +1,103 @@
+package com.MarineTrafficClone.SeaWatch.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConflatingWebSocketSessionDecoratorTest {
+
+    @Mock
+    private WebSocketSession delegate;
+
+    // Executor που απλώς κρατά τις εργασίες, ώστε το test να ελέγχει πότε γίνεται η αποστολή.
+    private final List<Runnable> pendingTasks = new ArrayList<>();
+    private final AtomicInteger slowDisconnects = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        pendingTasks.clear();
+        slowDisconnects.set(0);
+    }
+
+    private ConflatingWebSocketSessionDecorator decorator(int capacity) {
+        return new ConflatingWebSocketSessionDecorator(delegate, pendingTasks::add,
+                Set.of("/topic/ais-updates"), capacity, 60_000, 64, slowDisconnects::incrementAndGet);
+    }
+
+    private static TextMessage positionFrame(String mmsi, double lat) {
+        return new TextMessage("MESSAGE\ndestination:/topic/ais-updates\nsubscription:sub-0\nmmsi:" + mmsi
+                + "\ncontent-type:application/json\n\n{\"mmsi\":\"" + mmsi + "\",\"latitude\":" + lat + "}\u0000");
+    }
+
+    private static TextMessage notificationFrame() {
+        return new TextMessage("MESSAGE\ndestination:/user/queue/notifications\nsubscription:sub-1\n\n{\"message\":\"alert\"}\u0000");
+    }
+
+    private void runPendingTasks() {
+        while (!pendingTasks.isEmpty()) {
+            pendingTasks.remove(0).run();
+        }
+    }
+
+    @Test
+    void sendMessage_shouldConflatePositionsPerShipAndKeepNotifications() throws Exception {
+        ConflatingWebSocketSessionDecorator session = decorator(100);
+        TextMessage latestForShip1 = positionFrame("1", 3.0);
+
+        session.sendMessage(positionFrame("1", 1.0));
+        session.sendMessage(notificationFrame());
+        session.sendMessage(positionFrame("1", 2.0));
+        session.sendMessage(positionFrame("2", 1.0));
+        session.sendMessage(latestForShip1);
+
+        // Τρία frames σε αναμονή: το πλοίο 1 (μία φορά), η ειδοποίηση και το πλοίο 2.
+        assertThat(session.getQueueDepth()).isEqualTo(3);
+        assertThat(session.getEnqueuedCount()).isEqualTo(5);
+        assertThat(session.getConflatedCount()).isEqualTo(2);
+        verify(delegate, never()).sendMessage(any());
+
+        runPendingTasks();
+
+        ArgumentCaptor<WebSocketMessage<?>> sent = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(delegate, times(3)).sendMessage(sent.capture());
+        assertThat(sent.getAllValues().get(0)).isSameAs(latestForShip1); // Το νεότερο στίγμα κρατά την αρχική θέση.
+        assertThat(((TextMessage) sent.getAllValues().get(1)).getPayload()).contains("/user/queue/notifications");
+        assertThat(((TextMessage) sent.getAllValues().get(2)).getPayload()).contains("mmsi:2");
+        assertThat(session.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void sendMessage_shouldDisconnectSessionWhenQueueOverflows() throws Exception {
+        ConflatingWebSocketSessionDecorator session = decorator(2);
+
+        session.sendMessage(notificationFrame());
+        session.sendMessage(notificationFrame());
+        verify(delegate, never()).close(any());
+
+        session.sendMessage(notificationFrame());
+
+        verify(delegate).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(slowDisconnects.get()).isEqualTo(1);
+        assertThat(session.getQueueDepth()).isZero();
+
+        // Μετά το κλείσιμο τίποτα δεν στέλνεται.
+        runPendingTasks();
+        verify(delegate, never()).sendMessage(any());
+    }
+}
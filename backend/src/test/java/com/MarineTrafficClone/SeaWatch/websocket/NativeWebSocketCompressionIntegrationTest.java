@@ -0,0 +1,331 @@
+package com.MarineTrafficClone.SeaWatch.websocket;
+
+import com.MarineTrafficClone.SeaWatch.AbstractTest;
+import com.MarineTrafficClone.SeaWatch.dto.RealTimeShipUpdateDTO;
+import com.MarineTrafficClone.SeaWatch.enumeration.ShipType;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Integration tests για τη διαπραγμάτευση του permessage-deflate στο {@code /ws-ais-native}, πάνω σε πραγματικό Tomcat.
+ *
+ * Τα handshakes γίνονται με τον standard (JSR-356) WebSocket client. Τα bytes μιας session μετρώνται με έναν ελάχιστο
+ * client πάνω σε socket, γιατί ο standard client δεν δίνει πρόσβαση στα frames όπως φτάνουν από το δίκτυο.
+ * Το SSL απενεργοποιείται, ώστε οι clients να μη χρειάζονται το self-signed πιστοποιητικό του server.
+ */
+@TestPropertySource(properties = {
+        "jwt.secret-key=dGVzdHNlY3JldHRlc3RzZWNyZXR0ZXN0c2VjcmV0dGVzdHNlY3JldHRlc3RzZWNyZXR0ZXN0c2VjcmV0",
+        "server.ssl.enabled=false"
+})
+class NativeWebSocketCompressionIntegrationTest extends AbstractTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NativeWebSocketCompressionIntegrationTest.class);
+
+    private static final String ENDPOINT = "/ws-ais-native";
+    private static final String TOPIC = "/topic/ais-updates";
+    private static final int UPDATES = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private SimpleBrokerMessageHandler brokerMessageHandler;
+
+    @Test
+    void handshake_whenClientOffersPermessageDeflate_shouldAcceptIt() throws Exception {
+        WebSocketSession session = connect(port, "permessage-deflate");
+
+        assertThat(extensionNames(session)).containsExactly(CompressionNegotiatingHandshakeHandler.PERMESSAGE_DEFLATE);
+        session.close();
+    }
+
+    @Test
+    void handshake_whenOfferCannotBeHonoured_shouldConnectWithoutCompression() throws Exception {
+        // Ο Deflater της Java δουλεύει μόνο με παράθυρο 2^15, οπότε ο Tomcat απορρίπτει μικρότερο server_max_window_bits.
+        WebSocketSession session = connect(port, "permessage-deflate; server_max_window_bits=10");
+
+        assertThat(session.isOpen()).isTrue();
+        assertThat(extensionNames(session)).isEmpty();
+        session.close();
+    }
+
+    @Test
+    void session_withPermessageDeflate_shouldSendFewerBytesForTheSameUpdates() throws Exception {
+        try (RawStompClient deflate = RawStompClient.connect(port, "permessage-deflate");
+             RawStompClient plain = RawStompClient.connect(port, null)) {
+            assertThat(deflate.negotiatedExtensions).startsWith(CompressionNegotiatingHandshakeHandler.PERMESSAGE_DEFLATE);
+            assertThat(plain.negotiatedExtensions).isNull();
+            deflate.subscribe(TOPIC);
+            plain.subscribe(TOPIC);
+            await().atMost(10, TimeUnit.SECONDS).until(() -> subscriberCount(TOPIC) == 2);
+
+            for (int i = 0; i < UPDATES; i++) {
+                messagingTemplate.convertAndSend(TOPIC, update(i));
+            }
+            long deflateBytes = deflate.readMessages(UPDATES);
+            long plainBytes = plain.readMessages(UPDATES);
+
+            log.info("{} updates on {}: {} bytes with permessage-deflate, {} bytes without ({}%)",
+                    UPDATES, ENDPOINT, deflateBytes, plainBytes, 100 * deflateBytes / plainBytes);
+            assertThat(deflateBytes).isLessThan(plainBytes / 2);
+        }
+    }
+
+    /**
+     * Με {@code websocket.native.compression.enabled=false} ο server δεν δέχεται την προσφορά, ακόμη κι αν ο Tomcat μπορεί.
+     */
+    @Nested
+    @TestPropertySource(properties = "websocket.native.compression.enabled=false")
+    class CompressionDisabled {
+
+        @LocalServerPort
+        private int disabledPort;
+
+        @Test
+        void handshake_whenClientOffersPermessageDeflate_shouldRejectIt() throws Exception {
+            WebSocketSession session = connect(disabledPort, "permessage-deflate");
+
+            assertThat(session.isOpen()).isTrue();
+            assertThat(extensionNames(session)).isEmpty();
+            session.close();
+            try (RawStompClient client = RawStompClient.connect(disabledPort, "permessage-deflate")) {
+                assertThat(client.negotiatedExtensions).isNull();
+            }
+        }
+    }
+
+    private static WebSocketSession connect(int port, String offer) throws Exception {
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.setSecWebSocketExtensions(WebSocketExtension.parseExtensions(offer));
+        return new StandardWebSocketClient()
+                .execute(new TextWebSocketHandler(), headers, URI.create("ws://localhost:" + port + ENDPOINT))
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private static List<String> extensionNames(WebSocketSession session) {
+        return session.getExtensions().stream().map(WebSocketExtension::getName).toList();
+    }
+
+    private int subscriberCount(String destination) {
+        Message<byte[]> message = MessageBuilder.withPayload(new byte[0])
+                .setHeader(SimpMessageHeaderAccessor.DESTINATION_HEADER, destination)
+                .build();
+        return brokerMessageHandler.getSubscriptionRegistry().findSubscriptions(message).size();
+    }
+
+    private static RealTimeShipUpdateDTO update(int i) {
+        return RealTimeShipUpdateDTO.builder()
+                .mmsi(String.valueOf(237_000_000 + i))
+                .latitude(37.9 + i * 0.001)
+                .longitude(23.6 + i * 0.001)
+                .courseOverGround(90.0)
+                .speedOverGround(12.5)
+                .trueHeading(90)
+                .navigationalStatus(0)
+                .timestampEpoch(1_443_650_400L + i)
+                .shiptype(ShipType.CARGO)
+                .sequence(i + 1L)
+                .build();
+    }
+
+    /**
+     * Ελάχιστος STOMP client πάνω σε WebSocket (RFC 6455), που μετρά τα bytes κάθε frame από τον server,
+     * μαζί με το header του frame. Τα συμπιεσμένα μηνύματα αποσυμπιέζονται για να αναγνωριστούν τα MESSAGE frames.
+     */
+    private static final class RawStompClient implements AutoCloseable {
+
+        private final Socket socket;
+        private final DataInputStream in;
+        private final OutputStream out;
+        private final String negotiatedExtensions;
+        private final Inflater inflater = new Inflater(true);
+
+        private RawStompClient(Socket socket, DataInputStream in, OutputStream out, String negotiatedExtensions) {
+            this.socket = socket;
+            this.in = in;
+            this.out = out;
+            this.negotiatedExtensions = negotiatedExtensions;
+        }
+
+        static RawStompClient connect(int port, String offer) throws IOException, DataFormatException {
+            Socket socket = new Socket("localhost", port);
+            socket.setSoTimeout(10_000);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            OutputStream out = socket.getOutputStream();
+            String request = "GET " + ENDPOINT + " HTTP/1.1\r\n"
+                    + "Host: localhost:" + port + "\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+                    + "Sec-WebSocket-Version: 13\r\n"
+                    + "Sec-WebSocket-Protocol: v12.stomp\r\n"
+                    + (offer != null ? "Sec-WebSocket-Extensions: " + offer + "\r\n" : "")
+                    + "\r\n";
+            out.write(request.getBytes(StandardCharsets.US_ASCII));
+
+            String status = readLine(in);
+            assertThat(status).startsWith("HTTP/1.1 101");
+            Map<String, String> headers = new HashMap<>();
+            for (String line = readLine(in); !line.isEmpty(); line = readLine(in)) {
+                int colon = line.indexOf(':');
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+
+            RawStompClient client = new RawStompClient(socket, in, out, headers.get("sec-websocket-extensions"));
+            client.send("CONNECT\naccept-version:1.2\nhost:localhost\nheart-beat:0,0\n\n\0");
+            assertThat(client.readMessage().text()).startsWith("CONNECTED");
+            return client;
+        }
+
+        void subscribe(String destination) throws IOException {
+            send("SUBSCRIBE\nid:sub-0\ndestination:" + destination + "\n\n\0");
+        }
+
+        /**
+         * Διαβάζει μηνύματα μέχρι να φτάσουν {@code count} MESSAGE frames.
+         *
+         * @return Τα bytes που διαβάστηκαν από το δίκτυο για αυτά τα μηνύματα.
+         */
+        long readMessages(int count) throws IOException, DataFormatException {
+            long bytes = 0;
+            for (int received = 0; received < count; ) {
+                ReceivedMessage message = readMessage();
+                if (message.text().startsWith("MESSAGE")) {
+                    bytes += message.wireBytes();
+                    received++;
+                }
+            }
+            return bytes;
+        }
+
+        private ReceivedMessage readMessage() throws IOException, DataFormatException {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            long wireBytes = 0;
+            boolean compressed = false;
+            boolean first = true;
+            boolean fin;
+            do {
+                int b0 = in.readUnsignedByte();
+                int b1 = in.readUnsignedByte();
+                long length = b1 & 0x7F;
+                wireBytes += 2;
+                if (length == 126) {
+                    length = in.readUnsignedShort();
+                    wireBytes += 2;
+                } else if (length == 127) {
+                    length = in.readLong();
+                    wireBytes += 8;
+                }
+                byte[] data = new byte[(int) length];
+                in.readFully(data);
+                wireBytes += length;
+                payload.write(data);
+                if (first) {
+                    compressed = (b0 & 0x40) != 0;
+                    first = false;
+                }
+                fin = (b0 & 0x80) != 0;
+            } while (!fin);
+
+            byte[] bytes = payload.toByteArray();
+            return new ReceivedMessage(compressed ? inflate(bytes) : new String(bytes, StandardCharsets.UTF_8), wireBytes);
+        }
+
+        /** Αποσυμπιέζει ένα μήνυμα (RFC 7692): ο server αφαιρεί το τελικό 00 00 FF FF, οπότε το προσθέτουμε ξανά. */
+        private String inflate(byte[] compressed) throws DataFormatException {
+            byte[] input = new byte[compressed.length + 4];
+            System.arraycopy(compressed, 0, input, 0, compressed.length);
+            input[compressed.length + 2] = (byte) 0xFF;
+            input[compressed.length + 3] = (byte) 0xFF;
+            inflater.setInput(input);
+            ByteArrayOutputStream text = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            while (!inflater.needsInput()) {
+                text.write(buffer, 0, inflater.inflate(buffer));
+            }
+            return text.toString(StandardCharsets.UTF_8);
+        }
+
+        /** Στέλνει ένα text frame, masked όπως απαιτείται για τα frames από τον client. */
+        private void send(String text) throws IOException {
+            byte[] data = text.getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream frame = new ByteArrayOutputStream();
+            frame.write(0x81);
+            if (data.length < 126) {
+                frame.write(0x80 | data.length);
+            } else {
+                frame.write(0x80 | 126);
+                frame.write(data.length >>> 8);
+                frame.write(data.length & 0xFF);
+            }
+            byte[] mask = new byte[4];
+            ThreadLocalRandom.current().nextBytes(mask);
+            frame.write(mask);
+            for (int i = 0; i < data.length; i++) {
+                frame.write(data[i] ^ mask[i & 3]);
+            }
+            out.write(frame.toByteArray());
+            out.flush();
+        }
+
+        private static String readLine(DataInputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            for (int c = in.read(); c != '\n'; c = in.read()) {
+                if (c < 0) {
+                    throw new IOException("Connection closed during the handshake");
+                }
+                if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+            return line.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflater.end();
+            socket.close();
+        }
+
+        private record ReceivedMessage(String text, long wireBytes) {
+        }
+    }
+}
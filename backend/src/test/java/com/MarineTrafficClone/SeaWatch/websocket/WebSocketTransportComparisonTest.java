@@ -0,0 +1,169 @@
+package com.MarineTrafficClone.SeaWatch.websocket;
+
+import com.MarineTrafficClone.SeaWatch.dto.RealTimeShipUpdateDTO;
+import com.MarineTrafficClone.SeaWatch.enumeration.ShipType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.sockjs.frame.Jackson2SockJsMessageCodec;
+import org.springframework.web.socket.sockjs.frame.SockJsFrame;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+import java.util.zip.Deflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Σύγκριση εύρους ζώνης και CPU για μια session αναπαραγωγής (replay) πάνω από τα δύο transports:
+ * SockJS ({@code /ws-ais}) και native WebSocket με permessage-deflate ({@code /ws-ais-native}).
+ *
+ * Τα STOMP frames παράγονται με τον ίδιο encoder και τον ίδιο ObjectMapper που χρησιμοποιεί η εφαρμογή.
+ * Για κάθε transport υπολογίζονται τα bytes που θα έφευγαν στο καλώδιο (payload και header του WebSocket frame)
+ * και ο χρόνος CPU της κωδικοποίησης που προσθέτει το transport. Το permessage-deflate προσομοιώνεται όπως
+ * το εφαρμόζει ο Tomcat: raw deflate με SYNC_FLUSH ανά μήνυμα και αφαίρεση του τελικού 00 00 FF FF.
+ * Τα αποτελέσματα γράφονται στο log του test.
+ */
+class WebSocketTransportComparisonTest {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketTransportComparisonTest.class);
+
+    private static final int SHIPS = 300;
+    private static final int UPDATES_PER_SHIP = 40;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StompEncoder stompEncoder = new StompEncoder();
+
+    @Test
+    void replaySession_nativeWithDeflateShouldUseLessBandwidthThanSockJs() throws Exception {
+        List<String> frames = replaySessionFrames();
+
+        Jackson2SockJsMessageCodec sockJsCodec = new Jackson2SockJsMessageCodec();
+        TransportResult sockJs = measure("SockJS (websocket)", frames,
+                frame -> SockJsFrame.messageFrame(sockJsCodec, frame).getContentBytes().length);
+        TransportResult nativeRaw = measure("native", frames,
+                frame -> frame.getBytes(StandardCharsets.UTF_8).length);
+
+        Deflater contextTakeover = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        TransportResult nativeDeflate = measure("native + permessage-deflate", frames,
+                frame -> deflatedSize(contextTakeover, frame, false));
+
+        Deflater noContextTakeover = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        TransportResult nativeDeflateNoTakeover = measure("native + permessage-deflate (no context takeover)", frames,
+                frame -> deflatedSize(noContextTakeover, frame, true));
+
+        for (TransportResult result : List.of(sockJs, nativeRaw, nativeDeflate, nativeDeflateNoTakeover)) {
+            log.info("{}: {} frames, {} bytes on the wire ({} bytes/frame, {}% of SockJS), {} ms CPU",
+                    result.name(), frames.size(), result.wireBytes(), result.wireBytes() / frames.size(),
+                    100 * result.wireBytes() / sockJs.wireBytes(), result.cpuNanos() / 1_000_000);
+        }
+
+        // Το SockJS προσθέτει το a["..."] και το JSON escaping σε κάθε frame.
+        assertThat(nativeRaw.wireBytes()).isLessThan(sockJs.wireBytes());
+        // Με context takeover ο compressor ξαναχρησιμοποιεί τα headers και τα ονόματα πεδίων των προηγούμενων frames.
+        assertThat(nativeDeflate.wireBytes()).isLessThan(nativeDeflateNoTakeover.wireBytes());
+        assertThat(nativeDeflateNoTakeover.wireBytes()).isLessThan(nativeRaw.wireBytes());
+        assertThat(nativeDeflate.wireBytes()).isLessThan(sockJs.wireBytes() / 2);
+    }
+
+    /**
+     * Παράγει τα STOMP MESSAGE frames μιας session που παρακολουθεί το /topic/ais-updates,
+     * για ένα ντετερμινιστικό σύνολο πλοίων που κινούνται στο Αιγαίο.
+     */
+    private List<String> replaySessionFrames() throws Exception {
+        Random random = new Random(42);
+        ShipType[] types = ShipType.values();
+        double[][] positions = new double[SHIPS][];
+        for (int ship = 0; ship < SHIPS; ship++) {
+            positions[ship] = new double[]{35 + random.nextDouble() * 5, 22 + random.nextDouble() * 6,
+                    random.nextDouble() * 360, random.nextDouble() * 20};
+        }
+
+        List<String> frames = new ArrayList<>();
+        long sequence = 0;
+        long timestamp = 1_443_650_400L;
+        for (int round = 0; round < UPDATES_PER_SHIP; round++) {
+            for (int ship = 0; ship < SHIPS; ship++) {
+                double[] state = positions[ship];
+                state[0] += Math.cos(Math.toRadians(state[2])) * state[3] * 0.0002;
+                state[1] += Math.sin(Math.toRadians(state[2])) * state[3] * 0.0002;
+                String mmsi = String.valueOf(237_000_000 + ship * 37);
+                RealTimeShipUpdateDTO update = RealTimeShipUpdateDTO.builder()
+                        .mmsi(mmsi)
+                        .latitude(state[0])
+                        .longitude(state[1])
+                        .courseOverGround(Math.round(state[2] * 10) / 10.0)
+                        .speedOverGround(Math.round(state[3] * 10) / 10.0)
+                        .trueHeading((int) state[2])
+                        .navigationalStatus(0)
+                        .timestampEpoch(timestamp + round * 10L)
+                        .shiptype(types[ship % types.length])
+                        .sequence(++sequence)
+                        .build();
+                frames.add(stompFrame(mmsi, sequence, objectMapper.writeValueAsBytes(update)));
+            }
+        }
+        return frames;
+    }
+
+    private String stompFrame(String mmsi, long messageId, byte[] payload) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setDestination("/topic/ais-updates");
+        accessor.setSubscriptionId("sub-0");
+        accessor.setMessageId("c1d2e3f4-" + messageId);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setNativeHeader(ConflatingWebSocketSessionDecorator.MMSI_HEADER, mmsi);
+        Message<byte[]> message = MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+        return new String(stompEncoder.encode(message), StandardCharsets.UTF_8);
+    }
+
+    private static int deflatedSize(Deflater deflater, String frame, boolean resetContext) {
+        if (resetContext) {
+            deflater.reset();
+        }
+        deflater.setInput(frame.getBytes(StandardCharsets.UTF_8));
+        byte[] buffer = new byte[8192];
+        int total = 0;
+        int written;
+        do {
+            written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+            total += written;
+        } while (written == buffer.length);
+        // Το RFC 7692 αφαιρεί το τελικό empty block (00 00 FF FF) του SYNC_FLUSH από κάθε μήνυμα.
+        return total - 4;
+    }
+
+    private static TransportResult measure(String name, List<String> frames, ToIntFunction<String> payloadSize) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long wireBytes = 0;
+        for (String frame : frames) {
+            int payload = payloadSize.applyAsInt(frame);
+            wireBytes += payload + webSocketHeaderSize(payload);
+        }
+        return new TransportResult(name, wireBytes, threads.getCurrentThreadCpuTime() - cpuStart);
+    }
+
+    /** Το μέγεθος του header ενός (μη masked) WebSocket frame από τον server προς τον client. */
+    private static int webSocketHeaderSize(int payloadLength) {
+        if (payloadLength < 126) {
+            return 2;
+        }
+        return payloadLength < 65536 ? 4 : 10;
+    }
+
+    private record TransportResult(String name, long wireBytes, long cpuNanos) {
+    }
+}
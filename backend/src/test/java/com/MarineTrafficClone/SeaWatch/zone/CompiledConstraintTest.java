@@ -0,0 +1,119 @@
+package com.MarineTrafficClone.SeaWatch.zone;
+
+import com.MarineTrafficClone.SeaWatch.enumeration.ShipType;
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneConstraintType;
+import com.MarineTrafficClone.SeaWatch.exception.InvalidZoneConstraintException;
+import com.MarineTrafficClone.SeaWatch.model.AisData;
+import com.MarineTrafficClone.SeaWatch.model.ZoneConstraint;
+import com.MarineTrafficClone.SeaWatch.model.ZoneOfInterest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Ελέγχει τη μεταγλώττιση των περιορισμών ζώνης: τα κατηγορήματα που προκύπτουν,
+ * την απόρριψη των άκυρων τιμών και τη μεταγλώττιση μιας ολόκληρης ζώνης.
+ */
+class CompiledConstraintTest {
+
+    private static ZoneConstraint constraint(ZoneConstraintType type, String value) {
+        ZoneConstraint constraint = new ZoneConstraint();
+        constraint.setConstraintType(type);
+        constraint.setConstraintValue(value);
+        return constraint;
+    }
+
+    private static AisData position(Double speed, Integer navigationalStatus) {
+        AisData position = new AisData();
+        position.setMmsi("123456789");
+        position.setSpeedOverGround(speed);
+        position.setNavigationalStatus(navigationalStatus);
+        return position;
+    }
+
+    @Test
+    void speedLimits_shouldCompareAgainstParsedLimit() {
+        CompiledConstraint above = CompiledConstraint.compile(constraint(ZoneConstraintType.SPEED_LIMIT_ABOVE, " 10.5 "));
+        CompiledConstraint below = CompiledConstraint.compile(constraint(ZoneConstraintType.SPEED_LIMIT_BELOW, "3"));
+
+        assertThat(above.isViolatedBy(position(11.0, null), ShipType.CARGO)).isTrue();
+        assertThat(above.isViolatedBy(position(10.5, null), ShipType.CARGO)).isFalse();
+        assertThat(above.isViolatedBy(position(null, null), ShipType.CARGO)).isFalse();
+        assertThat(below.isViolatedBy(position(2.0, null), ShipType.CARGO)).isTrue();
+        assertThat(below.isViolatedBy(position(3.0, null), ShipType.CARGO)).isFalse();
+        assertThat(above.type()).isEqualTo(ZoneConstraintType.SPEED_LIMIT_ABOVE);
+    }
+
+    @Test
+    void forbiddenShipType_shouldMatchCaseInsensitively() {
+        CompiledConstraint forbidden = CompiledConstraint.compile(constraint(ZoneConstraintType.FORBIDDEN_SHIP_TYPE, "Cargo"));
+
+        assertThat(forbidden.isViolatedBy(position(5.0, null), ShipType.CARGO)).isTrue();
+        assertThat(forbidden.isViolatedBy(position(5.0, null), ShipType.TANKER)).isFalse();
+        assertThat(forbidden.isViolatedBy(position(5.0, null), null)).isFalse();
+        assertThat(forbidden.violationMessage(position(5.0, null), "Harbour"))
+                .isEqualTo("Forbidden ship type ('cargo') detected in zone 'Harbour'. Ship: 123456789");
+    }
+
+    @Test
+    void unwantedNavigationalStatus_shouldMatchStatusCode() {
+        CompiledConstraint status = CompiledConstraint.compile(constraint(ZoneConstraintType.UNWANTED_NAV_STATUS, "1"));
+
+        assertThat(status.isViolatedBy(position(0.0, 1), ShipType.CARGO)).isTrue();
+        assertThat(status.isViolatedBy(position(0.0, 5), ShipType.CARGO)).isFalse();
+        assertThat(status.isViolatedBy(position(0.0, null), ShipType.CARGO)).isFalse();
+        assertThat(status.violationMessage(position(0.0, 1), "Harbour"))
+                .isEqualTo("Ship 123456789 with unwanted status code (1) detected in zone 'Harbour'.");
+    }
+
+    @Test
+    void validate_shouldRejectInvalidValues() {
+        assertThatThrownBy(() -> CompiledConstraint.validate(constraint(ZoneConstraintType.SPEED_LIMIT_ABOVE, "fast")))
+                .isInstanceOf(InvalidZoneConstraintException.class)
+                .hasMessageContaining("SPEED_LIMIT_ABOVE");
+        assertThatThrownBy(() -> CompiledConstraint.validate(constraint(ZoneConstraintType.SPEED_LIMIT_BELOW, "-1")))
+                .isInstanceOf(InvalidZoneConstraintException.class);
+        assertThatThrownBy(() -> CompiledConstraint.validate(constraint(ZoneConstraintType.SPEED_LIMIT_BELOW, "NaN")))
+                .isInstanceOf(InvalidZoneConstraintException.class);
+        assertThatThrownBy(() -> CompiledConstraint.validate(constraint(ZoneConstraintType.FORBIDDEN_SHIP_TYPE, "submarine")))
+                .isInstanceOf(InvalidZoneConstraintException.class);
+        assertThatThrownBy(() -> CompiledConstraint.validate(constraint(ZoneConstraintType.UNWANTED_NAV_STATUS, "16")))
+                .isInstanceOf(InvalidZoneConstraintException.class);
+        assertThatThrownBy(() -> CompiledConstraint.validate(constraint(ZoneConstraintType.UNWANTED_NAV_STATUS, null)))
+                .isInstanceOf(InvalidZoneConstraintException.class);
+        assertThatThrownBy(() -> CompiledConstraint.validate(constraint(null, "10")))
+                .isInstanceOf(InvalidZoneConstraintException.class);
+    }
+
+    @Test
+    void validate_shouldAcceptEntryAndExitWithoutValue() {
+        CompiledConstraint.validate(constraint(ZoneConstraintType.ZONE_ENTRY, null));
+        CompiledConstraint.validate(constraint(ZoneConstraintType.ZONE_EXIT, ""));
+    }
+
+    @Test
+    void compiledZone_shouldSplitEventsFromStatefulConstraintsAndSkipInvalidOnes() {
+        ZoneOfInterest zone = new ZoneOfInterest();
+        zone.setId(1L);
+        zone.setName("Harbour");
+        zone.setCenterLatitude(35.0);
+        zone.setCenterLongitude(25.0);
+        zone.setRadiusInMeters(1000.0);
+        ZoneConstraint entry = constraint(ZoneConstraintType.ZONE_ENTRY, null);
+        zone.setConstraints(List.of(
+                entry,
+                constraint(ZoneConstraintType.SPEED_LIMIT_ABOVE, "12"),
+                constraint(ZoneConstraintType.UNWANTED_NAV_STATUS, "anchored"))); // Παλαιά, άκυρη τιμή.
+
+        CompiledZone compiled = CompiledZone.compile(zone);
+
+        assertThat(compiled.getEntryConstraint()).isSameAs(entry);
+        assertThat(compiled.getExitConstraint()).isNull();
+        assertThat(compiled.getStatefulConstraints()).hasSize(1);
+        assertThat(compiled.getStatefulConstraints()[0]).isInstanceOf(CompiledConstraint.SpeedAbove.class);
+        assertThat(compiled.getGeofence().contains(35.0, 25.0)).isTrue();
+    }
+}
@@ -0,0 +1,91 @@
+package com.MarineTrafficClone.SeaWatch.zone;
+
+import com.MarineTrafficClone.SeaWatch.enumeration.ZoneKind;
+import com.MarineTrafficClone.SeaWatch.model.CollisionZone;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Ελέγχει ότι κάθε αλλαγή ενός ZoneSnapshot δίνει νέο στιγμιότυπο με νέα έκδοση,
+ * χωρίς να αλλάζει το στιγμιότυπο από το οποίο προήλθε.
+ */
+class ZoneSnapshotTest {
+
+    private static CollisionZone zone(long id, String name) {
+        return CollisionZone.builder().id(id).name(name).build();
+    }
+
+    @Test
+    void with_shouldReplaceAnExistingZoneInPlace() {
+        // Arrange
+        ZoneSnapshot<CollisionZone> initial = ZoneSnapshot.of(CollisionZone::getId, List.of(zone(1, "Piraeus"), zone(2, "Rafina")));
+        CollisionZone renamed = zone(1, "Piraeus port");
+
+        // Act
+        ZoneSnapshot<CollisionZone> updated = initial.with(renamed, null);
+
+        // Assert: η νέα έκδοση είναι στην ίδια θέση και η παλιά εικόνα δεν άλλαξε.
+        assertThat(updated.getVersion()).isEqualTo(initial.getVersion() + 1);
+        assertThat(updated.getZones()).extracting(CollisionZone::getName).containsExactly("Piraeus port", "Rafina");
+        assertThat(updated.get(1L)).isSameAs(renamed);
+        assertThat(initial.getZones()).extracting(CollisionZone::getName).containsExactly("Piraeus", "Rafina");
+        assertThat(initial.get(1L).getName()).isEqualTo("Piraeus");
+    }
+
+    @Test
+    void with_shouldAppendANewZone() {
+        ZoneSnapshot<CollisionZone> updated = ZoneSnapshot.<CollisionZone>empty(CollisionZone::getId).with(zone(3, "Lavrio"), null);
+
+        assertThat(updated.getVersion()).isEqualTo(1);
+        assertThat(updated.size()).isEqualTo(1);
+        assertThat(updated.get(3L).getName()).isEqualTo("Lavrio");
+    }
+
+    @Test
+    void without_shouldRemoveTheZoneOrKeepTheSnapshotIfItIsUnknown() {
+        ZoneSnapshot<CollisionZone> initial = ZoneSnapshot.of(CollisionZone::getId, List.of(zone(1, "Piraeus"), zone(2, "Rafina")));
+
+        ZoneSnapshot<CollisionZone> removed = initial.without(1L);
+
+        assertThat(removed.getVersion()).isEqualTo(initial.getVersion() + 1);
+        assertThat(removed.getZones()).extracting(CollisionZone::getId).containsExactly(2L);
+        assertThat(removed.get(1L)).isNull();
+        assertThat(initial.size()).isEqualTo(2);
+        assertThat(removed.without(1L)).isSameAs(removed);
+    }
+
+    @Test
+    void with_shouldReplaceTheOccupancyTogetherWithTheZone() {
+        // Arrange
+        ZoneOccupancy oldOccupancy = occupancy(1, "Piraeus");
+        ZoneSnapshot<CollisionZone> initial = ZoneSnapshot.<CollisionZone>empty(CollisionZone::getId)
+                .with(zone(1, "Piraeus"), oldOccupancy);
+        ZoneOccupancy newOccupancy = occupancy(1, "Piraeus port");
+
+        // Act
+        ZoneSnapshot<CollisionZone> updated = initial.with(zone(1, "Piraeus port"), newOccupancy);
+
+        // Assert: κάθε στιγμιότυπο δίνει τα μέλη που υπολογίστηκαν για τη δική του έκδοση της ζώνης.
+        assertThat(updated.getOccupancy(1L)).isSameAs(newOccupancy);
+        assertThat(updated.getOccupancies()).containsExactly(newOccupancy);
+        assertThat(initial.getOccupancy(1L)).isSameAs(oldOccupancy);
+        assertThat(updated.without(1L).getOccupancy(1L)).isNull();
+        assertThat(updated.with(zone(1, "Piraeus"), null).getOccupancy(1L)).isNull();
+    }
+
+    private static ZoneOccupancy occupancy(long zoneId, String zoneName) {
+        return new ZoneOccupancy(zoneId, zoneName, ZoneKind.COLLISION, null, null);
+    }
+
+    @Test
+    void zones_shouldNotBeModifiable() {
+        ZoneSnapshot<CollisionZone> snapshot = ZoneSnapshot.of(CollisionZone::getId, List.of(zone(1, "Piraeus")));
+
+        assertThatThrownBy(() -> snapshot.getZones().add(zone(2, "Rafina")))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -39,7 +39,13 @@ export const WebSocketProvider: React.FC<{ children: ReactNode }> = ({ children
 
     if (!clientRef.current) {
       clientRef.current = new Client({
-        webSocketFactory: () => new SockJS('/ws-ais'),
+        // Native WebSocket (με permessage-deflate) όπου υποστηρίζεται, αλλιώς SockJS.
+        webSocketFactory: () =>
+          typeof WebSocket !== 'undefined'
+            ? new WebSocket(
+                `${window.location.protocol === 'https:' ? 'wss' : 'ws'}://${window.location.host}/ws-ais-native`
+              )
+            : new SockJS('/ws-ais'),
         reconnectDelay: 5000,
         heartbeatOutgoing: 10000,
         heartbeatIncoming: 0,
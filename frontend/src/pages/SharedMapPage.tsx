@@ -47,8 +47,8 @@ const SharedMapPage: React.FC = () => {
 
   const mapInstanceRef = useRef<L.Map | null>(null);
   const mapComponentRef = useRef<MapComponentRef | null>(null);
-  const interestZoneLayerRef = useRef<L.Circle | null>(null);
-  const collisionZoneLayerRef = useRef<L.Circle | null>(null);
+  const interestZoneLayerRef = useRef<L.Path | null>(null);
+  const collisionZoneLayerRef = useRef<L.Path | null>(null);
   const mapClickHandlerRef = useRef<L.LeafletMouseEventHandlerFn | null>(null);
   const currentTrackMmsiRef = useRef<string | null>(null);
 
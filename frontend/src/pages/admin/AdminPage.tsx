@@ -26,6 +26,7 @@ import {
   TableRow,
 } from '@/components/ui/table';
 import { useAuth } from '@/contexts/AuthContext';
+import { useWebSocket } from '@/contexts/WebSocketContext';
 import { getSimulationSpeed, updateSimulationSpeed } from '@/services/adminService';
 import { CheckCircle2, Edit, Info, RefreshCw, Trash2, XCircle } from 'lucide-react';
 import { FastForward, PauseCircle } from 'lucide-react';
@@ -47,8 +48,26 @@ interface SystemStats {
   collisionZones: number;
 }
 
+interface StatisticsSnapshot {
+  generatedAt: number;
+  activeShips: number;
+  stoppedShips: number;
+  interestZones: number;
+  collisionZones: number;
+  shipsByType: Record<string, number>;
+  speedHistogram: { minKnots: number | null; maxKnots: number | null; count: number }[];
+}
+
+const toSystemStats = (snapshot: StatisticsSnapshot): SystemStats => ({
+  activeVessels: snapshot.activeShips,
+  stoppedVessels: snapshot.stoppedShips,
+  interestZones: snapshot.interestZones,
+  collisionZones: snapshot.collisionZones,
+});
+
 const AdminPage = () => {
   const { currentUser } = useAuth();
+  const { client, isConnected } = useWebSocket();
   const [users, setUsers] = useState<User[]>([]);
   const [usersLoading, setUsersLoading] = useState(true);
   const [usersError, setUsersError] = useState<string | null>(null);
@@ -129,39 +148,14 @@ const AdminPage = () => {
         return;
       }
 
-      const headers = { Authorization: `Bearer ${token}` };
-      const endpoints: (keyof SystemStats)[] = [
-        'activeVessels',
-        'stoppedVessels',
-        'interestZones',
-        'collisionZones',
-      ];
-
-      const requests = endpoints.map(async (stat) => {
-        const endpointMap = {
-          activeVessels: '/api/statistics/active-ships',
-          stoppedVessels: '/api/statistics/stopped-ships',
-          interestZones: '/api/statistics/interest-zones',
-          collisionZones: '/api/statistics/collision-zones',
-        };
-
-        const response = await fetch(endpointMap[stat], { headers });
-
-        if (!response.ok) {
-          throw new Error(`Failed to fetch ${stat}`);
-        }
-
-        return await response.json();
-      });
-
-      const results = await Promise.all(requests);
-
-      setStats({
-        activeVessels: results[0].count,
-        stoppedVessels: results[1].count,
-        interestZones: results[2].count,
-        collisionZones: results[3].count,
+      const response = await fetch('/api/statistics', {
+        headers: { Authorization: `Bearer ${token}` },
       });
+      if (!response.ok) {
+        throw new Error('Failed to fetch statistics');
+      }
+      const snapshot: StatisticsSnapshot = await response.json();
+      setStats(toSystemStats(snapshot));
     } catch (err) {
       setStatsError(
         err instanceof Error ? err.message : 'An unknown error occurred while fetching stats.'
@@ -177,6 +171,24 @@ const AdminPage = () => {
     void fetchInitialSpeed();
   }, [fetchUsers, fetchStats, fetchInitialSpeed]);
 
+  // After the initial fetch, the server pushes a fresh snapshot periodically.
+  useEffect(() => {
+    if (!client || !isConnected) return;
+
+    const subscription = client.subscribe('/topic/statistics', (message) => {
+      try {
+        const snapshot: StatisticsSnapshot = JSON.parse(message.body);
+        setStats(toSystemStats(snapshot));
+      } catch (error) {
+        console.error('Failed to parse statistics snapshot:', error);
+      }
+    });
+
+    return () => {
+      subscription.unsubscribe();
+    };
+  }, [client, isConnected]);
+
   const handleDeleteUser = async (userId: number) => {
     if (currentUser?.id === userId) {
       toast.error('Action Forbidden', { description: 'You cannot delete your own account.' });
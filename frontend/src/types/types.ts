@@ -46,12 +46,21 @@ export interface ZoneConstraintDTO {
   constraintValue: string;
 }
 
+export type ZoneShape = 'CIRCLE' | 'POLYGON';
+
+export interface GeoPointDTO {
+  latitude: number;
+  longitude: number;
+}
+
 export interface ZoneOfInterestDTO {
   id?: number;
   name: string;
   centerLatitude: number;
   centerLongitude: number;
   radiusInMeters: number;
+  shape?: ZoneShape; // Λείπει ή είναι 'CIRCLE' για κυκλικές ζώνες
+  vertices?: GeoPointDTO[]; // Οι κορυφές μιας πολυγωνικής ζώνης
   constraints: ZoneConstraintDTO[];
 }
 
@@ -61,6 +70,8 @@ export interface CollisionZoneDTO {
   centerLatitude: number;
   centerLongitude: number;
   radiusInMeters: number;
+  shape?: ZoneShape;
+  vertices?: GeoPointDTO[];
 }
 
 export type ZoneDataWithType = (ZoneOfInterestDTO | CollisionZoneDTO) & {
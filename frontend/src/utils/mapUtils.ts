@@ -57,24 +57,28 @@ export const ALL_NAV_STATUSES_FOR_MAP: { code: string; description: string }[] =
  * @param map - Το instance του Leaflet map.
  * @param zone - Τα δεδομένα της ζώνης (πρέπει να είναι τύπου ZoneDataWithType).
  * @param onClick - Callback που εκτελείται όταν ο χρήστης κάνει κλικ στη ζώνη.
- * @returns Το αντικείμενο L.Circle που σχεδιάστηκε.
+ * @returns Το αντικείμενο (L.Circle ή L.Polygon, ανάλογα με το σχήμα της ζώνης) που σχεδιάστηκε.
  */
 export const drawZone = (
   map: L.Map,
   zone: ZoneDataWithType,
   onClick: (zone: ZoneDataWithType) => void
-): L.Circle => {
+): L.Path => {
   const isInterest = zone.type === 'interest';
   const color = isInterest ? '#3b82f6' : '#dc2626'; // Μπλε για interest, Κόκκινο για collision
   const fillColor = isInterest ? '#60a5fa' : '#f87171';
 
-  const circle = L.circle([zone.centerLatitude, zone.centerLongitude], {
-    radius: zone.radiusInMeters,
-    color,
-    fillColor,
-    fillOpacity: 0.2,
-    weight: 2,
-  }).addTo(map);
+  const style = { color, fillColor, fillOpacity: 0.2, weight: 2 };
+  const circle: L.Path =
+    zone.shape === 'POLYGON' && zone.vertices && zone.vertices.length >= 3
+      ? L.polygon(
+          zone.vertices.map((v) => [v.latitude, v.longitude] as L.LatLngTuple),
+          style
+        ).addTo(map)
+      : L.circle([zone.centerLatitude, zone.centerLongitude], {
+          radius: zone.radiusInMeters,
+          ...style,
+        }).addTo(map);
 
   // --- Tooltip on Hover ---
   const constraintsCount = (zone as ZoneOfInterestDTO).constraints?.length || 0;